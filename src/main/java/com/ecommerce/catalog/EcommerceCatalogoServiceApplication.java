@@ -1,12 +1,17 @@
 package com.ecommerce.catalog;
 
+import com.ecommerce.catalog.config.CatalogRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication(exclude = {
         org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration.class,
         org.springframework.boot.autoconfigure.security.servlet.UserDetailsServiceAutoConfiguration.class
 })
+@EnableScheduling
+@ImportRuntimeHints(CatalogRuntimeHints.class)
 public class EcommerceCatalogoServiceApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,23 @@
+package com.ecommerce.catalog.cache;
+
+/**
+ * Transporte de las invalidaciones entre nodos. La entrega puede ser
+ * desordenada o duplicada (las versiones lo resuelven); si un transporte
+ * pierde avisos (p. ej. al reconectar) debe llamar a missedInvalidations.
+ */
+public interface CacheInvalidationBus {
+
+    void publish(ProductInvalidation invalidation);
+
+    void subscribe(Subscriber subscriber);
+
+    interface Subscriber {
+
+        void invalidated(ProductInvalidation invalidation);
+
+        /**
+         * Se han podido perder avisos: lo cacheado localmente ya no es fiable.
+         */
+        void missedInvalidations();
+    }
+}
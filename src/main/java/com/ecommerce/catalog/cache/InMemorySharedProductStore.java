@@ -0,0 +1,39 @@
+package com.ecommerce.catalog.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Nivel 2 dentro del propio proceso: sustituto de un almacén compartido real
+ * para desarrollo, una sola instancia y pruebas (varios nodos simulados en la
+ * misma JVM comparten esta instancia).
+ */
+@Component
+@ConditionalOnProperty(name = "catalog.cache.l2.store", havingValue = "memory", matchIfMissing = true)
+public class InMemorySharedProductStore implements SharedProductStore {
+
+    private final Cache<Long, VersionedProduct> entries;
+
+    public InMemorySharedProductStore(@Value("${catalog.cache.l2.max-size:100000}") long maxSize,
+            @Value("${catalog.cache.l2.ttl-ms:3600000}") long ttlMs) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .build();
+    }
+
+    @Override
+    public VersionedProduct get(Long id) {
+        return entries.getIfPresent(id);
+    }
+
+    @Override
+    public void offer(Long id, VersionedProduct entry) {
+        entries.asMap().compute(id, (key, current) -> entry.supersedes(current) ? entry : current);
+    }
+}
@@ -0,0 +1,32 @@
+package com.ecommerce.catalog.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Transporte dentro de la JVM (por defecto): entrega cada aviso en el acto a
+ * todos los suscritos. Basta con una sola instancia y permite probar varios
+ * nodos en el mismo proceso.
+ */
+@Component
+@ConditionalOnProperty(name = "catalog.cache.invalidation.transport", havingValue = "loopback",
+        matchIfMissing = true)
+public class LoopbackInvalidationBus implements CacheInvalidationBus {
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(ProductInvalidation invalidation) {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.invalidated(invalidation);
+        }
+    }
+
+    @Override
+    public void subscribe(Subscriber subscriber) {
+        subscribers.add(subscriber);
+    }
+}
@@ -0,0 +1,21 @@
+package com.ecommerce.catalog.cache;
+
+import com.ecommerce.catalog.dto.ProductResponseDTO;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Function;
+
+/**
+ * Caché desactivada (por defecto): cada lectura va a la base de datos.
+ */
+@Component
+@ConditionalOnProperty(name = "catalog.cache.enabled", havingValue = "false", matchIfMissing = true)
+public class NoOpProductCache implements ProductCache {
+
+    @Override
+    public ProductResponseDTO get(Long id, Function<Long, VersionedProduct> loader) {
+        VersionedProduct loaded = loader.apply(id);
+        return loaded == null ? null : loaded.product();
+    }
+}
@@ -0,0 +1,138 @@
+package com.ecommerce.catalog.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Transporte entre nodos con LISTEN/NOTIFY de PostgreSQL: no necesita más
+ * infraestructura que la base de datos que ya comparten las instancias.
+ *
+ * - publish hace pg_notify fuera de la transacción de la escritura (se llama
+ *   después del commit), así que el aviso sale en el acto.
+ * - Un hilo por nodo mantiene una conexión del pool dedicada al LISTEN.
+ *   NOTIFY no guarda avisos para quien no está escuchando: tras cada
+ *   (re)conexión se llama a missedInvalidations.
+ * - Un fallo al publicar se registra y no se propaga (la escritura ya está
+ *   confirmada); los demás nodos lo corrigen con el TTL de su L1.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "catalog.cache.invalidation.transport", havingValue = "postgres")
+public class PostgresInvalidationBus implements CacheInvalidationBus, DisposableBean {
+
+    static final String CHANNEL = "catalog_cache_invalidation";
+
+    private static final int POLL_TIMEOUT_MS = 1000;
+    private static final long RECONNECT_DELAY_MS = 2000;
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    private volatile boolean running;
+    private Thread listener;
+
+    public PostgresInvalidationBus(DataSource dataSource) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public void publish(ProductInvalidation invalidation) {
+        String payload = invalidation.productId() + ":" + invalidation.version() + ":" + invalidation.originNode();
+        try {
+            jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, CHANNEL, payload);
+        } catch (RuntimeException e) {
+            log.error("Could not publish cache invalidation {}: {}", payload, e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized void subscribe(Subscriber subscriber) {
+        subscribers.add(subscriber);
+        // El hilo de escucha arranca con el primer suscrito (sin caché no hace falta)
+        if (listener == null) {
+            running = true;
+            listener = Thread.ofPlatform().name("cache-invalidation-listener").daemon().start(this::listen);
+        }
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                log.info("Listening for cache invalidations on channel {}", CHANNEL);
+                subscribers.forEach(Subscriber::missedInvalidations);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            dispatch(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("Cache invalidation listener lost its connection: {}", e.getMessage());
+                    sleepBeforeReconnect();
+                }
+            }
+        }
+    }
+
+    private void dispatch(String payload) {
+        ProductInvalidation invalidation = parse(payload);
+        if (invalidation == null) {
+            log.warn("Ignoring malformed cache invalidation: {}", payload);
+            return;
+        }
+        for (Subscriber subscriber : subscribers) {
+            subscriber.invalidated(invalidation);
+        }
+    }
+
+    static ProductInvalidation parse(String payload) {
+        String[] parts = payload.split(":", 3);
+        if (parts.length != 3) {
+            return null;
+        }
+        try {
+            return new ProductInvalidation(Long.valueOf(parts[0]), Long.parseLong(parts[1]), parts[2]);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private void sleepBeforeReconnect() {
+        try {
+            Thread.sleep(RECONNECT_DELAY_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    @Override
+    public synchronized void destroy() throws InterruptedException {
+        running = false;
+        if (listener != null) {
+            listener.join(POLL_TIMEOUT_MS * 2L);
+        }
+    }
+}
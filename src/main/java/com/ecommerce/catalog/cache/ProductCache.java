@@ -0,0 +1,18 @@
+package com.ecommerce.catalog.cache;
+
+import com.ecommerce.catalog.dto.ProductResponseDTO;
+
+import java.util.function.Function;
+
+/**
+ * Caché de lecturas de producto por id usada por ProductServiceImpl.
+ * Se mantiene sola escuchando los ProductChangedEvent confirmados.
+ */
+public interface ProductCache {
+
+    /**
+     * Devuelve el producto cacheado o lo lee con loader (que devuelve null si
+     * el producto no existe; los ausentes no se cachean).
+     */
+    ProductResponseDTO get(Long id, Function<Long, VersionedProduct> loader);
+}
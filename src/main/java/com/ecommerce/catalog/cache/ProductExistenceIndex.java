@@ -0,0 +1,175 @@
+package com.ecommerce.catalog.cache;
+
+import com.ecommerce.catalog.event.ProductChangedEvent;
+import com.ecommerce.catalog.event.ProductChangedEvent.ChangeType;
+import com.ecommerce.catalog.repository.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Índice de existencia de productos por id: un bitset en memoria que permite
+ * responder 404 sin consultar la base de datos cuando el id no existe.
+ *
+ * - Se carga entero al arrancar y cada refresh-ms, y se mantiene con cada
+ *   alta y baja confirmada en este nodo.
+ * - Solo responde "no existe" para ids hasta una marca de agua: el mayor id
+ *   visto en la carga anterior. Los ids por encima (altas recientes, también
+ *   las hechas en otras instancias) van siempre a la base de datos. Así un
+ *   id asignado pero aún sin confirmar durante una carga tiene todo un
+ *   intervalo para confirmarse antes de poder darse por inexistente.
+ * - Un error solo puede ser en el sentido seguro: un id borrado que sigue
+ *   marcado se consulta y da 404 como siempre.
+ */
+@Slf4j
+@Component
+public class ProductExistenceIndex {
+
+    private final ProductRepository productRepository;
+    private final boolean enabled;
+    private final int loadBatchSize;
+    private final Counter rejected;
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    private volatile IdBitSet ids = new IdBitSet();
+    // Ids que llegan mientras se recarga (se aplican también al bitset nuevo)
+    private volatile IdBitSet loading;
+    private volatile long watermark = 0;
+    private long lastLoadedMaxId = 0;
+
+    public ProductExistenceIndex(ProductRepository productRepository, MeterRegistry meterRegistry,
+            @Value("${catalog.existence-index.enabled:true}") boolean enabled,
+            @Value("${catalog.existence-index.load-batch-size:50000}") int loadBatchSize) {
+        this.productRepository = productRepository;
+        this.enabled = enabled;
+        this.loadBatchSize = loadBatchSize;
+        this.rejected = Counter.builder("catalog.existence-index.rejected").register(meterRegistry);
+    }
+
+    /**
+     * false solo si es seguro que el producto no existe.
+     */
+    public boolean mightExist(Long id) {
+        if (!enabled || id == null || id > watermark || ids.contains(id)) {
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.existence-index.refresh-ms:60000}",
+            initialDelayString = "${catalog.existence-index.refresh-ms:60000}")
+    public void scheduledReload() {
+        reload();
+    }
+
+    /**
+     * Recarga los ids desde la base de datos y sube la marca de agua hasta el
+     * mayor id de la carga anterior.
+     */
+    public void reload() {
+        if (!enabled || !reloadLock.tryLock()) {
+            return;
+        }
+        try {
+            IdBitSet rebuilt = new IdBitSet();
+            loading = rebuilt;
+            long after = 0;
+            int total = 0;
+            List<Long> batch;
+            do {
+                batch = productRepository.findIdsAfter(after, PageRequest.ofSize(loadBatchSize));
+                for (Long id : batch) {
+                    rebuilt.add(id);
+                }
+                if (!batch.isEmpty()) {
+                    after = batch.get(batch.size() - 1);
+                    total += batch.size();
+                }
+            } while (batch.size() == loadBatchSize);
+            ids = rebuilt;
+            loading = null;
+            watermark = lastLoadedMaxId;
+            lastLoadedMaxId = Math.max(lastLoadedMaxId, after);
+            log.debug("Product existence index loaded: {} ids, watermark {}", total, watermark);
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.getType() == ChangeType.UPDATED) {
+            return;
+        }
+        boolean exists = event.getType() == ChangeType.CREATED;
+        apply(ids, event.getProductId(), exists);
+        IdBitSet rebuilding = loading;
+        if (rebuilding != null) {
+            apply(rebuilding, event.getProductId(), exists);
+        }
+    }
+
+    private static void apply(IdBitSet target, Long id, boolean exists) {
+        if (exists) {
+            target.add(id);
+        } else {
+            target.remove(id);
+        }
+    }
+
+    /**
+     * Bitset concurrente sin locks por bloques de 65.536 ids (8 KB cada uno),
+     * creados solo donde hay ids.
+     */
+    static final class IdBitSet {
+
+        private static final int CHUNK_BITS = 16;
+        private static final int WORDS_PER_CHUNK = (1 << CHUNK_BITS) / Long.SIZE;
+
+        private final ConcurrentHashMap<Long, AtomicLongArray> chunks = new ConcurrentHashMap<>();
+
+        boolean contains(long id) {
+            AtomicLongArray chunk = chunks.get(id >>> CHUNK_BITS);
+            return chunk != null && (chunk.get(word(id)) & mask(id)) != 0;
+        }
+
+        void add(long id) {
+            AtomicLongArray chunk = chunks.computeIfAbsent(id >>> CHUNK_BITS,
+                    k -> new AtomicLongArray(WORDS_PER_CHUNK));
+            chunk.getAndAccumulate(word(id), mask(id), (current, bit) -> current | bit);
+        }
+
+        void remove(long id) {
+            AtomicLongArray chunk = chunks.get(id >>> CHUNK_BITS);
+            if (chunk != null) {
+                chunk.getAndAccumulate(word(id), ~mask(id), (current, bits) -> current & bits);
+            }
+        }
+
+        private static int word(long id) {
+            return (int) (id & ((1 << CHUNK_BITS) - 1)) >>> 6;
+        }
+
+        private static long mask(long id) {
+            return 1L << id;
+        }
+    }
+}
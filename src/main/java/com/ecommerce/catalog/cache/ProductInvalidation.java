@@ -0,0 +1,9 @@
+package com.ecommerce.catalog.cache;
+
+/**
+ * Aviso entre nodos: el producto productId tiene ya la versión version.
+ * originNode identifica al nodo que hizo la escritura (que no necesita
+ * procesar su propio aviso).
+ */
+public record ProductInvalidation(Long productId, long version, String originNode) {
+}
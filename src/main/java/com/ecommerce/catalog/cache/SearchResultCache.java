@@ -0,0 +1,175 @@
+package com.ecommerce.catalog.cache;
+
+import com.ecommerce.catalog.dto.ProductResponseDTO;
+import com.ecommerce.catalog.entity.Product;
+import com.ecommerce.catalog.event.ProductChangedEvent;
+import com.ecommerce.catalog.mapper.ProductMapper;
+import com.ecommerce.catalog.repository.ProductRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Caché de resultados de búsqueda por palabra clave y de listados por
+ * categoría.
+ *
+ * - Cada entrada guarda solo los ids de la página y el total; al servirla los
+ *   productos se leen por clave primaria en una sola consulta (sin LIKE ni
+ *   COUNT) y siempre con su estado actual.
+ * - Se invalida por versiones: las búsquedas dependen de un contador global y
+ *   los listados de un contador por categoría. Cada escritura confirmada
+ *   incrementa el global y los de las categorías afectadas; no hay que
+ *   recorrer ni borrar entradas. La versión se toma antes de consultar, así
+ *   que un resultado calculado mientras se confirmaba una escritura nace ya
+ *   caducado.
+ * - Los contadores son locales al nodo: con varias instancias, una escritura
+ *   hecha en otra se ve como mucho ttl-ms después.
+ */
+@Component
+public class SearchResultCache {
+
+    private record Key(String keyword, Long categoryId, Pageable pageable) {
+    }
+
+    private record Entry(List<Long> ids, long total, long version) {
+    }
+
+    private final boolean enabled;
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final Cache<Key, Entry> entries;
+
+    private final AtomicLong catalogVersion = new AtomicLong();
+    private final Map<Long, Long> categoryVersions = new ConcurrentHashMap<>();
+
+    private final Counter searchHits;
+    private final Counter searchMisses;
+    private final Counter categoryHits;
+    private final Counter categoryMisses;
+
+    public SearchResultCache(ProductRepository productRepository, ProductMapper productMapper,
+            MeterRegistry meterRegistry,
+            @Value("${catalog.cache.results.enabled:false}") boolean enabled,
+            @Value("${catalog.cache.results.max-size:10000}") long maxSize,
+            @Value("${catalog.cache.results.ttl-ms:60000}") long ttlMs) {
+        this.enabled = enabled;
+        this.productRepository = productRepository;
+        this.productMapper = productMapper;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .build();
+        this.searchHits = requests(meterRegistry, "search", "hit");
+        this.searchMisses = requests(meterRegistry, "search", "miss");
+        this.categoryHits = requests(meterRegistry, "category", "hit");
+        this.categoryMisses = requests(meterRegistry, "category", "miss");
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String query, String result) {
+        return Counter.builder("catalog.cache.results.requests")
+                .tag("query", query)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Forma canónica de una palabra clave: sin espacios en los extremos y en
+     * minúsculas (la búsqueda ya ignora mayúsculas).
+     */
+    public static String normalize(String keyword) {
+        return keyword.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public Page<ProductResponseDTO> search(String keyword, Pageable pageable,
+            Supplier<Page<ProductResponseDTO>> query) {
+        if (!enabled) {
+            return query.get();
+        }
+        Key key = new Key(normalize(keyword), null, pageable);
+        return lookup(key, catalogVersion.get(), query, searchHits, searchMisses);
+    }
+
+    public Page<ProductResponseDTO> byCategory(Long categoryId, Pageable pageable,
+            Supplier<Page<ProductResponseDTO>> query) {
+        if (!enabled) {
+            return query.get();
+        }
+        Key key = new Key(null, categoryId, pageable);
+        return lookup(key, categoryVersion(categoryId), query, categoryHits, categoryMisses);
+    }
+
+    private Page<ProductResponseDTO> lookup(Key key, long version, Supplier<Page<ProductResponseDTO>> query,
+            Counter hits, Counter misses) {
+        Entry entry = entries.getIfPresent(key);
+        if (entry != null && entry.version() == version) {
+            List<ProductResponseDTO> products = hydrate(entry.ids());
+            // Si falta alguno (borrado cuyo evento aún no se ha aplicado) se consulta de nuevo
+            if (products != null) {
+                hits.increment();
+                return new PageImpl<>(products, key.pageable(), entry.total());
+            }
+        }
+        misses.increment();
+        Page<ProductResponseDTO> result = query.get();
+        entries.put(key, new Entry(result.map(ProductResponseDTO::getId).getContent(),
+                result.getTotalElements(), version));
+        return result;
+    }
+
+    private List<ProductResponseDTO> hydrate(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Product> byId = new HashMap<>();
+        for (Product product : productRepository.findAllById(ids)) {
+            byId.put(product.getId(), product);
+        }
+        List<ProductResponseDTO> products = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Product product = byId.get(id);
+            if (product == null) {
+                return null;
+            }
+            products.add(productMapper.toResponseDTO(product));
+        }
+        return products;
+    }
+
+    private long categoryVersion(Long categoryId) {
+        return categoryVersions.getOrDefault(categoryId, 0L);
+    }
+
+    /**
+     * Caduca las búsquedas y los listados de las categorías donde estaba y
+     * donde está ahora el producto.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        catalogVersion.incrementAndGet();
+        bumpCategory(event.getProduct() == null ? null : event.getProduct().getCategoryId());
+        bumpCategory(event.getPreviousCategoryId());
+    }
+
+    private void bumpCategory(Long categoryId) {
+        if (categoryId != null) {
+            categoryVersions.merge(categoryId, 1L, Long::sum);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.ecommerce.catalog.cache;
+
+/**
+ * Nivel 2 de la caché: almacén compartido por todos los nodos (Redis,
+ * Memcached...). Debe aplicar la misma regla de versiones que el nivel 1
+ * (VersionedProduct.supersedes) de forma atómica en el servidor, p. ej. con
+ * un script que compare la versión guardada antes de escribir.
+ */
+public interface SharedProductStore {
+
+    VersionedProduct get(Long id);
+
+    /**
+     * Guarda entry salvo que ya haya una versión igual o más reciente.
+     */
+    void offer(Long id, VersionedProduct entry);
+}
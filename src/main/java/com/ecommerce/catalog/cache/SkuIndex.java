@@ -0,0 +1,291 @@
+package com.ecommerce.catalog.cache;
+
+import com.ecommerce.catalog.dto.ProductSku;
+import com.ecommerce.catalog.event.ProductChangedEvent;
+import com.ecommerce.catalog.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Índice en memoria SKU -> id de producto: tabla hash de direccionamiento
+ * abierto (sondeo lineal, borrado por desplazamiento hacia atrás, sin
+ * lápidas) con claves e ids en dos arrays paralelos.
+ *
+ * - Las lecturas no bloquean: lectura optimista de StampedLock, que solo se
+ *   repite con el lock de lectura si coincidió con una escritura.
+ * - Se carga al arrancar y cada refresh-ms, y sigue las escrituras
+ *   confirmadas en este nodo. Puede quedarse atrás (cambios de SKU, otras
+ *   instancias): quien lo usa comprueba el SKU del producto encontrado y
+ *   consulta la base de datos si no está, así que solo acelera, nunca decide.
+ */
+@Slf4j
+@Component
+public class SkuIndex {
+
+    public static final long NOT_FOUND = -1;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final ProductRepository productRepository;
+    private final int loadBatchSize;
+    private final StampedLock lock = new StampedLock();
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    // Solo se reemplaza o modifica con el lock de escritura
+    private volatile Table table = new Table(INITIAL_CAPACITY);
+    // Tabla en construcción durante reload(): las escrituras se aplican también
+    // a ella (con loadingLock, dentro del lock de escritura) para no perderlas
+    private final Object loadingLock = new Object();
+    private Table loading;
+
+    public SkuIndex(ProductRepository productRepository,
+            @Value("${catalog.sku-index.load-batch-size:50000}") int loadBatchSize) {
+        this.productRepository = productRepository;
+        this.loadBatchSize = loadBatchSize;
+    }
+
+    /**
+     * Id del producto con ese SKU según el índice, o NOT_FOUND.
+     */
+    public long find(String sku) {
+        long stamp = lock.tryOptimisticRead();
+        long id = table.find(sku);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                id = table.find(sku);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return id;
+    }
+
+    public void put(String sku, long id) {
+        long stamp = lock.writeLock();
+        try {
+            table = put(table, sku, id);
+            synchronized (loadingLock) {
+                if (loading != null) {
+                    loading = put(loading, sku, id);
+                }
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Quita el SKU si sigue apuntando a ese id.
+     */
+    public void remove(String sku, long id) {
+        long stamp = lock.writeLock();
+        try {
+            table.remove(sku, id);
+            synchronized (loadingLock) {
+                if (loading != null) {
+                    loading.remove(sku, id);
+                }
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size() {
+        return table.size;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.sku-index.refresh-ms:3600000}",
+            initialDelayString = "${catalog.sku-index.refresh-ms:3600000}")
+    public void scheduledReload() {
+        reload();
+    }
+
+    /**
+     * Reconstruye el índice desde la base de datos y lo publica. La lectura
+     * de la base de datos no bloquea las búsquedas; si ya hay una recarga en
+     * curso, no hace nada.
+     *
+     * Las escrituras que llegan mientras tanto se aplican a la tabla nueva, y
+     * lo leído de la base de datos no pisa un SKU ya escrito por ellas: un
+     * lote puede haberse leído antes de que se confirmaran. Lo único que
+     * puede quedar es un SKU borrado durante la recarga que un lote anterior
+     * vuelve a añadir, y eso quien usa el índice ya lo comprueba.
+     */
+    public void reload() {
+        if (!reloadLock.tryLock()) {
+            return;
+        }
+        try {
+            long stamp = lock.writeLock();
+            try {
+                synchronized (loadingLock) {
+                    loading = new Table(INITIAL_CAPACITY);
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+            long after = 0;
+            List<ProductSku> batch;
+            do {
+                batch = productRepository.findSkusAfter(after, PageRequest.ofSize(loadBatchSize));
+                synchronized (loadingLock) {
+                    for (ProductSku entry : batch) {
+                        if (loading.find(entry.sku()) == NOT_FOUND) {
+                            loading = put(loading, entry.sku(), entry.id());
+                        }
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    after = batch.get(batch.size() - 1).id();
+                }
+            } while (batch.size() == loadBatchSize);
+            stamp = lock.writeLock();
+            try {
+                synchronized (loadingLock) {
+                    table = loading;
+                    loading = null;
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+            log.debug("SKU index loaded: {} products", table.size);
+        } finally {
+            // Si la carga falló, la tabla a medias se descarta
+            synchronized (loadingLock) {
+                loading = null;
+            }
+            reloadLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        String sku = event.getProduct() == null ? null : event.getProduct().getSku();
+        if (sku == null) {
+            return;
+        }
+        switch (event.getType()) {
+            // Un SKU anterior cambiado queda apuntando a este id hasta que una búsqueda lo descarta
+            case CREATED, UPDATED -> put(sku, event.getProductId());
+            case DELETED -> remove(sku, event.getProductId());
+        }
+    }
+
+    // Inserta haciendo crecer la tabla si hace falta; devuelve la tabla en uso
+    private static Table put(Table target, String sku, long id) {
+        Table current = target.needsResize() ? target.resized() : target;
+        current.put(sku, id);
+        return current;
+    }
+
+    /**
+     * Tabla de direccionamiento abierto con factor de carga máximo 0,5.
+     */
+    static final class Table {
+
+        final String[] keys;
+        final long[] ids;
+        final int mask;
+        int size;
+
+        Table(int capacity) {
+            this.keys = new String[capacity];
+            this.ids = new long[capacity];
+            this.mask = capacity - 1;
+        }
+
+        long find(String sku) {
+            int i = home(sku);
+            // Acotado por si una lectura optimista ve la tabla a medio modificar
+            for (int probes = 0; probes <= mask; probes++) {
+                String key = keys[i];
+                if (key == null) {
+                    return NOT_FOUND;
+                }
+                if (key.equals(sku)) {
+                    return ids[i];
+                }
+                i = (i + 1) & mask;
+            }
+            return NOT_FOUND;
+        }
+
+        void put(String sku, long id) {
+            int i = home(sku);
+            while (keys[i] != null) {
+                if (keys[i].equals(sku)) {
+                    ids[i] = id;
+                    return;
+                }
+                i = (i + 1) & mask;
+            }
+            ids[i] = id;
+            keys[i] = sku;
+            size++;
+        }
+
+        void remove(String sku, long id) {
+            int i = home(sku);
+            while (keys[i] != null && !keys[i].equals(sku)) {
+                i = (i + 1) & mask;
+            }
+            if (keys[i] == null || ids[i] != id) {
+                return;
+            }
+            keys[i] = null;
+            size--;
+            // Desplaza hacia el hueco las claves cuya posición ideal no está entre el hueco y ellas
+            int j = i;
+            while (true) {
+                j = (j + 1) & mask;
+                if (keys[j] == null) {
+                    return;
+                }
+                int k = home(keys[j]);
+                boolean reachable = i <= j ? (i < k && k <= j) : (i < k || k <= j);
+                if (!reachable) {
+                    ids[i] = ids[j];
+                    keys[i] = keys[j];
+                    keys[j] = null;
+                    i = j;
+                }
+            }
+        }
+
+        boolean needsResize() {
+            return (size + 1) * 2 > keys.length;
+        }
+
+        Table resized() {
+            Table bigger = new Table(keys.length * 2);
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != null) {
+                    bigger.put(keys[i], ids[i]);
+                }
+            }
+            return bigger;
+        }
+
+        private int home(String sku) {
+            int h = sku.hashCode();
+            return (h ^ (h >>> 16)) & mask;
+        }
+    }
+}
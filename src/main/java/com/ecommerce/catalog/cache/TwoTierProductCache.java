@@ -0,0 +1,131 @@
+package com.ecommerce.catalog.cache;
+
+import com.ecommerce.catalog.dto.ProductResponseDTO;
+import com.ecommerce.catalog.event.ProductChangedEvent;
+import com.ecommerce.catalog.event.ProductChangedEvent.ChangeType;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Caché de productos por id en dos niveles para despliegues con varias
+ * instancias.
+ *
+ * - L1: caché local del nodo (Caffeine), acotada en tamaño y tiempo.
+ * - L2: SharedProductStore, compartido por todos los nodos.
+ * - Tras cada escritura confirmada, el nodo que la hizo guarda la versión
+ *   nueva en L1 y L2 y avisa al resto por el CacheInvalidationBus; los demás
+ *   dejan en su L1 un marcador con esa versión, y su siguiente lectura la
+ *   toma de L2 (o de la base de datos).
+ * - Cada entrada lleva la versión de su fila y solo se reemplaza por una más
+ *   reciente (VersionedProduct.supersedes): avisos desordenados o duplicados
+ *   y lecturas lentas que terminan después de una escritura no pueden dejar
+ *   en la caché un estado anterior al último confirmado.
+ * - Un borrado deja un marcador con la versión siguiente a la de la fila
+ *   borrada, para que ninguna lectura previa al borrado vuelva a cachearla.
+ * - Si el transporte pierde avisos se vacía L1 entera; el TTL de L1 acota en
+ *   cualquier caso cuánto puede durar un dato obsoleto.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "catalog.cache.enabled", havingValue = "true")
+public class TwoTierProductCache implements ProductCache, CacheInvalidationBus.Subscriber {
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Cache<Long, VersionedProduct> local;
+    private final SharedProductStore shared;
+    private final CacheInvalidationBus bus;
+
+    private final Counter l1Hits;
+    private final Counter l2Hits;
+    private final Counter misses;
+
+    public TwoTierProductCache(SharedProductStore shared, CacheInvalidationBus bus, MeterRegistry meterRegistry,
+            @Value("${catalog.cache.l1.max-size:10000}") long maxSize,
+            @Value("${catalog.cache.l1.ttl-ms:60000}") long ttlMs) {
+        this.shared = shared;
+        this.bus = bus;
+        this.local = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .build();
+        this.l1Hits = requests(meterRegistry, "l1");
+        this.l2Hits = requests(meterRegistry, "l2");
+        this.misses = requests(meterRegistry, "miss");
+        Gauge.builder("catalog.cache.l1.size", local, Cache::estimatedSize).register(meterRegistry);
+        bus.subscribe(this);
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String tier) {
+        return Counter.builder("catalog.cache.requests").tag("tier", tier).register(meterRegistry);
+    }
+
+    @Override
+    public ProductResponseDTO get(Long id, Function<Long, VersionedProduct> loader) {
+        VersionedProduct cached = local.getIfPresent(id);
+        if (cached != null && !cached.isMarker()) {
+            l1Hits.increment();
+            return cached.product();
+        }
+        // Un marcador indica la versión mínima que se puede aceptar
+        long minVersion = cached == null ? Long.MIN_VALUE : cached.version();
+        VersionedProduct stored = shared.get(id);
+        if (stored != null && !stored.isMarker() && stored.version() >= minVersion) {
+            l2Hits.increment();
+            offerLocal(id, stored);
+            return stored.product();
+        }
+        misses.increment();
+        VersionedProduct loaded = loader.apply(id);
+        if (loaded == null) {
+            return null;
+        }
+        offerLocal(id, loaded);
+        if (loaded.version() >= minVersion) {
+            shared.offer(id, loaded);
+        }
+        return loaded.product();
+    }
+
+    /**
+     * Publica el estado confirmado de una escritura en L1, L2 y al resto de nodos.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        VersionedProduct entry = event.getType() == ChangeType.DELETED
+                ? VersionedProduct.marker(event.getVersion() + 1)
+                : new VersionedProduct(event.getProduct(), event.getVersion());
+        offerLocal(event.getProductId(), entry);
+        shared.offer(event.getProductId(), entry);
+        bus.publish(new ProductInvalidation(event.getProductId(), entry.version(), nodeId));
+    }
+
+    @Override
+    public void invalidated(ProductInvalidation invalidation) {
+        if (!nodeId.equals(invalidation.originNode())) {
+            offerLocal(invalidation.productId(), VersionedProduct.marker(invalidation.version()));
+        }
+    }
+
+    @Override
+    public void missedInvalidations() {
+        log.warn("Cache invalidations may have been lost, clearing local product cache ({} entries)",
+                local.estimatedSize());
+        local.invalidateAll();
+    }
+
+    private void offerLocal(Long id, VersionedProduct entry) {
+        local.asMap().compute(id, (key, current) -> entry.supersedes(current) ? entry : current);
+    }
+}
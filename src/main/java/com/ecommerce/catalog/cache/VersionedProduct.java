@@ -0,0 +1,32 @@
+package com.ecommerce.catalog.cache;
+
+import com.ecommerce.catalog.dto.ProductResponseDTO;
+
+/**
+ * Entrada de la caché de productos: el producto y la versión de su fila.
+ * Con product == null es un marcador: se sabe que existe (o existió, si fue
+ * borrado) la versión indicada pero no se tiene su contenido. Un marcador no
+ * se sirve nunca; solo impide que se cachee una versión más antigua.
+ */
+public record VersionedProduct(ProductResponseDTO product, long version) {
+
+    public static VersionedProduct marker(long version) {
+        return new VersionedProduct(null, version);
+    }
+
+    public boolean isMarker() {
+        return product == null;
+    }
+
+    /**
+     * Si esta entrada debe reemplazar a current: hueco vacío, versión mayor, o
+     * la misma versión cuando lo guardado es solo un marcador. Con esta regla
+     * el orden de llegada de escrituras e invalidaciones no importa: una
+     * invalidación retrasada no puede devolver a la caché un dato antiguo.
+     */
+    public boolean supersedes(VersionedProduct current) {
+        return current == null
+                || version > current.version
+                || (version == current.version && current.isMarker() && !isMarker());
+    }
+}
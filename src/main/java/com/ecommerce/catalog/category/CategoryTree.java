@@ -0,0 +1,117 @@
+package com.ecommerce.catalog.category;
+
+import com.ecommerce.catalog.entity.Category;
+import com.ecommerce.catalog.entity.CategoryClosure;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Copia inmutable en memoria de la jerarquía de categorías, construida a
+ * partir de la tabla de cierre. Resuelve subárboles y ancestros sin
+ * consultar la base de datos; cuando la jerarquía cambia se construye un
+ * árbol nuevo (ver CategoryTreeCache).
+ */
+public final class CategoryTree {
+
+    public record Node(Long id, String name, Long parentId, int depth, List<Long> children) {
+    }
+
+    private static final long[] NONE = new long[0];
+
+    private final Map<Long, Node> nodes;
+    private final List<Long> roots;
+    // Incluyen la propia categoría (fila depth = 0 de la tabla de cierre)
+    private final Map<Long, long[]> descendants;
+    private final Map<Long, long[]> ancestors;
+
+    private CategoryTree(Map<Long, Node> nodes, List<Long> roots, Map<Long, long[]> descendants,
+            Map<Long, long[]> ancestors) {
+        this.nodes = nodes;
+        this.roots = roots;
+        this.descendants = descendants;
+        this.ancestors = ancestors;
+    }
+
+    public static CategoryTree empty() {
+        return new CategoryTree(Map.of(), List.of(), Map.of(), Map.of());
+    }
+
+    public static CategoryTree build(List<Category> categories, List<CategoryClosure> closure) {
+        Map<Long, List<Long>> children = new HashMap<>();
+        List<Long> roots = new ArrayList<>();
+        List<Category> byName = new ArrayList<>(categories);
+        byName.sort(Comparator.comparing(Category::getName).thenComparing(Category::getId));
+        for (Category category : byName) {
+            if (category.getParentId() == null) {
+                roots.add(category.getId());
+            } else {
+                children.computeIfAbsent(category.getParentId(), k -> new ArrayList<>()).add(category.getId());
+            }
+        }
+
+        Map<Long, List<Long>> down = new HashMap<>();
+        Map<Long, List<Long>> up = new HashMap<>();
+        Map<Long, Integer> depth = new HashMap<>();
+        for (CategoryClosure row : closure) {
+            down.computeIfAbsent(row.getAncestorId(), k -> new ArrayList<>()).add(row.getDescendantId());
+            up.computeIfAbsent(row.getDescendantId(), k -> new ArrayList<>()).add(row.getAncestorId());
+            depth.merge(row.getDescendantId(), row.getDepth(), Math::max);
+        }
+
+        Map<Long, Node> nodes = new HashMap<>();
+        for (Category category : categories) {
+            nodes.put(category.getId(), new Node(category.getId(), category.getName(), category.getParentId(),
+                    depth.getOrDefault(category.getId(), 0),
+                    List.copyOf(children.getOrDefault(category.getId(), List.of()))));
+        }
+        return new CategoryTree(Map.copyOf(nodes), List.copyOf(roots), toArrays(down), toArrays(up));
+    }
+
+    private static Map<Long, long[]> toArrays(Map<Long, List<Long>> lists) {
+        Map<Long, long[]> arrays = new HashMap<>();
+        lists.forEach((id, ids) -> arrays.put(id, ids.stream().mapToLong(Long::longValue).sorted().toArray()));
+        return Map.copyOf(arrays);
+    }
+
+    public boolean contains(Long id) {
+        return nodes.containsKey(id);
+    }
+
+    public Optional<Node> node(Long id) {
+        return Optional.ofNullable(nodes.get(id));
+    }
+
+    public List<Long> roots() {
+        return roots;
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+
+    /** La categoría y todas sus descendientes. */
+    public long[] descendants(Long id) {
+        return descendants.getOrDefault(id, NONE);
+    }
+
+    /** La categoría y todos sus ancestros hasta la raíz. */
+    public long[] ancestors(Long id) {
+        return ancestors.getOrDefault(id, NONE);
+    }
+
+    /** Ids del subárbol como conjunto, listo para un category_id IN (...). */
+    public Set<Long> subtree(Long id) {
+        long[] ids = descendants(id);
+        return ids.length == 0 ? Collections.emptySet()
+                : Arrays.stream(ids).boxed().collect(Collectors.toUnmodifiableSet());
+    }
+}
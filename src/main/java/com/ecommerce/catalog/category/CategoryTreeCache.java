@@ -0,0 +1,129 @@
+package com.ecommerce.catalog.category;
+
+import com.ecommerce.catalog.dto.CategoryProductCount;
+import com.ecommerce.catalog.dto.ProductResponseDTO;
+import com.ecommerce.catalog.event.CategoryChangedEvent;
+import com.ecommerce.catalog.event.ProductChangedEvent;
+import com.ecommerce.catalog.repository.CategoryClosureRepository;
+import com.ecommerce.catalog.repository.CategoryRepository;
+import com.ecommerce.catalog.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Árbol de categorías cacheado en memoria y número de productos activos por
+ * categoría.
+ *
+ * - El árbol se carga al arrancar y se reconstruye entero tras cada cambio de
+ *   jerarquía confirmado (son pocas filas y cambian poco).
+ * - Los contadores se calculan una vez con un GROUP BY y después se mantienen
+ *   de forma incremental con cada ProductChangedEvent confirmado. Un recuento
+ *   completo periódico corrige cualquier deriva (p. ej. escrituras hechas
+ *   mientras se recontaba, o cambios hechos directamente en la base de datos).
+ * - El total de un subárbol se suma al leer a partir de los contadores directos
+ *   de sus descendientes, así que no depende de la forma del árbol.
+ */
+@Slf4j
+@Component
+public class CategoryTreeCache {
+
+    private final CategoryRepository categoryRepository;
+    private final CategoryClosureRepository closureRepository;
+    private final ProductRepository productRepository;
+
+    private final AtomicReference<CategoryTree> tree = new AtomicReference<>(CategoryTree.empty());
+    // Productos activos asignados directamente a cada categoría
+    private volatile ConcurrentHashMap<Long, LongAdder> directCounts = new ConcurrentHashMap<>();
+
+    public CategoryTreeCache(CategoryRepository categoryRepository, CategoryClosureRepository closureRepository,
+            ProductRepository productRepository) {
+        this.categoryRepository = categoryRepository;
+        this.closureRepository = closureRepository;
+        this.productRepository = productRepository;
+    }
+
+    public CategoryTree tree() {
+        return tree.get();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reloadTree();
+        recount();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        reloadTree();
+    }
+
+    public synchronized void reloadTree() {
+        CategoryTree rebuilt = CategoryTree.build(categoryRepository.findAll(), closureRepository.findAll());
+        tree.set(rebuilt);
+        log.info("Category tree loaded: {} categories", rebuilt.size());
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.categories.recount-ms:3600000}",
+            initialDelayString = "${catalog.categories.recount-ms:3600000}")
+    public void scheduledRecount() {
+        recount();
+    }
+
+    /**
+     * Recalcula todos los contadores desde la base de datos.
+     */
+    public void recount() {
+        ConcurrentHashMap<Long, LongAdder> counted = new ConcurrentHashMap<>();
+        for (CategoryProductCount count : productRepository.countActiveByCategory()) {
+            LongAdder adder = new LongAdder();
+            adder.add(count.products());
+            counted.put(count.categoryId(), adder);
+        }
+        directCounts = counted;
+        log.debug("Category product counts recalculated for {} categories", counted.size());
+    }
+
+    /**
+     * Aplica el cambio de un producto confirmado: resta en la categoría donde
+     * contaba antes y suma en la que cuenta ahora.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        ProductResponseDTO product = event.getProduct();
+        switch (event.getType()) {
+            case CREATED -> adjust(product.getCategoryId(), product.getActive(), 1);
+            case DELETED -> adjust(product.getCategoryId(), product.getActive(), -1);
+            case UPDATED -> {
+                adjust(event.getPreviousCategoryId(), event.getPreviousActive(), -1);
+                adjust(product.getCategoryId(), product.getActive(), 1);
+            }
+        }
+    }
+
+    private void adjust(Long categoryId, Boolean active, long delta) {
+        if (categoryId != null && Boolean.TRUE.equals(active)) {
+            directCounts.computeIfAbsent(categoryId, k -> new LongAdder()).add(delta);
+        }
+    }
+
+    public long productCount(Long categoryId) {
+        LongAdder count = directCounts.get(categoryId);
+        return count == null ? 0 : count.sum();
+    }
+
+    public long subtreeProductCount(Long categoryId) {
+        long total = 0;
+        for (long id : tree.get().descendants(categoryId)) {
+            total += productCount(id);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,54 @@
+package com.ecommerce.catalog.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Negociación de contenido binaria para los servicios internos (pedidos,
+ * precios) que llaman al catálogo: con Accept: application/cbor o
+ * application/x-jackson-smile las respuestas (productos y páginas) salen en
+ * esa codificación, y con el mismo Content-Type se aceptan los cuerpos de
+ * POST/PUT. Sin esas cabeceras todo sigue en JSON.
+ *
+ * Spring MVC ya registra convertidores CBOR y Smile cuando las librerías
+ * están en el classpath, pero con un ObjectMapper propio que ignora la
+ * configuración spring.jackson.*. Declararlos como beans hace que
+ * HttpMessageConverters de Spring Boot sustituya esos por defecto en su
+ * misma posición (detrás de JSON, que sigue siendo el formato por defecto
+ * con Accept genérico o sin Accept). Usan la misma configuración de Jackson
+ * que el JSON, salvo las fechas, que viajan como números en lugar de texto
+ * ISO.
+ */
+@Configuration
+public class BinaryFormatsConfig {
+
+    // El builder de Spring Boot es prototype: cada inyección recibe uno nuevo
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(binaryMapper(builder, new CBORFactory()));
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(binaryMapper(builder, new SmileFactory()));
+    }
+
+    /**
+     * ObjectMapper para una codificación binaria. BigDecimal ya se escribe en
+     * binario en CBOR y Smile; las fechas se pasan a números para no
+     * formatear ni parsear texto ISO en cada campo.
+     */
+    public static ObjectMapper binaryMapper(Jackson2ObjectMapperBuilder builder, JsonFactory factory) {
+        return builder.factory(factory)
+                .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+}
@@ -0,0 +1,73 @@
+package com.ecommerce.catalog.config;
+
+import com.ecommerce.catalog.dto.CategoryRequestDTO;
+import com.ecommerce.catalog.dto.CategoryResponseDTO;
+import com.ecommerce.catalog.dto.FlightRecordingDTO;
+import com.ecommerce.catalog.dto.InventoryBatchDTO;
+import com.ecommerce.catalog.dto.InventoryReceiptDTO;
+import com.ecommerce.catalog.dto.InventoryUpdateDTO;
+import com.ecommerce.catalog.dto.ProductChangeDTO;
+import com.ecommerce.catalog.dto.ProductRequestDTO;
+import com.ecommerce.catalog.dto.ProductResponseDTO;
+import com.ecommerce.catalog.dto.ReadModelRebuildDTO;
+import com.ecommerce.catalog.dto.TokenResponseDTO;
+import com.ecommerce.catalog.entity.Category;
+import com.ecommerce.catalog.entity.CategoryClosure;
+import com.ecommerce.catalog.entity.OutboxEvent;
+import com.ecommerce.catalog.entity.Product;
+import com.ecommerce.catalog.entity.ProductListing;
+import com.ecommerce.catalog.event.CategoryChangedEvent;
+import com.ecommerce.catalog.event.ProductChangedEvent;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Pistas de reflexión y recursos para la imagen nativa (mvn -Pnative native:compile).
+ *
+ * Spring AOT ya registra los beans, los controladores y las entidades que
+ * conoce JPA; aquí se añade lo que solo se usa por reflexión en tiempo de
+ * ejecución: los DTO que serializa Jackson (incluidos los que viajan dentro
+ * de Page o del outbox), los modelos que inspecciona springdoc y data.sql.
+ * Sin efecto en la JVM normal.
+ */
+public class CatalogRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final Class<?>[] JSON_TYPES = {
+            ProductRequestDTO.class,
+            CategoryRequestDTO.class,
+            CategoryResponseDTO.class,
+            CategoryChangedEvent.class,
+            ProductResponseDTO.class,
+            ProductChangeDTO.class,
+            TokenResponseDTO.class,
+            FlightRecordingDTO.class,
+            ReadModelRebuildDTO.class,
+            InventoryBatchDTO.class,
+            InventoryUpdateDTO.class,
+            InventoryReceiptDTO.class,
+            ProductChangedEvent.class,
+            PageImpl.class,
+            PageRequest.class,
+            Sort.class
+    };
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(), JSON_TYPES);
+
+        for (Class<?> entity : new Class<?>[] { Product.class, ProductListing.class, OutboxEvent.class,
+                Category.class, CategoryClosure.class, CategoryClosure.Key.class }) {
+            hints.reflection().registerType(entity,
+                    MemberCategory.DECLARED_FIELDS,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_DECLARED_METHODS);
+        }
+
+        hints.resources().registerPattern("data.sql");
+    }
+}
@@ -0,0 +1,28 @@
+package com.ecommerce.catalog.config;
+
+import com.ecommerce.catalog.jfr.JfrSessionEventListener;
+import com.ecommerce.catalog.jfr.JfrStatementInspector;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enganches de Hibernate para los SqlStatementEvent de JFR: el
+ * StatementInspector que recuerda el SQL (encadenado con el que ya hubiera) y
+ * el SessionEventListener que mide cada ejecución JDBC.
+ */
+@Configuration
+@ConditionalOnProperty(name = "catalog.jfr.enabled", havingValue = "true")
+public class FlightRecorderConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer jfrSqlEvents() {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR,
+                    JfrStatementInspector.wrapping(properties.get(AvailableSettings.STATEMENT_INSPECTOR)));
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, JfrSessionEventListener.class.getName());
+        };
+    }
+}
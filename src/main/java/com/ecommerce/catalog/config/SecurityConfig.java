@@ -1,8 +1,11 @@
 package com.ecommerce.catalog.config;
 
+import com.ecommerce.catalog.security.AuthTokenService;
+import com.ecommerce.catalog.security.BearerTokenAuthenticationFilter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpMethod; // ¡Nuevo Importante!
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -14,6 +17,10 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder; // ¡Nu
 import org.springframework.security.crypto.password.PasswordEncoder; // ¡Nuevo Importante!
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+
+import static org.springframework.security.web.util.matcher.AntPathRequestMatcher.antMatcher;
 
 import static org.springframework.security.config.Customizer.withDefaults;
 
@@ -32,8 +39,40 @@ public class SecurityConfig {
     @Value("${security.admin.password:pass}")
     private String adminPassword;
 
+    /**
+     * Cadena mínima para las lecturas anónimas del catálogo (GET /api/v1/products/**
+     * y /api/v1/categories/**).
+     * Son permitAll, así que no necesitan contexto de seguridad, sesión, request
+     * cache, filtro anónimo ni reglas de autorización: solo CORS (el frontend
+     * está en otro origen) y las cabeceras de seguridad. Pasa de 13 filtros a 3.
+     */
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    @Order(1)
+    public SecurityFilterChain catalogReadFilterChain(HttpSecurity http) throws Exception {
+        http
+                .securityMatcher(new OrRequestMatcher(
+                        antMatcher(HttpMethod.GET, "/api/v1/products"),
+                        antMatcher(HttpMethod.GET, "/api/v1/products/**"),
+                        antMatcher(HttpMethod.GET, "/api/v1/categories"),
+                        antMatcher(HttpMethod.GET, "/api/v1/categories/**")))
+                .cors(cors -> cors.configurationSource(corsConfigurationSource()))
+                .csrf(AbstractHttpConfigurer::disable)
+                .securityContext(AbstractHttpConfigurer::disable)
+                .sessionManagement(AbstractHttpConfigurer::disable)
+                .requestCache(AbstractHttpConfigurer::disable)
+                .anonymous(AbstractHttpConfigurer::disable)
+                .servletApi(AbstractHttpConfigurer::disable)
+                .logout(AbstractHttpConfigurer::disable)
+                .exceptionHandling(AbstractHttpConfigurer::disable);
+        // Sin authorizeHttpRequests: no hay AuthorizationFilter, todo lo que entra aquí es público
+
+        return http.build();
+    }
+
+    @Bean
+    @Order(2)
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, AuthTokenService authTokenService)
+            throws Exception {
 
         http
                 .cors(cors -> cors.configurationSource(corsConfigurationSource())) // Habilitar CORS
@@ -45,19 +84,34 @@ public class SecurityConfig {
                         // 1. Acceso público: Swagger y Documentación
                         .requestMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
 
+                        // Healthcheck de Docker (el resto de /actuator requiere autenticación)
+                        .requestMatchers("/actuator/health").permitAll()
+
                         // 2. Acceso público: Solo las peticiones GET (Lectura de catálogo)
+                        // (normalmente ya las atiende catalogReadFilterChain)
                         .requestMatchers(HttpMethod.GET, "/api/v1/products", "/api/v1/products/**").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/v1/categories", "/api/v1/categories/**").permitAll()
 
                         // 3. Acceso protegido: POST, PUT, DELETE requieren autenticación
                         // (Para fines de test, el rol 'ADMIN' que simulas será suficiente)
                         .requestMatchers(HttpMethod.POST, "/api/v1/products").authenticated()
                         .requestMatchers(HttpMethod.PUT, "/api/v1/products/**").authenticated()
                         .requestMatchers(HttpMethod.DELETE, "/api/v1/products/**").authenticated()
+                        .requestMatchers(HttpMethod.POST, "/api/v1/categories").authenticated()
+
+                        // Administración (volcados de JFR): solo ADMIN
+                        .requestMatchers("/api/v1/admin/**").hasRole("ADMIN")
+
+                        // Emisión de tokens: se autentica con HTTP Basic (BCrypt una sola vez)
+                        .requestMatchers(HttpMethod.POST, "/api/v1/auth/token").authenticated()
 
                         // 4. Denegar todo lo demás
                         .anyRequest().authenticated())
                 // 3. Configurar autenticación HTTP básica (la que usan los tests simples)
-                .httpBasic(withDefaults());
+                .httpBasic(withDefaults())
+                // 4. Tokens Bearer (HMAC): evitan BCrypt en cada escritura
+                .addFilterBefore(new BearerTokenAuthenticationFilter(authTokenService),
+                        BasicAuthenticationFilter.class);
 
         return http.build();
     }
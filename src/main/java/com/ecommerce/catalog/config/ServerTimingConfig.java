@@ -0,0 +1,30 @@
+package com.ecommerce.catalog.config;
+
+import com.ecommerce.catalog.timing.HandlerStartInterceptor;
+import com.ecommerce.catalog.timing.TimingStatementInspector;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Puntos de medida de Server-Timing que no son beans por sí mismos: el
+ * interceptor de entrada al controlador y el StatementInspector de
+ * Hibernate (que se encadena con el que ya hubiera configurado).
+ */
+@Configuration
+public class ServerTimingConfig implements WebMvcConfigurer {
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerStartInterceptor()).addPathPatterns("/api/**");
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer timingStatementInspector() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR,
+                TimingStatementInspector.wrapping(properties.get(AvailableSettings.STATEMENT_INSPECTOR)));
+    }
+}
@@ -0,0 +1,79 @@
+package com.ecommerce.catalog.controller;
+
+import com.ecommerce.catalog.dto.FlightRecordingDTO;
+import com.ecommerce.catalog.dto.ReadModelRebuildDTO;
+import com.ecommerce.catalog.exception.ResourceNotFoundException;
+import com.ecommerce.catalog.jfr.FlightRecorderService;
+import com.ecommerce.catalog.readmodel.ProductReadModel;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+/**
+ * Operaciones de administración (rol ADMIN). Las de una funcionalidad
+ * desactivada responden 404.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/admin")
+public class AdminController {
+
+    // Solo existe con catalog.jfr.enabled=true
+    @Autowired
+    private ObjectProvider<FlightRecorderService> flightRecorderService;
+
+    @Autowired
+    private ProductReadModel productReadModel;
+
+    // -------------------------------------------------------------
+    // POST (Volcar los últimos N minutos de la grabación JFR continua)
+    // -------------------------------------------------------------
+    @Operation(summary = "Vuelca los últimos N minutos de la grabación continua de Java Flight Recorder a un fichero")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Fichero .jfr generado"),
+            @ApiResponse(responseCode = "401", description = "No autenticado"),
+            @ApiResponse(responseCode = "403", description = "Requiere rol ADMIN"),
+            @ApiResponse(responseCode = "404", description = "Grabación JFR desactivada")
+    })
+    @PostMapping("/flight-recordings")
+    @ResponseStatus(HttpStatus.CREATED)
+    public FlightRecordingDTO dumpFlightRecording(@RequestParam(defaultValue = "5") long minutes)
+            throws IOException {
+        log.info("POST /api/v1/admin/flight-recordings - Dumping last {} minutes", minutes);
+        FlightRecorderService recorder = flightRecorderService.getIfAvailable();
+        if (recorder == null) {
+            throw new ResourceNotFoundException("La grabación JFR no está activada (catalog.jfr.enabled)");
+        }
+        return recorder.dump(minutes);
+    }
+
+    // -------------------------------------------------------------
+    // POST (Reconstruir el modelo de lectura del listado)
+    // -------------------------------------------------------------
+    @Operation(summary = "Recalcula productos_listado (modelo de lectura del listado) desde productos")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Modelo de lectura reconstruido"),
+            @ApiResponse(responseCode = "401", description = "No autenticado"),
+            @ApiResponse(responseCode = "403", description = "Requiere rol ADMIN"),
+            @ApiResponse(responseCode = "404", description = "Modelo de lectura desactivado")
+    })
+    @PostMapping("/read-model/rebuild")
+    public ReadModelRebuildDTO rebuildReadModel() {
+        log.info("POST /api/v1/admin/read-model/rebuild - Rebuilding product read model");
+        if (!productReadModel.isEnabled()) {
+            throw new ResourceNotFoundException("El modelo de lectura no está activado (catalog.read-model.enabled)");
+        }
+        return productReadModel.rebuild();
+    }
+}
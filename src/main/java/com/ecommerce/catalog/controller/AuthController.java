@@ -0,0 +1,37 @@
+package com.ecommerce.catalog.controller;
+
+import com.ecommerce.catalog.dto.TokenResponseDTO;
+import com.ecommerce.catalog.security.AuthTokenService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/auth")
+public class AuthController {
+
+    @Autowired
+    private AuthTokenService authTokenService;
+
+    // -------------------------------------------------------------
+    // POST (Canjear credenciales Basic por un token de corta duración)
+    // -------------------------------------------------------------
+    @Operation(summary = "Canjea credenciales HTTP Basic por un token Bearer de corta duración")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Token emitido"),
+            @ApiResponse(responseCode = "401", description = "Credenciales inválidas")
+    })
+    @PostMapping("/token")
+    public TokenResponseDTO issueToken(Authentication authentication) {
+        log.info("POST /api/v1/auth/token - Issuing token for user: {}", authentication.getName());
+        return new TokenResponseDTO(authTokenService.issue(authentication), "Bearer",
+                authTokenService.getTtlSeconds());
+    }
+}
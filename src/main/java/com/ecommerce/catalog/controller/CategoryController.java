@@ -0,0 +1,89 @@
+package com.ecommerce.catalog.controller;
+
+import com.ecommerce.catalog.dto.CategoryRequestDTO;
+import com.ecommerce.catalog.dto.CategoryResponseDTO;
+import com.ecommerce.catalog.dto.ProductFields;
+import com.ecommerce.catalog.service.CategoryService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/categories")
+public class CategoryController {
+
+    @Autowired
+    private CategoryService categoryService;
+
+    // -------------------------------------------------------------
+    // GET (Árbol completo con contadores)
+    // -------------------------------------------------------------
+    @Operation(summary = "Árbol de categorías con el número de productos activos de cada nodo y su subárbol")
+    @ApiResponse(responseCode = "200", description = "Categorías raíz con sus subcategorías")
+    @GetMapping
+    public List<CategoryResponseDTO> getCategoryTree() {
+        log.info("GET /api/v1/categories - Fetching category tree");
+        return categoryService.getCategoryTree();
+    }
+
+    @Operation(summary = "Obtiene una categoría con sus subcategorías")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Categoría encontrada"),
+            @ApiResponse(responseCode = "404", description = "Categoría no encontrada")
+    })
+    @GetMapping("/{id}")
+    public CategoryResponseDTO getCategory(@PathVariable Long id) {
+        log.info("GET /api/v1/categories/{} - Fetching category", id);
+        return categoryService.getCategory(id);
+    }
+
+    // -------------------------------------------------------------
+    // GET productos del subárbol (la categoría y todas sus descendientes)
+    // -------------------------------------------------------------
+    @Operation(summary = "Productos activos de una categoría y de todas sus subcategorías")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lista de productos paginada"),
+            @ApiResponse(responseCode = "404", description = "Categoría no encontrada")
+    })
+    @GetMapping("/{id}/products")
+    public Page<?> getSubtreeProducts(
+            @PathVariable Long id,
+            @RequestParam(value = "inStock", required = false) Boolean inStock,
+            @RequestParam(value = "fields", required = false) String fields,
+            @PageableDefault(size = 10, sort = "name", direction = Sort.Direction.ASC) @NonNull Pageable pageable) {
+        log.info("GET /api/v1/categories/{}/products - Fetching subtree products", id);
+        if (fields != null) {
+            return categoryService.getSubtreeProducts(id, inStock, ProductFields.parse(fields), pageable);
+        }
+        return categoryService.getSubtreeProducts(id, inStock, pageable);
+    }
+
+    // -------------------------------------------------------------
+    // POST (Crear Categoría)
+    // -------------------------------------------------------------
+    @Operation(summary = "Crea una categoría, como raíz o bajo parentId")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Categoría creada con éxito"),
+            @ApiResponse(responseCode = "400", description = "Datos inválidos (Validación fallida)"),
+            @ApiResponse(responseCode = "404", description = "Categoría padre no encontrada")
+    })
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public CategoryResponseDTO createCategory(@Valid @RequestBody CategoryRequestDTO categoryDto) {
+        log.info("POST /api/v1/categories - Creating category: {}", categoryDto.getName());
+        return categoryService.createCategory(categoryDto);
+    }
+}
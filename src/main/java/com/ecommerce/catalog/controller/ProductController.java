@@ -1,8 +1,18 @@
 package com.ecommerce.catalog.controller;
 
+import com.ecommerce.catalog.dto.InventoryBatchDTO;
+import com.ecommerce.catalog.dto.InventoryReceiptDTO;
+import com.ecommerce.catalog.dto.InventoryUpdateDTO;
+import com.ecommerce.catalog.dto.ProductFields;
+import com.ecommerce.catalog.dto.ProductFilter;
+import com.ecommerce.catalog.dto.ProductQuery;
 import com.ecommerce.catalog.dto.ProductRequestDTO;
 import com.ecommerce.catalog.dto.ProductResponseDTO;
+import com.ecommerce.catalog.exception.InvalidSkuBatchException;
+import com.ecommerce.catalog.exception.ResourceNotFoundException;
+import com.ecommerce.catalog.ingest.InventoryWriteBehind;
 import com.ecommerce.catalog.service.ProductService;
+import com.ecommerce.catalog.stream.ProductChangeBroadcaster;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -15,61 +25,145 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.lang.NonNull;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Slf4j
 @RestController
 @RequestMapping("/api/v1/products")
 public class ProductController {
 
+    private static final int MAX_SKU_BATCH = 100;
+
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private ProductChangeBroadcaster productChangeBroadcaster;
+
+    @Autowired
+    private InventoryWriteBehind inventoryWriteBehind;
+
     // -------------------------------------------------------------
     // GET (Listar y Buscar con Paginación)
     // -------------------------------------------------------------
-    @Operation(summary = "Lista todos los productos, con paginación, ordenación y búsqueda por palabra clave.")
+    @Operation(summary = "Lista todos los productos, con paginación, ordenación y búsqueda por palabra clave. "
+            + "Con fields=id,name,... solo se devuelven (y se leen de la base de datos) esos campos.")
     @ApiResponse(responseCode = "200", description = "Lista de productos paginada.")
     @GetMapping
-    public Page<ProductResponseDTO> getAllProducts(
+    public Page<?> getAllProducts(
             HttpServletRequest request,
             @RequestParam(required = false) String keyword, // Parámetro para búsqueda
             @RequestParam(value = "categoryId", required = false) Long categoryId, // Parámetro para filtrado por
                                                                                    // categoría explícito
+            @RequestParam(value = "categoryIds", required = false) Set<Long> categoryIds, // Varias categorías (OR)
+            @RequestParam(value = "inStock", required = false) Boolean inStock, // true: con stock, false: agotados
+            @RequestParam(value = "fields", required = false) String fields, // Campos de la respuesta (sparse)
             @PageableDefault(size = 10, sort = "name", direction = Sort.Direction.ASC) @NonNull Pageable pageable) {
 
         log.info("DEBUG CRITICO - Query String recibida: '{}'", request.getQueryString());
         log.info("DEBUG CRITICO - Params: keyword='{}', categoryId='{}'", keyword, categoryId);
 
-        Page<ProductResponseDTO> result;
-
         // Lógica de filtrado y búsqueda
-        if (categoryId != null) {
-            result = productService.getProductsByCategory(categoryId, pageable);
-            log.info("Category filter completed - Found {} products for categoryId: {}", result.getTotalElements(),
-                    categoryId);
+        ProductQuery query;
+        if (inStock != null || (categoryIds != null && !categoryIds.isEmpty())) {
+            Set<Long> categories = new HashSet<>(categoryIds == null ? Set.of() : categoryIds);
+            if (categoryId != null) {
+                categories.add(categoryId);
+            }
+            query = new ProductQuery.Filtered(new ProductFilter(categories, inStock));
+        } else if (categoryId != null) {
+            query = new ProductQuery.ByCategory(categoryId);
         } else if (keyword != null && !keyword.trim().isEmpty()) {
-            result = productService.searchProducts(keyword, pageable);
-            log.info("Search completed - Found {} products for keyword: {}", result.getTotalElements(), keyword);
+            // Como searchProducts: los espacios de los extremos no forman parte de la búsqueda
+            query = new ProductQuery.Search(keyword.trim());
         } else {
-            result = productService.getAllProducts(pageable);
-            log.info("Listing completed - Total products: {}", result.getTotalElements());
+            query = new ProductQuery.All();
         }
 
+        if (fields != null) {
+            Page<Map<String, Object>> result = productService.findProducts(query, ProductFields.parse(fields),
+                    pageable);
+            log.info("Projected listing completed - Found {} products for {} (fields: {})",
+                    result.getTotalElements(), query, fields);
+            return result;
+        }
+
+        Page<ProductResponseDTO> result = switch (query) {
+            case ProductQuery.Filtered filtered -> productService.filterProducts(filtered.filter(), pageable);
+            case ProductQuery.ByCategory byCategory ->
+                productService.getProductsByCategory(byCategory.categoryId(), pageable);
+            case ProductQuery.Search search -> productService.searchProducts(search.keyword(), pageable);
+            case ProductQuery.All all -> productService.getAllProducts(pageable);
+        };
+        log.info("Listing completed - Found {} products for {}", result.getTotalElements(), query);
         return result;
     }
 
     // Nuevo endpoint específico para categorías (Plan Z)
     @GetMapping("/category/{categoryId}")
-    public Page<ProductResponseDTO> getProductsByCategory(
+    public Page<?> getProductsByCategory(
             @PathVariable Long categoryId,
+            @RequestParam(value = "fields", required = false) String fields,
             @PageableDefault(size = 10, sort = "name", direction = Sort.Direction.ASC) @NonNull Pageable pageable) {
 
         log.info("GET /api/v1/products/category/{} - Filtering by category explicitly", categoryId);
+        if (fields != null) {
+            return productService.findProducts(new ProductQuery.ByCategory(categoryId), ProductFields.parse(fields),
+                    pageable);
+        }
         return productService.getProductsByCategory(categoryId, pageable);
     }
 
+    // -------------------------------------------------------------
+    // GET Stream SSE (Cambios de precio y stock en vivo)
+    // -------------------------------------------------------------
+    @Operation(summary = "Stream SSE con los cambios de precio y stock, filtrable por ids o categoría")
+    @ApiResponse(responseCode = "200", description = "Stream abierto (text/event-stream)")
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamProductChanges(
+            @RequestParam(value = "ids", required = false) Set<Long> ids,
+            @RequestParam(value = "categoryId", required = false) Long categoryId) {
+        log.info("GET /api/v1/products/stream - Subscribing (ids: {}, categoryId: {})", ids, categoryId);
+        return productChangeBroadcaster.subscribe(ids, categoryId);
+    }
+
+    // -------------------------------------------------------------
+    // GET por SKU (almacén y TPV identifican los productos por SKU)
+    // -------------------------------------------------------------
+    @Operation(summary = "Obtiene un producto por su SKU")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Producto encontrado"),
+            @ApiResponse(responseCode = "404", description = "Producto no encontrado")
+    })
+    @GetMapping("/sku/{sku}")
+    public ProductResponseDTO getProductBySku(@PathVariable String sku) {
+        log.info("GET /api/v1/products/sku/{} - Fetching product by SKU", sku);
+        return productService.getProductBySku(sku);
+    }
+
+    @Operation(summary = "Resuelve varios SKU a la vez (skus=A,B,...; máximo " + MAX_SKU_BATCH + "). "
+            + "Devuelve SKU -> producto en el orden pedido; los SKU inexistentes no aparecen.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "SKU resueltos"),
+            @ApiResponse(responseCode = "400", description = "Lote vacío o demasiado grande")
+    })
+    @GetMapping("/sku")
+    public Map<String, ProductResponseDTO> getProductsBySkus(@RequestParam("skus") List<String> skus) {
+        log.info("GET /api/v1/products/sku - Resolving {} SKUs", skus.size());
+        if (skus.isEmpty() || skus.size() > MAX_SKU_BATCH) {
+            throw new InvalidSkuBatchException("Se admiten entre 1 y " + MAX_SKU_BATCH + " SKU por petición");
+        }
+        return productService.getProductsBySkus(skus);
+    }
+
     // -------------------------------------------------------------
     // GET por ID
     // -------------------------------------------------------------
@@ -79,8 +173,12 @@ public class ProductController {
             @ApiResponse(responseCode = "404", description = "Producto no encontrado")
     })
     @GetMapping("/{id}")
-    public ProductResponseDTO getProductById(@PathVariable Long id) {
+    public Object getProductById(@PathVariable Long id,
+            @RequestParam(value = "fields", required = false) String fields) {
         log.info("GET /api/v1/products/{} - Fetching product by ID", id);
+        if (fields != null) {
+            return productService.getProductById(id, ProductFields.parse(fields));
+        }
         ProductResponseDTO product = productService.getProductById(id);
         log.debug("Product found: {}", product.getName());
         return product;
@@ -127,6 +225,32 @@ public class ProductController {
         return updatedProduct;
     }
 
+    // -------------------------------------------------------------
+    // PUT (Correcciones de stock y precio por SKU, escritura diferida)
+    // -------------------------------------------------------------
+    @Operation(summary = "Encola correcciones de stock y/o precio por SKU; se fusionan por SKU y se escriben "
+            + "por lotes en segundo plano (catalog.write-behind.enabled)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Correcciones aceptadas, pendientes de escribir"),
+            @ApiResponse(responseCode = "400", description = "Datos inválidos (Validación fallida)"),
+            @ApiResponse(responseCode = "404", description = "Escritura diferida desactivada"),
+            @ApiResponse(responseCode = "503", description = "Cola llena; reintentar el lote completo")
+    })
+    @PutMapping("/inventory")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public InventoryReceiptDTO updateInventory(@Valid @RequestBody InventoryBatchDTO batch) {
+        log.info("PUT /api/v1/products/inventory - Queueing {} inventory updates", batch.getUpdates().size());
+        if (!inventoryWriteBehind.isEnabled()) {
+            throw new ResourceNotFoundException("La escritura diferida de inventario no está activada "
+                    + "(catalog.write-behind.enabled)");
+        }
+        // Si se rechaza a mitad, reenviar el lote entero es seguro: son valores absolutos
+        for (InventoryUpdateDTO update : batch.getUpdates()) {
+            inventoryWriteBehind.offer(update.toUpdate());
+        }
+        return new InventoryReceiptDTO(batch.getUpdates().size(), inventoryWriteBehind.pendingCount());
+    }
+
     // -------------------------------------------------------------
     // DELETE (Eliminar Producto)
     // -------------------------------------------------------------
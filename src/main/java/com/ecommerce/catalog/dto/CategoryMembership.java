@@ -0,0 +1,8 @@
+package com.ecommerce.catalog.dto;
+
+/**
+ * Categoría y estado activo de un producto: lo que decide en qué contador de
+ * categoría cuenta.
+ */
+public record CategoryMembership(Long categoryId, Boolean active) {
+}
@@ -0,0 +1,7 @@
+package com.ecommerce.catalog.dto;
+
+/**
+ * Número de productos activos asignados directamente a una categoría.
+ */
+public record CategoryProductCount(Long categoryId, Long products) {
+}
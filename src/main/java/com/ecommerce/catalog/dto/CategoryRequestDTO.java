@@ -0,0 +1,18 @@
+package com.ecommerce.catalog.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+/**
+ * DTO para crear una categoría. Sin parentId se crea como raíz.
+ */
+@Data
+public class CategoryRequestDTO {
+
+    @NotBlank(message = "El nombre de la categoría es obligatorio")
+    @Size(max = 100, message = "El nombre no puede exceder 100 caracteres")
+    private String name;
+
+    private Long parentId;
+}
@@ -0,0 +1,23 @@
+package com.ecommerce.catalog.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO de respuesta de una categoría con sus subcategorías.
+ * productCount cuenta los productos activos asignados directamente a la
+ * categoría; subtreeProductCount, los de la categoría y todas sus
+ * descendientes.
+ */
+@Data
+public class CategoryResponseDTO {
+    private Long id;
+    private String name;
+    private Long parentId;
+    private int depth;
+    private long productCount;
+    private long subtreeProductCount;
+    private List<CategoryResponseDTO> children = new ArrayList<>();
+}
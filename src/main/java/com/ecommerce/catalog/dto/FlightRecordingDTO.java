@@ -0,0 +1,9 @@
+package com.ecommerce.catalog.dto;
+
+import java.time.Instant;
+
+/**
+ * Fichero .jfr generado por POST /api/v1/admin/flight-recordings.
+ */
+public record FlightRecordingDTO(String file, long sizeBytes, Instant from, Instant to) {
+}
@@ -0,0 +1,20 @@
+package com.ecommerce.catalog.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Lote de correcciones de inventario (PUT /api/v1/products/inventory).
+ * Varias del mismo SKU se aplican en orden.
+ */
+@Data
+public class InventoryBatchDTO {
+
+    @NotEmpty(message = "El lote no puede estar vacío")
+    @Size(max = 1000, message = "Un lote admite como máximo 1000 correcciones")
+    private List<@Valid InventoryUpdateDTO> updates;
+}
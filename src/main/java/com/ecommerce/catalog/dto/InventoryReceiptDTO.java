@@ -0,0 +1,8 @@
+package com.ecommerce.catalog.dto;
+
+/**
+ * Respuesta 202 de PUT /api/v1/products/inventory: correcciones aceptadas y
+ * productos con cambios aún pendientes de escribir.
+ */
+public record InventoryReceiptDTO(int accepted, int pending) {
+}
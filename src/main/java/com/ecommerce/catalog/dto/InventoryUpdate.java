@@ -0,0 +1,21 @@
+package com.ecommerce.catalog.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Stock y/o precio nuevos (valores absolutos) de un producto identificado por
+ * SKU; un campo null no se toca. Es lo que se encola en la escritura diferida
+ * de inventario.
+ */
+public record InventoryUpdate(String sku, Integer stock, BigDecimal price) {
+
+    /**
+     * Fusión "gana la última escritura" por campo: los campos que trae newer
+     * sustituyen a los de este; los que no trae se conservan.
+     */
+    public InventoryUpdate overriddenBy(InventoryUpdate newer) {
+        return new InventoryUpdate(sku,
+                newer.stock() != null ? newer.stock() : stock,
+                newer.price() != null ? newer.price() : price);
+    }
+}
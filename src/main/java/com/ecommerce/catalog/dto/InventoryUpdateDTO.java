@@ -0,0 +1,42 @@
+package com.ecommerce.catalog.dto;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * Corrección de stock y/o precio de un producto (PUT /api/v1/products/inventory).
+ * Son valores absolutos, no incrementos: reenviar la misma corrección no cambia
+ * el resultado.
+ */
+@Data
+public class InventoryUpdateDTO {
+
+    @NotBlank(message = "El SKU es obligatorio")
+    @Size(max = 50, message = "El SKU no puede exceder 50 caracteres")
+    private String sku;
+
+    @Min(value = 0, message = "El stock no puede ser negativo")
+    private Integer stock;
+
+    // Lo que no cabe en la columna (10,2) se rechaza aquí: al escribir en diferido
+    // haría fallar su lote en cada reintento
+    @Positive(message = "El precio del producto debe ser positivo")
+    @Digits(integer = 8, fraction = 2, message = "El precio admite 8 enteros y 2 decimales")
+    private BigDecimal price;
+
+    @AssertTrue(message = "Hay que indicar stock o price")
+    public boolean isStockOrPricePresent() {
+        return stock != null || price != null;
+    }
+
+    public InventoryUpdate toUpdate() {
+        return new InventoryUpdate(sku, stock, price);
+    }
+}
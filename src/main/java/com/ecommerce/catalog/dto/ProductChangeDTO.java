@@ -0,0 +1,20 @@
+package com.ecommerce.catalog.dto;
+
+import lombok.Data;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * DTO enviado por el stream SSE cuando cambia un producto.
+ * Solo lleva los campos que los clientes vigilan durante las ofertas.
+ */
+@Data
+public class ProductChangeDTO {
+    private String type;
+    private Long productId;
+    private Long categoryId;
+    private BigDecimal price;
+    private Integer stock;
+    private Boolean active;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,47 @@
+package com.ecommerce.catalog.dto;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Campos de ProductResponseDTO que un cliente puede pedir con fields=.
+ * El nombre de cada campo es a la vez la clave JSON y el atributo JPA de
+ * Product, así que sirve tanto para la proyección SQL como para la respuesta.
+ */
+public enum ProductField {
+    ID("id", ProductResponseDTO::getId),
+    NAME("name", ProductResponseDTO::getName),
+    DESCRIPTION("description", ProductResponseDTO::getDescription),
+    PRICE("price", ProductResponseDTO::getPrice),
+    STOCK("stock", ProductResponseDTO::getStock),
+    CATEGORY_ID("categoryId", ProductResponseDTO::getCategoryId),
+    SKU("sku", ProductResponseDTO::getSku),
+    ACTIVE("active", ProductResponseDTO::getActive),
+    CREATED_AT("createdAt", ProductResponseDTO::getCreatedAt),
+    UPDATED_AT("updatedAt", ProductResponseDTO::getUpdatedAt);
+
+    private final String property;
+    private final Function<ProductResponseDTO, Object> reader;
+
+    ProductField(String property, Function<ProductResponseDTO, Object> reader) {
+        this.property = property;
+        this.reader = reader;
+    }
+
+    public String property() {
+        return property;
+    }
+
+    public Object read(ProductResponseDTO product) {
+        return reader.apply(product);
+    }
+
+    public static Optional<ProductField> of(String property) {
+        for (ProductField field : values()) {
+            if (field.property.equals(property)) {
+                return Optional.of(field);
+            }
+        }
+        return Optional.empty();
+    }
+}
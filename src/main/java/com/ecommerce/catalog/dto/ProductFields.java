@@ -0,0 +1,51 @@
+package com.ecommerce.catalog.dto;
+
+import com.ecommerce.catalog.exception.InvalidFieldsException;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Selección de campos de la respuesta (sparse fieldset), p. ej.
+ * fields=id,name,price,stock. Los campos salen siempre en el orden de
+ * ProductField, independientemente del orden en que se pidieron.
+ */
+public record ProductFields(List<ProductField> fields) {
+
+    public ProductFields {
+        fields = List.copyOf(EnumSet.copyOf(fields));
+    }
+
+    /**
+     * Interpreta el parámetro fields= (nombres separados por comas). Lanza
+     * InvalidFieldsException si está vacío o si algún nombre no existe.
+     */
+    public static ProductFields parse(String csv) {
+        EnumSet<ProductField> selected = EnumSet.noneOf(ProductField.class);
+        for (String name : csv.split(",")) {
+            String property = name.trim();
+            if (property.isEmpty()) {
+                continue;
+            }
+            selected.add(ProductField.of(property).orElseThrow(() -> new InvalidFieldsException(
+                    "Campo desconocido: " + property + ". Permitidos: "
+                            + Arrays.stream(ProductField.values()).map(ProductField::property).toList())));
+        }
+        if (selected.isEmpty()) {
+            throw new InvalidFieldsException("fields no puede estar vacío");
+        }
+        return new ProductFields(List.copyOf(selected));
+    }
+
+    /** Recorta un DTO completo (p. ej. servido desde el snapshot) a los campos pedidos. */
+    public Map<String, Object> project(ProductResponseDTO product) {
+        Map<String, Object> view = new LinkedHashMap<>();
+        for (ProductField field : fields) {
+            view.put(field.property(), field.read(product));
+        }
+        return view;
+    }
+}
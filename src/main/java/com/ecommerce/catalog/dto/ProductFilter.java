@@ -0,0 +1,27 @@
+package com.ecommerce.catalog.dto;
+
+import java.util.Set;
+
+/**
+ * Filtro combinado del listado público: siempre productos activos, y
+ * opcionalmente con stock (inStock=true), sin stock (inStock=false) y/o de
+ * alguna de las categorías indicadas.
+ */
+public record ProductFilter(Set<Long> categoryIds, Boolean inStock) {
+
+    public ProductFilter {
+        categoryIds = categoryIds == null ? Set.of() : Set.copyOf(categoryIds);
+    }
+
+    public static ProductFilter activeOnly() {
+        return new ProductFilter(Set.of(), null);
+    }
+
+    public static ProductFilter category(Long categoryId) {
+        return new ProductFilter(categoryId == null ? Set.of() : Set.of(categoryId), null);
+    }
+
+    public boolean hasCategories() {
+        return !categoryIds.isEmpty();
+    }
+}
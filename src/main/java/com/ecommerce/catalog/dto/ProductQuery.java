@@ -0,0 +1,21 @@
+package com.ecommerce.catalog.dto;
+
+/**
+ * Criterio de un listado de productos, en las mismas variantes que expone
+ * el GET /api/v1/products: todo el catálogo, búsqueda por palabra clave,
+ * una categoría o el filtro combinado.
+ */
+public sealed interface ProductQuery {
+
+    record All() implements ProductQuery {
+    }
+
+    record Search(String keyword) implements ProductQuery {
+    }
+
+    record ByCategory(Long categoryId) implements ProductQuery {
+    }
+
+    record Filtered(ProductFilter filter) implements ProductQuery {
+    }
+}
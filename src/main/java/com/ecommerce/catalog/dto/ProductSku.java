@@ -0,0 +1,7 @@
+package com.ecommerce.catalog.dto;
+
+/**
+ * Par id/SKU de un producto (carga del índice de SKU).
+ */
+public record ProductSku(Long id, String sku) {
+}
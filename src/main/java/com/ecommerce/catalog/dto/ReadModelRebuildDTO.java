@@ -0,0 +1,7 @@
+package com.ecommerce.catalog.dto;
+
+/**
+ * Resultado de POST /api/v1/admin/read-model/rebuild.
+ */
+public record ReadModelRebuildDTO(long rows, long durationMs) {
+}
@@ -0,0 +1,37 @@
+package com.ecommerce.catalog.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Categoría del catálogo. La jerarquía se guarda dos veces: el padre directo
+ * aquí (parent_id) y todas las relaciones ancestro/descendiente en
+ * CategoryClosure, que es lo que usan las consultas por subárbol.
+ * Product.categoryId apunta al id de esta tabla.
+ * DDL para prod (ddl-auto=validate): db/postgresql/categorias.sql.
+ */
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "categorias", indexes = {
+        // Índice para listar los hijos de una categoría
+        @Index(name = "idx_category_parent", columnList = "parent_id")
+})
+public class Category {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotBlank(message = "El nombre de la categoría es obligatorio")
+    @Column(nullable = false, length = 100)
+    private String name;
+
+    // null en las categorías raíz
+    @Column(name = "parent_id")
+    private Long parentId;
+}
@@ -0,0 +1,46 @@
+package com.ecommerce.catalog.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Tabla de cierre de la jerarquía de categorías: una fila por cada par
+ * (ancestro, descendiente), incluida la de cada categoría consigo misma con
+ * depth = 0. "Todas las categorías bajo X" es un único lookup indexado por
+ * ancestor_id, sin recursión.
+ * DDL para prod (ddl-auto=validate): db/postgresql/categorias.sql.
+ */
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@IdClass(CategoryClosure.Key.class)
+@Table(name = "categorias_cierre", indexes = {
+        // Índice para subir por la jerarquía (ancestros de una categoría)
+        @Index(name = "idx_category_closure_descendant", columnList = "descendant_id")
+})
+public class CategoryClosure {
+
+    @Id
+    @Column(name = "ancestor_id")
+    private Long ancestorId;
+
+    @Id
+    @Column(name = "descendant_id")
+    private Long descendantId;
+
+    @Column(nullable = false)
+    private Integer depth;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Key implements Serializable {
+        private Long ancestorId;
+        private Long descendantId;
+    }
+}
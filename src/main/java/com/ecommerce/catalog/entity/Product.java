@@ -9,6 +9,7 @@ import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -18,6 +19,7 @@ import java.time.LocalDateTime;
 /**
  * Entidad que representa un producto en el catálogo de e-commerce.
  * Incluye información básica, inventario, categorización y auditoría.
+ * DDL para prod (ddl-auto=validate) de la columna version: db/postgresql/productos_version.sql.
  */
 @Entity
 @Data
@@ -30,15 +32,28 @@ import java.time.LocalDateTime;
         // Índice para búsquedas por SKU (campo único, pero mejora lookups)
         @Index(name = "idx_product_sku", columnList = "sku"),
 
-        // Índice para filtros por categoría (FK, muy usado en filtros)
-        @Index(name = "idx_product_category", columnList = "category_id"),
 
         // Índice para filtros por estado activo/inactivo
         @Index(name = "idx_product_active", columnList = "active"),
 
         // Índice compuesto para búsquedas de productos activos por categoría
         // (útil para queries como: WHERE active=true AND category_id=?)
-        @Index(name = "idx_product_active_category", columnList = "active, category_id")
+        @Index(name = "idx_product_active_category", columnList = "active, category_id"),
+
+        // Índices para las ordenaciones permitidas por SortPolicy
+        // (ORDER BY ... LIMIT n se sirve recorriendo el índice)
+        @Index(name = "idx_product_price", columnList = "price"),
+        @Index(name = "idx_product_created_at", columnList = "created_at"),
+        @Index(name = "idx_product_updated_at", columnList = "updated_at"),
+
+        // Filtro por categoría + ordenación permitida (findByCategoryId, filtros de
+        // una categoría, listado proyectado): la categoría fija el prefijo y el índice
+        // ya da el orden. (category_id, id) sustituye además al antiguo idx_product_category
+        @Index(name = "idx_product_category_id", columnList = "category_id, id"),
+        @Index(name = "idx_product_category_name", columnList = "category_id, name"),
+        @Index(name = "idx_product_category_price", columnList = "category_id, price"),
+        @Index(name = "idx_product_category_created_at", columnList = "category_id, created_at"),
+        @Index(name = "idx_product_category_updated_at", columnList = "category_id, updated_at")
 })
 public class Product {
 
@@ -89,4 +104,12 @@ public class Product {
     @UpdateTimestamp
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
+
+    // Versión de la fila: +1 en cada UPDATE (también en el UPDATE nativo de
+    // ProductRepositoryCustomImpl). Ordena los cambios de un mismo producto
+    // para la caché de dos niveles.
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
 }
\ No newline at end of file
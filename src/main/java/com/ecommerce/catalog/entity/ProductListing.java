@@ -0,0 +1,68 @@
+package com.ecommerce.catalog.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Modelo de lectura del listado público (CQRS): una fila por producto activo,
+ * con los campos de la tarjeta y el texto de búsqueda ya normalizado. No
+ * guarda lo que la tarjeta no muestra (descripción y fechas): las filas son
+ * estrechas y caben muchas más por página de disco. La descripción solo
+ * entra en search_text; ordenar por fechas se sigue sirviendo desde productos.
+ *
+ * No la escribe nadie más que ProductReadModel (con cada escritura de
+ * ProductServiceImpl, en la misma transacción, y al reconstruirla). Solo
+ * lleva los índices que necesitan las lecturas: sin active, sin SKU único y
+ * con (category_id, name) para el listado por categoría ordenado por nombre.
+ * DDL para prod (ddl-auto=validate): db/postgresql/productos_listado.sql,
+ * que añade el índice de trigramas de search_text (JPA no declara GIN).
+ */
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "productos_listado", indexes = {
+        // Listado por categoría con la ordenación por defecto (name)
+        @Index(name = "idx_listing_category_name", columnList = "category_id, name"),
+
+        // Ordenaciones permitidas por SortPolicy
+        @Index(name = "idx_listing_name", columnList = "name"),
+        @Index(name = "idx_listing_price", columnList = "price")
+})
+public class ProductListing {
+
+    // El mismo id que en productos (no se genera)
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal price;
+
+    @Column(nullable = false)
+    private Integer stock;
+
+    @Column(name = "category_id")
+    private Long categoryId;
+
+    @Column(length = 50, nullable = false)
+    private String sku;
+
+    // name + description en minúsculas y sin tildes (SearchText.normalize)
+    @Column(name = "search_text", nullable = false, length = 1300)
+    private String searchText;
+
+    // Versión del producto de la que sale la fila: una escritura más antigua no la pisa
+    @Column(nullable = false)
+    private Long version;
+}
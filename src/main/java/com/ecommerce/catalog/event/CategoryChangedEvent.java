@@ -0,0 +1,12 @@
+package com.ecommerce.catalog.event;
+
+import lombok.Value;
+
+/**
+ * Evento publicado por CategoryServiceImpl al cambiar la jerarquía de
+ * categorías; tras el commit, CategoryTreeCache recarga el árbol.
+ */
+@Value
+public class CategoryChangedEvent {
+    Long categoryId;
+}
@@ -0,0 +1,34 @@
+package com.ecommerce.catalog.event;
+
+import com.ecommerce.catalog.dto.ProductResponseDTO;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+/**
+ * Evento de dominio publicado por ProductServiceImpl en cada escritura.
+ * Para CREATED/UPDATED lleva el estado final del producto; para DELETED,
+ * el último estado conocido antes de eliminarlo.
+ * En UPDATED, previousCategoryId/previousActive son la categoría y el estado
+ * activo anteriores a la actualización (null en CREATED y DELETED).
+ * version es la versión de la fila que describe product (en DELETED, la de
+ * la fila borrada).
+ */
+@Value
+@AllArgsConstructor
+public class ProductChangedEvent {
+
+    public enum ChangeType {
+        CREATED, UPDATED, DELETED
+    }
+
+    ChangeType type;
+    Long productId;
+    ProductResponseDTO product;
+    Long version;
+    Long previousCategoryId;
+    Boolean previousActive;
+
+    public ProductChangedEvent(ChangeType type, Long productId, ProductResponseDTO product, Long version) {
+        this(type, productId, product, version, null, null);
+    }
+}
@@ -0,0 +1,11 @@
+package com.ecommerce.catalog.exception;
+
+/**
+ * Parámetro fields= con un campo que no existe en la respuesta de producto.
+ * Se responde con 400.
+ */
+public class InvalidFieldsException extends RuntimeException {
+    public InvalidFieldsException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,10 @@
+package com.ecommerce.catalog.exception;
+
+/**
+ * Lote de SKU vacío o con más elementos de los permitidos. Se responde con 400.
+ */
+public class InvalidSkuBatchException extends RuntimeException {
+    public InvalidSkuBatchException(String message) {
+        super(message);
+    }
+}
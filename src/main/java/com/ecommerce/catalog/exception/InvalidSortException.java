@@ -0,0 +1,11 @@
+package com.ecommerce.catalog.exception;
+
+/**
+ * Ordenación pedida por el cliente que no está en la lista de ordenaciones
+ * permitidas (ver SortPolicy). Se responde con 400.
+ */
+public class InvalidSortException extends RuntimeException {
+    public InvalidSortException(String message) {
+        super(message);
+    }
+}
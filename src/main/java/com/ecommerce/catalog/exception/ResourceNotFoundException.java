@@ -1,7 +1,12 @@
 package com.ecommerce.catalog.exception;
 
+/**
+ * 404. Sin stack trace: es un resultado esperado (ids inexistentes, barridos
+ * de bots), no un error a depurar, y capturar la pila es lo más caro de
+ * lanzar una excepción.
+ */
 public class ResourceNotFoundException extends RuntimeException {
     public ResourceNotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
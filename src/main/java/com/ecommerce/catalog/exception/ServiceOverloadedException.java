@@ -0,0 +1,11 @@
+package com.ecommerce.catalog.exception;
+
+/**
+ * Se lanza cuando un bulkhead está lleno y la petición se descarta (503).
+ * Sin stack trace: se produce en ráfagas durante una sobrecarga y es barata por diseño.
+ */
+public class ServiceOverloadedException extends RuntimeException {
+    public ServiceOverloadedException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -1,7 +1,12 @@
 package com.ecommerce.catalog.handler;
 
+import com.ecommerce.catalog.exception.InvalidFieldsException;
+import com.ecommerce.catalog.exception.InvalidSkuBatchException;
+import com.ecommerce.catalog.exception.InvalidSortException;
 import com.ecommerce.catalog.exception.ResourceNotFoundException;
+import com.ecommerce.catalog.exception.ServiceOverloadedException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -11,6 +16,9 @@ import org.springframework.dao.DataIntegrityViolationException;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 //anotacion de @Slf4j de lombok para ver los logs (log.warn, log.error, log.info, log.debug)
 // es una forma de hacer una buena practica de logs 
@@ -21,6 +29,11 @@ import java.util.Map;
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+    // Como mucho un aviso de 404 por segundo: un barrido de ids no llena el log
+    private static final long NOT_FOUND_LOG_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private final AtomicLong nextNotFoundLog = new AtomicLong(System.nanoTime());
+    private final LongAdder unloggedNotFound = new LongAdder();
+
     // maneja el codigo 409 conflict esto captura errores en la DB como
     // restricciones (unique)
     // y me evito que la DB me envie un error crudo
@@ -47,10 +60,61 @@ public class GlobalExceptionHandler {
     // (Código 404 NOT FOUND) captura el error 404
     @ExceptionHandler(ResourceNotFoundException.class)
     public ResponseEntity<String> handleResourceNotFoundException(ResourceNotFoundException ex) {
-        log.warn("Resource not found: {}", ex.getMessage());
+        long now = System.nanoTime();
+        long next = nextNotFoundLog.get();
+        if (now - next >= 0 && nextNotFoundLog.compareAndSet(next, now + NOT_FOUND_LOG_INTERVAL_NANOS)) {
+            log.warn("Resource not found: {} ({} more not-found responses not logged since last warning)",
+                    ex.getMessage(), unloggedNotFound.sumThenReset());
+        } else {
+            unloggedNotFound.increment();
+            log.debug("Resource not found: {}", ex.getMessage());
+        }
         return new ResponseEntity<>(ex.getMessage(), HttpStatus.NOT_FOUND);
     }
 
+    // (Código 503 SERVICE UNAVAILABLE) descarte por sobrecarga: respuesta inmediata
+    // para que el cliente reintente más tarde en lugar de hacer cola
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<Map<String, String>> handleServiceOverloaded(ServiceOverloadedException ex) {
+        log.debug("Request shed: {}", ex.getMessage());
+        Map<String, String> errorDetails = new HashMap<>();
+        errorDetails.put("error", "Servicio no disponible");
+        errorDetails.put("message", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(errorDetails);
+    }
+
+    // (Código 400 BAD REQUEST) ordenación fuera de la lista permitida
+    @ExceptionHandler(InvalidSortException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidSort(InvalidSortException ex) {
+        log.warn("Rejected sort: {}", ex.getMessage());
+        Map<String, String> errorDetails = new HashMap<>();
+        errorDetails.put("error", "Ordenación no válida");
+        errorDetails.put("message", ex.getMessage());
+        return new ResponseEntity<>(errorDetails, HttpStatus.BAD_REQUEST);
+    }
+
+    // (Código 400 BAD REQUEST) fields= con un campo desconocido
+    @ExceptionHandler(InvalidFieldsException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidFields(InvalidFieldsException ex) {
+        log.warn("Rejected fields selection: {}", ex.getMessage());
+        Map<String, String> errorDetails = new HashMap<>();
+        errorDetails.put("error", "Campos no válidos");
+        errorDetails.put("message", ex.getMessage());
+        return new ResponseEntity<>(errorDetails, HttpStatus.BAD_REQUEST);
+    }
+
+    // (Código 400 BAD REQUEST) resolución de SKU por lotes vacía o demasiado grande
+    @ExceptionHandler(InvalidSkuBatchException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidSkuBatch(InvalidSkuBatchException ex) {
+        log.warn("Rejected SKU batch: {}", ex.getMessage());
+        Map<String, String> errorDetails = new HashMap<>();
+        errorDetails.put("error", "Lote de SKU no válido");
+        errorDetails.put("message", ex.getMessage());
+        return new ResponseEntity<>(errorDetails, HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, String>> handleValidationExceptions(MethodArgumentNotValidException ex) {
         log.warn("Validation failed for request: {} validation errors", ex.getBindingResult().getErrorCount());
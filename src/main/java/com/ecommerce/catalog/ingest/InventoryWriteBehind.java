@@ -0,0 +1,251 @@
+package com.ecommerce.catalog.ingest;
+
+import com.ecommerce.catalog.dto.InventoryUpdate;
+import com.ecommerce.catalog.dto.ProductResponseDTO;
+import com.ecommerce.catalog.entity.Product;
+import com.ecommerce.catalog.event.ProductChangedEvent;
+import com.ecommerce.catalog.event.ProductChangedEvent.ChangeType;
+import com.ecommerce.catalog.exception.ServiceOverloadedException;
+import com.ecommerce.catalog.mapper.ProductMapper;
+import com.ecommerce.catalog.repository.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Escritura diferida de stock y precio (catalog.write-behind.enabled=true),
+ * para las correcciones que el ERP envía varias veces por segundo sobre el
+ * mismo SKU (PUT /api/v1/products/inventory).
+ *
+ * - Cada corrección se fusiona con la pendiente del mismo SKU, campo a campo
+ *   (gana la última): diez correcciones de stock entre dos escrituras son un
+ *   solo UPDATE.
+ * - Cada ventana (flush-interval-ms) escribe lo pendiente en lotes JDBC de
+ *   hasta max-batch UPDATE (un viaje por lote), en una transacción por lote
+ *   que además publica ProductChangedEvent: cachés, outbox, modelo de lectura
+ *   y suscriptores SSE se enteran como con cualquier otra escritura.
+ * - Como mucho capacity SKU distintos pendientes. Con la cola llena, offer
+ *   espera hasta offer-timeout-ms a que una escritura libere sitio y, si no,
+ *   rechaza con 503 y Retry-After (ServiceOverloadedException). Fusionar con
+ *   un SKU ya pendiente nunca espera.
+ *
+ * Durabilidad: una corrección aceptada (202) solo está en memoria hasta que
+ * se escribe. Un cierre ordenado escribe lo pendiente (@PreDestroy), pero si
+ * el proceso muere se pierde lo de la última ventana. Si falla la escritura
+ * de un lote, vuelve a la cola (sin pisar correcciones más nuevas) y se
+ * reintenta en la siguiente. Por eso las correcciones son valores absolutos:
+ * el ERP puede reenviarlas sin riesgo si no sabe si se aplicaron. Un SKU
+ * inexistente se descarta al escribir (catalog.write-behind.unknown-sku).
+ */
+@Slf4j
+@Component
+public class InventoryWriteBehind {
+
+    private final ConcurrentMap<String, InventoryUpdate> pending = new ConcurrentHashMap<>();
+    // Un permiso por SKU pendiente o en escritura; se devuelve al confirmar su lote
+    private final Semaphore slots;
+
+    private final boolean enabled;
+    private final int maxBatch;
+    private final long offerTimeoutMs;
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Counter received;
+    private final Counter rejected;
+    private final Counter written;
+    private final Counter unknownSku;
+    private final Counter failedBatches;
+    private final DistributionSummary batchSize;
+    private final Timer flushTimer;
+
+    public InventoryWriteBehind(ProductRepository productRepository, ProductMapper productMapper,
+            ApplicationEventPublisher eventPublisher, TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${catalog.write-behind.enabled:false}") boolean enabled,
+            @Value("${catalog.write-behind.capacity:10000}") int capacity,
+            @Value("${catalog.write-behind.max-batch:500}") int maxBatch,
+            @Value("${catalog.write-behind.offer-timeout-ms:100}") long offerTimeoutMs) {
+        this.enabled = enabled;
+        this.slots = new Semaphore(capacity);
+        this.maxBatch = maxBatch;
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.productRepository = productRepository;
+        this.productMapper = productMapper;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+
+        this.received = Counter.builder("catalog.write-behind.received")
+                .description("Correcciones de inventario aceptadas").register(meterRegistry);
+        this.rejected = Counter.builder("catalog.write-behind.rejected")
+                .description("Correcciones rechazadas con la cola llena").register(meterRegistry);
+        this.written = Counter.builder("catalog.write-behind.written")
+                .description("UPDATE enviados tras fusionar por SKU").register(meterRegistry);
+        this.unknownSku = Counter.builder("catalog.write-behind.unknown-sku").register(meterRegistry);
+        this.failedBatches = Counter.builder("catalog.write-behind.failed.batches").register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("catalog.write-behind.batch.size").register(meterRegistry);
+        this.flushTimer = Timer.builder("catalog.write-behind.flush").register(meterRegistry);
+        Gauge.builder("catalog.write-behind.pending", pending, ConcurrentMap::size)
+                .description("SKU con correcciones pendientes de escribir")
+                .register(meterRegistry);
+        // Correcciones aceptadas por UPDATE enviado (1 = ninguna fusión)
+        Gauge.builder("catalog.write-behind.coalescing.ratio", this, InventoryWriteBehind::coalescingRatio)
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    double coalescingRatio() {
+        double updates = written.count();
+        return updates == 0 ? 1.0 : received.count() / updates;
+    }
+
+    /**
+     * Encola una corrección, fusionándola con la pendiente del mismo SKU.
+     * Lanza ServiceOverloadedException si la cola sigue llena tras esperar
+     * offer-timeout-ms.
+     */
+    public void offer(InventoryUpdate update) {
+        if (pending.computeIfPresent(update.sku(), (sku, current) -> current.overriddenBy(update)) == null) {
+            if (!acquireSlot()) {
+                rejected.increment();
+                throw new ServiceOverloadedException("Cola de inventario llena, reintente más tarde");
+            }
+            // Entre computeIfPresent y aquí otro hilo pudo encolar el mismo SKU
+            boolean[] merged = { false };
+            pending.merge(update.sku(), update, (current, newer) -> {
+                merged[0] = true;
+                return current.overriddenBy(newer);
+            });
+            if (merged[0]) {
+                slots.release();
+            }
+        }
+        received.increment();
+    }
+
+    private boolean acquireSlot() {
+        try {
+            return slots.tryAcquire(offerTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.write-behind.flush-interval-ms:200}")
+    public void scheduledFlush() {
+        if (enabled) {
+            flush();
+        }
+    }
+
+    /**
+     * Escribe lo pendiente por lotes de max-batch, hasta un lote incompleto
+     * (lo que llegue mientras tanto espera a la siguiente ventana). Devuelve
+     * el número de UPDATE enviados. Si un lote falla, vuelve a la cola y se
+     * para hasta la siguiente ventana.
+     */
+    public synchronized int flush() {
+        int total = 0;
+        List<InventoryUpdate> batch;
+        do {
+            batch = drain();
+            if (batch.isEmpty()) {
+                break;
+            }
+            List<InventoryUpdate> toWrite = batch;
+            try {
+                flushTimer.record(() -> transactionTemplate.executeWithoutResult(status -> write(toWrite)));
+            } catch (RuntimeException ex) {
+                requeue(batch);
+                failedBatches.increment();
+                log.warn("Inventory write-behind batch of {} failed, will be retried: {}", batch.size(),
+                        ex.getMessage());
+                break;
+            }
+            slots.release(batch.size());
+            written.increment(batch.size());
+            batchSize.record(batch.size());
+            total += batch.size();
+        } while (batch.size() == maxBatch);
+        return total;
+    }
+
+    private List<InventoryUpdate> drain() {
+        List<InventoryUpdate> batch = new ArrayList<>(Math.min(maxBatch, pending.size()));
+        for (String sku : pending.keySet()) {
+            InventoryUpdate update = pending.remove(sku);
+            if (update != null) {
+                batch.add(update);
+                if (batch.size() == maxBatch) {
+                    break;
+                }
+            }
+        }
+        return batch;
+    }
+
+    private void write(List<InventoryUpdate> batch) {
+        productRepository.updateInventory(batch);
+        // Estado final de lo actualizado, para los eventos (una sola lectura por lote)
+        List<Product> updated = productRepository.findBySkuIn(batch.stream().map(InventoryUpdate::sku).toList());
+        for (Product product : updated) {
+            ProductResponseDTO response = productMapper.toResponseDTO(product);
+            // Stock y precio no cambian la categoría ni el estado activo
+            eventPublisher.publishEvent(new ProductChangedEvent(ChangeType.UPDATED, product.getId(), response,
+                    product.getVersion(), response.getCategoryId(), response.getActive()));
+        }
+        if (updated.size() < batch.size()) {
+            unknownSku.increment(batch.size() - updated.size());
+            log.warn("Inventory write-behind skipped {} unknown SKUs", batch.size() - updated.size());
+        }
+        log.debug("Inventory write-behind wrote {} products", updated.size());
+    }
+
+    // Las correcciones llegadas mientras tanto son más nuevas: ganan campo a campo
+    private void requeue(List<InventoryUpdate> batch) {
+        for (InventoryUpdate failed : batch) {
+            boolean[] merged = { false };
+            pending.merge(failed.sku(), failed, (current, older) -> {
+                merged[0] = true;
+                return older.overriddenBy(current);
+            });
+            if (merged[0]) {
+                slots.release();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (enabled && !pending.isEmpty()) {
+            log.info("Flushing {} pending inventory updates before shutdown", pending.size());
+            flush();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.ecommerce.catalog.jfr;
+
+import com.ecommerce.catalog.dto.FlightRecordingDTO;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import jdk.jfr.consumer.RecordingFile;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Grabación continua de Java Flight Recorder con la configuración "default"
+ * (la de bajo coste pensada para producción) más los eventos del catálogo.
+ * Se guarda en disco con un máximo de antigüedad y de tamaño, y bajo demanda
+ * se vuelcan los últimos N minutos a un fichero .jfr en dump-dir.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "catalog.jfr.enabled", havingValue = "true")
+public class FlightRecorderService {
+
+    static final String RECORDING_NAME = "catalog-continuous";
+
+    private static final DateTimeFormatter FILE_TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+
+    private final Duration maxAge;
+    private final long maxSizeBytes;
+    private final Path dumpDir;
+
+    private volatile Recording recording;
+
+    public FlightRecorderService(@Value("${catalog.jfr.max-age-minutes:30}") long maxAgeMinutes,
+            @Value("${catalog.jfr.max-size-mb:250}") long maxSizeMb,
+            @Value("${catalog.jfr.dump-dir:logs/jfr}") String dumpDir) {
+        this.maxAge = Duration.ofMinutes(maxAgeMinutes);
+        this.maxSizeBytes = maxSizeMb * 1024 * 1024;
+        this.dumpDir = Path.of(dumpDir);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() throws IOException, ParseException {
+        if (recording != null) {
+            return;
+        }
+        Recording continuous = new Recording(Configuration.getConfiguration("default"));
+        continuous.setName(RECORDING_NAME);
+        continuous.setToDisk(true);
+        continuous.setMaxAge(maxAge);
+        continuous.setMaxSize(maxSizeBytes);
+        continuous.enable(ProductServiceEvent.class);
+        continuous.enable(SqlStatementEvent.class);
+        continuous.start();
+        recording = continuous;
+        log.info("Continuous flight recording started (maxAge={}, maxSize={} MB)", maxAge,
+                maxSizeBytes / (1024 * 1024));
+    }
+
+    public long getMaxAgeMinutes() {
+        return maxAge.toMinutes();
+    }
+
+    /**
+     * Vuelca los últimos minutos de la grabación continua (acotados a
+     * [1, max-age-minutes]). Los eventos anteriores se descartan al copiar,
+     * así que el fichero solo contiene la ventana pedida.
+     */
+    public synchronized FlightRecordingDTO dump(long minutes) throws IOException {
+        Recording continuous = recording;
+        if (continuous == null || continuous.getState() != RecordingState.RUNNING) {
+            throw new IllegalStateException("Flight recording is not running");
+        }
+        long window = Math.min(Math.max(minutes, 1), maxAge.toMinutes());
+        Instant to = Instant.now();
+        Instant from = to.minus(Duration.ofMinutes(window));
+
+        Files.createDirectories(dumpDir);
+        Path target = dumpDir.resolve("catalog-" + FILE_TIMESTAMP.format(to) + "-" + window + "m.jfr");
+        Path full = Files.createTempFile(dumpDir, "catalog-", ".jfr.part");
+        try {
+            continuous.dump(full);
+            try (RecordingFile file = new RecordingFile(full)) {
+                file.write(target, event -> !event.getEndTime().isBefore(from));
+            }
+        } finally {
+            Files.deleteIfExists(full);
+        }
+        long size = Files.size(target);
+        log.info("Dumped last {} minutes of flight recording to {} ({} bytes)", window, target, size);
+        return new FlightRecordingDTO(target.toAbsolutePath().toString(), size, from, to);
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+}
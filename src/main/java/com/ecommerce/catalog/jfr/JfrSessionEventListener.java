@@ -0,0 +1,57 @@
+package com.ecommerce.catalog.jfr;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Emite un SqlStatementEvent por cada ejecución JDBC de la sesión. Hibernate
+ * crea una instancia por sesión (hibernate.session.events.auto), así que el
+ * evento en curso no se comparte entre hilos.
+ */
+public class JfrSessionEventListener extends BaseSessionEventListener {
+
+    private SqlStatementEvent current;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        beginStatement(false);
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        commitStatement();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        beginStatement(true);
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        commitStatement();
+    }
+
+    private void beginStatement(boolean batch) {
+        SqlStatementEvent event = new SqlStatementEvent();
+        if (!event.isEnabled()) {
+            current = null;
+            return;
+        }
+        event.batch = batch;
+        event.begin();
+        current = event;
+    }
+
+    private void commitStatement() {
+        SqlStatementEvent event = current;
+        if (event == null) {
+            return;
+        }
+        current = null;
+        event.end();
+        if (event.shouldCommit()) {
+            event.sql = JfrStatementInspector.lastSql();
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.ecommerce.catalog.jfr;
+
+import com.ecommerce.catalog.timing.TimingStatementInspector;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Guarda el SQL que Hibernate está a punto de preparar para que
+ * JfrSessionEventListener lo adjunte al SqlStatementEvent de su ejecución, y
+ * después pasa el SQL al StatementInspector que ya estuviera configurado.
+ */
+public class JfrStatementInspector implements StatementInspector {
+
+    private static final ThreadLocal<String> LAST_SQL = new ThreadLocal<>();
+
+    private final StatementInspector delegate;
+
+    JfrStatementInspector(StatementInspector delegate) {
+        this.delegate = delegate;
+    }
+
+    public static JfrStatementInspector wrapping(Object configured) {
+        return new JfrStatementInspector(TimingStatementInspector.resolve(configured));
+    }
+
+    @Override
+    public String inspect(String sql) {
+        String inspected = delegate == null ? sql : delegate.inspect(sql);
+        LAST_SQL.set(inspected);
+        return inspected;
+    }
+
+    static String lastSql() {
+        return LAST_SQL.get();
+    }
+}
@@ -0,0 +1,54 @@
+package com.ecommerce.catalog.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Una llamada a ProductService (duración = la del evento). El decorador del
+ * snapshot y ProductServiceImpl emiten cada uno el suyo, así que en JMC una
+ * lectura servida por la base de datos aparece anidada dentro de la del
+ * snapshot en el mismo hilo.
+ */
+@Name(ProductServiceEvent.NAME)
+@Label("Product Service Call")
+@Category({"Catalog", "Service"})
+@Description("Llamada a ProductService con modo de filtrado, paginación y filas devueltas")
+@StackTrace(false)
+public class ProductServiceEvent extends jdk.jfr.Event {
+
+    public static final String NAME = "com.ecommerce.catalog.ProductService";
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Implementation")
+    String implementation;
+
+    @Label("Mode")
+    @Description("all, search, category, filtered, id, sku o write")
+    String mode;
+
+    @Label("Arguments")
+    String arguments;
+
+    @Label("Page")
+    int page = -1;
+
+    @Label("Page Size")
+    int pageSize = -1;
+
+    @Label("Sort")
+    String sort;
+
+    @Label("Rows")
+    int rows;
+
+    @Label("Total Rows")
+    long totalRows = -1;
+
+    @Label("Error")
+    String error;
+}
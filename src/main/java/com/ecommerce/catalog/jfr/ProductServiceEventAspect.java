@@ -0,0 +1,122 @@
+package com.ecommerce.catalog.jfr;
+
+import com.ecommerce.catalog.dto.ProductFilter;
+import com.ecommerce.catalog.dto.ProductQuery;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Emite un ProductServiceEvent por cada llamada a ProductService. Si la
+ * grabación no tiene el evento activado solo cuesta crear el evento y
+ * consultar isEnabled().
+ *
+ * @Order(-2) lo deja por fuera de la coalescencia y del limitador: la
+ * duración incluye la espera en la cola y en la consulta compartida.
+ */
+@Aspect
+@Component
+@Order(-2)
+@ConditionalOnProperty(name = "catalog.jfr.enabled", havingValue = "true")
+public class ProductServiceEventAspect {
+
+    private static final int MAX_ARGUMENTS_LENGTH = 256;
+
+    @Around("execution(* com.ecommerce.catalog.service.ProductService+.*(..))")
+    public Object record(ProceedingJoinPoint joinPoint) throws Throwable {
+        ProductServiceEvent event = new ProductServiceEvent();
+        if (!event.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        event.begin();
+        Object result = null;
+        try {
+            result = joinPoint.proceed();
+            return result;
+        } catch (Throwable ex) {
+            event.error = ex.getClass().getSimpleName();
+            throw ex;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                describe(event, joinPoint, result);
+                event.commit();
+            }
+        }
+    }
+
+    private static void describe(ProductServiceEvent event, ProceedingJoinPoint joinPoint, Object result) {
+        String operation = joinPoint.getSignature().getName();
+        event.operation = operation;
+        event.implementation = joinPoint.getTarget().getClass().getSimpleName();
+
+        StringBuilder arguments = new StringBuilder();
+        String mode = null;
+        for (Object arg : joinPoint.getArgs()) {
+            if (arg instanceof Pageable pageable) {
+                if (pageable.isPaged()) {
+                    event.page = pageable.getPageNumber();
+                    event.pageSize = pageable.getPageSize();
+                }
+                if (pageable.getSort().isSorted()) {
+                    event.sort = pageable.getSort().toString();
+                }
+                continue;
+            }
+            if (arg instanceof ProductQuery query) {
+                mode = modeOf(query);
+            } else if (arg instanceof ProductFilter) {
+                mode = "filtered";
+            }
+            if (!arguments.isEmpty()) {
+                arguments.append(", ");
+            }
+            arguments.append(arg);
+        }
+        event.mode = mode != null ? mode : modeOf(operation);
+        event.arguments = arguments.length() > MAX_ARGUMENTS_LENGTH
+                ? arguments.substring(0, MAX_ARGUMENTS_LENGTH)
+                : arguments.toString();
+
+        if (result instanceof Page<?> page) {
+            event.rows = page.getNumberOfElements();
+            event.totalRows = page.getTotalElements();
+        } else if (result instanceof Collection<?> collection) {
+            event.rows = collection.size();
+        } else if (result instanceof Map<?, ?> map) {
+            // Un producto con sparse fieldsets también es un Map
+            event.rows = operation.startsWith("getProductById") ? 1 : map.size();
+        } else {
+            event.rows = result == null ? 0 : 1;
+        }
+    }
+
+    private static String modeOf(ProductQuery query) {
+        return switch (query) {
+            case ProductQuery.All all -> "all";
+            case ProductQuery.Search search -> "search";
+            case ProductQuery.ByCategory byCategory -> "category";
+            case ProductQuery.Filtered filtered -> "filtered";
+        };
+    }
+
+    private static String modeOf(String operation) {
+        return switch (operation) {
+            case "getAllProducts" -> "all";
+            case "searchProducts" -> "search";
+            case "getProductsByCategory" -> "category";
+            case "filterProducts" -> "filtered";
+            case "getProductById" -> "id";
+            case "getProductBySku", "getProductsBySkus" -> "sku";
+            default -> "write";
+        };
+    }
+}
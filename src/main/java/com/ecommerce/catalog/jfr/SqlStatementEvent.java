@@ -0,0 +1,27 @@
+package com.ecommerce.catalog.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Ejecución de una sentencia SQL por Hibernate (de executeQuery/executeUpdate
+ * a la vuelta del driver; no incluye recorrer el ResultSet).
+ */
+@Name(SqlStatementEvent.NAME)
+@Label("SQL Statement")
+@Category({"Catalog", "Database"})
+@Description("Sentencia SQL ejecutada por Hibernate")
+@StackTrace(false)
+public class SqlStatementEvent extends jdk.jfr.Event {
+
+    public static final String NAME = "com.ecommerce.catalog.SqlStatement";
+
+    @Label("SQL")
+    String sql;
+
+    @Label("Batch")
+    boolean batch;
+}
@@ -3,6 +3,8 @@ package com.ecommerce.catalog.mapper;
 import com.ecommerce.catalog.dto.ProductRequestDTO;
 import com.ecommerce.catalog.dto.ProductResponseDTO;
 import com.ecommerce.catalog.entity.Product;
+import com.ecommerce.catalog.entity.ProductListing;
+import com.ecommerce.catalog.readmodel.SearchText;
 import org.springframework.stereotype.Component;
 
 /**
@@ -53,6 +55,38 @@ public class ProductMapper {
         return dto;
     }
 
+    /**
+     * Convierte una fila del modelo de lectura (solo productos activos) a
+     * ProductResponseDTO. La fila no guarda descripción ni fechas, así que
+     * esos campos salen a null.
+     */
+    public ProductResponseDTO fromListing(ProductListing listing) {
+        if (listing == null) {
+            return null;
+        }
+        ProductResponseDTO dto = new ProductResponseDTO();
+        dto.setId(listing.getId());
+        dto.setName(listing.getName());
+        dto.setPrice(listing.getPrice());
+        dto.setStock(listing.getStock());
+        dto.setCategoryId(listing.getCategoryId());
+        dto.setSku(listing.getSku());
+        dto.setActive(true);
+        return dto;
+    }
+
+    /**
+     * Fila del modelo de lectura para el estado de un producto (DTO ya
+     * mapeado) y su versión.
+     */
+    public ProductListing toListing(ProductResponseDTO dto, long version) {
+        if (dto == null) {
+            return null;
+        }
+        return new ProductListing(dto.getId(), dto.getName(), dto.getPrice(), dto.getStock(),
+                dto.getCategoryId(), dto.getSku(), SearchText.of(dto.getName(), dto.getDescription()), version);
+    }
+
     /**
      * Actualiza una entidad Product existente con datos del DTO.
      * Preserva el ID y los timestamps.
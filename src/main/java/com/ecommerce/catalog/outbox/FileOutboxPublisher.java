@@ -0,0 +1,56 @@
+package com.ecommerce.catalog.outbox;
+
+import com.ecommerce.catalog.entity.OutboxEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Publicador por defecto: añade cada evento como una línea JSON a un fichero.
+ * Sustituto local de un broker real; útil en desarrollo y en demos.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "catalog.outbox.publisher", havingValue = "file", matchIfMissing = true)
+public class FileOutboxPublisher implements OutboxPublisher {
+
+    private final Path file;
+    private final ObjectMapper objectMapper;
+
+    public FileOutboxPublisher(@Value("${catalog.outbox.file:logs/outbox-events.jsonl}") String file,
+            ObjectMapper objectMapper) {
+        this.file = Path.of(file);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxEvent> batch) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (OutboxEvent event : batch) {
+                ObjectNode line = objectMapper.createObjectNode();
+                line.put("eventId", event.getId());
+                line.put("type", event.getEventType());
+                line.put("aggregateId", event.getAggregateId());
+                line.set("payload", objectMapper.readTree(event.getPayload()));
+                writer.write(objectMapper.writeValueAsString(line));
+                writer.newLine();
+            }
+        }
+        log.debug("Published {} outbox events to {}", batch.size(), file);
+    }
+}
@@ -0,0 +1,40 @@
+package com.ecommerce.catalog.outbox;
+
+import com.ecommerce.catalog.entity.OutboxEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Publicador en memoria para pruebas: guarda los últimos eventos publicados.
+ */
+@Component
+@ConditionalOnProperty(name = "catalog.outbox.publisher", havingValue = "memory")
+public class InMemoryOutboxPublisher implements OutboxPublisher {
+
+    private static final int MAX_RETAINED = 10_000;
+
+    private final Deque<OutboxEvent> published = new ArrayDeque<>();
+
+    @Override
+    public synchronized void publish(List<OutboxEvent> batch) {
+        for (OutboxEvent event : batch) {
+            if (published.size() == MAX_RETAINED) {
+                published.removeFirst();
+            }
+            published.addLast(event);
+        }
+    }
+
+    public synchronized List<OutboxEvent> getPublished() {
+        return new ArrayList<>(published);
+    }
+
+    public synchronized void clear() {
+        published.clear();
+    }
+}
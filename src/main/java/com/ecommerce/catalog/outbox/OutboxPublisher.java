@@ -0,0 +1,15 @@
+package com.ecommerce.catalog.outbox;
+
+import com.ecommerce.catalog.entity.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Destino de los eventos del outbox (Kafka, RabbitMQ, un fichero...).
+ * Recibe lotes en orden de id; si lanza una excepción el lote entero se
+ * reintenta en la siguiente pasada (entrega al menos una vez).
+ */
+public interface OutboxPublisher {
+
+    void publish(List<OutboxEvent> batch) throws Exception;
+}
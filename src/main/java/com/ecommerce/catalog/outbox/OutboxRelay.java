@@ -0,0 +1,132 @@
+package com.ecommerce.catalog.outbox;
+
+import com.ecommerce.catalog.entity.OutboxEvent;
+import com.ecommerce.catalog.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drena el outbox en segundo plano: bloquea un lote, lo publica y lo borra
+ * en la misma transacción. Si el publicador falla, la transacción se revierte
+ * y el lote se reintenta en la siguiente pasada (al menos una vez; los
+ * consumidores deduplican por eventId).
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxPublisher publisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final boolean enabled;
+
+    // Métricas de retraso: se actualizan al final de cada pasada, no al consultar
+    private final AtomicLong pendingEvents = new AtomicLong();
+    private final AtomicLong oldestPendingAgeMs = new AtomicLong();
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+    private final Timer publishTimer;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+            OutboxPublisher publisher,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${catalog.outbox.batch-size:200}") int batchSize,
+            @Value("${catalog.outbox.max-batches-per-run:50}") int maxBatchesPerRun,
+            @Value("${catalog.outbox.relay.enabled:true}") boolean enabled) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.publisher = publisher;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.enabled = enabled;
+
+        Gauge.builder("catalog.outbox.pending", pendingEvents, AtomicLong::get)
+                .description("Eventos del outbox pendientes de publicar")
+                .register(meterRegistry);
+        Gauge.builder("catalog.outbox.lag", oldestPendingAgeMs, v -> v.get() / 1000.0)
+                .description("Antigüedad del evento pendiente más viejo")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.publishedCounter = Counter.builder("catalog.outbox.published").register(meterRegistry);
+        this.failedCounter = Counter.builder("catalog.outbox.failed.batches").register(meterRegistry);
+        this.publishTimer = Timer.builder("catalog.outbox.publish").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.outbox.poll-interval-ms:500}")
+    public void scheduledRelay() {
+        if (enabled) {
+            relayPending();
+        }
+    }
+
+    /**
+     * Publica lotes hasta vaciar el outbox (o llegar al máximo por pasada).
+     * Devuelve el número de eventos publicados.
+     */
+    public int relayPending() {
+        int total = 0;
+        try {
+            for (int i = 0; i < maxBatchesPerRun; i++) {
+                Integer published = transactionTemplate.execute(status -> relayBatch());
+                total += published != null ? published : 0;
+                if (published == null || published < batchSize) {
+                    break;
+                }
+            }
+        } catch (Exception ex) {
+            failedCounter.increment();
+            log.warn("Outbox relay failed, batch will be retried: {}", ex.getMessage());
+        }
+        updateLagMetrics();
+        return total;
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> batch = outboxEventRepository.lockNextBatch(PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        publishTimer.record(() -> {
+            try {
+                publisher.publish(batch);
+            } catch (Exception ex) {
+                throw new IllegalStateException("Outbox publisher error", ex);
+            }
+        });
+        outboxEventRepository.deleteBatch(batch.stream().map(OutboxEvent::getId).toList());
+        publishedCounter.increment(batch.size());
+        log.debug("Relayed {} outbox events (last id {})", batch.size(), batch.get(batch.size() - 1).getId());
+        return batch.size();
+    }
+
+    private void updateLagMetrics() {
+        try {
+            pendingEvents.set(outboxEventRepository.count());
+            oldestPendingAgeMs.set(outboxEventRepository.findFirstByOrderByIdAsc()
+                    .map(e -> Duration.between(e.getCreatedAt(), LocalDateTime.now()).toMillis())
+                    .orElse(0L));
+        } catch (Exception ex) {
+            log.debug("Could not refresh outbox lag metrics: {}", ex.getMessage());
+        }
+    }
+
+    public long getPendingEvents() {
+        return pendingEvents.get();
+    }
+}
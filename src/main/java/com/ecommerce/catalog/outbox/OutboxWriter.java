@@ -0,0 +1,36 @@
+package com.ecommerce.catalog.outbox;
+
+import com.ecommerce.catalog.entity.OutboxEvent;
+import com.ecommerce.catalog.event.ProductChangedEvent;
+import com.ecommerce.catalog.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Escribe cada ProductChangedEvent en el outbox dentro de la transacción
+ * del cambio: o se guardan ambos o ninguno (sin doble escritura).
+ * La publicación real la hace OutboxRelay fuera del camino de la petición.
+ */
+@Component
+public class OutboxWriter {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    public OutboxWriter(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onProductChanged(ProductChangedEvent event) throws JsonProcessingException {
+        OutboxEvent outboxEvent = new OutboxEvent();
+        outboxEvent.setAggregateId(event.getProductId());
+        outboxEvent.setEventType(event.getType().name());
+        outboxEvent.setPayload(objectMapper.writeValueAsString(event));
+        outboxEventRepository.save(outboxEvent);
+    }
+}
@@ -0,0 +1,118 @@
+package com.ecommerce.catalog.ratelimit;
+
+import com.ecommerce.catalog.security.AuthTokenService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate limiting por cliente delante de ProductController.
+ *
+ * Va antes que Spring Security (orden -200 frente a -100) para que una
+ * ráfaga rechazada no pague autenticación ni toque el pool de Postgres.
+ * El cliente es el usuario de un token Bearer válido (verificarlo cuesta
+ * un HMAC) o, si no hay token, la IP. HTTP Basic se limita por IP a
+ * propósito: inventar usuarios no debe dar buckets nuevos.
+ */
+@Slf4j
+@Component
+@Order(-200)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String BEARER = "Bearer ";
+
+    private final RateLimiter rateLimiter;
+    private final AuthTokenService authTokenService;
+    private final boolean enabled;
+    private final Map<RouteClass, Counter> rejected = new EnumMap<>(RouteClass.class);
+
+    public RateLimitFilter(AuthTokenService authTokenService,
+            MeterRegistry meterRegistry,
+            @Value("${catalog.ratelimit.enabled:true}") boolean enabled,
+            @Value("${catalog.ratelimit.max-clients:100000}") int maxClients,
+            @Value("${catalog.ratelimit.search.capacity:20}") int searchCapacity,
+            @Value("${catalog.ratelimit.search.refill-per-second:5}") double searchRefill,
+            @Value("${catalog.ratelimit.list.capacity:60}") int listCapacity,
+            @Value("${catalog.ratelimit.list.refill-per-second:20}") double listRefill,
+            @Value("${catalog.ratelimit.by-id.capacity:200}") int byIdCapacity,
+            @Value("${catalog.ratelimit.by-id.refill-per-second:100}") double byIdRefill,
+            @Value("${catalog.ratelimit.write.capacity:50}") int writeCapacity,
+            @Value("${catalog.ratelimit.write.refill-per-second:20}") double writeRefill) {
+        this.authTokenService = authTokenService;
+        this.enabled = enabled;
+        Map<RouteClass, RateLimiter.Limit> limits = new EnumMap<>(RouteClass.class);
+        limits.put(RouteClass.SEARCH, new RateLimiter.Limit(searchCapacity, searchRefill));
+        limits.put(RouteClass.LIST, new RateLimiter.Limit(listCapacity, listRefill));
+        limits.put(RouteClass.BY_ID, new RateLimiter.Limit(byIdCapacity, byIdRefill));
+        limits.put(RouteClass.WRITE, new RateLimiter.Limit(writeCapacity, writeRefill));
+        this.rateLimiter = new RateLimiter(limits, maxClients, System::nanoTime);
+        for (RouteClass routeClass : RouteClass.values()) {
+            rejected.put(routeClass, Counter.builder("catalog.ratelimit.rejected")
+                    .tag("route", routeClass.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !request.getRequestURI().startsWith(request.getContextPath() + "/api/v1/products");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RouteClass routeClass = RouteClass.of(request);
+        long waitNanos = rateLimiter.tryAcquire(clientKey(request), routeClass);
+        if (waitNanos == 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        rejected.get(routeClass).increment();
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        log.debug("Rate limit exceeded - client: {}, route: {}, retry after {}s",
+                request.getRemoteAddr(), routeClass, retryAfterSeconds);
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        response.getWriter().write("{\"error\":\"Demasiadas peticiones\",\"message\":"
+                + "\"Límite de peticiones excedido, reintente en " + retryAfterSeconds + " s\"}");
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.regionMatches(true, 0, BEARER, 0, BEARER.length())) {
+            Authentication authentication = authTokenService.verify(header.substring(BEARER.length()).trim());
+            if (authentication != null) {
+                return "user:" + authentication.getName();
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    // Los buckets llenos no aportan nada: se liberan periódicamente
+    @Scheduled(fixedDelayString = "${catalog.ratelimit.eviction-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        rateLimiter.evictIdle();
+    }
+}
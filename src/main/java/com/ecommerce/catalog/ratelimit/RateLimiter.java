@@ -0,0 +1,104 @@
+package com.ecommerce.catalog.ratelimit;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket por cliente y clase de ruta, sin locks.
+ *
+ * Cada bucket es un único AtomicLong con el "tiempo teórico de llegada"
+ * (algoritmo GCRA, equivalente a un token bucket): consumir un token es un
+ * CAS que adelanta ese instante un intervalo de recarga. Un bucket cuyo
+ * instante ya pasó está lleno y es indistinguible de uno nuevo, así que la
+ * limpieza de inactivos puede borrarlo sin perder información.
+ */
+@Slf4j
+public class RateLimiter {
+
+    /**
+     * Límite de una clase de ruta: ráfaga máxima y recarga sostenida.
+     */
+    public record Limit(int capacity, double refillPerSecond) {
+        long intervalNanos() {
+            return (long) (1_000_000_000L / refillPerSecond);
+        }
+
+        long burstNanos() {
+            return intervalNanos() * (capacity - 1L);
+        }
+    }
+
+    private final Map<RouteClass, Limit> limits;
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final int maxBuckets;
+    private final LongSupplier nanoClock;
+
+    public RateLimiter(Map<RouteClass, Limit> limits, int maxBuckets, LongSupplier nanoClock) {
+        this.limits = new EnumMap<>(limits);
+        this.maxBuckets = maxBuckets;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Intenta consumir un token. Devuelve 0 si se permite la petición o los
+     * nanosegundos que faltan para el siguiente token si se rechaza.
+     */
+    public long tryAcquire(String clientKey, RouteClass routeClass) {
+        Limit limit = limits.get(routeClass);
+        long now = nanoClock.getAsLong();
+        AtomicLong bucket = bucketFor(clientKey + '#' + routeClass.ordinal(), now);
+        if (bucket == null) {
+            // Tabla llena incluso tras limpiar: se deja pasar antes que castigar a clientes nuevos
+            return 0;
+        }
+        long interval = limit.intervalNanos();
+        long burst = limit.burstNanos();
+        while (true) {
+            long tat = bucket.get();
+            long base = Math.max(tat, now);
+            if (base - now > burst) {
+                return base - burst - now;
+            }
+            if (bucket.compareAndSet(tat, base + interval)) {
+                return 0;
+            }
+        }
+    }
+
+    private AtomicLong bucketFor(String key, long now) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxBuckets) {
+            evictIdle();
+            if (buckets.size() >= maxBuckets) {
+                return null;
+            }
+        }
+        return buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+    }
+
+    /**
+     * Elimina los buckets llenos (inactivos el tiempo suficiente para recargarse).
+     */
+    public int evictIdle() {
+        long now = nanoClock.getAsLong();
+        int before = buckets.size();
+        buckets.values().removeIf(tat -> tat.get() <= now);
+        int removed = before - buckets.size();
+        if (removed > 0) {
+            log.debug("Rate limiter evicted {} idle buckets, {} remaining", removed, buckets.size());
+        }
+        return removed;
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+}
@@ -0,0 +1,34 @@
+package com.ecommerce.catalog.ratelimit;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Clases de ruta con límites independientes.
+ * Una búsqueda (LIKE sin índice) cuesta mucho más que una lectura por id,
+ * así que cada clase tiene su propio bucket por cliente.
+ */
+public enum RouteClass {
+    SEARCH, LIST, BY_ID, WRITE;
+
+    private static final String BASE = "/api/v1/products";
+    private static final String SKU_PREFIX = BASE + "/sku/";
+
+    static RouteClass of(HttpServletRequest request) {
+        if (!"GET".equals(request.getMethod())) {
+            return WRITE;
+        }
+        String keyword = request.getParameter("keyword");
+        if (keyword != null && !keyword.isBlank()) {
+            return SEARCH;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.length() > BASE.length() + 1 && Character.isDigit(path.charAt(BASE.length() + 1))) {
+            return BY_ID;
+        }
+        // Un SKU concreto cuesta lo mismo que una lectura por id
+        if (path.startsWith(SKU_PREFIX) && path.length() > SKU_PREFIX.length()) {
+            return BY_ID;
+        }
+        return LIST;
+    }
+}
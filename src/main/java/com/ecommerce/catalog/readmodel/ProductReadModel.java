@@ -0,0 +1,221 @@
+package com.ecommerce.catalog.readmodel;
+
+import com.ecommerce.catalog.dto.ProductField;
+import com.ecommerce.catalog.dto.ProductFields;
+import com.ecommerce.catalog.dto.ProductQuery;
+import com.ecommerce.catalog.dto.ProductResponseDTO;
+import com.ecommerce.catalog.dto.ReadModelRebuildDTO;
+import com.ecommerce.catalog.entity.Product;
+import com.ecommerce.catalog.entity.ProductListing;
+import com.ecommerce.catalog.event.ProductChangedEvent;
+import com.ecommerce.catalog.mapper.ProductMapper;
+import com.ecommerce.catalog.repository.ProductListingRepository;
+import com.ecommerce.catalog.repository.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Modelo de lectura del listado público (catalog.read-model.enabled=true):
+ * getAllProducts, searchProducts, getProductsByCategory y los listados con
+ * fields= (findProducts) leen de productos_listado en vez de productos.
+ *
+ * - Solo contiene productos activos, así que con el modelo activado esos
+ *   listados dejan de incluir los inactivos (como el modo snapshot).
+ * - Solo guarda los campos de la tarjeta: sin descripción ni fechas. Ordenar
+ *   por createdAt/updatedAt, o pedir esos campos en fields=, sigue leyendo de
+ *   productos.
+ * - Se mantiene en la misma transacción que cada escritura de
+ *   ProductServiceImpl (BEFORE_COMMIT): un producto creado o modificado sale
+ *   en el listado en cuanto se confirma, y si falla el modelo de lectura la
+ *   escritura se deshace.
+ * - La búsqueda compara con search_text, ya en minúsculas y sin tildes:
+ *   "cafe" encuentra "Café".
+ * - rebuild() la recalcula entera por lotes de ids (POST
+ *   /api/v1/admin/read-model/rebuild); hace falta tras cargar datos sin pasar
+ *   por el servicio. Al arrancar se reconstruye solo si está vacía y, hasta
+ *   que termina, las lecturas siguen yendo a productos.
+ */
+@Slf4j
+@Component
+public class ProductReadModel {
+
+    // Campos de ProductResponseDTO que se pueden servir desde una fila del listado
+    private static final Set<ProductField> LISTING_FIELDS = EnumSet.of(ProductField.ID, ProductField.NAME,
+            ProductField.PRICE, ProductField.STOCK, ProductField.CATEGORY_ID, ProductField.SKU, ProductField.ACTIVE);
+
+    // Ordenaciones de SortPolicy que tienen columna (e índice) en productos_listado
+    private static final Set<String> LISTING_SORTS = Set.of("id", "name", "price");
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final ProductListingRepository listingRepository;
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter readModelReads;
+    private final Counter databaseReads;
+
+    private volatile boolean ready;
+
+    public ProductReadModel(ProductListingRepository listingRepository, ProductRepository productRepository,
+            ProductMapper productMapper, TransactionTemplate transactionTemplate, MeterRegistry meterRegistry,
+            @Value("${catalog.read-model.enabled:false}") boolean enabled,
+            @Value("${catalog.read-model.rebuild-batch-size:1000}") int batchSize) {
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.listingRepository = listingRepository;
+        this.productRepository = productRepository;
+        this.productMapper = productMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.readModelReads = Counter.builder("catalog.read-model.reads").tag("source", "read-model")
+                .register(meterRegistry);
+        this.databaseReads = Counter.builder("catalog.read-model.reads").tag("source", "database")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (!enabled) {
+            return;
+        }
+        if (listingRepository.findFirstByOrderByIdAsc().isPresent()) {
+            ready = true;
+            log.info("Product read model ready");
+        } else {
+            rebuild();
+        }
+    }
+
+    /**
+     * Página del listado completo, o vacío si hay que leer de productos
+     * (modelo desactivado o aún sin construir).
+     */
+    public Optional<Page<ProductResponseDTO>> findAll(Pageable pageable) {
+        return read(pageable, () -> listingRepository.findAll(pageable));
+    }
+
+    public Optional<Page<ProductResponseDTO>> search(String term, Pageable pageable) {
+        return read(pageable, () -> listingRepository.search(SearchText.containsPattern(term), pageable));
+    }
+
+    public Optional<Page<ProductResponseDTO>> byCategory(Long categoryId, Pageable pageable) {
+        return read(pageable, () -> listingRepository.findByCategoryId(categoryId, pageable));
+    }
+
+    /**
+     * Página de un listado con fields= ya recortada a los campos pedidos, o
+     * vacío si hay que leer de productos: el filtro combinado, o campos que
+     * la fila del listado no guarda (descripción, fechas).
+     */
+    public Optional<Page<Map<String, Object>>> find(ProductQuery query, ProductFields fields, Pageable pageable) {
+        if (!enabled || !LISTING_FIELDS.containsAll(fields.fields())) {
+            return Optional.empty();
+        }
+        Optional<Page<ProductResponseDTO>> page = switch (query) {
+            case ProductQuery.All all -> findAll(pageable);
+            case ProductQuery.Search search -> search(search.keyword().trim(), pageable);
+            case ProductQuery.ByCategory byCategory -> byCategory(byCategory.categoryId(), pageable);
+            case ProductQuery.Filtered filtered -> Optional.empty();
+        };
+        return page.map(products -> products.map(fields::project));
+    }
+
+    private Optional<Page<ProductResponseDTO>> read(Pageable pageable, Supplier<Page<ProductListing>> query) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        if (!ready || !servesSort(pageable.getSort())) {
+            databaseReads.increment();
+            return Optional.empty();
+        }
+        readModelReads.increment();
+        return Optional.of(query.get().map(productMapper::fromListing));
+    }
+
+    private static boolean servesSort(Sort sort) {
+        return sort.stream().allMatch(order -> LISTING_SORTS.contains(order.getProperty()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        ProductResponseDTO product = event.getProduct();
+        if (event.getType() == ProductChangedEvent.ChangeType.DELETED || product == null
+                || !Boolean.TRUE.equals(product.getActive())) {
+            listingRepository.deleteListing(event.getProductId());
+        } else {
+            listingRepository.upsert(List.of(productMapper.toListing(product,
+                    event.getVersion() == null ? 0 : event.getVersion())));
+        }
+    }
+
+    /**
+     * Recalcula productos_listado desde productos por lotes de ids, cada uno
+     * en su transacción. Las filas se corrigen en su sitio, así que las
+     * lecturas pueden seguir sirviéndose mientras tanto. Los productos creados
+     * después de empezar (id mayor que el máximo inicial) ya los escribe
+     * onProductChanged.
+     */
+    public synchronized ReadModelRebuildDTO rebuild() {
+        long start = System.nanoTime();
+        long maxId = productRepository.findMaxId();
+        long afterId = 0;
+        long rows = 0;
+        while (afterId < maxId) {
+            long from = afterId;
+            long[] batch = transactionTemplate.execute(status -> copyBatch(from, maxId));
+            afterId = batch[0];
+            rows += batch[1];
+        }
+        ready = true;
+        long durationMs = (System.nanoTime() - start) / 1_000_000;
+        log.info("Product read model rebuilt: {} active products in {} ms", rows, durationMs);
+        return new ReadModelRebuildDTO(rows, durationMs);
+    }
+
+    // Devuelve {último id del tramo, filas activas copiadas}
+    private long[] copyBatch(long afterId, long maxId) {
+        List<Product> products = productRepository.findBatchForShare(afterId, maxId, PageRequest.of(0, batchSize));
+        long lastId = products.size() < batchSize ? maxId : products.get(products.size() - 1).getId();
+
+        List<ProductListing> listings = new ArrayList<>(products.size());
+        List<Long> keep = new ArrayList<>(products.size());
+        for (Product product : products) {
+            if (Boolean.TRUE.equals(product.getActive())) {
+                listings.add(productMapper.toListing(productMapper.toResponseDTO(product),
+                        product.getVersion() == null ? 0 : product.getVersion()));
+                keep.add(product.getId());
+            }
+        }
+        // NOT IN () no es SQL válido: -1 no es el id de ningún producto
+        listingRepository.deleteRangeExcept(afterId, lastId, keep.isEmpty() ? List.of(-1L) : keep);
+        listingRepository.upsert(listings);
+        return new long[] { lastId, listings.size() };
+    }
+}
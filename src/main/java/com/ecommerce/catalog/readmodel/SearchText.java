@@ -0,0 +1,48 @@
+package com.ecommerce.catalog.readmodel;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normalización del texto de búsqueda del modelo de lectura: minúsculas y
+ * sin tildes ni diéresis ("Café Ñandú" -> "cafe nandu"). Se aplica igual al
+ * guardar (search_text) y al buscar, así que "cafe" encuentra "Café" con un
+ * LIKE simple, sin LOWER() por fila.
+ */
+public final class SearchText {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private SearchText() {
+    }
+
+    public static String normalize(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    public static String of(String name, String description) {
+        return normalize(name) + ' ' + normalize(description);
+    }
+
+    /**
+     * Patrón LIKE "contiene" para el término ya normalizado, escapando los
+     * comodines con '\'.
+     */
+    public static String containsPattern(String term) {
+        String normalized = normalize(term);
+        StringBuilder pattern = new StringBuilder(normalized.length() + 2).append('%');
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            if (c == '%' || c == '_' || c == '\\') {
+                pattern.append('\\');
+            }
+            pattern.append(c);
+        }
+        return pattern.append('%').toString();
+    }
+}
@@ -0,0 +1,21 @@
+package com.ecommerce.catalog.repository;
+
+import com.ecommerce.catalog.entity.CategoryClosure;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CategoryClosureRepository extends JpaRepository<CategoryClosure, CategoryClosure.Key> {
+
+      // Alta de una hoja: copia las filas de los ancestros del padre (depth + 1)
+      // y añade la fila de la propia categoría, todo en una sentencia
+      @Modifying
+      @Query(value = "INSERT INTO categorias_cierre (ancestor_id, descendant_id, depth)"
+                  + " SELECT ancestor_id, CAST(:categoryId AS BIGINT), depth + 1 FROM categorias_cierre"
+                  + " WHERE descendant_id = :parentId"
+                  + " UNION ALL SELECT CAST(:categoryId AS BIGINT), CAST(:categoryId AS BIGINT), 0", nativeQuery = true)
+      int insertLeaf(@Param("categoryId") Long categoryId, @Param("parentId") Long parentId);
+}
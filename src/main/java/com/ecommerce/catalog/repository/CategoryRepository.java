@@ -0,0 +1,9 @@
+package com.ecommerce.catalog.repository;
+
+import com.ecommerce.catalog.entity.Category;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CategoryRepository extends JpaRepository<Category, Long> {
+}
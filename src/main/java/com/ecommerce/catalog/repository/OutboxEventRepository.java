@@ -0,0 +1,35 @@
+package com.ecommerce.catalog.repository;
+
+import com.ecommerce.catalog.entity.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+      // FOR UPDATE SKIP LOCKED: varias réplicas pueden drenar sin pisarse
+      // (-2 = SKIP_LOCKED en Hibernate; en H2 se ignora)
+      @Lock(LockModeType.PESSIMISTIC_WRITE)
+      @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+      @Query("SELECT e FROM OutboxEvent e ORDER BY e.id")
+      List<OutboxEvent> lockNextBatch(Pageable pageable);
+
+      @Modifying
+      @Query("DELETE FROM OutboxEvent e WHERE e.id IN :ids")
+      int deleteBatch(@Param("ids") Collection<Long> ids);
+
+      Optional<OutboxEvent> findFirstByOrderByIdAsc();
+
+}
@@ -0,0 +1,38 @@
+package com.ecommerce.catalog.repository;
+
+import com.ecommerce.catalog.entity.ProductListing;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Optional;
+
+@Repository
+public interface ProductListingRepository extends JpaRepository<ProductListing, Long>,
+            ProductListingRepositoryCustom {
+
+      // Usa idx_listing_category_name
+      Page<ProductListing> findByCategoryId(Long categoryId, Pageable pageable);
+
+      // El patrón ya viene normalizado y escapado (SearchText.containsPattern). En Postgres
+      // lo sirve el índice de trigramas de db/postgresql/productos_listado.sql (términos de 3+ caracteres)
+      @Query("SELECT l FROM ProductListing l WHERE l.searchText LIKE :pattern ESCAPE '\\'")
+      Page<ProductListing> search(@Param("pattern") String pattern, Pageable pageable);
+
+      // Comprobación barata de que el modelo de lectura tiene filas (sin COUNT)
+      Optional<ProductListing> findFirstByOrderByIdAsc();
+
+      @Modifying
+      @Query("DELETE FROM ProductListing l WHERE l.id = :id")
+      int deleteListing(@Param("id") Long id);
+
+      // Reconstrucción: filas del tramo (from, to] cuyo producto ya no existe o no está activo
+      @Modifying
+      @Query("DELETE FROM ProductListing l WHERE l.id > :from AND l.id <= :to AND l.id NOT IN :keep")
+      int deleteRangeExcept(@Param("from") Long from, @Param("to") Long to, @Param("keep") Collection<Long> keep);
+}
@@ -0,0 +1,18 @@
+package com.ecommerce.catalog.repository;
+
+import com.ecommerce.catalog.entity.ProductListing;
+
+import java.util.List;
+
+/**
+ * Escritura del modelo de lectura por lotes JDBC.
+ */
+public interface ProductListingRepositoryCustom {
+
+      /**
+       * Inserta o reemplaza cada fila por id (ON CONFLICT en PostgreSQL, MERGE
+       * en H2). En PostgreSQL una fila con una versión más antigua que la
+       * guardada no la sobrescribe.
+       */
+      void upsert(List<ProductListing> listings);
+}
@@ -0,0 +1,88 @@
+package com.ecommerce.catalog.repository;
+
+import com.ecommerce.catalog.entity.ProductListing;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Implementación de ProductListingRepositoryCustom con SQL nativo en un
+ * único lote JDBC sobre la conexión de la transacción en curso. En los dos
+ * dialectos una fila solo se sobrescribe con una versión igual o mayor.
+ */
+public class ProductListingRepositoryCustomImpl implements ProductListingRepositoryCustom {
+
+      private static final String COLUMNS = "id, name, price, stock, category_id, sku, search_text, version";
+
+      private static final String VALUES = "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+      // Misma condición de versión que en Postgres (WHEN MATCHED AND ...)
+      private static final String H2_UPSERT = "MERGE INTO productos_listado t USING (" + VALUES + ") AS s ("
+                  + COLUMNS + ") ON t.id = s.id"
+                  + " WHEN MATCHED AND t.version <= s.version THEN UPDATE SET name = s.name, "
+                  + "price = s.price, stock = s.stock, category_id = s.category_id, sku = s.sku, "
+                  + "search_text = s.search_text, version = s.version"
+                  + " WHEN NOT MATCHED THEN INSERT (" + COLUMNS + ") VALUES (s.id, s.name, s.price, "
+                  + "s.stock, s.category_id, s.sku, s.search_text, s.version)";
+
+      private static final String POSTGRES_UPSERT = "INSERT INTO productos_listado (" + COLUMNS + ") " + VALUES
+                  + " ON CONFLICT (id) DO UPDATE SET name = EXCLUDED.name, "
+                  + "price = EXCLUDED.price, stock = EXCLUDED.stock, category_id = EXCLUDED.category_id, "
+                  + "sku = EXCLUDED.sku, search_text = EXCLUDED.search_text, version = EXCLUDED.version "
+                  + "WHERE productos_listado.version <= EXCLUDED.version";
+
+      @PersistenceContext
+      private EntityManager entityManager;
+
+      private volatile Boolean h2;
+
+      @Override
+      @Transactional
+      public void upsert(List<ProductListing> listings) {
+            if (listings.isEmpty()) {
+                  return;
+            }
+            String sql = isH2() ? H2_UPSERT : POSTGRES_UPSERT;
+            entityManager.unwrap(Session.class).doWork(connection -> {
+                  try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                        for (ProductListing listing : listings) {
+                              statement.setLong(1, listing.getId());
+                              statement.setString(2, listing.getName());
+                              statement.setBigDecimal(3, listing.getPrice());
+                              statement.setInt(4, listing.getStock());
+                              if (listing.getCategoryId() == null) {
+                                    statement.setNull(5, Types.BIGINT);
+                              } else {
+                                    statement.setLong(5, listing.getCategoryId());
+                              }
+                              statement.setString(6, listing.getSku());
+                              statement.setString(7, listing.getSearchText());
+                              statement.setLong(8, listing.getVersion());
+                              statement.addBatch();
+                        }
+                        statement.executeBatch();
+                  }
+            });
+      }
+
+      private boolean isH2() {
+            Boolean result = h2;
+            if (result == null) {
+                  Dialect dialect = entityManager.getEntityManagerFactory()
+                              .unwrap(SessionFactoryImplementor.class)
+                              .getJdbcServices()
+                              .getDialect();
+                  result = dialect instanceof H2Dialect;
+                  h2 = result;
+            }
+            return result;
+      }
+}
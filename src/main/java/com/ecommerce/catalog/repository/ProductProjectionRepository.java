@@ -0,0 +1,22 @@
+package com.ecommerce.catalog.repository;
+
+import com.ecommerce.catalog.dto.ProductFields;
+import com.ecommerce.catalog.dto.ProductQuery;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Lecturas con proyección dinámica (sparse fieldsets): el SELECT solo
+ * incluye las columnas pedidas, así un listado que no necesita description
+ * no la lee de disco ni la transfiere desde la base de datos.
+ * Cada fila se devuelve como un mapa campo -> valor en el orden de ProductField.
+ */
+public interface ProductProjectionRepository {
+
+      Page<Map<String, Object>> findProjected(ProductQuery query, ProductFields fields, Pageable pageable);
+
+      Optional<Map<String, Object>> findProjectedById(Long id, ProductFields fields);
+}
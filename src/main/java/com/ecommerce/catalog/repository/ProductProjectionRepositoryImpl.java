@@ -0,0 +1,132 @@
+package com.ecommerce.catalog.repository;
+
+import com.ecommerce.catalog.dto.ProductField;
+import com.ecommerce.catalog.dto.ProductFields;
+import com.ecommerce.catalog.dto.ProductFilter;
+import com.ecommerce.catalog.dto.ProductQuery;
+import com.ecommerce.catalog.entity.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Implementación de ProductProjectionRepository con Criteria API.
+ * Los predicados reproducen las consultas de ProductRepository
+ * (findAll, búsqueda por nombre/descripción, findByCategoryId y
+ * findActiveFiltered) para que el resultado coincida con el listado completo.
+ */
+public class ProductProjectionRepositoryImpl implements ProductProjectionRepository {
+
+      private static final char ESCAPE = '\\';
+
+      @PersistenceContext
+      private EntityManager entityManager;
+
+      @Override
+      public Page<Map<String, Object>> findProjected(ProductQuery query, ProductFields fields, Pageable pageable) {
+            CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+            CriteriaQuery<Tuple> select = cb.createTupleQuery();
+            Root<Product> product = select.from(Product.class);
+            select.multiselect(selections(product, fields))
+                        .where(predicate(query, cb, product))
+                        .orderBy(QueryUtils.toOrders(pageable.getSort(), product, cb));
+
+            TypedQuery<Tuple> typed = entityManager.createQuery(select);
+            if (pageable.isPaged()) {
+                  typed.setFirstResult((int) pageable.getOffset());
+                  typed.setMaxResults(pageable.getPageSize());
+            }
+            List<Map<String, Object>> content = typed.getResultList().stream()
+                        .map(tuple -> toMap(tuple, fields))
+                        .toList();
+
+            return PageableExecutionUtils.getPage(content, pageable, () -> count(query));
+      }
+
+      @Override
+      public Optional<Map<String, Object>> findProjectedById(Long id, ProductFields fields) {
+            CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            CriteriaQuery<Tuple> select = cb.createTupleQuery();
+            Root<Product> product = select.from(Product.class);
+            select.multiselect(selections(product, fields))
+                        .where(cb.equal(product.get("id"), id));
+            return entityManager.createQuery(select).getResultList().stream()
+                        .findFirst()
+                        .map(tuple -> toMap(tuple, fields));
+      }
+
+      private long count(ProductQuery query) {
+            CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            CriteriaQuery<Long> count = cb.createQuery(Long.class);
+            Root<Product> product = count.from(Product.class);
+            count.select(cb.count(product)).where(predicate(query, cb, product));
+            return entityManager.createQuery(count).getSingleResult();
+      }
+
+      private static List<Selection<?>> selections(Root<Product> product, ProductFields fields) {
+            List<Selection<?>> selections = new ArrayList<>(fields.fields().size());
+            for (ProductField field : fields.fields()) {
+                  selections.add(product.get(field.property()).alias(field.property()));
+            }
+            return selections;
+      }
+
+      private static Map<String, Object> toMap(Tuple tuple, ProductFields fields) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (ProductField field : fields.fields()) {
+                  row.put(field.property(), tuple.get(field.property()));
+            }
+            return row;
+      }
+
+      private static Predicate predicate(ProductQuery query, CriteriaBuilder cb, Root<Product> product) {
+            return switch (query) {
+                  case ProductQuery.All all -> cb.conjunction();
+                  case ProductQuery.Search search -> {
+                        String pattern = "%" + escapeLike(search.keyword()).toUpperCase() + "%";
+                        yield cb.or(
+                                    cb.like(cb.upper(product.get("name")), pattern, ESCAPE),
+                                    cb.like(cb.upper(product.get("description")), pattern, ESCAPE));
+                  }
+                  case ProductQuery.ByCategory byCategory -> cb.equal(product.get("categoryId"),
+                              byCategory.categoryId());
+                  case ProductQuery.Filtered filtered -> filtered(filtered.filter(), cb, product);
+            };
+      }
+
+      // Mismas condiciones que ProductRepository.findActiveFiltered
+      private static Predicate filtered(ProductFilter filter, CriteriaBuilder cb, Root<Product> product) {
+            List<Predicate> conditions = new ArrayList<>();
+            conditions.add(cb.isTrue(product.get("active")));
+            if (filter.inStock() != null) {
+                  conditions.add(filter.inStock()
+                              ? cb.gt(product.get("stock"), 0)
+                              : cb.equal(product.get("stock"), 0));
+            }
+            if (filter.hasCategories()) {
+                  conditions.add(product.get("categoryId").in(filter.categoryIds()));
+            }
+            return cb.and(conditions.toArray(Predicate[]::new));
+      }
+
+      private static String escapeLike(String keyword) {
+            return keyword.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+      }
+}
@@ -1,15 +1,24 @@
 package com.ecommerce.catalog.repository;
 
+import com.ecommerce.catalog.dto.CategoryProductCount;
+import com.ecommerce.catalog.dto.ProductSku;
 import com.ecommerce.catalog.entity.Product;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom,
+            ProductProjectionRepository {
 
       Page<Product> findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCase(String nameKeyword,
                   String descriptionKeyword, Pageable pageable);
@@ -17,4 +26,45 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
       @Query("SELECT p FROM Product p WHERE p.categoryId = :categoryId")
       Page<Product> findByCategoryId(@Param("categoryId") Long categoryId, Pageable pageable);
 
+      // Listado público filtrado: activos, opcionalmente con/sin stock y en alguna de las categorías
+      @Query("SELECT p FROM Product p WHERE p.active = true"
+                  + " AND (:inStock IS NULL OR (:inStock = true AND p.stock > 0) OR (:inStock = false AND p.stock = 0))"
+                  + " AND (:anyCategory = true OR p.categoryId IN :categoryIds)")
+      Page<Product> findActiveFiltered(@Param("inStock") Boolean inStock,
+                  @Param("anyCategory") boolean anyCategory,
+                  @Param("categoryIds") Collection<Long> categoryIds,
+                  Pageable pageable);
+
+      // Productos activos por categoría (contadores de CategoryTreeCache)
+      @Query("SELECT new com.ecommerce.catalog.dto.CategoryProductCount(p.categoryId, COUNT(p)) FROM Product p"
+                  + " WHERE p.active = true AND p.categoryId IS NOT NULL GROUP BY p.categoryId")
+      List<CategoryProductCount> countActiveByCategory();
+
+      // Carga del snapshot en memoria por lotes (keyset por id, sin OFFSET)
+      List<Product> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+      // Carga del índice de existencia por lotes (solo ids, keyset)
+      @Query("SELECT p.id FROM Product p WHERE p.id > :afterId ORDER BY p.id")
+      List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+      @Query("SELECT COALESCE(MAX(p.id), 0) FROM Product p")
+      long findMaxId();
+
+      // Reconstrucción del modelo de lectura por lotes: FOR SHARE en PostgreSQL, así una
+      // escritura en curso sobre el lote termina antes de copiarlo (y las siguientes esperan)
+      @Lock(LockModeType.PESSIMISTIC_READ)
+      @Query("SELECT p FROM Product p WHERE p.id > :afterId AND p.id <= :maxId ORDER BY p.id")
+      List<Product> findBatchForShare(@Param("afterId") Long afterId, @Param("maxId") Long maxId,
+                  Pageable pageable);
+
+      // Búsqueda por SKU (usa idx_product_sku); respaldo del índice en memoria
+      Optional<Product> findBySku(String sku);
+
+      List<Product> findBySkuIn(Collection<String> skus);
+
+      // Carga del índice de SKU por lotes (keyset por id)
+      @Query("SELECT new com.ecommerce.catalog.dto.ProductSku(p.id, p.sku) FROM Product p"
+                  + " WHERE p.id > :afterId ORDER BY p.id")
+      List<ProductSku> findSkusAfter(@Param("afterId") Long afterId, Pageable pageable);
+
 }
\ No newline at end of file
@@ -0,0 +1,47 @@
+package com.ecommerce.catalog.repository;
+
+import com.ecommerce.catalog.dto.CategoryMembership;
+import com.ecommerce.catalog.dto.InventoryUpdate;
+import com.ecommerce.catalog.entity.Product;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Escrituras de un solo viaje a la base de datos.
+ * Cada método ejecuta una única sentencia que modifica la fila y devuelve
+ * su estado (RETURNING en PostgreSQL, FINAL/OLD TABLE en H2). Un Optional
+ * vacío significa que no existía ninguna fila con ese id.
+ * updateInventory es la excepción: un lote de UPDATE en un solo viaje, sin
+ * devolver las filas.
+ */
+public interface ProductRepositoryCustom {
+
+      /**
+       * UPDATE parcial: name, description y price siempre se escriben; el resto
+       * solo si no es null (mismas reglas que ProductMapper.updateEntityFromDTO).
+       * Devuelve el producto ya actualizado y la categoría y el estado activo
+       * que tenía justo antes, leídos en la misma sentencia con la fila bloqueada.
+       */
+      Optional<UpdatedProduct> updateReturning(Long id, String name, String description, BigDecimal price,
+                  Integer stock, Long categoryId, String sku, Boolean active);
+
+      /**
+       * DELETE ... WHERE id = ? que devuelve la fila borrada.
+       */
+      Optional<Product> deleteReturning(Long id);
+
+      /**
+       * Un único lote JDBC de UPDATE ... WHERE sku = ? con el stock y/o precio
+       * de cada corrección (los campos null no se tocan). Devuelve las filas
+       * afectadas por cada una, en el mismo orden (0 si el SKU no existe).
+       */
+      int[] updateInventory(List<InventoryUpdate> updates);
+
+      /**
+       * Resultado de updateReturning: estado final y pertenencia anterior.
+       */
+      record UpdatedProduct(Product product, CategoryMembership previous) {
+      }
+}
@@ -0,0 +1,203 @@
+package com.ecommerce.catalog.repository;
+
+import com.ecommerce.catalog.dto.CategoryMembership;
+import com.ecommerce.catalog.dto.InventoryUpdate;
+import com.ecommerce.catalog.entity.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.type.StandardBasicTypes;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Implementación de ProductRepositoryCustom con SQL nativo.
+ * PostgreSQL (producción) usa RETURNING; H2 (tests) usa sus tablas delta
+ * FINAL TABLE / OLD TABLE, que dan el mismo resultado en una sentencia.
+ */
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+      private static final String UPDATE_SET = "UPDATE productos SET name = :name, description = :description, "
+                  + "price = :price, stock = COALESCE(:stock, stock), "
+                  + "category_id = COALESCE(:categoryId, category_id), sku = COALESCE(:sku, sku), "
+                  + "active = COALESCE(:active, active), updated_at = :updatedAt, version = version + 1 WHERE id = :id";
+
+      private static final String COLUMNS = "id, name, description, price, stock, category_id, sku, active, "
+                  + "created_at, updated_at, version";
+
+      // La subconsulta bloquea la fila (FOR UPDATE) antes del UPDATE, así que
+      // "previous" son los valores confirmados justo antes y RETURNING los
+      // devuelve junto a la fila nueva
+      private static final String POSTGRES_UPDATE = "UPDATE productos p SET name = :name, description = :description, "
+                  + "price = :price, stock = COALESCE(:stock, p.stock), "
+                  + "category_id = COALESCE(:categoryId, p.category_id), sku = COALESCE(:sku, p.sku), "
+                  + "active = COALESCE(:active, p.active), updated_at = :updatedAt, version = p.version + 1 "
+                  + "FROM (SELECT id, category_id, active FROM productos WHERE id = :id FOR UPDATE) previous "
+                  + "WHERE p.id = previous.id RETURNING p.id, p.name, p.description, p.price, p.stock, "
+                  + "p.category_id, p.sku, p.active, p.created_at, p.updated_at, p.version, "
+                  + "previous.category_id AS previous_category_id, previous.active AS previous_active";
+
+      private static final String DELETE = "DELETE FROM productos WHERE id = :id";
+
+      private static final String UPDATE_INVENTORY = "UPDATE productos SET stock = COALESCE(?, stock), "
+                  + "price = COALESCE(?, price), updated_at = ?, version = version + 1 WHERE sku = ?";
+
+      @PersistenceContext
+      private EntityManager entityManager;
+
+      private volatile Boolean h2;
+
+      @Override
+      @Transactional
+      public Optional<UpdatedProduct> updateReturning(Long id, String name, String description, BigDecimal price,
+                  Integer stock, Long categoryId, String sku, Boolean active) {
+            boolean h2 = isH2();
+            // H2 no puede devolver la fila nueva y la anterior a la vez: OLD TABLE da la
+            // anterior y la nueva se obtiene aplicándole las mismas reglas que UPDATE_SET
+            String sql = h2
+                        ? "SELECT " + COLUMNS + " FROM OLD TABLE (" + UPDATE_SET + ")"
+                        : POSTGRES_UPDATE;
+            // Precisión de la columna (microsegundos): lo devuelto coincide con lo guardado
+            LocalDateTime updatedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+
+            // Los parámetros que pueden ser null van tipados para que COALESCE resuelva el tipo
+            NativeQuery<Object[]> query = scalarQuery(sql, !h2)
+                        .setParameter("id", id)
+                        .setParameter("name", name)
+                        .setParameter("description", description)
+                        .setParameter("price", price)
+                        .setParameter("stock", stock, StandardBasicTypes.INTEGER)
+                        .setParameter("categoryId", categoryId, StandardBasicTypes.LONG)
+                        .setParameter("sku", sku, StandardBasicTypes.STRING)
+                        .setParameter("active", active, StandardBasicTypes.BOOLEAN)
+                        .setParameter("updatedAt", updatedAt);
+            List<Object[]> rows = query.getResultList();
+            if (rows.isEmpty()) {
+                  return Optional.empty();
+            }
+            Object[] row = rows.get(0);
+            if (!h2) {
+                  return Optional.of(new UpdatedProduct(toProduct(row),
+                              new CategoryMembership((Long) row[11], (Boolean) row[12])));
+            }
+            Product previous = toProduct(row);
+            Product updated = toProduct(row);
+            updated.setName(name);
+            updated.setDescription(description);
+            // NUMERIC(10, 2): la base de datos redondea igual al guardar
+            updated.setPrice(price == null ? null : price.setScale(2, RoundingMode.HALF_UP));
+            if (stock != null) {
+                  updated.setStock(stock);
+            }
+            if (categoryId != null) {
+                  updated.setCategoryId(categoryId);
+            }
+            if (sku != null) {
+                  updated.setSku(sku);
+            }
+            if (active != null) {
+                  updated.setActive(active);
+            }
+            updated.setUpdatedAt(updatedAt);
+            updated.setVersion(previous.getVersion() + 1);
+            return Optional.of(new UpdatedProduct(updated,
+                        new CategoryMembership(previous.getCategoryId(), previous.getActive())));
+      }
+
+      @Override
+      @Transactional
+      public Optional<Product> deleteReturning(Long id) {
+            String sql = isH2()
+                        ? "SELECT * FROM OLD TABLE (" + DELETE + ")"
+                        : DELETE + " RETURNING *";
+            return single(nativeQuery(sql).setParameter("id", id).getResultList());
+      }
+
+      @Override
+      @Transactional
+      public int[] updateInventory(List<InventoryUpdate> updates) {
+            if (updates.isEmpty()) {
+                  return new int[0];
+            }
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+                  try (PreparedStatement statement = connection.prepareStatement(UPDATE_INVENTORY)) {
+                        for (InventoryUpdate update : updates) {
+                              if (update.stock() == null) {
+                                    statement.setNull(1, Types.INTEGER);
+                              } else {
+                                    statement.setInt(1, update.stock());
+                              }
+                              statement.setBigDecimal(2, update.price());
+                              statement.setTimestamp(3, now);
+                              statement.setString(4, update.sku());
+                              statement.addBatch();
+                        }
+                        return statement.executeBatch();
+                  }
+            });
+      }
+
+      @SuppressWarnings("unchecked")
+      private NativeQuery<Product> nativeQuery(String sql) {
+            return entityManager.createNativeQuery(sql, Product.class).unwrap(NativeQuery.class);
+      }
+
+      // Columnas de COLUMNS, en orden y tipadas, más la pertenencia anterior si se pide
+      @SuppressWarnings("unchecked")
+      private NativeQuery<Object[]> scalarQuery(String sql, boolean withPrevious) {
+            NativeQuery<Object[]> query = entityManager.createNativeQuery(sql).unwrap(NativeQuery.class)
+                        .addScalar("id", StandardBasicTypes.LONG)
+                        .addScalar("name", StandardBasicTypes.STRING)
+                        .addScalar("description", StandardBasicTypes.STRING)
+                        .addScalar("price", StandardBasicTypes.BIG_DECIMAL)
+                        .addScalar("stock", StandardBasicTypes.INTEGER)
+                        .addScalar("category_id", StandardBasicTypes.LONG)
+                        .addScalar("sku", StandardBasicTypes.STRING)
+                        .addScalar("active", StandardBasicTypes.BOOLEAN)
+                        .addScalar("created_at", StandardBasicTypes.LOCAL_DATE_TIME)
+                        .addScalar("updated_at", StandardBasicTypes.LOCAL_DATE_TIME)
+                        .addScalar("version", StandardBasicTypes.LONG);
+            if (withPrevious) {
+                  query.addScalar("previous_category_id", StandardBasicTypes.LONG)
+                              .addScalar("previous_active", StandardBasicTypes.BOOLEAN);
+            }
+            return query;
+      }
+
+      private static Product toProduct(Object[] row) {
+            return new Product((Long) row[0], (String) row[1], (String) row[2], (BigDecimal) row[3],
+                        (Integer) row[4], (Long) row[5], (String) row[6], (Boolean) row[7],
+                        (LocalDateTime) row[8], (LocalDateTime) row[9], (Long) row[10]);
+      }
+
+      private static Optional<Product> single(List<Product> rows) {
+            return rows.isEmpty() ? Optional.empty() : Optional.of(rows.get(0));
+      }
+
+      private boolean isH2() {
+            Boolean result = h2;
+            if (result == null) {
+                  Dialect dialect = entityManager.getEntityManagerFactory()
+                              .unwrap(SessionFactoryImplementor.class)
+                              .getJdbcServices()
+                              .getDialect();
+                  result = dialect instanceof H2Dialect;
+                  h2 = result;
+            }
+            return result;
+      }
+}
@@ -0,0 +1,106 @@
+package com.ecommerce.catalog.resilience;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Límite de concurrencia adaptativo basado en gradiente de latencia
+ * (variante de Gradient2 de Netflix concurrency-limits).
+ *
+ * Compara la latencia reciente (media móvil corta) con la de referencia
+ * (media móvil larga). Si la reciente sube por encima de la tolerancia,
+ * el límite baja en proporción; si se mantiene, crece en sqrt(límite).
+ * Los errores de base de datos reducen el límite un 10%. Adquirir un
+ * permiso es un CAS; solo la actualización del límite va sincronizada.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double TOLERANCE = 2.0;
+    private static final double SMOOTHING = 0.2;
+    private static final double SHORT_WINDOW = 10;
+    private static final double LONG_WINDOW = 600;
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+
+    // Protegidos por synchronized(this)
+    private double estimatedLimit;
+    private double shortRtt;
+    private double longRtt;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.estimatedLimit = initialLimit;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * Reserva un permiso si hay hueco; nunca espera.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Libera el permiso y ajusta el límite con la latencia observada.
+     *
+     * @param rttNanos duración de la llamada
+     * @param dropped  true si falló por la base de datos (timeout, pool agotado...)
+     */
+    public void release(long rttNanos, boolean dropped) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        synchronized (this) {
+            if (dropped) {
+                estimatedLimit = Math.max(minLimit, estimatedLimit * BACKOFF_RATIO);
+            } else {
+                update(rttNanos, inFlightBefore);
+            }
+            limit = (int) Math.round(estimatedLimit);
+        }
+    }
+
+    private void update(long rttNanos, int inFlightBefore) {
+        if (shortRtt == 0) {
+            shortRtt = rttNanos;
+            longRtt = rttNanos;
+            return;
+        }
+        shortRtt += (rttNanos - shortRtt) / SHORT_WINDOW;
+        longRtt += (rttNanos - longRtt) / LONG_WINDOW;
+
+        // Si la referencia quedó muy por encima (carga que ya pasó), se deja caer hacia la reciente
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+
+        // Con poca carga la latencia no dice nada sobre el límite: no crecer sin uso
+        if (inFlightBefore < estimatedLimit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRtt / shortRtt));
+        double queueSize = Math.sqrt(estimatedLimit);
+        double newLimit = estimatedLimit * gradient + queueSize;
+        newLimit = estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
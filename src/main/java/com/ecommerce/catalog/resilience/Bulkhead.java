@@ -0,0 +1,9 @@
+package com.ecommerce.catalog.resilience;
+
+/**
+ * Compartimentos con límite de concurrencia propio: las lecturas públicas
+ * no pueden dejar sin hueco a las escrituras de administración ni al revés.
+ */
+public enum Bulkhead {
+    READ, WRITE
+}
@@ -0,0 +1,23 @@
+package com.ecommerce.catalog.resilience;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca un método de lectura idempotente cuyas llamadas concurrentes con los
+ * mismos argumentos pueden compartir una sola ejecución (ver CoalescingAspect).
+ * Los argumentos deben tener equals/hashCode por valor (ids, textos, Pageable).
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Coalesced {
+
+    /**
+     * Los argumentos String son palabras clave de búsqueda (sin distinguir
+     * mayúsculas y sin espacios en los extremos): "Laptop" y "laptop " comparten
+     * ejecución. Los ProductQuery.Search se normalizan siempre.
+     */
+    boolean searchKeyword() default false;
+}
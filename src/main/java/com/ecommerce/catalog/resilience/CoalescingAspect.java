@@ -0,0 +1,123 @@
+package com.ecommerce.catalog.resilience;
+
+import com.ecommerce.catalog.cache.SearchResultCache;
+import com.ecommerce.catalog.dto.ProductQuery;
+import com.ecommerce.catalog.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Coalescencia de lecturas idénticas concurrentes (@Coalesced).
+ *
+ * Tras un reinicio o un pico, cientos de peticiones al mismo producto o a la
+ * misma búsqueda+página harían cada una su consulta. Aquí solo la primera
+ * llega a la base de datos y el resto comparte su resultado o su excepción.
+ * La clave es el método más sus argumentos (id, keyword, Pageable con orden);
+ * las palabras clave de búsqueda van normalizadas como en SearchResultCache.
+ *
+ * @Order(-1) lo deja por fuera de ConcurrencyLimitAspect: los seguidores no
+ * ocupan permisos del bulkhead mientras esperan al líder.
+ */
+@Slf4j
+@Aspect
+@Component
+@Order(-1)
+public class CoalescingAspect {
+
+    private final boolean enabled;
+    private final long timeoutNanos;
+    private final SingleFlight<List<Object>> singleFlight = new SingleFlight<>();
+    private final MeterRegistry meterRegistry;
+    // Un contador por (operación, resultado), creado una sola vez
+    private final ConcurrentMap<List<String>, Counter> counters = new ConcurrentHashMap<>();
+
+    public CoalescingAspect(MeterRegistry meterRegistry,
+            @Value("${catalog.coalescing.enabled:true}") boolean enabled,
+            @Value("${catalog.coalescing.timeout-ms:5000}") long timeoutMs) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+    }
+
+    @Around("@annotation(coalesced)")
+    public Object coalesce(ProceedingJoinPoint joinPoint, Coalesced coalesced) throws Throwable {
+        if (!enabled) {
+            return joinPoint.proceed();
+        }
+        String operation = joinPoint.getSignature().getName();
+        List<Object> key = key(operation, joinPoint.getArgs(), coalesced.searchKeyword());
+
+        try {
+            SingleFlight.Result<Object> result = singleFlight.execute(key, timeoutNanos, () -> proceed(joinPoint));
+            counter(operation, result.coalesced() ? "coalesced" : "leader").increment();
+            return result.value();
+        } catch (TimeoutException ex) {
+            counter(operation, "timeout").increment();
+            log.warn("Coalesced call {} timed out waiting for the leader", operation);
+            throw new ServiceOverloadedException("Servicio sobrecargado, reintente en unos segundos");
+        } catch (CheckedWrapper wrapper) {
+            throw wrapper.getCause();
+        }
+    }
+
+    private static List<Object> key(String operation, Object[] args, boolean searchKeyword) {
+        Object[] parts = new Object[args.length + 1];
+        parts[0] = operation;
+        for (int i = 0; i < args.length; i++) {
+            parts[i + 1] = keyPart(args[i], searchKeyword);
+        }
+        // List.of no admite null (p.ej. keyword ausente)
+        return Arrays.asList(parts);
+    }
+
+    // La búsqueda ignora mayúsculas y espacios de los extremos: da igual resultado
+    private static Object keyPart(Object arg, boolean searchKeyword) {
+        if (searchKeyword && arg instanceof String keyword) {
+            return SearchResultCache.normalize(keyword);
+        }
+        if (arg instanceof ProductQuery.Search search && search.keyword() != null) {
+            return new ProductQuery.Search(SearchResultCache.normalize(search.keyword()));
+        }
+        return arg;
+    }
+
+    private static Object proceed(ProceedingJoinPoint joinPoint) {
+        try {
+            return joinPoint.proceed();
+        } catch (RuntimeException | Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new CheckedWrapper(ex);
+        }
+    }
+
+    private Counter counter(String operation, String result) {
+        return counters.computeIfAbsent(List.of(operation, result), k -> Counter.builder("catalog.coalescing.requests")
+                .tag("operation", operation)
+                .tag("result", result)
+                .register(meterRegistry));
+    }
+
+    /**
+     * Transporta excepciones comprobadas a través del Supplier de SingleFlight.
+     */
+    private static final class CheckedWrapper extends RuntimeException {
+        CheckedWrapper(Throwable cause) {
+            super(cause);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.ecommerce.catalog.resilience;
+
+import com.ecommerce.catalog.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Aplica los límites adaptativos a los métodos @ConcurrencyLimited.
+ *
+ * Si el bulkhead está lleno la petición se rechaza al momento con 503 en
+ * lugar de esperar un hilo de Tomcat o una conexión de Hikari: así el
+ * servicio sigue sirviendo cerca de su capacidad máxima durante una
+ * sobrecarga en lugar de acumular peticiones que acabarán en timeout.
+ * @Order(0) lo deja por fuera de @Transactional (LOWEST_PRECEDENCE): si se
+ * rechaza no se llega a abrir transacción ni a pedir conexión.
+ */
+@Slf4j
+@Aspect
+@Component
+@Order(0)
+public class ConcurrencyLimitAspect {
+
+    private final boolean enabled;
+    private final Map<Bulkhead, AdaptiveConcurrencyLimiter> limiters = new EnumMap<>(Bulkhead.class);
+    private final Map<Bulkhead, Counter> shed = new EnumMap<>(Bulkhead.class);
+
+    public ConcurrencyLimitAspect(MeterRegistry meterRegistry,
+            @Value("${catalog.concurrency.enabled:true}") boolean enabled,
+            @Value("${catalog.concurrency.read.initial-limit:20}") int readInitial,
+            @Value("${catalog.concurrency.read.min-limit:4}") int readMin,
+            @Value("${catalog.concurrency.read.max-limit:100}") int readMax,
+            @Value("${catalog.concurrency.write.initial-limit:8}") int writeInitial,
+            @Value("${catalog.concurrency.write.min-limit:2}") int writeMin,
+            @Value("${catalog.concurrency.write.max-limit:20}") int writeMax) {
+        this.enabled = enabled;
+        limiters.put(Bulkhead.READ, new AdaptiveConcurrencyLimiter(readInitial, readMin, readMax));
+        limiters.put(Bulkhead.WRITE, new AdaptiveConcurrencyLimiter(writeInitial, writeMin, writeMax));
+
+        for (Bulkhead bulkhead : Bulkhead.values()) {
+            AdaptiveConcurrencyLimiter limiter = limiters.get(bulkhead);
+            String tag = bulkhead.name().toLowerCase();
+            Gauge.builder("catalog.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .tag("bulkhead", tag).register(meterRegistry);
+            Gauge.builder("catalog.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                    .tag("bulkhead", tag).register(meterRegistry);
+            shed.put(bulkhead, Counter.builder("catalog.concurrency.shed").tag("bulkhead", tag)
+                    .register(meterRegistry));
+        }
+    }
+
+    @Around("@annotation(concurrencyLimited)")
+    public Object limit(ProceedingJoinPoint joinPoint, ConcurrencyLimited concurrencyLimited) throws Throwable {
+        if (!enabled) {
+            return joinPoint.proceed();
+        }
+        Bulkhead bulkhead = concurrencyLimited.value();
+        AdaptiveConcurrencyLimiter limiter = limiters.get(bulkhead);
+        if (!limiter.tryAcquire()) {
+            shed.get(bulkhead).increment();
+            log.debug("Shedding {} call to {} - limit {} reached", bulkhead,
+                    joinPoint.getSignature().getName(), limiter.getLimit());
+            throw new ServiceOverloadedException("Servicio sobrecargado, reintente en unos segundos");
+        }
+
+        long start = System.nanoTime();
+        boolean dropped = false;
+        try {
+            return joinPoint.proceed();
+        } catch (TransientDataAccessException | DataAccessResourceFailureException
+                | CannotCreateTransactionException ex) {
+            // Señales de que la base de datos no da abasto
+            dropped = true;
+            throw ex;
+        } finally {
+            limiter.release(System.nanoTime() - start, dropped);
+        }
+    }
+
+    AdaptiveConcurrencyLimiter limiter(Bulkhead bulkhead) {
+        return limiters.get(bulkhead);
+    }
+}
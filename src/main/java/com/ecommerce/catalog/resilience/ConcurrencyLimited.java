@@ -0,0 +1,17 @@
+package com.ecommerce.catalog.resilience;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca un método de servicio que usa la base de datos. ConcurrencyLimitAspect
+ * lo ejecuta dentro del límite adaptativo de su bulkhead o lo rechaza con 503.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ConcurrencyLimited {
+
+    Bulkhead value();
+}
@@ -0,0 +1,78 @@
+package com.ecommerce.catalog.resilience;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Agrupa llamadas concurrentes con la misma clave en una sola ejecución
+ * (patrón single-flight de Go).
+ *
+ * El primer hilo que llega con una clave (el líder) ejecuta la carga en su
+ * propio hilo; los que llegan mientras tanto esperan su resultado o su
+ * excepción. La clave se libera al terminar, así que no es una caché: una
+ * llamada posterior vuelve a ir a la base de datos.
+ */
+public class SingleFlight<K> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Resultado de una llamada: el valor y si se compartió con un líder.
+     */
+    public record Result<V>(V value, boolean coalesced) {
+    }
+
+    /**
+     * Ejecuta la carga o se une a la que ya esté en curso para la clave.
+     *
+     * @param timeoutNanos espera máxima de los seguidores (el líder no tiene límite aquí)
+     * @throws TimeoutException si el líder no termina a tiempo
+     */
+    @SuppressWarnings("unchecked")
+    public <V> Result<V> execute(K key, long timeoutNanos, Supplier<V> loader) throws TimeoutException {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, mine);
+
+        if (existing != null) {
+            return new Result<>((V) await(existing, timeoutNanos), true);
+        }
+
+        try {
+            V value = loader.get();
+            inFlight.remove(key, mine);
+            mine.complete(value);
+            return new Result<>(value, false);
+        } catch (RuntimeException | Error ex) {
+            inFlight.remove(key, mine);
+            mine.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    private Object await(CompletableFuture<Object> future, long timeoutNanos) throws TimeoutException {
+        try {
+            return future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a coalesced call", ex);
+        } catch (ExecutionException ex) {
+            // Los seguidores reciben la misma excepción que el líder (p.ej. 404)
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    int inFlightCount() {
+        return inFlight.size();
+    }
+}
@@ -0,0 +1,28 @@
+package com.ecommerce.catalog.service;
+
+import com.ecommerce.catalog.dto.CategoryRequestDTO;
+import com.ecommerce.catalog.dto.CategoryResponseDTO;
+import com.ecommerce.catalog.dto.ProductFields;
+import com.ecommerce.catalog.dto.ProductResponseDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.lang.NonNull;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public interface CategoryService {
+    List<CategoryResponseDTO> getCategoryTree();
+
+    CategoryResponseDTO getCategory(Long id);
+
+    CategoryResponseDTO createCategory(CategoryRequestDTO categoryRequestDTO);
+
+    Set<Long> getSubtreeIds(Long id);
+
+    Page<ProductResponseDTO> getSubtreeProducts(Long id, Boolean inStock, @NonNull Pageable pageable);
+
+    Page<Map<String, Object>> getSubtreeProducts(Long id, Boolean inStock, ProductFields fields,
+            @NonNull Pageable pageable);
+}
@@ -0,0 +1,128 @@
+package com.ecommerce.catalog.service;
+
+import com.ecommerce.catalog.category.CategoryTree;
+import com.ecommerce.catalog.category.CategoryTreeCache;
+import com.ecommerce.catalog.dto.CategoryRequestDTO;
+import com.ecommerce.catalog.dto.CategoryResponseDTO;
+import com.ecommerce.catalog.dto.ProductFields;
+import com.ecommerce.catalog.dto.ProductFilter;
+import com.ecommerce.catalog.dto.ProductQuery;
+import com.ecommerce.catalog.dto.ProductResponseDTO;
+import com.ecommerce.catalog.entity.Category;
+import com.ecommerce.catalog.event.CategoryChangedEvent;
+import com.ecommerce.catalog.exception.ResourceNotFoundException;
+import com.ecommerce.catalog.repository.CategoryClosureRepository;
+import com.ecommerce.catalog.repository.CategoryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Categorías: las lecturas se resuelven con el árbol en memoria de
+ * CategoryTreeCache; los productos de un subárbol se piden a ProductService
+ * como un filtro por varias categorías (un único category_id IN (...) en la
+ * base de datos, o una unión de bitmaps en modo snapshot).
+ */
+@Slf4j
+@Service
+public class CategoryServiceImpl implements CategoryService {
+
+    private final CategoryRepository categoryRepository;
+    private final CategoryClosureRepository closureRepository;
+    private final CategoryTreeCache treeCache;
+    private final ProductService productService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public CategoryServiceImpl(CategoryRepository categoryRepository, CategoryClosureRepository closureRepository,
+            CategoryTreeCache treeCache, ProductService productService, ApplicationEventPublisher eventPublisher) {
+        this.categoryRepository = categoryRepository;
+        this.closureRepository = closureRepository;
+        this.treeCache = treeCache;
+        this.productService = productService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public List<CategoryResponseDTO> getCategoryTree() {
+        CategoryTree tree = treeCache.tree();
+        return tree.roots().stream().map(id -> toResponseDTO(tree, id)).toList();
+    }
+
+    @Override
+    public CategoryResponseDTO getCategory(Long id) {
+        CategoryTree tree = treeCache.tree();
+        requireKnown(tree, id);
+        return toResponseDTO(tree, id);
+    }
+
+    @Override
+    @Transactional
+    public CategoryResponseDTO createCategory(CategoryRequestDTO categoryRequestDTO) {
+        Long parentId = categoryRequestDTO.getParentId();
+        if (parentId != null && !categoryRepository.existsById(parentId)) {
+            log.warn("Attempted to create category under non-existent parent ID: {}", parentId);
+            throw new ResourceNotFoundException("Categoría padre no encontrada con id: " + parentId);
+        }
+        Category saved = categoryRepository.save(new Category(null, categoryRequestDTO.getName(), parentId));
+        closureRepository.insertLeaf(saved.getId(), parentId);
+        log.info("Category created with ID: {} (parent: {})", saved.getId(), parentId);
+        eventPublisher.publishEvent(new CategoryChangedEvent(saved.getId()));
+
+        CategoryResponseDTO response = new CategoryResponseDTO();
+        response.setId(saved.getId());
+        response.setName(saved.getName());
+        response.setParentId(parentId);
+        response.setDepth(parentId == null ? 0 : treeCache.tree().node(parentId).map(n -> n.depth() + 1).orElse(1));
+        return response;
+    }
+
+    @Override
+    public Set<Long> getSubtreeIds(Long id) {
+        CategoryTree tree = treeCache.tree();
+        requireKnown(tree, id);
+        return tree.subtree(id);
+    }
+
+    @Override
+    public Page<ProductResponseDTO> getSubtreeProducts(Long id, Boolean inStock, @NonNull Pageable pageable) {
+        Set<Long> subtree = getSubtreeIds(id);
+        log.debug("Fetching products under category {} ({} categories)", id, subtree.size());
+        return productService.filterProducts(new ProductFilter(subtree, inStock), pageable);
+    }
+
+    @Override
+    public Page<Map<String, Object>> getSubtreeProducts(Long id, Boolean inStock, ProductFields fields,
+            @NonNull Pageable pageable) {
+        Set<Long> subtree = getSubtreeIds(id);
+        return productService.findProducts(new ProductQuery.Filtered(new ProductFilter(subtree, inStock)), fields,
+                pageable);
+    }
+
+    private static void requireKnown(CategoryTree tree, Long id) {
+        if (!tree.contains(id)) {
+            log.warn("Category not found with ID: {}", id);
+            throw new ResourceNotFoundException("Categoría no encontrada con id: " + id);
+        }
+    }
+
+    private CategoryResponseDTO toResponseDTO(CategoryTree tree, Long id) {
+        CategoryTree.Node node = tree.node(id).orElseThrow();
+        CategoryResponseDTO dto = new CategoryResponseDTO();
+        dto.setId(node.id());
+        dto.setName(node.name());
+        dto.setParentId(node.parentId());
+        dto.setDepth(node.depth());
+        dto.setProductCount(treeCache.productCount(id));
+        dto.setSubtreeProductCount(treeCache.subtreeProductCount(id));
+        node.children().forEach(child -> dto.getChildren().add(toResponseDTO(tree, child)));
+        return dto;
+    }
+}
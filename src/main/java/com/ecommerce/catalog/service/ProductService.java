@@ -1,5 +1,8 @@
 package com.ecommerce.catalog.service;
 
+import com.ecommerce.catalog.dto.ProductFields;
+import com.ecommerce.catalog.dto.ProductFilter;
+import com.ecommerce.catalog.dto.ProductQuery;
 import com.ecommerce.catalog.dto.ProductRequestDTO;
 import com.ecommerce.catalog.dto.ProductResponseDTO;
 import com.ecommerce.catalog.entity.Product;
@@ -7,6 +10,9 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.lang.NonNull;
 
+import java.util.List;
+import java.util.Map;
+
 public interface ProductService {
     Page<ProductResponseDTO> getAllProducts(@NonNull Pageable pageable);
 
@@ -14,8 +20,20 @@ public interface ProductService {
 
     Page<ProductResponseDTO> getProductsByCategory(Long categoryId, @NonNull Pageable pageable);
 
+    Page<ProductResponseDTO> filterProducts(ProductFilter filter, @NonNull Pageable pageable);
+
     ProductResponseDTO getProductById(Long id);
 
+    // Sparse fieldsets: solo los campos pedidos, proyectados ya en el SELECT
+    Page<Map<String, Object>> findProducts(ProductQuery query, ProductFields fields, @NonNull Pageable pageable);
+
+    Map<String, Object> getProductById(Long id, ProductFields fields);
+
+    ProductResponseDTO getProductBySku(String sku);
+
+    // SKU -> producto, en el orden pedido; los SKU inexistentes no aparecen
+    Map<String, ProductResponseDTO> getProductsBySkus(List<String> skus);
+
     ProductResponseDTO createProduct(ProductRequestDTO productRequestDTO);
 
     ProductResponseDTO updateProduct(Long id, ProductRequestDTO productRequestDTO);
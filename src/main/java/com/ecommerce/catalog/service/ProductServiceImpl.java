@@ -1,17 +1,42 @@
 package com.ecommerce.catalog.service;
 
+import com.ecommerce.catalog.cache.ProductCache;
+import com.ecommerce.catalog.cache.ProductExistenceIndex;
+import com.ecommerce.catalog.cache.SearchResultCache;
+import com.ecommerce.catalog.cache.SkuIndex;
+import com.ecommerce.catalog.cache.VersionedProduct;
+import com.ecommerce.catalog.dto.ProductFields;
+import com.ecommerce.catalog.dto.ProductFilter;
+import com.ecommerce.catalog.dto.ProductQuery;
 import com.ecommerce.catalog.dto.ProductRequestDTO;
 import com.ecommerce.catalog.dto.ProductResponseDTO;
 import com.ecommerce.catalog.entity.Product;
+import com.ecommerce.catalog.event.ProductChangedEvent;
+import com.ecommerce.catalog.event.ProductChangedEvent.ChangeType;
 import com.ecommerce.catalog.exception.ResourceNotFoundException;
 import com.ecommerce.catalog.mapper.ProductMapper;
+import com.ecommerce.catalog.readmodel.ProductReadModel;
 import com.ecommerce.catalog.repository.ProductRepository;
+import com.ecommerce.catalog.repository.ProductRepositoryCustom.UpdatedProduct;
+import com.ecommerce.catalog.resilience.Bulkhead;
+import com.ecommerce.catalog.resilience.Coalesced;
+import com.ecommerce.catalog.resilience.ConcurrencyLimited;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Slf4j
 @Service
@@ -19,87 +44,281 @@ public class ProductServiceImpl implements ProductService {
 
     private final ProductRepository productRepository;
     private final ProductMapper productMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SortPolicy sortPolicy;
+    private final ProductCache productCache;
+    private final SearchResultCache searchResultCache;
+    private final ProductExistenceIndex existenceIndex;
+    private final SkuIndex skuIndex;
+    private final ProductReadModel readModel;
 
     @Autowired
-    public ProductServiceImpl(ProductRepository productRepository, ProductMapper productMapper) {
+    public ProductServiceImpl(ProductRepository productRepository, ProductMapper productMapper,
+            ApplicationEventPublisher eventPublisher, SortPolicy sortPolicy, ProductCache productCache,
+            SearchResultCache searchResultCache, ProductExistenceIndex existenceIndex, SkuIndex skuIndex,
+            ProductReadModel readModel) {
         this.productRepository = productRepository;
         this.productMapper = productMapper;
+        this.eventPublisher = eventPublisher;
+        this.sortPolicy = sortPolicy;
+        this.productCache = productCache;
+        this.searchResultCache = searchResultCache;
+        this.existenceIndex = existenceIndex;
+        this.skuIndex = skuIndex;
+        this.readModel = readModel;
     }
 
     @Override
+    @Coalesced
+    @ConcurrencyLimited(Bulkhead.READ)
     public Page<ProductResponseDTO> getAllProducts(@NonNull Pageable pageable) {
         log.debug("Fetching all products - page: {}, size: {}", pageable.getPageNumber(), pageable.getPageSize());
-        Page<ProductResponseDTO> result = productRepository.findAll(pageable)
-                .map(productMapper::toResponseDTO);
+        Pageable checked = sortPolicy.checkIndexed(pageable);
+        // Con el modelo de lectura activado el listado sale de productos_listado (solo activos)
+        Page<ProductResponseDTO> result = readModel.findAll(checked)
+                .orElseGet(() -> productRepository.findAll(checked).map(productMapper::toResponseDTO));
         log.info("Retrieved {} products", result.getTotalElements());
         return result;
     }
 
     @Override
+    @Coalesced(searchKeyword = true)
+    @ConcurrencyLimited(Bulkhead.READ)
     public Page<ProductResponseDTO> searchProducts(String keyword, @NonNull Pageable pageable) {
         log.debug("Searching products with keyword: '{}'", keyword);
-        Page<ProductResponseDTO> result = productRepository
-                .findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCase(
-                        keyword, keyword, pageable)
-                .map(productMapper::toResponseDTO);
+        // Los espacios de los extremos no forman parte de la búsqueda (ni de la clave de caché)
+        String term = keyword.trim();
+        Pageable checked = sortPolicy.checkIndexed(pageable);
+        Page<ProductResponseDTO> result = searchResultCache.search(term, checked, () -> readModel.search(term, checked)
+                .orElseGet(() -> productRepository
+                        .findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCase(term, term, checked)
+                        .map(productMapper::toResponseDTO)));
         log.info("Search for '{}' returned {} products", keyword, result.getTotalElements());
         return result;
     }
 
     @Override
+    @Coalesced
+    @ConcurrencyLimited(Bulkhead.READ)
     public Page<ProductResponseDTO> getProductsByCategory(Long categoryId, @NonNull Pageable pageable) {
         log.debug("Fetching products by category ID: {}", categoryId);
-        Page<ProductResponseDTO> result = productRepository.findByCategoryId(categoryId, pageable)
-                .map(productMapper::toResponseDTO);
+        Pageable checked = sortPolicy.checkIndexed(pageable);
+        Page<ProductResponseDTO> result = searchResultCache.byCategory(categoryId, checked,
+                () -> readModel.byCategory(categoryId, checked)
+                        .orElseGet(() -> productRepository.findByCategoryId(categoryId, checked)
+                                .map(productMapper::toResponseDTO)));
         log.info("Retrieved {} products for category ID: {}", result.getTotalElements(), categoryId);
         return result;
     }
 
     @Override
+    @Coalesced
+    @ConcurrencyLimited(Bulkhead.READ)
+    public Page<ProductResponseDTO> filterProducts(ProductFilter filter, @NonNull Pageable pageable) {
+        log.debug("Filtering products: {}", filter);
+        // IN () vacío no es SQL válido: con anyCategory=true la lista no se evalúa
+        Page<ProductResponseDTO> result = productRepository.findActiveFiltered(filter.inStock(),
+                !filter.hasCategories(), filter.hasCategories() ? filter.categoryIds() : List.of(-1L),
+                sortPolicy.checkIndexed(pageable))
+                .map(productMapper::toResponseDTO);
+        log.info("Filter {} matched {} products", filter, result.getTotalElements());
+        return result;
+    }
+
+    @Override
+    @Coalesced
+    @ConcurrencyLimited(Bulkhead.READ)
     public ProductResponseDTO getProductById(Long id) {
         log.debug("Fetching product by ID: {}", id);
-        Product product = productRepository.findById(id)
+        if (!existenceIndex.mightExist(id)) {
+            throw productNotFound(id);
+        }
+        ProductResponseDTO product = productCache.get(id, this::loadVersioned);
+        if (product == null) {
+            throw productNotFound(id);
+        }
+        log.debug("Product found: {}", product.getName());
+        return product;
+    }
+
+    private VersionedProduct loadVersioned(Long id) {
+        return productRepository.findById(id)
+                .map(product -> new VersionedProduct(productMapper.toResponseDTO(product),
+                        product.getVersion() == null ? 0 : product.getVersion()))
+                .orElse(null);
+    }
+
+    // Lecturas de ids inexistentes: el aviso (limitado) lo registra GlobalExceptionHandler
+    private static ResourceNotFoundException productNotFound(Long id) {
+        log.debug("Product not found with ID: {}", id);
+        return new ResourceNotFoundException("Producto no encontrado con id: " + id);
+    }
+
+    @Override
+    @Coalesced
+    @ConcurrencyLimited(Bulkhead.READ)
+    public Page<Map<String, Object>> findProducts(ProductQuery query, ProductFields fields,
+            @NonNull Pageable pageable) {
+        log.debug("Fetching {} with fields {}", query, fields.fields());
+        Pageable checked = sortPolicy.checkIndexed(pageable);
+        // Con el modelo de lectura activado sale de productos_listado si los campos pedidos están en él
+        Page<Map<String, Object>> result = readModel.find(query, fields, checked)
+                .orElseGet(() -> productRepository.findProjected(query, fields, checked));
+        log.info("Projected listing {} returned {} products", query, result.getTotalElements());
+        return result;
+    }
+
+    @Override
+    @Coalesced
+    @ConcurrencyLimited(Bulkhead.READ)
+    public Map<String, Object> getProductById(Long id, ProductFields fields) {
+        log.debug("Fetching product by ID: {} with fields {}", id, fields.fields());
+        if (!existenceIndex.mightExist(id)) {
+            throw productNotFound(id);
+        }
+        return productRepository.findProjectedById(id, fields)
+                .orElseThrow(() -> productNotFound(id));
+    }
+
+    @Override
+    @Coalesced
+    @ConcurrencyLimited(Bulkhead.READ)
+    public ProductResponseDTO getProductBySku(String sku) {
+        log.debug("Fetching product by SKU: {}", sku);
+        ProductResponseDTO indexed = fromSkuIndex(sku);
+        if (indexed != null) {
+            return indexed;
+        }
+        Product product = productRepository.findBySku(sku)
                 .orElseThrow(() -> {
-                    log.warn("Product not found with ID: {}", id);
-                    return new ResourceNotFoundException("Producto no encontrado con id: " + id);
+                    log.debug("Product not found with SKU: {}", sku);
+                    return new ResourceNotFoundException("Producto no encontrado con SKU: " + sku);
                 });
-        log.debug("Product found: {}", product.getName());
+        skuIndex.put(product.getSku(), product.getId());
         return productMapper.toResponseDTO(product);
     }
 
     @Override
+    @Coalesced
+    @ConcurrencyLimited(Bulkhead.READ)
+    public Map<String, ProductResponseDTO> getProductsBySkus(List<String> skus) {
+        log.debug("Resolving {} SKUs", skus.size());
+        Map<String, ProductResponseDTO> found = new HashMap<>();
+        // Los que están en el índice se leen juntos por id; el resto, juntos por SKU
+        Map<Long, String> indexed = new HashMap<>();
+        Set<String> pending = new LinkedHashSet<>(skus);
+        for (String sku : pending) {
+            long id = skuIndex.find(sku);
+            if (id != SkuIndex.NOT_FOUND) {
+                indexed.put(id, sku);
+            }
+        }
+        if (!indexed.isEmpty()) {
+            for (Product product : productRepository.findAllById(indexed.keySet())) {
+                if (product.getSku().equals(indexed.get(product.getId()))) {
+                    found.put(product.getSku(), productMapper.toResponseDTO(product));
+                }
+            }
+            indexed.forEach((id, sku) -> {
+                if (!found.containsKey(sku)) {
+                    skuIndex.remove(sku, id);
+                }
+            });
+            pending.removeAll(found.keySet());
+        }
+        if (!pending.isEmpty()) {
+            for (Product product : productRepository.findBySkuIn(pending)) {
+                skuIndex.put(product.getSku(), product.getId());
+                found.put(product.getSku(), productMapper.toResponseDTO(product));
+            }
+        }
+        // En el orden pedido; los SKU inexistentes no aparecen
+        Map<String, ProductResponseDTO> result = new LinkedHashMap<>();
+        for (String sku : skus) {
+            ProductResponseDTO product = found.get(sku);
+            if (product != null) {
+                result.put(sku, product);
+            }
+        }
+        log.info("Resolved {} of {} SKUs", result.size(), skus.size());
+        return result;
+    }
+
+    // Producto del índice de SKU si la entrada sigue siendo válida; si no, la descarta
+    private ProductResponseDTO fromSkuIndex(String sku) {
+        long id = skuIndex.find(sku);
+        if (id == SkuIndex.NOT_FOUND) {
+            return null;
+        }
+        ProductResponseDTO product = productCache.get(id, this::loadVersioned);
+        if (product != null && sku.equals(product.getSku())) {
+            return product;
+        }
+        skuIndex.remove(sku, id);
+        return null;
+    }
+
+    @Override
+    @Transactional
+    @ConcurrencyLimited(Bulkhead.WRITE)
     public ProductResponseDTO createProduct(ProductRequestDTO productRequestDTO) {
         log.info("Creating product: {}", productRequestDTO.getName());
+        // SKU ya conocido: 409 sin intentar el INSERT (la restricción unique sigue siendo la garantía)
+        if (fromSkuIndex(productRequestDTO.getSku()) != null) {
+            log.warn("Rejected duplicate SKU: {}", productRequestDTO.getSku());
+            throw new DataIntegrityViolationException("SKU duplicado: " + productRequestDTO.getSku());
+        }
         Product product = productMapper.toEntity(productRequestDTO);
         Product savedProduct = productRepository.save(product);
         log.info("Product created successfully with ID: {}", savedProduct.getId());
-        return productMapper.toResponseDTO(savedProduct);
+        ProductResponseDTO response = productMapper.toResponseDTO(savedProduct);
+        eventPublisher.publishEvent(new ProductChangedEvent(ChangeType.CREATED, savedProduct.getId(), response,
+                savedProduct.getVersion()));
+        return response;
     }
 
     @Override
+    @Transactional
+    @ConcurrencyLimited(Bulkhead.WRITE)
     public ProductResponseDTO updateProduct(Long id, ProductRequestDTO productRequestDTO) {
         log.info("Updating product with ID: {}", id);
-        Product product = productRepository.findById(id)
+        // Un solo UPDATE parcial que devuelve también la categoría y el estado activo
+        // anteriores (para los contadores por categoría); si no afecta filas, el producto no existe
+        UpdatedProduct updated = productRepository.updateReturning(id,
+                productRequestDTO.getName(),
+                productRequestDTO.getDescription(),
+                productRequestDTO.getPrice(),
+                productRequestDTO.getStock(),
+                productRequestDTO.getCategoryId(),
+                productRequestDTO.getSku(),
+                productRequestDTO.getActive())
                 .orElseThrow(() -> {
                     log.warn("Attempted to update non-existent product with ID: {}", id);
                     return new ResourceNotFoundException("Producto no encontrado con id: " + id);
                 });
-
-        productMapper.updateEntityFromDTO(productRequestDTO, product);
-
-        Product updatedProduct = productRepository.save(product);
         log.info("Product {} updated successfully", id);
-        return productMapper.toResponseDTO(updatedProduct);
+        ProductResponseDTO response = productMapper.toResponseDTO(updated.product());
+        eventPublisher.publishEvent(new ProductChangedEvent(ChangeType.UPDATED, id, response,
+                updated.product().getVersion(),
+                updated.previous().categoryId(),
+                updated.previous().active()));
+        return response;
     }
 
     @Override
+    @Transactional
+    @ConcurrencyLimited(Bulkhead.WRITE)
     public void deleteProduct(Long id) {
         log.info("Deleting product with ID: {}", id);
-        if (!productRepository.existsById(id)) {
-            log.warn("Attempted to delete non-existent product with ID: {}", id);
-            throw new ResourceNotFoundException("Producto no encontrado con id: " + id);
-        }
-        productRepository.deleteById(id);
+        // Un solo DELETE que devuelve la fila borrada (para anunciar su último estado)
+        Product deletedProduct = productRepository.deleteReturning(id)
+                .orElseThrow(() -> {
+                    log.warn("Attempted to delete non-existent product with ID: {}", id);
+                    return new ResourceNotFoundException("Producto no encontrado con id: " + id);
+                });
         log.info("Product {} deleted successfully", id);
+        eventPublisher.publishEvent(
+                new ProductChangedEvent(ChangeType.DELETED, id, productMapper.toResponseDTO(deletedProduct),
+                        deletedProduct.getVersion()));
     }
 }
\ No newline at end of file
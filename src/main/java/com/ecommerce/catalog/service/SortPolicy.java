@@ -0,0 +1,79 @@
+package com.ecommerce.catalog.service;
+
+import com.ecommerce.catalog.exception.InvalidSortException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Política de ordenación para las consultas que llegan a la base de datos.
+ *
+ * Solo se aceptan ordenaciones que un índice de "productos" puede servir
+ * (ORDER BY columna LIMIT n se resuelve con un Index Scan, sin ordenar la
+ * tabla entera). Cualquier otra (description, stock, varias propiedades,
+ * ignoreCase) se rechaza con InvalidSortException en lugar de provocar un
+ * sort completo de la tabla en cada petición.
+ *
+ * Cada columna tiene además un índice (category_id, columna) para las
+ * consultas filtradas por una categoría (findByCategoryId, filtros con una
+ * sola categoría y el listado proyectado por categoría). Lo que no cubren:
+ * - Búsqueda por texto: LIKE '%...%' no puede usar un índice B-tree para
+ *   filtrar. Con un término frecuente Postgres recorre el índice del orden
+ *   filtrando filas; con uno raro lee la tabla y ordena solo las coincidencias.
+ * - Filtros con varias categorías: el índice compuesto no da un orden global
+ *   entre categorías, así que se recorre el índice de la columna filtrando o
+ *   se ordenan las filas de esas categorías.
+ * SortIndexPlanTest comprueba los planes con el SQL que genera Hibernate.
+ *
+ * stock no tiene índice a propósito: es la columna más escrita del catálogo.
+ * Ordenar por stock solo se sirve en memoria desde el snapshot
+ * (catalog.snapshot.enabled=true), que hace un top-K acotado.
+ */
+@Component
+public class SortPolicy {
+
+    // propiedad JPA -> columna indexada que respalda el ORDER BY
+    private static final Map<String, String> INDEXED_COLUMNS = new LinkedHashMap<>();
+
+    static {
+        INDEXED_COLUMNS.put("id", "id"); // clave primaria, idx_product_category_id
+        INDEXED_COLUMNS.put("name", "name"); // idx_product_name, idx_product_category_name
+        INDEXED_COLUMNS.put("price", "price"); // idx_product_price, idx_product_category_price
+        INDEXED_COLUMNS.put("createdAt", "created_at"); // idx_product_created_at, idx_product_category_created_at
+        INDEXED_COLUMNS.put("updatedAt", "updated_at"); // idx_product_updated_at, idx_product_category_updated_at
+    }
+
+    /**
+     * Devuelve el mismo Pageable si su ordenación está respaldada por un índice;
+     * si no, lanza InvalidSortException.
+     */
+    public Pageable checkIndexed(Pageable pageable) {
+        Iterator<Sort.Order> orders = pageable.getSort().iterator();
+        if (!orders.hasNext()) {
+            return pageable;
+        }
+        Sort.Order order = orders.next();
+        if (orders.hasNext()) {
+            throw new InvalidSortException("Solo se permite ordenar por una propiedad. Permitidas: "
+                    + INDEXED_COLUMNS.keySet());
+        }
+        if (!INDEXED_COLUMNS.containsKey(order.getProperty())) {
+            throw new InvalidSortException("Ordenación no permitida: " + order.getProperty() + ". Permitidas: "
+                    + INDEXED_COLUMNS.keySet());
+        }
+        if (order.isIgnoreCase()) {
+            throw new InvalidSortException("La ordenación ignorando mayúsculas no está permitida: "
+                    + order.getProperty());
+        }
+        return pageable;
+    }
+
+    /** Propiedades permitidas y la columna indexada que las respalda. */
+    public static Map<String, String> indexedColumns() {
+        return Map.copyOf(INDEXED_COLUMNS);
+    }
+}
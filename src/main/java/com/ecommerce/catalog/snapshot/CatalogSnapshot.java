@@ -0,0 +1,434 @@
+package com.ecommerce.catalog.snapshot;
+
+import com.ecommerce.catalog.dto.ProductFilter;
+import com.ecommerce.catalog.dto.ProductResponseDTO;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Copia inmutable en memoria del catálogo, guardada por columnas (ColumnarProducts).
+ *
+ * Cada clave de SortKey tiene un array de ordinales ya ordenado, así que un
+ * listado es recorrer ese array y cortar la página. Los filtros (activo,
+ * con stock, categorías) se resuelven con índices bitmap comprimidos
+ * (Roaring) sobre los ordinales: AND/OR entre bitmaps y el total de la
+ * página sale de la cardinalidad, sin contar fila a fila. Con un filtro
+ * selectivo se ordenan solo las coincidencias (top-K con un montículo
+ * acotado); si no, se recorre el orden pre-calculado saltando las que no
+ * están en el bitmap. Nunca se modifica: los cambios producen una versión
+ * nueva con apply() y el holder la publica con un intercambio atómico, de
+ * modo que las lecturas no se bloquean nunca.
+ */
+public final class CatalogSnapshot {
+
+    private final long version;
+    private final ColumnarProducts products;
+    private final EnumMap<SortKey, int[]> sorted;
+    // Índices bitmap sobre ordinales; no se modifican tras construirse
+    private final RoaringBitmap active;
+    private final RoaringBitmap inStock;
+    private final Map<Long, RoaringBitmap> byCategory;
+
+    private CatalogSnapshot(long version, ColumnarProducts products, EnumMap<SortKey, int[]> sorted,
+            Bitmaps bitmaps) {
+        this.version = version;
+        this.products = products;
+        this.sorted = sorted;
+        this.active = bitmaps.active();
+        this.inStock = bitmaps.inStock();
+        this.byCategory = bitmaps.byCategory();
+        active.runOptimize();
+        inStock.runOptimize();
+        byCategory.values().forEach(RoaringBitmap::runOptimize);
+    }
+
+    /**
+     * Construcción completa (carga inicial o refresco periódico).
+     */
+    public static CatalogSnapshot build(long version, StringDictionary dictionary,
+            List<ProductResponseDTO> source) {
+        ColumnarProducts.Builder builder = ColumnarProducts.builder(dictionary, source.size());
+        for (ProductResponseDTO product : source) {
+            if (product.getId() != null) {
+                builder.add(product);
+            }
+        }
+        return build(version, builder.build());
+    }
+
+    public static CatalogSnapshot build(long version, ColumnarProducts products) {
+        EnumMap<SortKey, int[]> sorted = new EnumMap<>(SortKey.class);
+        for (SortKey key : SortKey.values()) {
+            int[] ordinals = new int[products.size()];
+            for (int i = 0; i < ordinals.length; i++) {
+                ordinals[i] = i;
+            }
+            sorted.put(key, OrdinalSort.sort(ordinals, (a, b) -> key.compare(products, a, b)));
+        }
+        return new CatalogSnapshot(version, products, sorted, Bitmaps.scan(products, 0, new Bitmaps()));
+    }
+
+    /**
+     * Nueva versión con los cambios aplicados, sin reordenar todo el catálogo:
+     * las columnas se copian tal cual (los textos ya están en el diccionario)
+     * y los índices existentes se filtran y se mezclan con los productos
+     * cambiados ya ordenados (O(n + k log k) por clave para k cambios).
+     * Los bitmaps se derivan de los actuales (deriveBitmaps) en lugar de
+     * recorrer otra vez todos los ordinales.
+     *
+     * @param changes id → estado final del producto, o null si se eliminó
+     */
+    public CatalogSnapshot apply(long newVersion, Map<Long, ProductResponseDTO> changes) {
+        return apply(newVersion, changes, Map.of());
+    }
+
+    /**
+     * Como apply(newVersion, changes), guardando la versión de fila de cada
+     * producto cambiado (rowVersions: id → versión; los que falten quedan sin versión).
+     */
+    public CatalogSnapshot apply(long newVersion, Map<Long, ProductResponseDTO> changes, Map<Long, Long> rowVersions) {
+        if (changes.isEmpty()) {
+            return this;
+        }
+        int removed = 0;
+        for (Long id : changes.keySet()) {
+            if (ordinalOf(id) >= 0) {
+                removed++;
+            }
+        }
+        int added = (int) changes.values().stream().filter(p -> p != null).count();
+        ColumnarProducts.Builder builder = ColumnarProducts.builder(products.dictionary(),
+                products.size() - removed + added);
+
+        // Ordinales antiguos que sobreviven (los cambiados se vuelven a añadir al final)
+        int[] oldToNew = new int[products.size()];
+        int[] removedOrdinals = new int[removed];
+        int r = 0;
+        for (int i = 0; i < products.size(); i++) {
+            if (changes.containsKey(products.id(i))) {
+                oldToNew[i] = -1;
+                removedOrdinals[r++] = i;
+            } else {
+                oldToNew[i] = builder.copy(products, i);
+            }
+        }
+        int firstAdded = builder.size();
+        for (Map.Entry<Long, ProductResponseDTO> changed : changes.entrySet()) {
+            if (changed.getValue() != null) {
+                builder.add(changed.getValue(), rowVersions.get(changed.getKey()));
+            }
+        }
+        ColumnarProducts next = builder.build();
+        int[] addedOrdinals = new int[next.size() - firstAdded];
+        for (int i = 0; i < addedOrdinals.length; i++) {
+            addedOrdinals[i] = firstAdded + i;
+        }
+
+        EnumMap<SortKey, int[]> nextSorted = new EnumMap<>(SortKey.class);
+        for (SortKey key : SortKey.values()) {
+            int[] survivors = remap(sorted.get(key), oldToNew, firstAdded);
+            int[] fresh = OrdinalSort.sort(addedOrdinals.clone(), (a, b) -> key.compare(next, a, b));
+            nextSorted.put(key, OrdinalSort.merge(survivors, fresh, (a, b) -> key.compare(next, a, b)));
+        }
+        return new CatalogSnapshot(newVersion, next, nextSorted, deriveBitmaps(next, removedOrdinals, firstAdded));
+    }
+
+    /**
+     * Bitmaps de la versión siguiente a partir de los de esta. Los supervivientes
+     * conservan su orden relativo y, entre dos ordinales eliminados, todos bajan
+     * lo mismo: cada tramo se desplaza entero (selectRange + addOffset) sin
+     * recorrer sus ordinales. Después se añaden los productos cambiados. Con
+     * muchos eliminados repartidos sobre muchos bitmaps sale más barato
+     * recorrer las columnas, y entonces se hace eso.
+     */
+    private Bitmaps deriveBitmaps(ColumnarProducts next, int[] removedOrdinals, int firstAdded) {
+        long segmentShifts = (long) (removedOrdinals.length + 1) * (byCategory.size() + 2);
+        if (removedOrdinals.length > 0 && segmentShifts > products.size()) {
+            return Bitmaps.scan(next, 0, new Bitmaps());
+        }
+        Map<Long, RoaringBitmap> nextByCategory = new HashMap<>();
+        byCategory.forEach((categoryId, bitmap) -> {
+            RoaringBitmap shifted = shift(bitmap, removedOrdinals);
+            if (!shifted.isEmpty()) {
+                nextByCategory.put(categoryId, shifted);
+            }
+        });
+        Bitmaps survivors = new Bitmaps(shift(active, removedOrdinals), shift(inStock, removedOrdinals),
+                nextByCategory);
+        return Bitmaps.scan(next, firstAdded, survivors);
+    }
+
+    // removedOrdinals va en orden creciente; el tramo i (tras i eliminados) baja i posiciones
+    private static RoaringBitmap shift(RoaringBitmap source, int[] removedOrdinals) {
+        if (removedOrdinals.length == 0 || source.isEmpty() || source.last() < removedOrdinals[0]) {
+            return source.clone();
+        }
+        RoaringBitmap result = new RoaringBitmap();
+        long start = 0;
+        for (int i = 0; i <= removedOrdinals.length; i++) {
+            long end = i < removedOrdinals.length ? removedOrdinals[i] : (long) source.last() + 1;
+            if (end > start) {
+                RoaringBitmap segment = source.selectRange(start, end);
+                if (!segment.isEmpty()) {
+                    result.or(i == 0 ? segment : RoaringBitmap.addOffset(segment, -i));
+                }
+            }
+            start = end + 1;
+        }
+        return result;
+    }
+
+    /**
+     * Los tres índices bitmap de una versión.
+     */
+    private record Bitmaps(RoaringBitmap active, RoaringBitmap inStock, Map<Long, RoaringBitmap> byCategory) {
+
+        Bitmaps() {
+            this(new RoaringBitmap(), new RoaringBitmap(), new HashMap<>());
+        }
+
+        /**
+         * Añade a target los ordinales desde "from" hasta el final leyendo las columnas.
+         */
+        static Bitmaps scan(ColumnarProducts products, int from, Bitmaps target) {
+            for (int i = from; i < products.size(); i++) {
+                if (products.isActive(i)) {
+                    target.active().add(i);
+                }
+                if (products.stock(i) > 0) {
+                    target.inStock().add(i);
+                }
+                if (products.categoryId(i) != ColumnarProducts.NULL_LONG) {
+                    target.byCategory().computeIfAbsent(products.categoryId(i), id -> new RoaringBitmap()).add(i);
+                }
+            }
+            return target;
+        }
+    }
+
+    /**
+     * Página de productos activos que cumplen el filtro.
+     *
+     * @return la página y el total de coincidencias
+     */
+    public Slice page(ProductFilter filter, SortKey key, boolean descending, long offset, int size) {
+        RoaringBitmap matching = matching(filter);
+        int total = matching.getCardinality();
+        if (offset >= total || size <= 0) {
+            return new Slice(List.of(), total);
+        }
+        int wanted = (int) Math.min(total, offset + size);
+        int[] top = isSelective(total) ? topK(matching, key, descending, wanted) : scan(matching, key, descending, wanted);
+
+        List<ProductResponseDTO> content = new ArrayList<>(wanted - (int) offset);
+        for (int i = (int) offset; i < wanted; i++) {
+            content.add(products.materialize(top[i]));
+        }
+        return new Slice(Collections.unmodifiableList(content), total);
+    }
+
+    /**
+     * Número de productos activos que cumplen el filtro (sin recorrerlos).
+     */
+    public int count(ProductFilter filter) {
+        return matching(filter).getCardinality();
+    }
+
+    /**
+     * Bitmap de ordinales que cumplen el filtro: active AND inStock AND (cat1 OR cat2 ...).
+     * Sin filtros adicionales devuelve el bitmap de activos tal cual (solo lectura).
+     */
+    RoaringBitmap matching(ProductFilter filter) {
+        RoaringBitmap result = active;
+        if (filter.inStock() != null) {
+            result = filter.inStock() ? RoaringBitmap.and(result, inStock) : RoaringBitmap.andNot(result, inStock);
+        }
+        if (filter.hasCategories()) {
+            RoaringBitmap categories = RoaringBitmap.or(filter.categoryIds().stream()
+                    .map(byCategory::get)
+                    .filter(bitmap -> bitmap != null)
+                    .iterator());
+            result = RoaringBitmap.and(result, categories);
+        }
+        return result;
+    }
+
+    // Pocas coincidencias respecto al catálogo: sale más barato ordenarlas que recorrer el índice
+    private boolean isSelective(int matches) {
+        return matches < products.size() / 32;
+    }
+
+    /**
+     * Recorre el orden pre-calculado y se queda con las primeras coincidencias.
+     */
+    private int[] scan(RoaringBitmap matching, SortKey key, boolean descending, int wanted) {
+        int[] order = sorted.get(key);
+        int[] result = new int[wanted];
+        int n = 0;
+        for (int i = 0; i < order.length && n < wanted; i++) {
+            int ordinal = order[descending ? order.length - 1 - i : i];
+            if (matching.contains(ordinal)) {
+                result[n++] = ordinal;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Las "wanted" primeras coincidencias según la clave, con un montículo
+     * acotado (O(m log K) para m coincidencias) en lugar de ordenar todas.
+     */
+    private int[] topK(RoaringBitmap matching, SortKey key, boolean descending, int wanted) {
+        OrdinalSort.OrdinalComparator order = descending
+                ? (a, b) -> key.compare(products, b, a)
+                : (a, b) -> key.compare(products, a, b);
+        // Montículo de máximos: la raíz es la peor de las que se conservan
+        int[] heap = new int[wanted];
+        int size = 0;
+        for (int ordinal : matching) {
+            if (size < wanted) {
+                heap[size] = ordinal;
+                siftUp(heap, size++, order);
+            } else if (order.compare(ordinal, heap[0]) < 0) {
+                heap[0] = ordinal;
+                siftDown(heap, size, order);
+            }
+        }
+        return OrdinalSort.sort(heap, order);
+    }
+
+    private static void siftUp(int[] heap, int index, OrdinalSort.OrdinalComparator order) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (order.compare(heap[index], heap[parent]) <= 0) {
+                return;
+            }
+            swap(heap, index, parent);
+            index = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, int size, OrdinalSort.OrdinalComparator order) {
+        int index = 0;
+        while (true) {
+            int largest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && order.compare(heap[left], heap[largest]) > 0) {
+                largest = left;
+            }
+            if (right < size && order.compare(heap[right], heap[largest]) > 0) {
+                largest = right;
+            }
+            if (largest == index) {
+                return;
+            }
+            swap(heap, index, largest);
+            index = largest;
+        }
+    }
+
+    private static void swap(int[] heap, int a, int b) {
+        int tmp = heap[a];
+        heap[a] = heap[b];
+        heap[b] = tmp;
+    }
+
+    /**
+     * Producto por id (activo o no), o null si no está en el snapshot.
+     */
+    public ProductResponseDTO get(Long id) {
+        int ordinal = ordinalOf(id);
+        return ordinal < 0 ? null : products.materialize(ordinal);
+    }
+
+    /**
+     * Versión de la fila del producto, o null si no está o no se conoce.
+     */
+    public Long rowVersion(Long id) {
+        int ordinal = ordinalOf(id);
+        if (ordinal < 0 || products.rowVersion(ordinal) == ColumnarProducts.NULL_LONG) {
+            return null;
+        }
+        return products.rowVersion(ordinal);
+    }
+
+    public long version() {
+        return version;
+    }
+
+    /**
+     * Productos en el snapshot, activos o no.
+     */
+    public int size() {
+        return products.size();
+    }
+
+    public int activeCount() {
+        return active.getCardinality();
+    }
+
+    ColumnarProducts products() {
+        return products;
+    }
+
+    /**
+     * Bytes por producto: columnas, índices de ordenación y bitmap y diccionario de textos.
+     */
+    public double bytesPerProduct() {
+        if (products.size() == 0) {
+            return 0;
+        }
+        long indexBytes = (long) sorted.size() * products.size() * Integer.BYTES
+                + active.getLongSizeInBytes() + inStock.getLongSizeInBytes()
+                + byCategory.values().stream().mapToLong(RoaringBitmap::getLongSizeInBytes).sum();
+        return (products.columnBytes() + indexBytes + products.dictionary().footprintBytes())
+                / (double) products.size();
+    }
+
+    /**
+     * Resultado de page(): contenido y total para construir el Page.
+     */
+    public record Slice(List<ProductResponseDTO> content, long total) {
+    }
+
+    // Búsqueda binaria sobre el orden por id (sin mapa id → ordinal en memoria)
+    private int ordinalOf(Long id) {
+        if (id == null) {
+            return -1;
+        }
+        int[] byId = sorted.get(SortKey.ID);
+        int low = 0;
+        int high = byId.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midId = products.id(byId[mid]);
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return byId[mid];
+            }
+        }
+        return -1;
+    }
+
+    private static int[] remap(int[] oldOrder, int[] oldToNew, int survivors) {
+        int[] result = new int[survivors];
+        int n = 0;
+        for (int oldOrdinal : oldOrder) {
+            int mapped = oldToNew[oldOrdinal];
+            if (mapped >= 0) {
+                result[n++] = mapped;
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,337 @@
+package com.ecommerce.catalog.snapshot;
+
+import com.ecommerce.catalog.dto.ProductResponseDTO;
+import com.ecommerce.catalog.entity.Product;
+import com.ecommerce.catalog.event.ProductChangedEvent;
+import com.ecommerce.catalog.event.ProductChangedEvent.ChangeType;
+import com.ecommerce.catalog.mapper.ProductMapper;
+import com.ecommerce.catalog.repository.ProductRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Mantiene el CatalogSnapshot vigente.
+ *
+ * - Carga completa al arrancar y refresco completo periódico en segundo plano;
+ *   mientras se construye, las lecturas siguen usando la versión anterior.
+ * - Cada escritura confirmada (ProductChangedEvent) se encola y un único hilo
+ *   de fondo aplica todos los cambios pendientes en una sola versión nueva
+ *   (combinación): con muchas escrituras concurrentes se construyen pocas
+ *   versiones y el hilo que confirma no hace el trabajo O(n) de apply().
+ *   Quien escribe espera (como mucho catalog.snapshot.publish-wait-ms) a que
+ *   su cambio esté publicado, así que lee lo que acaba de escribir.
+ * - Entre dos estados del mismo producto gana el de mayor versión de fila
+ *   (ProductChangedEvent.getVersion()), no el de updatedAt: dos escrituras
+ *   en el mismo milisegundo tienen el mismo updatedAt. La versión de los
+ *   borrados se recuerda hasta el siguiente refresco completo, para que una
+ *   actualización anterior que llegue tarde no resucite el producto.
+ * - Los cambios que llegan durante un refresco completo se reaplican sobre el
+ *   resultado, porque la consulta pudo leer un estado anterior a ellos.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "catalog.snapshot.enabled", havingValue = "true")
+public class CatalogSnapshotHolder {
+
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final boolean offHeap;
+    private final int loadBatchSize;
+    private final long publishWaitMs;
+
+    private final AtomicReference<CatalogSnapshot> current = new AtomicReference<>();
+    private final AtomicLong nextVersion = new AtomicLong(1);
+    private final Queue<ProductChangedEvent> pending = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock applyLock = new ReentrantLock();
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    // Un solo hilo aplica los cambios; applyScheduled evita encolar un lote por evento
+    private final ExecutorService applier = Executors.newSingleThreadExecutor(
+            new CustomizableThreadFactory("snapshot-applier-"));
+    private final AtomicBoolean applyScheduled = new AtomicBoolean();
+
+    // Cada evento encolado suma uno a enqueued después de entrar en pending;
+    // published es el mayor valor de enqueued cuyos eventos ya están en current
+    private final AtomicLong enqueued = new AtomicLong();
+    private final ReentrantLock publishLock = new ReentrantLock();
+    private final Condition publishedCondition = publishLock.newCondition();
+    private long published;
+
+    // Protegido por applyLock: cambios aplicados desde que empezó un refresco completo
+    private List<ProductChangedEvent> sinceReload;
+    // Protegido por applyLock: versión de fila de los borrados desde el último refresco
+    // completo, para descartar una actualización anterior que llegue después del borrado
+    private final Map<Long, Long> deletedVersions = new HashMap<>();
+
+    public CatalogSnapshotHolder(ProductRepository productRepository, ProductMapper productMapper,
+            MeterRegistry meterRegistry,
+            @Value("${catalog.snapshot.off-heap:false}") boolean offHeap,
+            @Value("${catalog.snapshot.load-batch-size:5000}") int loadBatchSize,
+            @Value("${catalog.snapshot.publish-wait-ms:1000}") long publishWaitMs) {
+        this.productRepository = productRepository;
+        this.productMapper = productMapper;
+        this.offHeap = offHeap;
+        this.loadBatchSize = loadBatchSize;
+        this.publishWaitMs = publishWaitMs;
+        Gauge.builder("catalog.snapshot.version", current, ref -> ref.get() == null ? 0 : ref.get().version())
+                .register(meterRegistry);
+        Gauge.builder("catalog.snapshot.products", current, ref -> ref.get() == null ? 0 : ref.get().size())
+                .register(meterRegistry);
+        Gauge.builder("catalog.snapshot.bytes-per-product", current,
+                ref -> ref.get() == null ? 0 : ref.get().bytesPerProduct())
+                .register(meterRegistry);
+    }
+
+    /**
+     * Snapshot vigente, o null si todavía no se ha cargado (se usa la base de datos).
+     */
+    public CatalogSnapshot current() {
+        return current.get();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.snapshot.full-refresh-ms:3600000}",
+            initialDelayString = "${catalog.snapshot.full-refresh-ms:3600000}")
+    public void scheduledReload() {
+        reload();
+    }
+
+    /**
+     * Reconstruye el snapshot desde la base de datos y lo publica.
+     */
+    public void reload() {
+        if (!reloadLock.tryLock()) {
+            return;
+        }
+        try {
+            applyLock.lock();
+            try {
+                sinceReload = new ArrayList<>();
+            } finally {
+                applyLock.unlock();
+            }
+
+            long start = System.nanoTime();
+            // Se construye fuera del lock: las escrituras siguen aplicándose a la versión
+            // anterior (y quedan en sinceReload) y las lecturas nunca esperan
+            CatalogSnapshot rebuilt = CatalogSnapshot.build(nextVersion.getAndIncrement(), loadAll());
+
+            applyLock.lock();
+            try {
+                List<ProductChangedEvent> replay = sinceReload;
+                sinceReload = null;
+                long seen = enqueued.get();
+                drainInto(replay);
+                // El catálogo recién leído ya no contiene los borrados anteriores
+                deletedVersions.clear();
+                current.set(apply(rebuilt, replay));
+                markPublished(seen);
+            } finally {
+                applyLock.unlock();
+            }
+            // Un cambio encolado justo antes de publicar la primera versión no programó pasada
+            if (!pending.isEmpty()) {
+                scheduleApply();
+            }
+            CatalogSnapshot loaded = current.get();
+            log.info("Catalog snapshot v{} loaded: {} products ({} active), {} bytes/product, in {} ms",
+                    loaded.version(), loaded.size(), loaded.activeCount(), Math.round(loaded.bytesPerProduct()),
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException ex) {
+            applyLock.lock();
+            try {
+                sinceReload = null;
+            } finally {
+                applyLock.unlock();
+            }
+            log.error("Catalog snapshot reload failed, keeping the previous version", ex);
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    /**
+     * Encola el cambio tras el commit (o al momento si no hay transacción),
+     * lo pasa al hilo de aplicación y espera a que se publique.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        pending.add(event);
+        long ticket = enqueued.incrementAndGet();
+        if (current.get() == null) {
+            // Aún sin cargar: la carga inicial los aplicará
+            return;
+        }
+        if (scheduleApply()) {
+            awaitPublished(ticket);
+        }
+    }
+
+    private boolean scheduleApply() {
+        if (applyScheduled.compareAndSet(false, true)) {
+            try {
+                applier.execute(this::applyPending);
+            } catch (RejectedExecutionException ex) {
+                // Solo durante el apagado
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Lo ejecuta el hilo de aplicación: todos los pendientes en una versión.
+     */
+    private void applyPending() {
+        // Antes de vaciar la cola: lo que llegue desde aquí programa otra pasada
+        applyScheduled.set(false);
+        applyLock.lock();
+        try {
+            CatalogSnapshot snapshot = current.get();
+            if (snapshot == null) {
+                return;
+            }
+            long seen = enqueued.get();
+            List<ProductChangedEvent> batch = new ArrayList<>();
+            drainInto(batch);
+            if (!batch.isEmpty()) {
+                if (sinceReload != null) {
+                    sinceReload.addAll(batch);
+                }
+                current.set(apply(snapshot, batch));
+            }
+            markPublished(seen);
+        } catch (RuntimeException ex) {
+            log.error("Catalog snapshot apply failed, changes wait for the next full reload", ex);
+        } finally {
+            applyLock.unlock();
+        }
+    }
+
+    private void markPublished(long seen) {
+        publishLock.lock();
+        try {
+            if (seen > published) {
+                published = seen;
+                publishedCondition.signalAll();
+            }
+        } finally {
+            publishLock.unlock();
+        }
+    }
+
+    private void awaitPublished(long ticket) {
+        long remaining = TimeUnit.MILLISECONDS.toNanos(publishWaitMs);
+        publishLock.lock();
+        try {
+            while (published < ticket) {
+                if (remaining <= 0) {
+                    log.debug("Catalog snapshot change not published after {} ms, not waiting longer",
+                            publishWaitMs);
+                    return;
+                }
+                remaining = publishedCondition.awaitNanos(remaining);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            publishLock.unlock();
+        }
+    }
+
+    /**
+     * Lee todo el catálogo por lotes de id creciente directamente a columnas,
+     * sin mantener la lista completa de entidades en memoria.
+     */
+    private ColumnarProducts loadAll() {
+        ColumnarProducts.Builder builder = ColumnarProducts.builder(new StringDictionary(offHeap),
+                Math.max(1, (int) productRepository.count()));
+        long lastId = 0;
+        List<Product> batch;
+        do {
+            batch = productRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, loadBatchSize));
+            for (Product product : batch) {
+                builder.add(productMapper.toResponseDTO(product), product.getVersion());
+                lastId = product.getId();
+            }
+        } while (batch.size() == loadBatchSize);
+        return builder.build();
+    }
+
+    private void drainInto(List<ProductChangedEvent> batch) {
+        ProductChangedEvent event;
+        while ((event = pending.poll()) != null) {
+            batch.add(event);
+        }
+    }
+
+    private CatalogSnapshot apply(CatalogSnapshot snapshot, List<ProductChangedEvent> events) {
+        Map<Long, ProductResponseDTO> changes = new LinkedHashMap<>();
+        // Versión de fila del último estado aceptado en este lote (también de los borrados)
+        Map<Long, Long> rowVersions = new HashMap<>();
+        for (ProductChangedEvent event : events) {
+            Long id = event.getProductId();
+            Long known = rowVersions.containsKey(id) ? rowVersions.get(id) : knownVersion(snapshot, id);
+            // Dos commits del mismo producto pueden notificarse en orden inverso: gana el de mayor versión
+            if (isOlder(event.getVersion(), known)) {
+                continue;
+            }
+            changes.put(id, event.getType() == ChangeType.DELETED ? null : event.getProduct());
+            rowVersions.put(id, event.getVersion());
+        }
+        changes.forEach((id, product) -> {
+            if (product == null && rowVersions.get(id) != null) {
+                deletedVersions.put(id, rowVersions.get(id));
+            } else {
+                deletedVersions.remove(id);
+            }
+        });
+        return changes.isEmpty() ? snapshot : snapshot.apply(nextVersion.getAndIncrement(), changes, rowVersions);
+    }
+
+    private Long knownVersion(CatalogSnapshot snapshot, Long id) {
+        Long version = snapshot.rowVersion(id);
+        return version != null ? version : deletedVersions.get(id);
+    }
+
+    private static boolean isOlder(Long incoming, Long known) {
+        return incoming != null && known != null && incoming < known;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        applier.shutdownNow();
+    }
+}
@@ -0,0 +1,276 @@
+package com.ecommerce.catalog.snapshot;
+
+import com.ecommerce.catalog.dto.ProductResponseDTO;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Productos almacenados por columnas de tipos primitivos.
+ *
+ * Un ProductResponseDTO cacheado son una docena de objetos (Long, Integer,
+ * Boolean, BigDecimal con su BigInteger, dos LocalDateTime con su LocalDate
+ * y LocalTime, y tres String). Aquí cada producto ocupa una posición
+ * (ordinal) en arrays primitivos: precio en céntimos, stock, categoría,
+ * activo como bit y fechas en epoch-millis UTC; los textos son códigos de
+ * un StringDictionary. Los DTO se crean solo para los productos de la
+ * página que se devuelve (materialize).
+ *
+ * Las fechas se guardan con precisión de milisegundos. Por eso, para saber
+ * qué estado de un producto es más reciente se guarda también la versión de
+ * la fila (@Version de Product), que crece con cada escritura.
+ */
+public final class ColumnarProducts {
+
+    static final long NULL_LONG = Long.MIN_VALUE;
+    static final int NULL_INT = Integer.MIN_VALUE;
+
+    private final int size;
+    private final long[] ids;
+    private final long[] priceCents;
+    private final int[] stock;
+    private final long[] categoryIds;
+    private final long[] activeBits;
+    private final long[] createdAtMillis;
+    private final long[] updatedAtMillis;
+    private final long[] rowVersions;
+    private final int[] names;
+    private final int[] descriptions;
+    private final int[] skus;
+    private final StringDictionary dictionary;
+
+    private ColumnarProducts(Builder builder) {
+        this.size = builder.size;
+        this.ids = fit(builder.ids, size);
+        this.priceCents = fit(builder.priceCents, size);
+        this.stock = fit(builder.stock, size);
+        this.categoryIds = fit(builder.categoryIds, size);
+        this.activeBits = fit(builder.activeBits, (size + 63) >>> 6);
+        this.createdAtMillis = fit(builder.createdAtMillis, size);
+        this.updatedAtMillis = fit(builder.updatedAtMillis, size);
+        this.rowVersions = fit(builder.rowVersions, size);
+        this.names = fit(builder.names, size);
+        this.descriptions = fit(builder.descriptions, size);
+        this.skus = fit(builder.skus, size);
+        this.dictionary = builder.dictionary;
+    }
+
+    public static Builder builder(StringDictionary dictionary, int expectedSize) {
+        return new Builder(dictionary, expectedSize);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long id(int ordinal) {
+        return ids[ordinal];
+    }
+
+    public long priceCents(int ordinal) {
+        return priceCents[ordinal];
+    }
+
+    public int stock(int ordinal) {
+        return stock[ordinal];
+    }
+
+    /**
+     * Categoría o NULL_LONG si no tiene.
+     */
+    public long categoryId(int ordinal) {
+        return categoryIds[ordinal];
+    }
+
+    public boolean isActive(int ordinal) {
+        return (activeBits[ordinal >>> 6] & (1L << ordinal)) != 0;
+    }
+
+    public long createdAtMillis(int ordinal) {
+        return createdAtMillis[ordinal];
+    }
+
+    public long updatedAtMillis(int ordinal) {
+        return updatedAtMillis[ordinal];
+    }
+
+    /**
+     * Versión de la fila o NULL_LONG si no se conoce.
+     */
+    public long rowVersion(int ordinal) {
+        return rowVersions[ordinal];
+    }
+
+    public int nameCode(int ordinal) {
+        return names[ordinal];
+    }
+
+    public StringDictionary dictionary() {
+        return dictionary;
+    }
+
+    /**
+     * Crea el DTO de respuesta para un ordinal.
+     */
+    public ProductResponseDTO materialize(int ordinal) {
+        ProductResponseDTO dto = new ProductResponseDTO();
+        dto.setId(ids[ordinal]);
+        dto.setName(dictionary.get(names[ordinal]));
+        dto.setDescription(dictionary.get(descriptions[ordinal]));
+        dto.setPrice(priceCents[ordinal] == NULL_LONG ? null : BigDecimal.valueOf(priceCents[ordinal], 2));
+        dto.setStock(stock[ordinal] == NULL_INT ? null : stock[ordinal]);
+        dto.setCategoryId(categoryIds[ordinal] == NULL_LONG ? null : categoryIds[ordinal]);
+        dto.setSku(dictionary.get(skus[ordinal]));
+        dto.setActive(isActive(ordinal));
+        dto.setCreatedAt(toDateTime(createdAtMillis[ordinal]));
+        dto.setUpdatedAt(toDateTime(updatedAtMillis[ordinal]));
+        return dto;
+    }
+
+    /**
+     * Bytes de las columnas (sin contar el diccionario, que se comparte).
+     */
+    public long columnBytes() {
+        return (long) size * (Long.BYTES * 6 + Integer.BYTES * 4) + (long) activeBits.length * Long.BYTES;
+    }
+
+    // Sin copia si el builder se dimensionó exacto (el builder no se reutiliza tras build())
+    private static long[] fit(long[] values, int length) {
+        return values.length == length ? values : Arrays.copyOf(values, length);
+    }
+
+    private static int[] fit(int[] values, int length) {
+        return values.length == length ? values : Arrays.copyOf(values, length);
+    }
+
+    static long toMillis(LocalDateTime value) {
+        return value == null ? NULL_LONG : value.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    static long toCents(BigDecimal value) {
+        return value == null ? NULL_LONG : value.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    private static LocalDateTime toDateTime(long millis) {
+        return millis == NULL_LONG ? null : LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+    }
+
+    /**
+     * Acumula productos y genera un ColumnarProducts inmutable.
+     */
+    public static final class Builder {
+
+        private final StringDictionary dictionary;
+        private int size;
+        private long[] ids;
+        private long[] priceCents;
+        private int[] stock;
+        private long[] categoryIds;
+        private long[] activeBits;
+        private long[] createdAtMillis;
+        private long[] updatedAtMillis;
+        private long[] rowVersions;
+        private int[] names;
+        private int[] descriptions;
+        private int[] skus;
+
+        private Builder(StringDictionary dictionary, int expectedSize) {
+            int capacity = Math.max(1, expectedSize);
+            this.dictionary = dictionary;
+            this.ids = new long[capacity];
+            this.priceCents = new long[capacity];
+            this.stock = new int[capacity];
+            this.categoryIds = new long[capacity];
+            this.activeBits = new long[(capacity + 63) >>> 6];
+            this.createdAtMillis = new long[capacity];
+            this.updatedAtMillis = new long[capacity];
+            this.rowVersions = new long[capacity];
+            this.names = new int[capacity];
+            this.descriptions = new int[capacity];
+            this.skus = new int[capacity];
+        }
+
+        /**
+         * Añade un producto nuevo o modificado; sus textos se codifican en el
+         * diccionario (el nombre, con su clave de colación para SortKey.NAME).
+         */
+        public int add(ProductResponseDTO product) {
+            return add(product, null);
+        }
+
+        /**
+         * Igual que add(product), guardando la versión de la fila (null si no se conoce).
+         */
+        public int add(ProductResponseDTO product, Long rowVersion) {
+            int ordinal = next();
+            ids[ordinal] = product.getId();
+            priceCents[ordinal] = toCents(product.getPrice());
+            stock[ordinal] = product.getStock() == null ? NULL_INT : product.getStock();
+            categoryIds[ordinal] = product.getCategoryId() == null ? NULL_LONG : product.getCategoryId();
+            setActive(ordinal, Boolean.TRUE.equals(product.getActive()));
+            createdAtMillis[ordinal] = toMillis(product.getCreatedAt());
+            updatedAtMillis[ordinal] = toMillis(product.getUpdatedAt());
+            rowVersions[ordinal] = rowVersion == null ? NULL_LONG : rowVersion;
+            names[ordinal] = dictionary.internSortable(product.getName());
+            descriptions[ordinal] = dictionary.intern(product.getDescription());
+            skus[ordinal] = dictionary.intern(product.getSku());
+            return ordinal;
+        }
+
+        /**
+         * Copia un producto de otra versión sin decodificar nada (mismo diccionario).
+         */
+        public int copy(ColumnarProducts source, int sourceOrdinal) {
+            int ordinal = next();
+            ids[ordinal] = source.ids[sourceOrdinal];
+            priceCents[ordinal] = source.priceCents[sourceOrdinal];
+            stock[ordinal] = source.stock[sourceOrdinal];
+            categoryIds[ordinal] = source.categoryIds[sourceOrdinal];
+            setActive(ordinal, source.isActive(sourceOrdinal));
+            createdAtMillis[ordinal] = source.createdAtMillis[sourceOrdinal];
+            updatedAtMillis[ordinal] = source.updatedAtMillis[sourceOrdinal];
+            rowVersions[ordinal] = source.rowVersions[sourceOrdinal];
+            names[ordinal] = source.names[sourceOrdinal];
+            descriptions[ordinal] = source.descriptions[sourceOrdinal];
+            skus[ordinal] = source.skus[sourceOrdinal];
+            return ordinal;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public ColumnarProducts build() {
+            return new ColumnarProducts(this);
+        }
+
+        private void setActive(int ordinal, boolean active) {
+            if (active) {
+                activeBits[ordinal >>> 6] |= 1L << ordinal;
+            }
+        }
+
+        private int next() {
+            if (size == ids.length) {
+                // Con capacidad 1, length >> 1 es 0: crece al menos en uno
+                int capacity = Math.max(ids.length + 1, ids.length + (ids.length >> 1));
+                ids = Arrays.copyOf(ids, capacity);
+                priceCents = Arrays.copyOf(priceCents, capacity);
+                stock = Arrays.copyOf(stock, capacity);
+                categoryIds = Arrays.copyOf(categoryIds, capacity);
+                activeBits = Arrays.copyOf(activeBits, (capacity + 63) >>> 6);
+                createdAtMillis = Arrays.copyOf(createdAtMillis, capacity);
+                updatedAtMillis = Arrays.copyOf(updatedAtMillis, capacity);
+                rowVersions = Arrays.copyOf(rowVersions, capacity);
+                names = Arrays.copyOf(names, capacity);
+                descriptions = Arrays.copyOf(descriptions, capacity);
+                skus = Arrays.copyOf(skus, capacity);
+            }
+            return size++;
+        }
+    }
+}
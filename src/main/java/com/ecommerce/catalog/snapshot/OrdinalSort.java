@@ -0,0 +1,81 @@
+package com.ecommerce.catalog.snapshot;
+
+/**
+ * Ordenación estable de arrays de ordinales con un comparador primitivo,
+ * para no crear un Integer por producto al ordenar millones de ellos.
+ */
+final class OrdinalSort {
+
+    @FunctionalInterface
+    interface OrdinalComparator {
+        int compare(int a, int b);
+    }
+
+    private static final int INSERTION_THRESHOLD = 32;
+
+    private OrdinalSort() {
+    }
+
+    /**
+     * Ordena el array (merge sort) y lo devuelve.
+     */
+    static int[] sort(int[] ordinals, OrdinalComparator comparator) {
+        if (ordinals.length > 1) {
+            int[] buffer = ordinals.clone();
+            mergeSort(buffer, ordinals, 0, ordinals.length, comparator);
+        }
+        return ordinals;
+    }
+
+    /**
+     * Mezcla dos arrays ya ordenados en uno nuevo.
+     */
+    static int[] merge(int[] left, int[] right, OrdinalComparator comparator) {
+        int[] result = new int[left.length + right.length];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < left.length && j < right.length) {
+            result[n++] = comparator.compare(left[i], right[j]) <= 0 ? left[i++] : right[j++];
+        }
+        while (i < left.length) {
+            result[n++] = left[i++];
+        }
+        while (j < right.length) {
+            result[n++] = right[j++];
+        }
+        return result;
+    }
+
+    // Ordena src[from, to) dejando el resultado en dest (ambos empiezan con el mismo contenido)
+    private static void mergeSort(int[] src, int[] dest, int from, int to, OrdinalComparator comparator) {
+        int length = to - from;
+        if (length < INSERTION_THRESHOLD) {
+            for (int i = from + 1; i < to; i++) {
+                int value = dest[i];
+                int j = i - 1;
+                while (j >= from && comparator.compare(dest[j], value) > 0) {
+                    dest[j + 1] = dest[j];
+                    j--;
+                }
+                dest[j + 1] = value;
+            }
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        mergeSort(dest, src, from, mid, comparator);
+        mergeSort(dest, src, mid, to, comparator);
+
+        if (comparator.compare(src[mid - 1], src[mid]) <= 0) {
+            System.arraycopy(src, from, dest, from, length);
+            return;
+        }
+        for (int i = from, p = from, q = mid; i < to; i++) {
+            if (q >= to || (p < mid && comparator.compare(src[p], src[q]) <= 0)) {
+                dest[i] = src[p++];
+            } else {
+                dest[i] = src[q++];
+            }
+        }
+    }
+}
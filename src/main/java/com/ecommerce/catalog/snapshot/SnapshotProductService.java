@@ -0,0 +1,159 @@
+package com.ecommerce.catalog.snapshot;
+
+import com.ecommerce.catalog.dto.ProductFields;
+import com.ecommerce.catalog.dto.ProductFilter;
+import com.ecommerce.catalog.dto.ProductQuery;
+import com.ecommerce.catalog.dto.ProductRequestDTO;
+import com.ecommerce.catalog.dto.ProductResponseDTO;
+import com.ecommerce.catalog.service.ProductService;
+import com.ecommerce.catalog.service.ProductServiceImpl;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Modo snapshot (catalog.snapshot.enabled=true): el listado, el filtro por
+ * categoría y los filtros combinados (stock, varias categorías) se responden
+ * desde CatalogSnapshot sin tocar la base de datos.
+ *
+ * Solo se listan productos activos. Se cae a ProductServiceImpl (base de
+ * datos) si el snapshot aún no está cargado o si la ordenación pedida no
+ * es una sola propiedad de SortKey; allí SortPolicy rechaza las que no
+ * tienen índice. Búsqueda, detalle y escrituras van siempre a
+ * ProductServiceImpl. Con fields= se recorta el DTO del snapshot a los
+ * campos pedidos.
+ */
+@Slf4j
+@Service
+@Primary
+@ConditionalOnProperty(name = "catalog.snapshot.enabled", havingValue = "true")
+public class SnapshotProductService implements ProductService {
+
+    private final ProductServiceImpl delegate;
+    private final CatalogSnapshotHolder snapshotHolder;
+    private final Counter snapshotHits;
+    private final Counter databaseFallbacks;
+
+    public SnapshotProductService(ProductServiceImpl delegate, CatalogSnapshotHolder snapshotHolder,
+            MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.snapshotHolder = snapshotHolder;
+        this.snapshotHits = Counter.builder("catalog.snapshot.reads").tag("source", "snapshot")
+                .register(meterRegistry);
+        this.databaseFallbacks = Counter.builder("catalog.snapshot.reads").tag("source", "database")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Page<ProductResponseDTO> getAllProducts(@NonNull Pageable pageable) {
+        return fromSnapshot(ProductFilter.activeOnly(), pageable).orElseGet(() -> delegate.getAllProducts(pageable));
+    }
+
+    @Override
+    public Page<ProductResponseDTO> getProductsByCategory(Long categoryId, @NonNull Pageable pageable) {
+        return fromSnapshot(ProductFilter.category(categoryId), pageable)
+                .orElseGet(() -> delegate.getProductsByCategory(categoryId, pageable));
+    }
+
+    @Override
+    public Page<ProductResponseDTO> filterProducts(ProductFilter filter, @NonNull Pageable pageable) {
+        return fromSnapshot(filter, pageable).orElseGet(() -> delegate.filterProducts(filter, pageable));
+    }
+
+    @Override
+    public Page<ProductResponseDTO> searchProducts(String keyword, @NonNull Pageable pageable) {
+        return delegate.searchProducts(keyword, pageable);
+    }
+
+    @Override
+    public ProductResponseDTO getProductById(Long id) {
+        return delegate.getProductById(id);
+    }
+
+    @Override
+    public Page<Map<String, Object>> findProducts(ProductQuery query, ProductFields fields,
+            @NonNull Pageable pageable) {
+        // Desde el snapshot no hay I/O que ahorrar: se recorta el DTO ya materializado
+        Optional<Page<ProductResponseDTO>> page = switch (query) {
+            case ProductQuery.All all -> fromSnapshot(ProductFilter.activeOnly(), pageable);
+            case ProductQuery.ByCategory byCategory -> fromSnapshot(ProductFilter.category(byCategory.categoryId()),
+                    pageable);
+            case ProductQuery.Filtered filtered -> fromSnapshot(filtered.filter(), pageable);
+            case ProductQuery.Search search -> Optional.empty();
+        };
+        return page.map(products -> products.map(fields::project))
+                .orElseGet(() -> delegate.findProducts(query, fields, pageable));
+    }
+
+    @Override
+    public Map<String, Object> getProductById(Long id, ProductFields fields) {
+        return delegate.getProductById(id, fields);
+    }
+
+    @Override
+    public ProductResponseDTO getProductBySku(String sku) {
+        return delegate.getProductBySku(sku);
+    }
+
+    @Override
+    public Map<String, ProductResponseDTO> getProductsBySkus(List<String> skus) {
+        return delegate.getProductsBySkus(skus);
+    }
+
+    @Override
+    public ProductResponseDTO createProduct(ProductRequestDTO productRequestDTO) {
+        return delegate.createProduct(productRequestDTO);
+    }
+
+    @Override
+    public ProductResponseDTO updateProduct(Long id, ProductRequestDTO productRequestDTO) {
+        return delegate.updateProduct(id, productRequestDTO);
+    }
+
+    @Override
+    public void deleteProduct(Long id) {
+        delegate.deleteProduct(id);
+    }
+
+    private Optional<Page<ProductResponseDTO>> fromSnapshot(ProductFilter filter, Pageable pageable) {
+        CatalogSnapshot snapshot = snapshotHolder.current();
+        if (snapshot == null) {
+            databaseFallbacks.increment();
+            return Optional.empty();
+        }
+
+        SortKey key = SortKey.ID;
+        boolean descending = false;
+        Iterator<Sort.Order> orders = pageable.getSort().iterator();
+        if (orders.hasNext()) {
+            Sort.Order order = orders.next();
+            Optional<SortKey> whitelisted = SortKey.of(order.getProperty());
+            if (whitelisted.isEmpty() || order.isIgnoreCase() || orders.hasNext()) {
+                databaseFallbacks.increment();
+                return Optional.empty();
+            }
+            key = whitelisted.get();
+            descending = order.isDescending();
+        }
+
+        CatalogSnapshot.Slice slice = snapshot.page(filter, key, descending,
+                pageable.isPaged() ? pageable.getOffset() : 0,
+                pageable.isPaged() ? pageable.getPageSize() : Integer.MAX_VALUE);
+        snapshotHits.increment();
+        log.debug("Served page {} from catalog snapshot v{}", pageable, snapshot.version());
+        return Optional.of(new PageImpl<>(slice.content(), pageable, slice.total()));
+    }
+}
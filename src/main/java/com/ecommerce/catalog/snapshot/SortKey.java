@@ -0,0 +1,68 @@
+package com.ecommerce.catalog.snapshot;
+
+import java.util.Optional;
+
+/**
+ * Claves de ordenación que el snapshot tiene pre-calculadas.
+ * Comparan directamente las columnas de ColumnarProducts (sin crear objetos),
+ * dejan los nulos al final y desempatan por id para que la paginación sea estable.
+ * NAME usa la colación en español del diccionario, no el orden de bytes
+ * UTF-8: "ábaco" va antes que "Balón" y este antes que "bolso".
+ */
+public enum SortKey {
+
+    ID("id"),
+    NAME("name"),
+    PRICE("price"),
+    STOCK("stock"),
+    CREATED_AT("createdAt"),
+    UPDATED_AT("updatedAt");
+
+    private final String property;
+
+    SortKey(String property) {
+        this.property = property;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public int compare(ColumnarProducts products, int a, int b) {
+        int cmp = switch (this) {
+            case ID -> 0;
+            case NAME -> products.dictionary().compareCollated(products.nameCode(a), products.nameCode(b));
+            case PRICE -> compareNullable(products.priceCents(a), products.priceCents(b));
+            case STOCK -> compareNullable(products.stock(a), products.stock(b));
+            case CREATED_AT -> compareNullable(products.createdAtMillis(a), products.createdAtMillis(b));
+            case UPDATED_AT -> compareNullable(products.updatedAtMillis(a), products.updatedAtMillis(b));
+        };
+        return cmp != 0 ? cmp : Long.compare(products.id(a), products.id(b));
+    }
+
+    /**
+     * Clave para la propiedad de ordenación de la petición, si está en la lista.
+     */
+    public static Optional<SortKey> of(String property) {
+        for (SortKey key : values()) {
+            if (key.property.equals(property)) {
+                return Optional.of(key);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static int compareNullable(long a, long b) {
+        if (a == ColumnarProducts.NULL_LONG || b == ColumnarProducts.NULL_LONG) {
+            return Boolean.compare(a == ColumnarProducts.NULL_LONG, b == ColumnarProducts.NULL_LONG);
+        }
+        return Long.compare(a, b);
+    }
+
+    private static int compareNullable(int a, int b) {
+        if (a == ColumnarProducts.NULL_INT || b == ColumnarProducts.NULL_INT) {
+            return Boolean.compare(a == ColumnarProducts.NULL_INT, b == ColumnarProducts.NULL_INT);
+        }
+        return Integer.compare(a, b);
+    }
+}
@@ -0,0 +1,257 @@
+package com.ecommerce.catalog.snapshot;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.text.Collator;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Diccionario de textos codificados en UTF-8, compartido por las versiones
+ * de un mismo snapshot.
+ *
+ * Cada texto distinto se guarda una sola vez y las columnas solo almacenan
+ * su código int; los bytes viven en bloques de 1 MB (en el heap o fuera de
+ * él con offHeap=true), así que millones de textos no son millones de
+ * objetos String para el GC. Solo crece: los textos que dejan de usarse se
+ * descartan en el siguiente refresco completo, que crea un diccionario nuevo.
+ *
+ * Un único escritor (bajo el lock de CatalogSnapshotHolder) y lectores
+ * concurrentes: un código es visible para quien obtuvo el snapshot que lo
+ * usa, porque se añade antes de publicar ese snapshot.
+ *
+ * Los textos por los que se ordena (internSortable) guardan además su clave
+ * de colación en español, calculada una vez al añadirlos: compareCollated
+ * ordena "ábaco" antes que "Balón" comparando bytes, sin decodificar ni
+ * crear objetos en cada comparación.
+ */
+public final class StringDictionary {
+
+    private static final int CHUNK_BITS = 20;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int NULL_CODE = -1;
+
+    private final boolean offHeap;
+
+    // Publicados con volatile al crecer para que los lectores vean el contenido copiado
+    private volatile ByteBuffer[] chunks = new ByteBuffer[0];
+    private volatile long[] addresses = new long[1024];
+    // Dirección + 1 de la clave de colación de cada código (0 = sin clave)
+    private volatile long[] collationAddresses = new long[1024];
+
+    // Solo los usa el escritor
+    private int size;
+    private int position = CHUNK_SIZE;
+    private int[] table = new int[2048];
+    private final Collator collator = Collator.getInstance(Locale.forLanguageTag("es"));
+
+    public StringDictionary(boolean offHeap) {
+        this.offHeap = offHeap;
+        collator.setDecomposition(Collator.CANONICAL_DECOMPOSITION);
+    }
+
+    /**
+     * Código del texto, añadiéndolo si no existía. null se codifica como -1.
+     */
+    public int intern(String value) {
+        if (value == null) {
+            return NULL_CODE;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int hash = hash(bytes, 0, bytes.length);
+        int mask = table.length - 1;
+        for (int slot = hash & mask;; slot = (slot + 1) & mask) {
+            int code = table[slot] - 1;
+            if (code < 0) {
+                int added = append(bytes);
+                table[slot] = added + 1;
+                if (size * 2 > table.length) {
+                    rehash();
+                }
+                return added;
+            }
+            if (equalsBytes(code, bytes)) {
+                return code;
+            }
+        }
+    }
+
+    /**
+     * Como intern, y además guarda la clave de colación del texto para
+     * poder ordenarlo con compareCollated.
+     */
+    public int internSortable(String value) {
+        int code = intern(value);
+        if (code != NULL_CODE) {
+            long[] current = collationAddresses;
+            if (current.length <= code) {
+                current = Arrays.copyOf(current, addresses.length);
+            }
+            if (current[code] == 0) {
+                current[code] = store(collator.getCollationKey(value).toByteArray()) + 1;
+            }
+            collationAddresses = current;
+        }
+        return code;
+    }
+
+    public String get(int code) {
+        if (code == NULL_CODE) {
+            return null;
+        }
+        long address = addresses[code];
+        ByteBuffer chunk = chunks[(int) (address >>> CHUNK_BITS)];
+        int offset = (int) (address & (CHUNK_SIZE - 1));
+        int length = chunk.getInt(offset);
+        byte[] bytes = new byte[length];
+        chunk.get(offset + Integer.BYTES, bytes, 0, length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Compara dos textos por sus bytes UTF-8 sin decodificarlos (orden de
+     * puntos de código; null al final).
+     */
+    public int compare(int a, int b) {
+        if (a == b) {
+            return 0;
+        }
+        if (a == NULL_CODE || b == NULL_CODE) {
+            return a == NULL_CODE ? 1 : -1;
+        }
+        return compareBytes(addresses[a], addresses[b]);
+    }
+
+    /**
+     * Compara dos textos por su clave de colación en español: primero la
+     * letra base y solo después acentos y mayúsculas (null al final). Los
+     * dos tienen que venir de internSortable.
+     */
+    public int compareCollated(int a, int b) {
+        if (a == b) {
+            return 0;
+        }
+        if (a == NULL_CODE || b == NULL_CODE) {
+            return a == NULL_CODE ? 1 : -1;
+        }
+        long[] keys = collationAddresses;
+        return compareBytes(keys[a] - 1, keys[b] - 1);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Bytes reservados para los textos, las tablas de direcciones y la de búsqueda.
+     */
+    public long footprintBytes() {
+        return (long) chunks.length * CHUNK_SIZE + (long) addresses.length * Long.BYTES
+                + (long) collationAddresses.length * Long.BYTES + (long) table.length * Integer.BYTES;
+    }
+
+    public boolean isOffHeap() {
+        return offHeap;
+    }
+
+    private int compareBytes(long addressA, long addressB) {
+        ByteBuffer chunkA = chunks[(int) (addressA >>> CHUNK_BITS)];
+        ByteBuffer chunkB = chunks[(int) (addressB >>> CHUNK_BITS)];
+        int offsetA = (int) (addressA & (CHUNK_SIZE - 1));
+        int offsetB = (int) (addressB & (CHUNK_SIZE - 1));
+        int lengthA = chunkA.getInt(offsetA);
+        int lengthB = chunkB.getInt(offsetB);
+        int common = Math.min(lengthA, lengthB);
+        for (int i = 0; i < common; i++) {
+            int cmp = Integer.compare(chunkA.get(offsetA + Integer.BYTES + i) & 0xFF,
+                    chunkB.get(offsetB + Integer.BYTES + i) & 0xFF);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return Integer.compare(lengthA, lengthB);
+    }
+
+    private int append(byte[] bytes) {
+        long address = store(bytes);
+        long[] current = addresses;
+        if (size == current.length) {
+            current = Arrays.copyOf(current, current.length * 2);
+        }
+        current[size] = address;
+        addresses = current;
+        return size++;
+    }
+
+    // Copia los bytes con su longitud delante y devuelve su dirección
+    private long store(byte[] bytes) {
+        int needed = Integer.BYTES + bytes.length;
+        if (needed > CHUNK_SIZE) {
+            throw new IllegalArgumentException("Text too long for the dictionary: " + bytes.length + " bytes");
+        }
+        if (position + needed > CHUNK_SIZE) {
+            ByteBuffer[] grown = Arrays.copyOf(chunks, chunks.length + 1);
+            grown[grown.length - 1] = offHeap ? ByteBuffer.allocateDirect(CHUNK_SIZE) : ByteBuffer.allocate(CHUNK_SIZE);
+            chunks = grown;
+            position = 0;
+        }
+        ByteBuffer chunk = chunks[chunks.length - 1];
+        chunk.putInt(position, bytes.length);
+        chunk.put(position + Integer.BYTES, bytes);
+        long address = ((long) (chunks.length - 1) << CHUNK_BITS) | position;
+        position += needed;
+        return address;
+    }
+
+    private boolean equalsBytes(int code, byte[] bytes) {
+        long address = addresses[code];
+        ByteBuffer chunk = chunks[(int) (address >>> CHUNK_BITS)];
+        int offset = (int) (address & (CHUNK_SIZE - 1));
+        if (chunk.getInt(offset) != bytes.length) {
+            return false;
+        }
+        for (int i = 0; i < bytes.length; i++) {
+            if (chunk.get(offset + Integer.BYTES + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void rehash() {
+        int[] grown = new int[table.length * 2];
+        int mask = grown.length - 1;
+        for (int code = 0; code < size; code++) {
+            long address = addresses[code];
+            ByteBuffer chunk = chunks[(int) (address >>> CHUNK_BITS)];
+            int offset = (int) (address & (CHUNK_SIZE - 1));
+            int hash = hash(chunk, offset + Integer.BYTES, chunk.getInt(offset));
+            int slot = hash & mask;
+            while (grown[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            grown[slot] = code + 1;
+        }
+        table = grown;
+    }
+
+    private static int hash(byte[] bytes, int from, int length) {
+        int h = 1;
+        for (int i = from; i < from + length; i++) {
+            h = 31 * h + bytes[i];
+        }
+        return mix(h);
+    }
+
+    private static int hash(ByteBuffer buffer, int from, int length) {
+        int h = 1;
+        for (int i = from; i < from + length; i++) {
+            h = 31 * h + buffer.get(i);
+        }
+        return mix(h);
+    }
+
+    private static int mix(int h) {
+        return h ^ (h >>> 16);
+    }
+}
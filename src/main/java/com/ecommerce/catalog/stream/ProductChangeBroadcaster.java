@@ -0,0 +1,241 @@
+package com.ecommerce.catalog.stream;
+
+import com.ecommerce.catalog.dto.ProductChangeDTO;
+import com.ecommerce.catalog.dto.ProductResponseDTO;
+import com.ecommerce.catalog.event.ProductChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reparte los cambios de productos a los suscriptores SSE.
+ *
+ * El hilo que escribe (el de la petición PUT/POST/DELETE) solo indexa el
+ * cambio en los buffers de los suscriptores interesados; el envío real lo
+ * hace un pool pequeño de hilos, de modo que un cliente lento nunca frena
+ * una escritura. Los suscriptores se indexan por producto y por categoría
+ * para no recorrer todas las conexiones en cada cambio.
+ *
+ * SseEmitter.send es bloqueante: un cliente que no lee deja el hilo parado
+ * en la escritura. El pool es un ForkJoinPool y cada envío se declara como
+ * bloqueo gestionado, así que el pool añade un hilo de reemplazo mientras
+ * dura y el resto de suscriptores sigue recibiendo. Además, un vigilante
+ * expulsa a los suscriptores cuyo envío supera catalog.stream.write-timeout-ms:
+ * dejan de recibir cambios y su conexión se cierra en cuanto la escritura
+ * vuelve (o vence el timeout del propio conector).
+ */
+@Slf4j
+@Component
+public class ProductChangeBroadcaster {
+
+    private final Set<ProductStreamSubscriber> unfiltered = ConcurrentHashMap.newKeySet();
+    private final ConcurrentMap<Long, Set<ProductStreamSubscriber>> byProduct = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Set<ProductStreamSubscriber>> byCategory = new ConcurrentHashMap<>();
+    private final Set<ProductStreamSubscriber> all = ConcurrentHashMap.newKeySet();
+
+    // Hilos de reemplazo como máximo mientras hay envíos bloqueados
+    private static final int MAX_BLOCKED_SENDS = 256;
+
+    private final ForkJoinPool senders;
+    private final ScheduledExecutorService heartbeats;
+    private final int bufferSize;
+    private final long timeoutMs;
+    private final long writeTimeoutMs;
+
+    public ProductChangeBroadcaster(
+            @Value("${catalog.stream.buffer-size:256}") int bufferSize,
+            @Value("${catalog.stream.timeout-ms:1800000}") long timeoutMs,
+            @Value("${catalog.stream.sender-threads:4}") int senderThreads,
+            @Value("${catalog.stream.heartbeat-seconds:25}") long heartbeatSeconds,
+            @Value("${catalog.stream.write-timeout-ms:5000}") long writeTimeoutMs) {
+        this.bufferSize = bufferSize;
+        this.timeoutMs = timeoutMs;
+        this.writeTimeoutMs = writeTimeoutMs;
+        // asyncMode (FIFO): los drenados se atienden en orden de llegada.
+        // Al llegar al máximo de reemplazos se sigue sin compensar en lugar de fallar
+        this.senders = new ForkJoinPool(senderThreads, ProductChangeBroadcaster::newSenderThread, null, true,
+                0, senderThreads + MAX_BLOCKED_SENDS, 1, pool -> true, 60, TimeUnit.SECONDS);
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("sse-heartbeat-"));
+        this.heartbeats.scheduleAtFixedRate(this::heartbeat, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+        // Revisando cada writeTimeoutMs, un envío parado se detecta en como mucho el doble
+        this.heartbeats.scheduleWithFixedDelay(this::evictStalled, writeTimeoutMs, writeTimeoutMs,
+                TimeUnit.MILLISECONDS);
+    }
+
+    private static ForkJoinWorkerThread newSenderThread(ForkJoinPool pool) {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("sse-sender-" + thread.getPoolIndex());
+        return thread;
+    }
+
+    /**
+     * Registra un nuevo suscriptor. Sin filtros recibe todos los cambios;
+     * con ids y/o categoryId recibe los cambios que cumplan cualquiera de ellos.
+     */
+    public SseEmitter subscribe(Set<Long> productIds, Long categoryId) {
+        return register(new ProductStreamSubscriber(new SseEmitter(timeoutMs),
+                productIds == null ? Set.of() : Set.copyOf(productIds), categoryId, bufferSize));
+    }
+
+    SseEmitter register(ProductStreamSubscriber subscriber) {
+        SseEmitter emitter = subscriber.getEmitter();
+        emitter.onCompletion(() -> unregister(subscriber));
+        emitter.onTimeout(() -> unregister(subscriber));
+        emitter.onError(ex -> unregister(subscriber));
+
+        all.add(subscriber);
+        if (subscriber.isUnfiltered()) {
+            unfiltered.add(subscriber);
+        }
+        for (Long id : subscriber.getProductIds()) {
+            addToIndex(byProduct, id, subscriber);
+        }
+        if (subscriber.getCategoryId() != null) {
+            addToIndex(byCategory, subscriber.getCategoryId(), subscriber);
+        }
+        log.debug("SSE subscriber registered - ids: {}, categoryId: {}, total: {}",
+                subscriber.getProductIds(), subscriber.getCategoryId(), all.size());
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return all.size();
+    }
+
+    /**
+     * Se ejecuta tras el commit para no anunciar cambios que luego se revierten.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (all.isEmpty()) {
+            return;
+        }
+        ProductChangeDTO change = toChange(event);
+        dispatch(unfiltered, change);
+        dispatch(byProduct.get(event.getProductId()), change);
+        if (change.getCategoryId() != null) {
+            dispatch(byCategory.get(change.getCategoryId()), change);
+        }
+        // Si cambió de categoría, los suscriptores de la anterior tienen que saber que salió
+        Long previousCategoryId = event.getPreviousCategoryId();
+        if (previousCategoryId != null && !previousCategoryId.equals(change.getCategoryId())) {
+            dispatch(byCategory.get(previousCategoryId), change);
+        }
+    }
+
+    private void dispatch(Collection<ProductStreamSubscriber> subscribers, ProductChangeDTO change) {
+        if (subscribers == null) {
+            return;
+        }
+        for (ProductStreamSubscriber subscriber : subscribers) {
+            if (subscriber.offer(change)) {
+                schedule(subscriber);
+            }
+        }
+    }
+
+    private void heartbeat() {
+        for (ProductStreamSubscriber subscriber : all) {
+            if (subscriber.offerHeartbeat()) {
+                schedule(subscriber);
+            }
+        }
+    }
+
+    private void evictStalled() {
+        long now = System.nanoTime();
+        long limitNanos = TimeUnit.MILLISECONDS.toNanos(writeTimeoutMs);
+        for (ProductStreamSubscriber subscriber : all) {
+            if (subscriber.isSendStalled(now, limitNanos)) {
+                log.warn("SSE subscriber evicted - send blocked for more than {} ms", writeTimeoutMs);
+                unregister(subscriber);
+            }
+        }
+    }
+
+    private void schedule(ProductStreamSubscriber subscriber) {
+        try {
+            senders.execute(() -> {
+                if (!subscriber.drain()) {
+                    subscriber.getEmitter().complete();
+                    unregister(subscriber);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            // Solo ocurre durante el apagado
+            unregister(subscriber);
+        }
+    }
+
+    private void unregister(ProductStreamSubscriber subscriber) {
+        subscriber.close();
+        if (!all.remove(subscriber)) {
+            return;
+        }
+        unfiltered.remove(subscriber);
+        for (Long id : subscriber.getProductIds()) {
+            removeFromIndex(byProduct, id, subscriber);
+        }
+        if (subscriber.getCategoryId() != null) {
+            removeFromIndex(byCategory, subscriber.getCategoryId(), subscriber);
+        }
+        log.debug("SSE subscriber removed - remaining: {}", all.size());
+    }
+
+    // compute() hace atómico el alta frente a la baja del conjunto vacío
+    private static void addToIndex(ConcurrentMap<Long, Set<ProductStreamSubscriber>> index, Long key,
+            ProductStreamSubscriber subscriber) {
+        index.compute(key, (k, set) -> {
+            Set<ProductStreamSubscriber> target = set != null ? set : ConcurrentHashMap.newKeySet();
+            target.add(subscriber);
+            return target;
+        });
+    }
+
+    private static void removeFromIndex(ConcurrentMap<Long, Set<ProductStreamSubscriber>> index, Long key,
+            ProductStreamSubscriber subscriber) {
+        index.computeIfPresent(key, (k, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private static ProductChangeDTO toChange(ProductChangedEvent event) {
+        ProductResponseDTO product = event.getProduct();
+        ProductChangeDTO change = new ProductChangeDTO();
+        change.setType(event.getType().name());
+        change.setProductId(event.getProductId());
+        if (product != null) {
+            change.setCategoryId(product.getCategoryId());
+            change.setPrice(product.getPrice());
+            change.setStock(product.getStock());
+            change.setActive(product.getActive());
+            change.setUpdatedAt(product.getUpdatedAt());
+        }
+        return change;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.shutdownNow();
+        senders.shutdown();
+        for (ProductStreamSubscriber subscriber : all) {
+            subscriber.getEmitter().complete();
+        }
+    }
+}
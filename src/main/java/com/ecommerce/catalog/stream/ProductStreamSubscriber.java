@@ -0,0 +1,217 @@
+package com.ecommerce.catalog.stream;
+
+import com.ecommerce.catalog.dto.ProductChangeDTO;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Suscriptor SSE con buffer propio y acotado.
+ * Los cambios pendientes se agrupan por producto (el último gana), así que
+ * una ráfaga de cambios sobre el mismo producto ocupa una sola posición.
+ * Si el buffer se llena se descarta todo y se envía un evento "resync".
+ */
+class ProductStreamSubscriber {
+
+    static final String CHANGE_EVENT = "product-change";
+    static final String RESYNC_EVENT = "resync";
+
+    private final SseEmitter emitter;
+    private final Set<Long> productIds;
+    private final Long categoryId;
+    private final int capacity;
+
+    // Protegido por synchronized(pending); las secciones críticas no hacen I/O
+    private final LinkedHashMap<Long, ProductChangeDTO> pending = new LinkedHashMap<>();
+    private boolean resyncPending;
+    private boolean heartbeatPending;
+
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private volatile boolean closed;
+    // System.nanoTime() al empezar el envío en curso; NOT_SENDING si no hay ninguno
+    private volatile long sendStartedNanos = NOT_SENDING;
+
+    private static final long NOT_SENDING = Long.MIN_VALUE;
+
+    ProductStreamSubscriber(SseEmitter emitter, Set<Long> productIds, Long categoryId, int capacity) {
+        this.emitter = emitter;
+        this.productIds = productIds;
+        this.categoryId = categoryId;
+        this.capacity = capacity;
+    }
+
+    SseEmitter getEmitter() {
+        return emitter;
+    }
+
+    Set<Long> getProductIds() {
+        return productIds;
+    }
+
+    Long getCategoryId() {
+        return categoryId;
+    }
+
+    boolean isUnfiltered() {
+        return productIds.isEmpty() && categoryId == null;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    void close() {
+        closed = true;
+    }
+
+    /**
+     * true si hay un envío en curso que empezó hace más de limitNanos.
+     */
+    boolean isSendStalled(long nowNanos, long limitNanos) {
+        long started = sendStartedNanos;
+        return started != NOT_SENDING && nowNanos - started > limitNanos;
+    }
+
+    /**
+     * Encola un cambio sin bloquear. Devuelve true si el llamador debe
+     * programar un drenado (nadie lo tenía programado).
+     */
+    boolean offer(ProductChangeDTO change) {
+        if (closed) {
+            return false;
+        }
+        synchronized (pending) {
+            if (resyncPending) {
+                // El cliente va a recargar todo, no hace falta acumular más
+                return false;
+            }
+            if (pending.size() >= capacity && !pending.containsKey(change.getProductId())) {
+                pending.clear();
+                resyncPending = true;
+            } else {
+                pending.put(change.getProductId(), change);
+            }
+        }
+        return scheduled.compareAndSet(false, true);
+    }
+
+    boolean offerHeartbeat() {
+        if (closed) {
+            return false;
+        }
+        synchronized (pending) {
+            heartbeatPending = true;
+        }
+        return scheduled.compareAndSet(false, true);
+    }
+
+    /**
+     * Envía todo lo pendiente. Lo ejecuta un único hilo a la vez (garantizado
+     * por el flag scheduled). Devuelve false si la conexión está rota o si
+     * el suscriptor se cerró (p. ej. expulsado por un envío demasiado lento).
+     */
+    boolean drain() {
+        try {
+            while (true) {
+                List<ProductChangeDTO> batch;
+                boolean resync;
+                boolean heartbeat;
+                synchronized (pending) {
+                    batch = new ArrayList<>(pending.values());
+                    pending.clear();
+                    resync = resyncPending;
+                    heartbeat = heartbeatPending;
+                    resyncPending = false;
+                    heartbeatPending = false;
+                    if (batch.isEmpty() && !resync && !heartbeat) {
+                        scheduled.set(false);
+                        return true;
+                    }
+                }
+                sendBlocking(batch, resync, heartbeat);
+                if (closed) {
+                    scheduled.set(false);
+                    return false;
+                }
+            }
+        } catch (IOException | IllegalStateException ex) {
+            closed = true;
+            scheduled.set(false);
+            return false;
+        }
+    }
+
+    /**
+     * Envía dentro de ForkJoinPool.managedBlock: si corre en el pool de envío,
+     * este pone otro hilo a trabajar mientras la escritura está bloqueada.
+     * Fuera de un ForkJoinPool simplemente ejecuta el envío.
+     */
+    private void sendBlocking(List<ProductChangeDTO> batch, boolean resync, boolean heartbeat) throws IOException {
+        PendingSend pendingSend = new PendingSend(batch, resync, heartbeat);
+        sendStartedNanos = System.nanoTime();
+        try {
+            ForkJoinPool.managedBlock(pendingSend);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("SSE send interrupted", ex);
+        } finally {
+            sendStartedNanos = NOT_SENDING;
+        }
+        if (pendingSend.failure != null) {
+            throw pendingSend.failure;
+        }
+    }
+
+    private final class PendingSend implements ForkJoinPool.ManagedBlocker {
+        private final List<ProductChangeDTO> batch;
+        private final boolean resync;
+        private final boolean heartbeat;
+        private boolean done;
+        private IOException failure;
+
+        PendingSend(List<ProductChangeDTO> batch, boolean resync, boolean heartbeat) {
+            this.batch = batch;
+            this.resync = resync;
+            this.heartbeat = heartbeat;
+        }
+
+        @Override
+        public boolean block() {
+            try {
+                send(batch, resync, heartbeat);
+            } catch (IOException ex) {
+                failure = ex;
+            } finally {
+                done = true;
+            }
+            return true;
+        }
+
+        @Override
+        public boolean isReleasable() {
+            return done;
+        }
+    }
+
+    private void send(List<ProductChangeDTO> batch, boolean resync, boolean heartbeat) throws IOException {
+        if (resync) {
+            emitter.send(SseEmitter.event().name(RESYNC_EVENT).data("buffer overflow"));
+        }
+        for (ProductChangeDTO change : batch) {
+            emitter.send(SseEmitter.event()
+                    .name(CHANGE_EVENT)
+                    .id(String.valueOf(change.getProductId()))
+                    .data(change, MediaType.APPLICATION_JSON));
+        }
+        if (heartbeat && batch.isEmpty() && !resync) {
+            emitter.send(SseEmitter.event().comment("ping"));
+        }
+    }
+}
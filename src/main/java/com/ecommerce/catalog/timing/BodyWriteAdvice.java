@@ -0,0 +1,36 @@
+package com.ecommerce.catalog.timing;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Marca el final del controlador: a partir de aquí el tiempo es
+ * serialización del cuerpo (Jackson, CBOR, Smile). Pone también la cabecera
+ * Server-Timing, que el convertidor envía antes del primer byte del cuerpo.
+ */
+@ControllerAdvice
+public class BodyWriteAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request,
+            ServerHttpResponse response) {
+        RequestTimings timings = RequestTimings.current();
+        if (timings != null) {
+            timings.bodyWriteStarted();
+            response.getHeaders().set(ServerTimingFilter.HEADER,
+                    ServerTimingFilter.header(timings, timings.bodyWriteStartNanos));
+        }
+        return body;
+    }
+}
@@ -0,0 +1,21 @@
+package com.ecommerce.catalog.timing;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Marca la entrada en el controlador: lo anterior son los filtros (rate
+ * limiting, Spring Security...).
+ */
+public class HandlerStartInterceptor implements HandlerInterceptor {
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RequestTimings timings = RequestTimings.current();
+        if (timings != null) {
+            timings.handlerStarted();
+        }
+        return true;
+    }
+}
@@ -0,0 +1,83 @@
+package com.ecommerce.catalog.timing;
+
+/**
+ * Tiempos de una petición por fase, en el hilo que la atiende.
+ *
+ * ServerTimingFilter la abre y la cierra; los demás puntos de medida
+ * (aspecto de repositorios y mapper, StatementInspector, interceptor y
+ * ResponseBodyAdvice) la encuentran con current() y no hacen nada si no hay
+ * ninguna abierta. Las llamadas anidadas (un repositorio que llama a otro)
+ * solo cuentan una vez.
+ */
+public final class RequestTimings {
+
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+
+    final long startNanos;
+    long handlerStartNanos;
+    long bodyWriteStartNanos;
+    long dbNanos;
+    int dbCalls;
+    int statements;
+    long mappingNanos;
+    private int dbDepth;
+    private int mappingDepth;
+
+    private RequestTimings(long startNanos) {
+        this.startNanos = startNanos;
+    }
+
+    static RequestTimings open() {
+        RequestTimings timings = new RequestTimings(System.nanoTime());
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    static void close() {
+        CURRENT.remove();
+    }
+
+    public static RequestTimings current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * true si es la llamada más externa (la que se mide).
+     */
+    boolean enterDb() {
+        return dbDepth++ == 0;
+    }
+
+    void exitDb(boolean outermost, long nanos) {
+        dbDepth--;
+        if (outermost) {
+            dbNanos += nanos;
+            dbCalls++;
+        }
+    }
+
+    boolean enterMapping() {
+        return mappingDepth++ == 0;
+    }
+
+    void exitMapping(boolean outermost, long nanos) {
+        mappingDepth--;
+        if (outermost) {
+            mappingNanos += nanos;
+        }
+    }
+
+    void statementExecuted() {
+        statements++;
+    }
+
+    void handlerStarted() {
+        handlerStartNanos = System.nanoTime();
+    }
+
+    void bodyWriteStarted() {
+        if (bodyWriteStartNanos == 0) {
+            bodyWriteStartNanos = System.nanoTime();
+        }
+    }
+}
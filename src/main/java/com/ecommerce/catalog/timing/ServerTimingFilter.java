@@ -0,0 +1,155 @@
+package com.ecommerce.catalog.timing;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Desglose del tiempo de cada petición a /api en la cabecera Server-Timing y
+ * en histogramas catalog.request.phase{phase,method,uri}.
+ *
+ * Fases: filters (hasta entrar en el controlador: rate limiting, seguridad),
+ * db (repositorios, con el número de llamadas y de sentencias SQL), map
+ * (ProductMapper), app (resto del controlador y los servicios), ser
+ * (serialización y escritura del cuerpo) y total.
+ *
+ * La cabecera tiene que salir antes que el cuerpo, así que solo lleva las
+ * fases conocidas en ese momento (filters, db, map y app): la pone
+ * BodyWriteAdvice justo antes de serializar, o este filtro al terminar si no
+ * hubo cuerpo. ser y total solo van a los histogramas; así el cuerpo se
+ * escribe directamente en la respuesta, sin acumularlo en memoria. El stream
+ * SSE queda fuera (no termina nunca).
+ *
+ * Va el primero de todos los filtros (orden -300, antes que RateLimitFilter).
+ */
+@Component
+@Order(-300)
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    static final String HEADER = "Server-Timing";
+
+    private record PhaseMeters(Timer filters, Timer db, Timer mapping, Timer app, Timer serialization, Timer total,
+            DistributionSummary statements) {
+    }
+
+    private final boolean enabled;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<String, PhaseMeters> meters = new ConcurrentHashMap<>();
+
+    public ServerTimingFilter(MeterRegistry meterRegistry,
+            @Value("${catalog.server-timing.enabled:true}") boolean enabled) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return !enabled || !uri.startsWith(request.getContextPath() + "/api/") || uri.endsWith("/stream");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestTimings timings = RequestTimings.open();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestTimings.close();
+            long end = System.nanoTime();
+            long bodyStart = timings.bodyWriteStartNanos == 0 ? end : timings.bodyWriteStartNanos;
+            // Sin cuerpo (rechazo en un filtro, respuesta vacía) la cabecera aún puede salir aquí
+            if (!response.isCommitted() && !response.containsHeader(HEADER)) {
+                response.setHeader(HEADER, header(timings, bodyStart));
+            }
+
+            PhaseMeters phaseMeters = metersFor(request);
+            phaseMeters.filters().record(filters(timings, bodyStart), TimeUnit.NANOSECONDS);
+            phaseMeters.db().record(timings.dbNanos, TimeUnit.NANOSECONDS);
+            phaseMeters.mapping().record(timings.mappingNanos, TimeUnit.NANOSECONDS);
+            phaseMeters.app().record(app(timings, bodyStart), TimeUnit.NANOSECONDS);
+            phaseMeters.serialization().record(end - bodyStart, TimeUnit.NANOSECONDS);
+            phaseMeters.total().record(end - timings.startNanos, TimeUnit.NANOSECONDS);
+            phaseMeters.statements().record(timings.statements);
+        }
+    }
+
+    /**
+     * Valor de la cabecera con las fases hasta bodyStart (inicio del cuerpo).
+     */
+    static String header(RequestTimings timings, long bodyStart) {
+        StringBuilder header = new StringBuilder(120);
+        append(header, "filters", filters(timings, bodyStart)).append(", ");
+        append(header, "db", timings.dbNanos)
+                .append(";desc=\"calls=").append(timings.dbCalls)
+                .append(" statements=").append(timings.statements).append("\", ");
+        append(header, "map", timings.mappingNanos).append(", ");
+        return append(header, "app", app(timings, bodyStart)).toString();
+    }
+
+    // Sin controlador (rechazo en un filtro) todo cuenta como filters
+    private static long filters(RequestTimings timings, long bodyStart) {
+        return handlerStart(timings, bodyStart) - timings.startNanos;
+    }
+
+    private static long app(RequestTimings timings, long bodyStart) {
+        return Math.max(0, bodyStart - handlerStart(timings, bodyStart) - timings.dbNanos - timings.mappingNanos);
+    }
+
+    private static long handlerStart(RequestTimings timings, long bodyStart) {
+        return timings.handlerStartNanos == 0 ? bodyStart : timings.handlerStartNanos;
+    }
+
+    // name;dur=milisegundos con tres decimales, sin String.format
+    private static StringBuilder append(StringBuilder header, String name, long nanos) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+        long fraction = micros % 1000;
+        header.append(name).append(";dur=").append(micros / 1000).append('.');
+        if (fraction < 100) {
+            header.append('0');
+        }
+        if (fraction < 10) {
+            header.append('0');
+        }
+        return header.append(fraction);
+    }
+
+    private PhaseMeters metersFor(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNMATCHED" : pattern.toString();
+        String method = request.getMethod();
+        return meters.computeIfAbsent(method + ' ' + uri, key -> new PhaseMeters(
+                timer("filters", method, uri),
+                timer("db", method, uri),
+                timer("map", method, uri),
+                timer("app", method, uri),
+                timer("ser", method, uri),
+                timer("total", method, uri),
+                DistributionSummary.builder("catalog.request.statements")
+                        .tag("method", method)
+                        .tag("uri", uri)
+                        .register(meterRegistry)));
+    }
+
+    private Timer timer(String phase, String method, String uri) {
+        return Timer.builder("catalog.request.phase")
+                .tag("phase", phase)
+                .tag("method", method)
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,46 @@
+package com.ecommerce.catalog.timing;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Mide el tiempo de los repositorios de Spring Data y de ProductMapper dentro
+ * de una petición con RequestTimings abierta. Fuera de una petición (tareas
+ * programadas, listeners) solo cuesta una lectura del ThreadLocal.
+ */
+@Aspect
+@Component
+public class TimingAspect {
+
+    @Around("target(org.springframework.data.repository.Repository)")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        RequestTimings timings = RequestTimings.current();
+        if (timings == null) {
+            return joinPoint.proceed();
+        }
+        boolean outermost = timings.enterDb();
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            timings.exitDb(outermost, System.nanoTime() - start);
+        }
+    }
+
+    @Around("execution(* com.ecommerce.catalog.mapper.ProductMapper.*(..))")
+    public Object timeMapping(ProceedingJoinPoint joinPoint) throws Throwable {
+        RequestTimings timings = RequestTimings.current();
+        if (timings == null) {
+            return joinPoint.proceed();
+        }
+        boolean outermost = timings.enterMapping();
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            timings.exitMapping(outermost, System.nanoTime() - start);
+        }
+    }
+}
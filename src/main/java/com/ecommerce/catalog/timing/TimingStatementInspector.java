@@ -0,0 +1,49 @@
+package com.ecommerce.catalog.timing;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.BeanUtils;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Cuenta las sentencias SQL de la petición en curso y después pasa el SQL al
+ * StatementInspector que ya estuviera configurado (p. ej. SqlStatementCounter
+ * en los tests).
+ */
+public class TimingStatementInspector implements StatementInspector {
+
+    private final StatementInspector delegate;
+
+    TimingStatementInspector(StatementInspector delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Envuelve el valor de hibernate.session_factory.statement_inspector
+     * (instancia, clase o nombre de clase; null si no hay ninguno).
+     */
+    public static TimingStatementInspector wrapping(Object configured) {
+        return new TimingStatementInspector(resolve(configured));
+    }
+
+    /**
+     * Instancia el StatementInspector configurado, o null si no hay ninguno.
+     */
+    public static StatementInspector resolve(Object configured) {
+        if (configured == null || configured instanceof StatementInspector) {
+            return (StatementInspector) configured;
+        }
+        Class<?> type = configured instanceof Class<?> c
+                ? c
+                : ClassUtils.resolveClassName(configured.toString(), TimingStatementInspector.class.getClassLoader());
+        return (StatementInspector) BeanUtils.instantiateClass(type);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        RequestTimings timings = RequestTimings.current();
+        if (timings != null) {
+            timings.statementExecuted();
+        }
+        return delegate == null ? sql : delegate.inspect(sql);
+    }
+}
@@ -1,8 +1,28 @@
 -- Script de inicialización de productos para demo
 -- Se ejecuta automáticamente al inicio de la aplicación (solo en desarrollo)
 
--- Limpiar tabla antes de insertar (evita duplicados)
-DELETE FROM productos;
+-- Idempotente: cada arranque solo inserta los SKU que falten (no borra ni reinserta;
+-- los cambios hechos sobre los productos demo se conservan entre reinicios)
+
+-- Categorías raíz (ids fijos: los productos demo apuntan a ellos) y su fila
+-- propia en la tabla de cierre
+INSERT INTO categorias (id, name, parent_id) VALUES
+(1, 'Electrónica', NULL),
+(2, 'Ropa y Moda', NULL),
+(3, 'Hogar y Cocina', NULL),
+(4, 'Deportes y Aire Libre', NULL),
+(5, 'Libros y Multimedia', NULL),
+(6, 'Juguetes y Bebés', NULL),
+(7, 'Belleza y Cuidado Personal', NULL),
+(8, 'Alimentos y Bebidas', NULL)
+ON CONFLICT (id) DO NOTHING;
+
+INSERT INTO categorias_cierre (ancestor_id, descendant_id, depth)
+SELECT id, id, 0 FROM categorias WHERE id BETWEEN 1 AND 8
+ON CONFLICT (ancestor_id, descendant_id) DO NOTHING;
+
+-- Las categorías nuevas (POST /api/v1/categories) siguen después de las demo
+SELECT setval(pg_get_serial_sequence('categorias', 'id'), GREATEST((SELECT MAX(id) FROM categorias), 1));
 
 -- Electrónica
 INSERT INTO productos (name, description, price, stock, category_id, sku, active, created_at, updated_at) VALUES
@@ -13,7 +33,8 @@ INSERT INTO productos (name, description, price, stock, category_id, sku, active
 ('Sony WH-1000XM5', 'Audífonos inalámbricos con cancelación de ruido líder en la industria, 30hrs batería', 399.99, 50, 1, 'AUD-SONY-001', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
 ('iPad Air M2', 'Tablet Apple con chip M2, pantalla Liquid Retina 11", Apple Pencil compatible, 128GB', 749.99, 30, 1, 'TAB-APPL-001', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
 ('Nintendo Switch OLED', 'Consola de videojuegos híbrida con pantalla OLED de 7", 64GB almacenamiento', 349.99, 40, 1, 'GAM-NINT-001', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('PlayStation 5 Slim', 'Consola de nueva generación con SSD 1TB, ray tracing, 4K 120fps', 499.99, 8, 1, 'GAM-SONY-001', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
+('PlayStation 5 Slim', 'Consola de nueva generación con SSD 1TB, ray tracing, 4K 120fps', 499.99, 8, 1, 'GAM-SONY-001', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
+ON CONFLICT (sku) DO NOTHING;
 
 -- Ropa y Moda
 INSERT INTO productos (name, description, price, stock, category_id, sku, active, created_at, updated_at) VALUES
@@ -22,7 +43,8 @@ INSERT INTO productos (name, description, price, stock, category_id, sku, active
 ('Chaqueta North Face', 'Chaqueta impermeable para exteriores, tecnología DryVent, capucha ajustable', 249.99, 35, 2, 'CHA-NORT-001', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
 ('Vestido Zara Elegante', 'Vestido de noche elegante, tela premium, diseño contemporáneo, talla S-XL', 79.99, 45, 2, 'VES-ZARA-001', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
 ('Sudadera Adidas Original', 'Sudadera deportiva con capucha, logo bordado, 80% algodón 20% poliéster', 69.99, 80, 2, 'SUD-ADID-001', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('Camisa Tommy Hilfiger', 'Camisa casual de manga larga, 100% algodón, corte slim fit', 85.99, 55, 2, 'CAM-TOMM-001', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
+('Camisa Tommy Hilfiger', 'Camisa casual de manga larga, 100% algodón, corte slim fit', 85.99, 55, 2, 'CAM-TOMM-001', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
+ON CONFLICT (sku) DO NOTHING;
 
 -- Hogar y Cocina
 INSERT INTO productos (name, description, price, stock, category_id, sku, active, created_at, updated_at) VALUES
@@ -31,7 +53,8 @@ INSERT INTO productos (name, description, price, stock, category_id, sku, active
 ('Set de Sartenes Tefal', 'Juego de 5 sartenes antiadherentes, aptas para inducción, libre de PFOA', 129.99, 30, 3, 'SAR-TEFA-001', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
 ('Aspiradora Robot Roomba', 'Robot de limpieza inteligente, mapeo inteligente, compatible con app móvil', 499.99, 15, 3, 'ASP-ROOM-001', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
 ('Juego de Sábanas King', 'Sábanas de algodón egipcio 600 hilos, juego completo para cama king size', 149.99, 40, 3, 'SAB-KING-001', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('Lámpara LED Inteligente', 'Lámpara de escritorio LED regulable, 16 millones de colores, control por app', 59.99, 65, 3, 'LAM-SMART-001', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
+('Lámpara LED Inteligente', 'Lámpara de escritorio LED regulable, 16 millones de colores, control por app', 59.99, 65, 3, 'LAM-SMART-001', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
+ON CONFLICT (sku) DO NOTHING;
 
 -- Deportes y Aire Libre
 INSERT INTO productos (name, description, price, stock, category_id, sku, active, created_at, updated_at) VALUES
@@ -40,7 +63,8 @@ INSERT INTO productos (name, description, price, stock, category_id, sku, active
 ('Pelota de Fútbol Adidas', 'Balón oficial de competición, costura térmica, tamaño 5', 39.99, 150, 4, 'PEL-ADID-001', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
 ('Tabla de Surf Quiksilver', 'Tabla de surf profesional 7''6", epoxy, acabado brillante, incluye quillas', 549.99, 8, 4, 'TAB-QUIK-001', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
 ('Set de Pesas Bowflex', 'Set de mancuernas ajustables 2-24kg, compactas, ideal para gimnasio en casa', 399.99, 20, 4, 'PES-BOWF-001', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('Esterilla de Yoga Premium', 'Tapete de yoga antideslizante, 6mm grosor, material eco-friendly, incluye correa', 49.99, 75, 4, 'EST-YOGA-001', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
+('Esterilla de Yoga Premium', 'Tapete de yoga antideslizante, 6mm grosor, material eco-friendly, incluye correa', 49.99, 75, 4, 'EST-YOGA-001', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
+ON CONFLICT (sku) DO NOTHING;
 
 -- Libros y Multimedia
 INSERT INTO productos (name, description, price, stock, category_id, sku, active, created_at, updated_at) VALUES
@@ -48,7 +72,8 @@ INSERT INTO productos (name, description, price, stock, category_id, sku, active
 ('Curso Completo de Python', 'Libro técnico con ejercicios prácticos, desde principiante a avanzado', 59.99, 40, 5, 'LIB-PYTH-001', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
 ('Vinilo The Beatles - Abbey Road', 'Disco de vinilo remasterizado, 180g, incluye póster y notas de producción', 34.99, 30, 5, 'VIN-BEAT-001', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
 ('Box Set Harry Potter', 'Colección completa de 7 libros en caja especial, edición de coleccionista', 129.99, 25, 5, 'LIB-HARR-001', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('Kindle Paperwhite', 'E-reader con pantalla antirreflejos, 16GB, resistente al agua, batería semanas', 139.99, 35, 5, 'ERE-KIND-001', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
+('Kindle Paperwhite', 'E-reader con pantalla antirreflejos, 16GB, resistente al agua, batería semanas', 139.99, 35, 5, 'ERE-KIND-001', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
+ON CONFLICT (sku) DO NOTHING;
 
 -- Juguetes y Bebés
 INSERT INTO productos (name, description, price, stock, category_id, sku, active, created_at, updated_at) VALUES
@@ -56,7 +81,8 @@ INSERT INTO productos (name, description, price, stock, category_id, sku, active
 ('Cochecito Bebé Bugaboo', 'Carreola premium convertible, estructura de aluminio, incluye capazo y silla', 999.99, 15, 6, 'BEB-BUGA-001', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
 ('Muñeca Barbie Dreamhouse', 'Casa de muñecas de 3 pisos con 8 habitaciones, luces y sonidos, más de 70 piezas', 199.99, 28, 6, 'JUG-BARB-001', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
 ('Pañales Pampers Talla 3', 'Paquete económico de 156 pañales, tecnología de absorción avanzada', 49.99, 200, 6, 'BEB-PAMP-001', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('Monitor Bebé con Cámara', 'Monitor de video HD con visión nocturna, comunicación bidireccional, sensor de temperatura', 149.99, 32, 6, 'BEB-MONI-001', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
+('Monitor Bebé con Cámara', 'Monitor de video HD con visión nocturna, comunicación bidireccional, sensor de temperatura', 149.99, 32, 6, 'BEB-MONI-001', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
+ON CONFLICT (sku) DO NOTHING;
 
 -- Belleza y Cuidado Personal
 INSERT INTO productos (name, description, price, stock, category_id, sku, active, created_at, updated_at) VALUES
@@ -65,7 +91,8 @@ INSERT INTO productos (name, description, price, stock, category_id, sku, active
 ('Set de Maquillaje MAC', 'Kit profesional con 12 sombras, 2 rubores, 3 labiales, espejo y brochas', 129.99, 35, 7, 'MAQ-MAC-001', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
 ('Afeitadora Eléctrica Philips', 'Afeitadora de 3 cabezales, húmeda y seca, 1 hora de autonomía', 119.99, 40, 7, 'AFE-PHIL-001', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
 ('Secadora de Pelo Dyson', 'Secador supersónico con tecnología Air Multiplier, control inteligente de calor', 429.99, 18, 7, 'SEC-DYSO-001', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('Kit Cuidado de Barba', 'Set completo: aceite, bálsamo, cepillo, peine y tijeras en estuche de madera', 69.99, 55, 7, 'KIT-BARB-001', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
+('Kit Cuidado de Barba', 'Set completo: aceite, bálsamo, cepillo, peine y tijeras en estuche de madera', 69.99, 55, 7, 'KIT-BARB-001', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
+ON CONFLICT (sku) DO NOTHING;
 
 -- Alimentos y Bebidas
 INSERT INTO productos (name, description, price, stock, category_id, sku, active, created_at, updated_at) VALUES
@@ -74,4 +101,5 @@ INSERT INTO productos (name, description, price, stock, category_id, sku, active
 ('Chocolate Lindt Excellence', 'Tableta de chocolate negro 85% cacao, 100g, origen Suiza', 6.99, 200, 8, 'CHO-LIND-001', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
 ('Vino Tinto Reserva', 'Vino tinto crianza D.O. Rioja, 75cl, 14% vol, añada 2018', 29.99, 60, 8, 'VIN-RESER-001', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
 ('Miel Orgánica Pura', 'Miel de flores silvestres 100% natural, frasco de vidrio 500g', 15.99, 95, 8, 'MIE-ORGA-001', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('Té Verde Matcha Premium', 'Polvo de té matcha ceremonial japonés, 100g, rico en antioxidantes', 34.99, 48, 8, 'TE-MATC-001', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
+('Té Verde Matcha Premium', 'Polvo de té matcha ceremonial japonés, 100g, rico en antioxidantes', 34.99, 48, 8, 'TE-MATC-001', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
+ON CONFLICT (sku) DO NOTHING;
@@ -0,0 +1,29 @@
+-- ========================================
+-- Jerarquía de categorías (entidades Category y CategoryClosure)
+-- ========================================
+-- Con el perfil prod (ddl-auto=validate) Hibernate no crea tablas: hay que
+-- ejecutar este script antes de desplegar; si falta, el arranque falla.
+
+CREATE TABLE IF NOT EXISTS categorias (
+    id        BIGSERIAL    NOT NULL,
+    parent_id BIGINT,
+    name      VARCHAR(100) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+-- Hijos directos de una categoría
+CREATE INDEX IF NOT EXISTS idx_category_parent ON categorias (parent_id);
+
+-- Tabla de cierre: una fila por par (ancestro, descendiente), incluida la de
+-- cada categoría consigo misma con depth = 0.
+-- La clave primaria empieza por ancestor_id: "todas las categorías bajo X"
+-- (el filtro por subárbol) es un recorrido de rango sobre ella.
+CREATE TABLE IF NOT EXISTS categorias_cierre (
+    depth         INTEGER NOT NULL,
+    ancestor_id   BIGINT  NOT NULL,
+    descendant_id BIGINT  NOT NULL,
+    PRIMARY KEY (ancestor_id, descendant_id)
+);
+
+-- Ancestros de una categoría (el alta de una hoja copia los de su padre)
+CREATE INDEX IF NOT EXISTS idx_category_closure_descendant ON categorias_cierre (descendant_id);
@@ -0,0 +1,29 @@
+-- ========================================
+-- Outbox transaccional (entidad OutboxEvent)
+-- ========================================
+-- Con el perfil prod (ddl-auto=validate) Hibernate no crea tablas: hay que
+-- ejecutar este script antes de desplegar; si falta, el arranque falla.
+--
+-- Orden de publicación (OutboxRelay):
+-- - El relay bloquea lotes con SELECT ... ORDER BY id FOR UPDATE SKIP LOCKED
+--   y los borra tras publicarlos; la clave primaria sirve ese orden, no hace
+--   falta otro índice.
+-- - El id se asigna al insertar, no al confirmar: una transacción con un id
+--   menor puede confirmar después de que ya se haya publicado uno mayor, así
+--   que entre productos distintos el orden es aproximado.
+-- - Para un mismo producto el orden se mantiene con una sola réplica: cada
+--   escritura bloquea la fila del producto, así que la siguiente inserta su
+--   evento (con un id mayor) después de que la anterior confirme.
+-- - Con varias réplicas, SKIP LOCKED deja que cada una publique un lote
+--   distinto a la vez y dos eventos del mismo producto pueden salir
+--   desordenados. Los consumidores descartan duplicados por id de evento y
+--   ordenan por el campo version del payload.
+
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id           BIGSERIAL    NOT NULL,
+    aggregate_id BIGINT       NOT NULL,
+    event_type   VARCHAR(20)  NOT NULL,
+    payload      TEXT         NOT NULL,
+    created_at   TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id)
+);
@@ -0,0 +1,22 @@
+-- ========================================
+-- Índices de ordenación de productos (SortPolicy)
+-- ========================================
+-- ddl-auto=validate no comprueba índices, así que el arranque no avisa si
+-- faltan: sin ellos cada listado ordenado lee y ordena la tabla entera.
+-- CONCURRENTLY no bloquea las escrituras mientras se crean (no puede
+-- ejecutarse dentro de una transacción).
+
+-- Listado completo ordenado (ORDER BY columna LIMIT n)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_product_price ON productos (price);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_product_created_at ON productos (created_at);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_product_updated_at ON productos (updated_at);
+
+-- Filtrado por una categoría y ordenado (WHERE category_id = ? ORDER BY columna LIMIT n)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_product_category_id ON productos (category_id, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_product_category_name ON productos (category_id, name);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_product_category_price ON productos (category_id, price);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_product_category_created_at ON productos (category_id, created_at);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_product_category_updated_at ON productos (category_id, updated_at);
+
+-- idx_product_category_id empieza por category_id: el índice simple sobra
+DROP INDEX CONCURRENTLY IF EXISTS idx_product_category;
@@ -0,0 +1,41 @@
+-- ========================================
+-- Modelo de lectura del listado público (entidad ProductListing)
+-- ========================================
+-- Con el perfil prod (ddl-auto=validate) Hibernate no crea tablas: hay que
+-- ejecutar este script antes de desplegar; si falta, el arranque falla
+-- aunque el modelo de lectura esté desactivado (catalog.read-model.enabled),
+-- porque la validación comprueba todas las entidades.
+
+CREATE TABLE IF NOT EXISTS productos_listado (
+    price       NUMERIC(10,2)  NOT NULL,
+    stock       INTEGER        NOT NULL,
+    category_id BIGINT,
+    id          BIGINT         NOT NULL,
+    version     BIGINT         NOT NULL,
+    sku         VARCHAR(50)    NOT NULL,
+    search_text VARCHAR(1300)  NOT NULL,
+    name        VARCHAR(255)   NOT NULL,
+    PRIMARY KEY (id)
+);
+
+-- Tablas creadas con versiones anteriores: la fila solo guarda los campos de
+-- la tarjeta. Al quitar las columnas se borran también sus índices.
+ALTER TABLE productos_listado
+    DROP COLUMN IF EXISTS description,
+    DROP COLUMN IF EXISTS created_at,
+    DROP COLUMN IF EXISTS updated_at;
+
+-- Listado por categoría con la ordenación por defecto (name)
+CREATE INDEX IF NOT EXISTS idx_listing_category_name ON productos_listado (category_id, name);
+
+-- Ordenaciones permitidas por SortPolicy
+CREATE INDEX IF NOT EXISTS idx_listing_name ON productos_listado (name);
+CREATE INDEX IF NOT EXISTS idx_listing_price ON productos_listado (price);
+
+-- Búsqueda (ProductListingRepository.search): search_text LIKE '%término%'.
+-- Un B-tree no sirve para un LIKE con comodín al principio; el índice de
+-- trigramas sí, con términos de 3 caracteres o más (los más cortos siguen
+-- leyendo la tabla entera). JPA no puede declarar índices GIN, así que solo
+-- existe si se ejecuta este script: con ddl-auto=update (dev) no se crea.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_listing_search_text_trgm ON productos_listado USING gin (search_text gin_trgm_ops);
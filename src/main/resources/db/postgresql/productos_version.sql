@@ -0,0 +1,11 @@
+-- ========================================
+-- Versión de fila de productos (@Version de Product)
+-- ========================================
+-- Con el perfil prod (ddl-auto=validate) Hibernate no crea columnas: hay que
+-- ejecutar este script antes de desplegar; si falta, el arranque falla.
+-- El UPDATE nativo de ProductRepositoryCustomImpl (version = version + 1)
+-- también la necesita.
+-- Desde PostgreSQL 11, ADD COLUMN con DEFAULT constante no reescribe la
+-- tabla: las filas existentes leen 0 sin bloquear productos mucho tiempo.
+
+ALTER TABLE productos ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,47 @@
+package com.ecommerce.catalog.benchmark;
+
+import com.ecommerce.catalog.security.AuthTokenService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Coste de autenticación por petición: HTTP Basic (BCrypt en cada petición)
+ * frente a token Bearer (un HMAC-SHA256).
+ * Ejecutar con: mvn test -Pbenchmark -Dtest=AuthCostBenchmark
+ */
+@Tag("benchmark")
+class AuthCostBenchmark {
+
+    @Test
+    void basicBcryptVersusBearerToken() {
+        // Antes: el BasicAuthenticationFilter compara la contraseña con BCrypt (strength 10 por defecto)
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
+        String hash = encoder.encode("pass");
+        double bcryptNs = BenchmarkSupport.nanosPerOp(
+                () -> BenchmarkSupport.blackhole = encoder.matches("pass", hash), 5, 20, 3);
+
+        // Después: verificación del token Bearer
+        AuthTokenService tokens = new AuthTokenService("benchmark-secret-benchmark-secret", 900);
+        Authentication admin = UsernamePasswordAuthenticationToken.authenticated(
+                "admin", null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+        String token = tokens.issue(admin);
+        assertNotNull(tokens.verify(token));
+        double tokenNs = BenchmarkSupport.nanosPerOp(
+                () -> BenchmarkSupport.blackhole = tokens.verify(token), 50_000, 200_000, 5);
+
+        BenchmarkSupport.report("auth.basic-bcrypt", "%12.1f us/request", bcryptNs / 1_000);
+        BenchmarkSupport.report("auth.bearer-hmac", "%12.1f us/request", tokenNs / 1_000);
+        BenchmarkSupport.report("auth.speedup", "%12.0fx", bcryptNs / tokenNs);
+
+        assertTrue(tokenNs * 100 < bcryptNs, "La verificación del token debe ser >100x más barata que BCrypt");
+    }
+}
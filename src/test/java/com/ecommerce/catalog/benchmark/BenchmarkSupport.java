@@ -0,0 +1,46 @@
+package com.ecommerce.catalog.benchmark;
+
+/**
+ * Utilidades mínimas para los benchmarks (sin JMH).
+ * Calienta el JIT, mide varias rondas y se queda con la mejor, que es la
+ * menos afectada por GC y por el planificador del sistema.
+ * Los resultados se imprimen por consola con un prefijo común para poder
+ * extraerlos del log de Maven (grep "[bench]").
+ */
+final class BenchmarkSupport {
+
+    // Evita que el JIT elimine el trabajo medido como código muerto
+    static volatile Object blackhole;
+
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * Devuelve los nanosegundos por operación de la mejor ronda.
+     */
+    static double nanosPerOp(Runnable operation, int warmupOps, int measuredOps, int rounds) {
+        for (int i = 0; i < warmupOps; i++) {
+            operation.run();
+        }
+        double best = Double.MAX_VALUE;
+        for (int r = 0; r < rounds; r++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < measuredOps; i++) {
+                operation.run();
+            }
+            best = Math.min(best, (System.nanoTime() - start) / (double) measuredOps);
+        }
+        return best;
+    }
+
+    static void report(String name, String format, Object... args) {
+        System.out.printf("[bench] %-40s " + format + "%n", prepend(name, args));
+    }
+
+    private static Object[] prepend(Object first, Object[] rest) {
+        Object[] all = new Object[rest.length + 1];
+        all[0] = first;
+        System.arraycopy(rest, 0, all, 1, rest.length);
+        return all;
+    }
+}
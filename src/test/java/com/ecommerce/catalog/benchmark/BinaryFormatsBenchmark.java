@@ -0,0 +1,103 @@
+package com.ecommerce.catalog.benchmark;
+
+import com.ecommerce.catalog.config.BinaryFormatsConfig;
+import com.ecommerce.catalog.dto.ProductResponseDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Coste de codificar y decodificar una página de productos en JSON, CBOR y
+ * Smile, con los mismos ObjectMapper que usa la aplicación, y tamaño de la
+ * carga útil. Solo (de)serialización: sin HTTP ni base de datos.
+ * Ejecutar con: mvn test -Pbenchmark -Dtest=BinaryFormatsBenchmark
+ * (-Dbench.page-size=N)
+ */
+@Tag("benchmark")
+class BinaryFormatsBenchmark {
+
+    private static final int PAGE_SIZE = Integer.getInteger("bench.page-size", 50);
+
+    // Cuerpo de una página tal como lo lee un servicio cliente
+    record PageBody(List<ProductResponseDTO> content, long totalElements, int number, int size) {
+    }
+
+    private static PageBody page() {
+        List<ProductResponseDTO> content = new ArrayList<>(PAGE_SIZE);
+        LocalDateTime now = LocalDateTime.of(2026, 10, 19, 12, 30, 15, 123_456_000);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            ProductResponseDTO product = new ProductResponseDTO();
+            product.setId(100_000L + i);
+            product.setName("Producto de catálogo " + i);
+            product.setDescription("Descripción corta del producto " + i);
+            product.setPrice(new BigDecimal("1299.99").add(BigDecimal.valueOf(i, 2)));
+            product.setStock(i * 7);
+            product.setCategoryId((long) (i % 12));
+            product.setSku("SKU-" + (100_000 + i));
+            product.setActive(true);
+            product.setCreatedAt(now.minusDays(i));
+            product.setUpdatedAt(now.minusMinutes(i));
+            content.add(product);
+        }
+        return new PageBody(content, 12_345, 3, PAGE_SIZE);
+    }
+
+    private static void measure(String format, ObjectMapper mapper, PageBody page) throws IOException {
+        byte[] encoded = mapper.writeValueAsBytes(page);
+        PageBody decoded = mapper.readValue(encoded, PageBody.class);
+        assertEquals(page.content().get(7).getPrice(), decoded.content().get(7).getPrice());
+        assertEquals(page.content().get(7).getCreatedAt(), decoded.content().get(7).getCreatedAt());
+
+        double encodeNs = BenchmarkSupport.nanosPerOp(() -> {
+            try {
+                BenchmarkSupport.blackhole = mapper.writeValueAsBytes(page);
+            } catch (JsonProcessingException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }, 20_000, 20_000, 5);
+        double decodeNs = BenchmarkSupport.nanosPerOp(() -> {
+            try {
+                BenchmarkSupport.blackhole = mapper.readValue(encoded, PageBody.class);
+            } catch (IOException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }, 20_000, 20_000, 5);
+
+        BenchmarkSupport.report("format." + format + ".bytes", "%,10d B/page (%d products)", encoded.length,
+                PAGE_SIZE);
+        BenchmarkSupport.report("format." + format + ".encode", "%8.1f us/page", encodeNs / 1_000);
+        BenchmarkSupport.report("format." + format + ".decode", "%8.1f us/page", decodeNs / 1_000);
+    }
+
+    @Test
+    void jsonVersusCborVersusSmile() throws IOException {
+        PageBody page = page();
+        // JSON como lo configura Spring Boot: fechas en texto ISO
+        ObjectMapper json = new Jackson2ObjectMapperBuilder()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        ObjectMapper cbor = BinaryFormatsConfig.binaryMapper(new Jackson2ObjectMapperBuilder(), new CBORFactory());
+        ObjectMapper smile = BinaryFormatsConfig.binaryMapper(new Jackson2ObjectMapperBuilder(), new SmileFactory());
+
+        measure("json", json, page);
+        measure("cbor", cbor, page);
+        measure("smile", smile, page);
+
+        assertTrue(cbor.writeValueAsBytes(page).length < json.writeValueAsBytes(page).length);
+        assertTrue(smile.writeValueAsBytes(page).length < json.writeValueAsBytes(page).length);
+    }
+}
@@ -0,0 +1,82 @@
+package com.ecommerce.catalog.benchmark;
+
+import com.ecommerce.catalog.repository.ProductRepository;
+import com.ecommerce.catalog.support.CatalogBulkLoader;
+import com.ecommerce.catalog.support.DatasetProfile;
+import com.ecommerce.catalog.support.SyntheticCatalog;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Carga un catálogo sintético (SyntheticCatalog) y mide la velocidad de carga
+ * y un par de consultas del listado sobre ese volumen.
+ *
+ * Por defecto 1M productos en el H2 en memoria de los tests (las filas viven
+ * en el heap, así que hace falta más del que trae por defecto; 10m solo
+ * tiene sentido contra PostgreSQL):
+ * mvn test -Pbenchmark -Dtest=CatalogLoadBenchmark -Dbench.dataset=10k|1m (-Dbench.seed=N) -DargLine=-Xmx4g
+ *
+ * Contra PostgreSQL (carga con COPY) se sobrescribe el datasource; con
+ * ddl-auto=update las filas se quedan para usarlas después desde la aplicación:
+ * mvn test -Pbenchmark -Dtest=CatalogLoadBenchmark -Dbench.dataset=10m
+ *     -Dspring.datasource.url=jdbc:postgresql://localhost:5432/catalogo_db
+ *     -Dspring.datasource.username=postgres -Dspring.datasource.password=...
+ *     -Dspring.datasource.driverClassName=org.postgresql.Driver
+ *     -Dspring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect
+ *     -Dspring.jpa.hibernate.ddl-auto=update
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = {
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+        "spring.jpa.show-sql=false"
+})
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CatalogLoadBenchmark {
+
+    private static final DatasetProfile DATASET = DatasetProfile.of(System.getProperty("bench.dataset", "1m"));
+    private static final long SEED = Long.getLong("bench.seed", SyntheticCatalog.DEFAULT_SEED);
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void loadAndQuery() throws Exception {
+        SyntheticCatalog catalog = new SyntheticCatalog(DATASET, SEED);
+        CatalogBulkLoader.LoadResult result = new CatalogBulkLoader(dataSource).load(catalog);
+
+        BenchmarkSupport.report("datagen.dataset", "%s (%,d products, %d categories, seed %d)",
+                DATASET.label(), result.products(), result.categories(), SEED);
+        BenchmarkSupport.report("datagen.load", "%8.1f s, %,12.0f products/s",
+                result.elapsed().toMillis() / 1000.0, result.productsPerSecond());
+
+        PageRequest firstPage = PageRequest.of(0, 20, Sort.by("name"));
+        double listing = BenchmarkSupport.nanosPerOp(
+                () -> BenchmarkSupport.blackhole = productRepository.findAll(firstPage), 5, 20, 3);
+        double search = BenchmarkSupport.nanosPerOp(
+                () -> BenchmarkSupport.blackhole = productRepository
+                        .findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCase("cerámica", "cerámica",
+                                firstPage), 2, 5, 3);
+        BenchmarkSupport.report("datagen.listing.first-page", "%10.2f ms/op", listing / 1e6);
+        BenchmarkSupport.report("datagen.search.first-page", "%10.2f ms/op", search / 1e6);
+
+        assertTrue(productRepository.count() >= result.products());
+    }
+}
@@ -0,0 +1,115 @@
+package com.ecommerce.catalog.benchmark;
+
+import com.ecommerce.catalog.dto.ProductResponseDTO;
+import com.ecommerce.catalog.snapshot.ColumnarProducts;
+import com.ecommerce.catalog.snapshot.StringDictionary;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Memoria por producto y pausa de GC con el catálogo cacheado como objetos
+ * (List<ProductResponseDTO>) frente a columnas primitivas (ColumnarProducts),
+ * con los textos en el heap y fuera de él.
+ *
+ * Por defecto 1M productos; para 5M hace falta más heap:
+ * mvn test -Pbenchmark -Dtest=ColumnarStoreBenchmark -Dbench.products=5000000 -DargLine=-Xmx8g
+ */
+@Tag("benchmark")
+class ColumnarStoreBenchmark {
+
+    private static final int PRODUCTS = Integer.getInteger("bench.products", 1_000_000);
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Test
+    void objectsVersusColumns() {
+        long baseline = usedHeapAfterGc();
+
+        List<ProductResponseDTO> objects = new ArrayList<>(PRODUCTS);
+        for (int i = 0; i < PRODUCTS; i++) {
+            objects.add(product(i));
+        }
+        long objectBytes = usedHeapAfterGc() - baseline;
+        long objectPause = fullGcPauseMs();
+        BenchmarkSupport.blackhole = objects;
+        objects = null;
+        BenchmarkSupport.blackhole = null;
+
+        ColumnarProducts heapColumns = columns(false);
+        long heapColumnBytes = usedHeapAfterGc() - baseline;
+        long heapColumnPause = fullGcPauseMs();
+        BenchmarkSupport.blackhole = heapColumns;
+        heapColumns = null;
+        BenchmarkSupport.blackhole = null;
+
+        ColumnarProducts offHeapColumns = columns(true);
+        long offHeapColumnBytes = usedHeapAfterGc() - baseline;
+        long offHeapColumnPause = fullGcPauseMs();
+        long offHeapTextBytes = offHeapColumns.dictionary().footprintBytes();
+        BenchmarkSupport.blackhole = offHeapColumns;
+
+        BenchmarkSupport.report("catalog.products", "%,d", PRODUCTS);
+        BenchmarkSupport.report("catalog.objects.heap", "%8.1f bytes/product, full GC %5d ms",
+                objectBytes / (double) PRODUCTS, objectPause);
+        BenchmarkSupport.report("catalog.columnar.heap", "%8.1f bytes/product, full GC %5d ms",
+                heapColumnBytes / (double) PRODUCTS, heapColumnPause);
+        BenchmarkSupport.report("catalog.columnar.off-heap", "%8.1f bytes/product on heap + %.1f off heap, full GC %5d ms",
+                offHeapColumnBytes / (double) PRODUCTS, offHeapTextBytes / (double) PRODUCTS, offHeapColumnPause);
+
+        assertTrue(heapColumnBytes < objectBytes);
+    }
+
+    private static ColumnarProducts columns(boolean offHeap) {
+        ColumnarProducts.Builder builder = ColumnarProducts.builder(new StringDictionary(offHeap), PRODUCTS);
+        for (int i = 0; i < PRODUCTS; i++) {
+            builder.add(product(i));
+        }
+        return builder.build();
+    }
+
+    private static ProductResponseDTO product(int i) {
+        ProductResponseDTO dto = new ProductResponseDTO();
+        dto.setId((long) i + 1);
+        dto.setName("Producto " + i);
+        dto.setDescription("Descripción del producto " + i + " con materiales de calidad, garantía de dos años y envío");
+        dto.setPrice(BigDecimal.valueOf(100 + i % 50_000, 2));
+        dto.setStock(i % 500);
+        dto.setCategoryId((long) (i % 40));
+        dto.setSku("SKU-" + i);
+        dto.setActive(i % 10 != 0);
+        dto.setCreatedAt(BASE.plusSeconds(i));
+        dto.setUpdatedAt(BASE.plusSeconds(i * 2L));
+        return dto;
+    }
+
+    private static long usedHeapAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    // Tiempo de una recolección completa con los datos vivos (marcado proporcional a los objetos)
+    private static long fullGcPauseMs() {
+        long before = gcTimeMs();
+        System.gc();
+        return gcTimeMs() - before;
+    }
+
+    private static long gcTimeMs() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionTime());
+        }
+        return total;
+    }
+}
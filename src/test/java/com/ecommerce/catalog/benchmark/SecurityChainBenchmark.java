@@ -0,0 +1,77 @@
+package com.ecommerce.catalog.benchmark;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.web.FilterChainProxy;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Sobrecoste por petición de Spring Security en un GET anónimo del catálogo:
+ * cadena completa (la que se usaba antes) frente a catalogReadFilterChain.
+ * Mide solo los filtros: el final de la cadena es un no-op.
+ * Ejecutar con: mvn test -Pbenchmark -Dtest=SecurityChainBenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class SecurityChainBenchmark {
+
+    @Autowired
+    private List<SecurityFilterChain> chains;
+
+    private static final FilterChain NO_OP = (req, res) -> {
+    };
+
+    private MockHttpServletRequest catalogRead() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/products/42");
+        request.setServletPath("/api/v1/products/42");
+        request.addHeader("Origin", "http://tienda.example.com");
+        return request;
+    }
+
+    private double measure(SecurityFilterChain chain) {
+        FilterChainProxy proxy = new FilterChainProxy(chain);
+        proxy.afterPropertiesSet();
+        return BenchmarkSupport.nanosPerOp(() -> {
+            try {
+                MockHttpServletResponse response = new MockHttpServletResponse();
+                proxy.doFilter(catalogRead(), response, NO_OP);
+                BenchmarkSupport.blackhole = response;
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+        }, 50_000, 100_000, 5);
+    }
+
+    @Test
+    void fullChainVersusCatalogReadChain() {
+        SecurityFilterChain readChain = chains.get(0);
+        SecurityFilterChain fullChain = chains.get(chains.size() - 1);
+        assertTrue(readChain.matches(catalogRead()));
+
+        double fullNs = measure(fullChain);
+        double readNs = measure(readChain);
+
+        BenchmarkSupport.report("security.full-chain", "%8.2f us/request (%d filters)",
+                fullNs / 1_000, fullChain.getFilters().size());
+        BenchmarkSupport.report("security.catalog-read-chain", "%8.2f us/request (%d filters)",
+                readNs / 1_000, readChain.getFilters().size());
+        BenchmarkSupport.report("security.saved-per-request", "%8.2f us", (fullNs - readNs) / 1_000);
+        readChain.getFilters().forEach(f -> BenchmarkSupport.report("security.catalog-read-filter", "%s",
+                f.getClass().getSimpleName()));
+
+        assertEquals(2, chains.size());
+        assertTrue(readNs < fullNs);
+    }
+}
@@ -0,0 +1,110 @@
+package com.ecommerce.catalog.benchmark;
+
+import com.ecommerce.catalog.entity.Product;
+import com.ecommerce.catalog.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Bytes por página y latencia del listado completo frente al grid del
+ * frontend (fields=id,name,price,stock), con descripciones de 1000
+ * caracteres como en producción. Mide la petición entera con MockMvc:
+ * consulta a H2, mapeo y serialización JSON.
+ * Ejecutar con: mvn test -Pbenchmark -Dtest=SparseFieldsBenchmark
+ * (-Dbench.products=N, -Dbench.page-size=N)
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+        "logging.level.org.springframework.web=WARN",
+        "logging.level.com.ecommerce.catalog=WARN",
+        "spring.jpa.show-sql=false",
+        "catalog.concurrency.enabled=false"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SparseFieldsBenchmark {
+
+    private static final int PRODUCTS = Integer.getInteger("bench.products", 2_000);
+    private static final int PAGE_SIZE = Integer.getInteger("bench.page-size", 50);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @BeforeEach
+    void setUp() {
+        String description = "x".repeat(1000);
+        List<Product> products = new ArrayList<>(PRODUCTS);
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = new Product();
+            product.setName("Producto " + i);
+            product.setDescription(description);
+            product.setPrice(BigDecimal.valueOf(10 + i % 500));
+            product.setStock(i % 50);
+            product.setCategoryId((long) (i % 10));
+            product.setSku("BENCH-" + i);
+            product.setActive(true);
+            products.add(product);
+        }
+        productRepository.saveAll(products);
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+    }
+
+    private int bytesPerPage(String query) throws Exception {
+        return mockMvc.perform(get("/api/v1/products" + query)).andReturn().getResponse().getContentAsByteArray().length;
+    }
+
+    private double nanosPerPage(String query) {
+        int pages = PRODUCTS / PAGE_SIZE;
+        int[] page = {0};
+        return BenchmarkSupport.nanosPerOp(() -> {
+            try {
+                String paged = query + "&page=" + (page[0]++ % pages);
+                BenchmarkSupport.blackhole = mockMvc.perform(get("/api/v1/products" + paged)).andReturn();
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+        }, 500, 500, 5);
+    }
+
+    @Test
+    void fullResponseVersusGridFields() throws Exception {
+        String full = "?size=" + PAGE_SIZE + "&sort=id";
+        String grid = full + "&fields=id,name,price,stock";
+
+        int fullBytes = bytesPerPage(full);
+        int gridBytes = bytesPerPage(grid);
+        double fullNs = nanosPerPage(full);
+        double gridNs = nanosPerPage(grid);
+
+        BenchmarkSupport.report("fields.full.bytes-per-page", "%,10d B (%d products)", fullBytes, PAGE_SIZE);
+        BenchmarkSupport.report("fields.grid.bytes-per-page", "%,10d B (%.1f%% of full)", gridBytes,
+                100.0 * gridBytes / fullBytes);
+        BenchmarkSupport.report("fields.full.latency", "%8.1f us/page", fullNs / 1_000);
+        BenchmarkSupport.report("fields.grid.latency", "%8.1f us/page", gridNs / 1_000);
+
+        assertTrue(gridBytes * 5 < fullBytes);
+    }
+}
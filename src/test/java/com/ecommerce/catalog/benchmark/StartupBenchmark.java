@@ -0,0 +1,119 @@
+package com.ecommerce.catalog.benchmark;
+
+import com.ecommerce.catalog.EcommerceCatalogoServiceApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Tiempo hasta el primer GET /api/v1/products correcto (200), para seguirlo
+ * entre versiones.
+ *
+ * Por defecto arranca la aplicación dentro de la JVM de pruebas (perfil test,
+ * H2), que sirve para comparar cambios en el contexto de Spring pero no es un
+ * arranque en frío. Para medir el artefacto real, con o sin AppCDS/AOT (perfil
+ * Maven fast-start) o el ejecutable nativo, se pasa el comando de arranque:
+ *
+ * mvn test -Pbenchmark -Dtest=StartupBenchmark
+ *     -Dstartup.command="java -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true -jar ecommerce-catalogo-service-fast-start.jar"
+ *     -Dstartup.dir=target/fast-start -Dstartup.url=http://localhost:8080/api/v1/products
+ *
+ * (la base de datos y las variables de entorno del perfil elegido deben estar disponibles).
+ */
+@Tag("benchmark")
+class StartupBenchmark {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(200))
+            .build();
+
+    @Test
+    void timeToFirstSuccessfulRequest() throws Exception {
+        String command = System.getProperty("startup.command");
+        if (command == null || command.isBlank()) {
+            measureInProcess();
+        } else {
+            int rounds = Integer.getInteger("startup.rounds", 3);
+            for (int r = 0; r < rounds; r++) {
+                measureExternal(command, System.getProperty("startup.url", "http://localhost:8080/api/v1/products"));
+            }
+        }
+    }
+
+    private void measureInProcess() throws Exception {
+        long start = System.nanoTime();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(
+                EcommerceCatalogoServiceApplication.class)
+                .profiles("test")
+                .properties("server.port=0", "spring.jmx.enabled=false")
+                .run()) {
+            String port = context.getEnvironment().getProperty("local.server.port");
+            long contextReady = System.nanoTime();
+            long firstOk = awaitFirstOk("http://localhost:" + port + "/api/v1/products", start);
+
+            BenchmarkSupport.report("startup.in-process.context", "%8d ms",
+                    TimeUnit.NANOSECONDS.toMillis(contextReady - start));
+            BenchmarkSupport.report("startup.in-process.first-get", "%8d ms",
+                    TimeUnit.NANOSECONDS.toMillis(firstOk - start));
+        }
+    }
+
+    private void measureExternal(String command, String url) throws Exception {
+        ProcessBuilder builder = new ProcessBuilder("sh", "-c", command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD);
+        String dir = System.getProperty("startup.dir");
+        if (dir != null) {
+            builder.directory(new File(dir));
+        }
+
+        long start = System.nanoTime();
+        Process process = builder.start();
+        try {
+            long firstOk = awaitFirstOk(url, start);
+            BenchmarkSupport.report("startup.process.first-get", "%8d ms",
+                    TimeUnit.NANOSECONDS.toMillis(firstOk - start));
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    /**
+     * Reintenta el GET cada pocos milisegundos y devuelve el instante (nanoTime) del primer 200.
+     */
+    private long awaitFirstOk(String url, long start) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(5))
+                .GET()
+                .build();
+        while (System.nanoTime() - start < STARTUP_TIMEOUT.toNanos()) {
+            try {
+                HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 200) {
+                    return System.nanoTime();
+                }
+            } catch (IOException notYetListening) {
+                // Todavía arrancando
+            }
+            Thread.sleep(10);
+        }
+        return fail("No 200 from " + url + " within " + STARTUP_TIMEOUT);
+    }
+}
@@ -0,0 +1,120 @@
+package com.ecommerce.catalog.cache;
+
+import com.ecommerce.catalog.dto.ProductRequestDTO;
+import com.ecommerce.catalog.entity.Product;
+import com.ecommerce.catalog.repository.OutboxEventRepository;
+import com.ecommerce.catalog.repository.ProductRepository;
+import com.ecommerce.catalog.support.SqlStatementCounter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Pruebas de integración de la caché de productos por id: las lecturas
+ * repetidas no ejecutan SQL y las escrituras se ven en cuanto se confirman.
+ */
+@SpringBootTest(properties = "catalog.cache.enabled=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ProductCacheIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Long productId;
+
+    @BeforeEach
+    void setUp() {
+        Product product = new Product();
+        product.setName("Laptop");
+        product.setDescription("Laptop descripción");
+        product.setPrice(new BigDecimal("1200.00"));
+        product.setStock(10);
+        product.setCategoryId(1L);
+        product.setSku("LAP-001");
+        product.setActive(true);
+        productId = productRepository.save(product).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+        outboxEventRepository.deleteAll();
+    }
+
+    @Test
+    void testRepeatedReadIsServedFromCache() throws Exception {
+        mockMvc.perform(get("/api/v1/products/" + productId))
+                .andExpect(status().isOk());
+        SqlStatementCounter.reset();
+
+        mockMvc.perform(get("/api/v1/products/" + productId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is("Laptop")));
+
+        assertTrue(SqlStatementCounter.statementsOn("productos").isEmpty());
+    }
+
+    @Test
+    void testUpdateIsVisibleWithoutReadingTheDatabase() throws Exception {
+        mockMvc.perform(get("/api/v1/products/" + productId))
+                .andExpect(jsonPath("$.price", is(1200.00)));
+
+        ProductRequestDTO request = new ProductRequestDTO();
+        request.setName("Laptop");
+        request.setDescription("Laptop descripción");
+        request.setPrice(new BigDecimal("999.00"));
+        request.setSku("LAP-001");
+        mockMvc.perform(put("/api/v1/products/" + productId)
+                .with(user("admin").password("pass").roles("ADMIN"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+        assertEquals(1L, productRepository.findById(productId).orElseThrow().getVersion());
+        SqlStatementCounter.reset();
+
+        mockMvc.perform(get("/api/v1/products/" + productId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.price", is(999.00)));
+
+        assertTrue(SqlStatementCounter.statementsOn("productos").isEmpty());
+    }
+
+    @Test
+    void testDeletedProductIsNotServedFromCache() throws Exception {
+        mockMvc.perform(get("/api/v1/products/" + productId))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(delete("/api/v1/products/" + productId)
+                .with(user("admin").password("pass").roles("ADMIN")))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/v1/products/" + productId))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,85 @@
+package com.ecommerce.catalog.cache;
+
+import com.ecommerce.catalog.event.ProductChangedEvent;
+import com.ecommerce.catalog.event.ProductChangedEvent.ChangeType;
+import com.ecommerce.catalog.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pruebas del índice de existencia: solo descarta ids por debajo de la marca
+ * de agua y sigue las altas y bajas confirmadas.
+ */
+class ProductExistenceIndexTest {
+
+    private ProductRepository productRepository;
+    private ProductExistenceIndex index;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        index = new ProductExistenceIndex(productRepository, new SimpleMeterRegistry(), true, 2);
+    }
+
+    @Test
+    void testNothingIsRejectedBeforeTheWatermarkAdvances() {
+        assertTrue(index.mightExist(5L));
+
+        storedIds(1L, 2L, 3L);
+        index.reload();
+
+        // Primera carga: la marca de agua sigue en 0
+        assertTrue(index.mightExist(5L));
+    }
+
+    @Test
+    void testMissingIdsBelowWatermarkAreRejected() {
+        storedIds(1L, 2L, 3L);
+        index.reload();
+        storedIds(1L, 3L, 4L);
+        index.reload();
+
+        assertFalse(index.mightExist(2L));
+        assertFalse(index.mightExist(-1L));
+        assertTrue(index.mightExist(1L));
+        // Por encima del mayor id de la carga anterior siempre se consulta
+        assertTrue(index.mightExist(4L));
+        assertTrue(index.mightExist(100L));
+    }
+
+    @Test
+    void testCommittedCreatesAndDeletesAreApplied() {
+        storedIds(1L, 2L, 3L);
+        index.reload();
+        index.reload();
+
+        index.onProductChanged(new ProductChangedEvent(ChangeType.DELETED, 3L, null, 0L));
+        index.onProductChanged(new ProductChangedEvent(ChangeType.CREATED, 70_000L, null, 0L));
+
+        assertFalse(index.mightExist(3L));
+        assertTrue(index.mightExist(70_000L));
+    }
+
+    private void storedIds(Long... ids) {
+        // Lotes de 2 (load-batch-size) paginados por el último id
+        List<Long> all = List.of(ids);
+        long after = 0;
+        for (int from = 0; from <= all.size(); from += 2) {
+            List<Long> batch = all.subList(from, Math.min(from + 2, all.size()));
+            when(productRepository.findIdsAfter(eq(after), any())).thenReturn(batch);
+            if (!batch.isEmpty()) {
+                after = batch.get(batch.size() - 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.ecommerce.catalog.cache;
+
+import com.ecommerce.catalog.dto.ProductRequestDTO;
+import com.ecommerce.catalog.entity.Product;
+import com.ecommerce.catalog.repository.OutboxEventRepository;
+import com.ecommerce.catalog.repository.ProductRepository;
+import com.ecommerce.catalog.support.SqlStatementCounter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Pruebas de integración de la caché de resultados: una búsqueda o listado
+ * repetido solo lee los productos por id, y las escrituras la caducan.
+ */
+@SpringBootTest(properties = "catalog.cache.results.enabled=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SearchResultCacheIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Long laptopId;
+
+    @BeforeEach
+    void setUp() {
+        laptopId = productRepository.save(product("Laptop Pro", 1L, "LAP-001")).getId();
+        productRepository.save(product("Laptop Air", 1L, "LAP-002"));
+        productRepository.save(product("Camiseta", 2L, "CAM-001"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+        outboxEventRepository.deleteAll();
+    }
+
+    @Test
+    void testRepeatedSearchOnlyReadsProductsById() throws Exception {
+        mockMvc.perform(get("/api/v1/products").param("keyword", "laptop"))
+                .andExpect(jsonPath("$.totalElements", is(2)));
+        SqlStatementCounter.reset();
+
+        // Misma búsqueda normalizada: mayúsculas y espacios no cuentan
+        mockMvc.perform(get("/api/v1/products").param("keyword", "  LAPTOP "))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements", is(2)))
+                .andExpect(jsonPath("$.content[0].name", is("Laptop Air")));
+
+        List<String> statements = SqlStatementCounter.statementsOn("productos");
+        assertEquals(1, statements.size());
+        assertTrue(statements.get(0).contains(" in ("));
+    }
+
+    @Test
+    void testWriteInvalidatesSearchResults() throws Exception {
+        mockMvc.perform(get("/api/v1/products").param("keyword", "laptop"))
+                .andExpect(jsonPath("$.totalElements", is(2)));
+
+        ProductRequestDTO request = new ProductRequestDTO();
+        request.setName("Laptop Gamer");
+        request.setDescription("Laptop Gamer descripción");
+        request.setPrice(BigDecimal.valueOf(1500));
+        request.setCategoryId(3L);
+        request.setSku("LAP-003");
+        mockMvc.perform(post("/api/v1/products")
+                .with(user("admin").password("pass").roles("ADMIN"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/v1/products").param("keyword", "laptop"))
+                .andExpect(jsonPath("$.totalElements", is(3)));
+    }
+
+    @Test
+    void testCategoryListingIsInvalidatedPerCategory() throws Exception {
+        mockMvc.perform(get("/api/v1/products/category/1"))
+                .andExpect(jsonPath("$.totalElements", is(2)));
+        mockMvc.perform(get("/api/v1/products/category/2"))
+                .andExpect(jsonPath("$.totalElements", is(1)));
+
+        // Mover el producto caduca su categoría anterior y la nueva
+        ProductRequestDTO request = new ProductRequestDTO();
+        request.setName("Laptop Pro");
+        request.setDescription("Laptop Pro descripción");
+        request.setPrice(BigDecimal.valueOf(1200));
+        request.setCategoryId(2L);
+        request.setSku("LAP-001");
+        mockMvc.perform(put("/api/v1/products/" + laptopId)
+                .with(user("admin").password("pass").roles("ADMIN"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/products/category/1"))
+                .andExpect(jsonPath("$.totalElements", is(1)));
+        mockMvc.perform(get("/api/v1/products/category/2"))
+                .andExpect(jsonPath("$.totalElements", is(2)));
+    }
+
+    private static Product product(String name, Long categoryId, String sku) {
+        Product product = new Product();
+        product.setName(name);
+        product.setDescription(name + " descripción");
+        product.setPrice(new BigDecimal("100.00"));
+        product.setStock(10);
+        product.setCategoryId(categoryId);
+        product.setSku(sku);
+        product.setActive(true);
+        return product;
+    }
+}
@@ -0,0 +1,123 @@
+package com.ecommerce.catalog.cache;
+
+import com.ecommerce.catalog.dto.ProductSku;
+import com.ecommerce.catalog.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pruebas de la tabla hash del índice de SKU: colisiones, borrado con
+ * desplazamiento y crecimiento, comparadas con un HashMap; y de la recarga
+ * con escrituras concurrentes.
+ */
+class SkuIndexTest {
+
+    @Test
+    void testPutFindAndRemove() {
+        SkuIndex index = new SkuIndex(null, 1);
+        index.put("LAP-001", 1);
+        index.put("MOU-001", 2);
+
+        assertEquals(1, index.find("LAP-001"));
+        assertEquals(SkuIndex.NOT_FOUND, index.find("NO-EXISTE"));
+
+        // Solo se quita si el SKU sigue apuntando a ese id
+        index.remove("LAP-001", 99);
+        assertEquals(1, index.find("LAP-001"));
+        index.remove("LAP-001", 1);
+        assertEquals(SkuIndex.NOT_FOUND, index.find("LAP-001"));
+        assertEquals(2, index.find("MOU-001"));
+    }
+
+    @Test
+    void testCollidingKeysSurviveRemovals() {
+        // "Aa" y "BB" tienen el mismo hashCode
+        SkuIndex index = new SkuIndex(null, 1);
+        index.put("Aa", 1);
+        index.put("BB", 2);
+        index.put("AaAa", 3);
+        index.put("BBBB", 4);
+
+        index.remove("Aa", 1);
+
+        assertEquals(2, index.find("BB"));
+        assertEquals(3, index.find("AaAa"));
+        assertEquals(4, index.find("BBBB"));
+    }
+
+    @Test
+    void testMatchesHashMapUnderRandomOperations() {
+        SkuIndex index = new SkuIndex(null, 1);
+        Map<String, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 50_000; i++) {
+            String sku = "SKU-" + random.nextInt(5_000);
+            long id = random.nextInt(1_000_000);
+            if (random.nextInt(3) == 0) {
+                Long current = expected.get(sku);
+                if (current != null) {
+                    index.remove(sku, current);
+                    expected.remove(sku);
+                }
+            } else {
+                index.put(sku, id);
+                expected.put(sku, id);
+            }
+        }
+
+        assertEquals(expected.size(), index.size());
+        for (int i = 0; i < 5_000; i++) {
+            String sku = "SKU-" + i;
+            assertEquals(expected.getOrDefault(sku, SkuIndex.NOT_FOUND), index.find(sku), sku);
+        }
+    }
+
+    @Test
+    void testWritesDuringReloadAreKept() {
+        ProductRepository repository = mock(ProductRepository.class);
+        SkuIndex index = new SkuIndex(repository, 10);
+        // El lote se leyó antes de que se confirmaran las escrituras que llegan durante la carga
+        when(repository.findSkusAfter(anyLong(), any(Pageable.class))).thenAnswer(invocation -> {
+            index.put("NEW-001", 3);
+            index.put("LAP-001", 4);
+            return List.of(new ProductSku(1L, "LAP-001"), new ProductSku(2L, "MOU-001"));
+        });
+
+        index.reload();
+
+        assertEquals(3, index.find("NEW-001"));
+        assertEquals(4, index.find("LAP-001"));
+        assertEquals(2, index.find("MOU-001"));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void testConcurrentReloadIsSkipped() {
+        ProductRepository repository = mock(ProductRepository.class);
+        SkuIndex index = new SkuIndex(repository, 10);
+        when(repository.findSkusAfter(anyLong(), any(Pageable.class))).thenAnswer(invocation -> {
+            Thread other = new Thread(index::reload);
+            other.start();
+            other.join();
+            return List.of(new ProductSku(1L, "LAP-001"));
+        });
+
+        index.reload();
+
+        verify(repository, times(1)).findSkusAfter(anyLong(), any(Pageable.class));
+        assertEquals(1, index.find("LAP-001"));
+    }
+}
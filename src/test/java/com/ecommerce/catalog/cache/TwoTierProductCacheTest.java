@@ -0,0 +1,143 @@
+package com.ecommerce.catalog.cache;
+
+import com.ecommerce.catalog.dto.ProductResponseDTO;
+import com.ecommerce.catalog.event.ProductChangedEvent;
+import com.ecommerce.catalog.event.ProductChangedEvent.ChangeType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de la caché de dos niveles con dos nodos simulados en la misma JVM
+ * que comparten L2 y transporte de invalidaciones.
+ */
+class TwoTierProductCacheTest {
+
+    private static final Long ID = 1L;
+
+    private InMemorySharedProductStore shared;
+    private LoopbackInvalidationBus bus;
+    private TwoTierProductCache nodeA;
+    private TwoTierProductCache nodeB;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        shared = new InMemorySharedProductStore(1000, 60_000);
+        bus = new LoopbackInvalidationBus();
+        nodeA = node(bus);
+        nodeB = node(bus);
+        loads = new AtomicInteger();
+    }
+
+    private TwoTierProductCache node(CacheInvalidationBus transport) {
+        return new TwoTierProductCache(shared, transport, new SimpleMeterRegistry(), 1000, 60_000);
+    }
+
+    @Test
+    void testSecondReadIsServedFromCache() {
+        assertEquals("10.00", price(nodeA.get(ID, loader("10.00", 0))));
+        assertEquals("10.00", price(nodeA.get(ID, loader("99.00", 0))));
+        // El otro nodo lo encuentra en L2
+        assertEquals("10.00", price(nodeB.get(ID, loader("99.00", 0))));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testWriteOnOneNodeIsVisibleOnTheOther() {
+        nodeA.get(ID, loader("10.00", 0));
+        nodeB.get(ID, loader("10.00", 0));
+
+        nodeA.onProductChanged(updated("12.00", 1));
+
+        assertEquals("12.00", price(nodeA.get(ID, loader("99.00", 1))));
+        assertEquals("12.00", price(nodeB.get(ID, loader("99.00", 1))));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testReorderedInvalidationsCannotResurrectStaleData() {
+        nodeB.get(ID, loader("10.00", 0));
+
+        // El aviso de la versión 2 llega antes que el de la 1
+        nodeB.invalidated(new ProductInvalidation(ID, 2, "other"));
+        nodeB.invalidated(new ProductInvalidation(ID, 1, "other"));
+        shared.offer(ID, entry("11.00", 1));
+
+        // L2 solo tiene la versión 1: no vale, se lee la base de datos
+        assertEquals("12.00", price(nodeB.get(ID, loader("12.00", 2))));
+        assertEquals(2, loads.get());
+        assertEquals("12.00", price(nodeB.get(ID, loader("99.00", 2))));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testSlowReadFinishingAfterWriteIsNotCached() {
+        // La lectura empezó antes de la escritura y termina después de que se confirme
+        Function<Long, VersionedProduct> slowLoader = id -> {
+            nodeA.onProductChanged(updated("12.00", 1));
+            return entry("10.00", 0);
+        };
+
+        assertEquals("10.00", price(nodeB.get(ID, slowLoader)));
+
+        assertEquals("12.00", price(nodeB.get(ID, loader("99.00", 1))));
+        assertEquals("12.00", shared.get(ID).product().getPrice().toPlainString());
+    }
+
+    @Test
+    void testDeleteLeavesTombstone() {
+        nodeA.get(ID, loader("10.00", 3));
+        nodeB.get(ID, loader("10.00", 3));
+
+        nodeA.onProductChanged(new ProductChangedEvent(ChangeType.DELETED, ID, dto("10.00"), 3L));
+
+        // Una lectura anterior al borrado no vuelve a cachear el producto
+        assertNull(nodeA.get(ID, id -> null));
+        assertEquals("10.00", price(nodeB.get(ID, loader("10.00", 3))));
+        assertNull(nodeB.get(ID, id -> null));
+    }
+
+    @Test
+    void testMissedInvalidationsClearLocalTier() {
+        nodeB.get(ID, loader("10.00", 0));
+        shared.offer(ID, entry("12.00", 1));
+
+        nodeB.missedInvalidations();
+
+        assertEquals("12.00", price(nodeB.get(ID, loader("99.00", 1))));
+    }
+
+    private Function<Long, VersionedProduct> loader(String price, long version) {
+        return id -> {
+            loads.incrementAndGet();
+            return entry(price, version);
+        };
+    }
+
+    private static ProductChangedEvent updated(String price, long version) {
+        return new ProductChangedEvent(ChangeType.UPDATED, ID, dto(price), version);
+    }
+
+    private static VersionedProduct entry(String price, long version) {
+        return new VersionedProduct(dto(price), version);
+    }
+
+    private static ProductResponseDTO dto(String price) {
+        ProductResponseDTO dto = new ProductResponseDTO();
+        dto.setId(ID);
+        dto.setName("Laptop");
+        dto.setPrice(new BigDecimal(price));
+        return dto;
+    }
+
+    private static String price(ProductResponseDTO product) {
+        return product.getPrice().toPlainString();
+    }
+}
@@ -0,0 +1,52 @@
+package com.ecommerce.catalog.category;
+
+import com.ecommerce.catalog.entity.Category;
+import com.ecommerce.catalog.entity.CategoryClosure;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias de CategoryTree: construcción desde la tabla de cierre y
+ * resolución de subárboles y ancestros en memoria.
+ */
+class CategoryTreeTest {
+
+    // Electrónica(1) -> Móviles(2) -> Smartphones(3); Electrónica(1) -> Audio(4); Hogar(5)
+    private final CategoryTree tree = CategoryTree.build(
+            List.of(new Category(1L, "Electrónica", null),
+                    new Category(2L, "Móviles", 1L),
+                    new Category(3L, "Smartphones", 2L),
+                    new Category(4L, "Audio", 1L),
+                    new Category(5L, "Hogar", null)),
+            List.of(new CategoryClosure(1L, 1L, 0), new CategoryClosure(2L, 2L, 0),
+                    new CategoryClosure(3L, 3L, 0), new CategoryClosure(4L, 4L, 0),
+                    new CategoryClosure(5L, 5L, 0),
+                    new CategoryClosure(1L, 2L, 1), new CategoryClosure(2L, 3L, 1),
+                    new CategoryClosure(1L, 3L, 2), new CategoryClosure(1L, 4L, 1)));
+
+    @Test
+    void testRootsAndChildrenAreSortedByName() {
+        assertEquals(List.of(1L, 5L), tree.roots());
+        assertEquals(List.of(4L, 2L), tree.node(1L).orElseThrow().children());
+        assertEquals(2, tree.node(3L).orElseThrow().depth());
+    }
+
+    @Test
+    void testSubtreeIncludesAllDescendantsAndItself() {
+        assertEquals(Set.of(1L, 2L, 3L, 4L), tree.subtree(1L));
+        assertEquals(Set.of(2L, 3L), tree.subtree(2L));
+        assertEquals(Set.of(5L), tree.subtree(5L));
+        assertTrue(tree.subtree(99L).isEmpty());
+    }
+
+    @Test
+    void testAncestorsWalkUpToTheRoot() {
+        assertArrayEquals(new long[] { 1L, 2L, 3L }, tree.ancestors(3L));
+        assertArrayEquals(new long[] { 5L }, tree.ancestors(5L));
+        assertFalse(tree.contains(99L));
+    }
+}
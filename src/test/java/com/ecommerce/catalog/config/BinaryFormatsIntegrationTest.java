@@ -0,0 +1,91 @@
+package com.ecommerce.catalog.config;
+
+import com.ecommerce.catalog.entity.Product;
+import com.ecommerce.catalog.repository.ProductRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pruebas de integración de BinaryFormatsConfig: las respuestas CBOR y Smile
+ * salen con la configuración spring.jackson.* de la aplicación. Los
+ * convertidores que Spring MVC registra por defecto la ignoran, así que con
+ * ellos los campos saldrían en camelCase.
+ */
+@SpringBootTest(properties = "spring.jackson.property-naming-strategy=SNAKE_CASE")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BinaryFormatsIntegrationTest {
+
+    private static final MediaType APPLICATION_CBOR = MediaType.parseMediaType("application/cbor");
+    private static final MediaType APPLICATION_SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @BeforeEach
+    void setUp() {
+        Product product = new Product();
+        product.setName("Teclado");
+        product.setDescription("Teclado mecánico");
+        product.setPrice(new BigDecimal("79.99"));
+        product.setStock(5);
+        product.setCategoryId(1L);
+        product.setSku("TEC-001");
+        product.setActive(true);
+        productRepository.save(product);
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void testCborUsesApplicationJacksonSettings() throws Exception {
+        JsonNode page = new ObjectMapper(new CBORFactory()).readTree(listing(APPLICATION_CBOR));
+
+        assertEquals(1, page.path("total_elements").asInt());
+        JsonNode product = page.at("/content/0");
+        assertEquals(1L, product.path("category_id").asLong());
+        assertTrue(product.has("created_at"));
+        // Lo propio de la codificación binaria se mantiene: fechas como números
+        assertTrue(product.get("created_at").isNumber() || product.get("created_at").isArray());
+    }
+
+    @Test
+    void testSmileUsesApplicationJacksonSettings() throws Exception {
+        JsonNode page = new ObjectMapper(new SmileFactory()).readTree(listing(APPLICATION_SMILE));
+
+        assertEquals("TEC-001", page.at("/content/0/sku").asText());
+        assertTrue(page.at("/content/0").has("category_id"));
+    }
+
+    private byte[] listing(MediaType mediaType) throws Exception {
+        return mockMvc.perform(get("/api/v1/products").accept(mediaType))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(mediaType))
+                .andReturn().getResponse().getContentAsByteArray();
+    }
+}
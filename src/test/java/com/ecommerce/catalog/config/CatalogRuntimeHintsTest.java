@@ -0,0 +1,38 @@
+package com.ecommerce.catalog.config;
+
+import com.ecommerce.catalog.dto.ProductResponseDTO;
+import com.ecommerce.catalog.entity.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.data.domain.PageImpl;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas unitarias para CatalogRuntimeHints (pistas de la imagen nativa).
+ */
+class CatalogRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    CatalogRuntimeHintsTest() {
+        new CatalogRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void testJsonDtosAreRegisteredForBinding() throws NoSuchMethodException {
+        assertTrue(RuntimeHintsPredicates.reflection().onType(ProductResponseDTO.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onMethod(ProductResponseDTO.class.getMethod("getPrice")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(PageImpl.class).test(hints));
+    }
+
+    @Test
+    void testEntitiesAndSeedDataAreRegistered() {
+        assertTrue(RuntimeHintsPredicates.reflection().onType(Product.class)
+                .withMemberCategory(MemberCategory.DECLARED_FIELDS).test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("data.sql").test(hints));
+    }
+}
@@ -0,0 +1,100 @@
+package com.ecommerce.catalog.controller;
+
+import com.ecommerce.catalog.dto.ProductRequestDTO;
+import com.ecommerce.catalog.repository.ProductRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.hamcrest.Matchers.is;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Pruebas de integración del canje de credenciales Basic por token Bearer.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AuthTokenIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+    }
+
+    private String newProductJson() throws Exception {
+        ProductRequestDTO dto = new ProductRequestDTO();
+        dto.setName("Producto Token");
+        dto.setDescription("Creado con token Bearer");
+        dto.setPrice(BigDecimal.valueOf(10.0));
+        dto.setSku("TOK-001");
+        return objectMapper.writeValueAsString(dto);
+    }
+
+    private String obtainToken() throws Exception {
+        String body = mockMvc.perform(post("/api/v1/auth/token").with(httpBasic("admin", "pass")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tokenType", is("Bearer")))
+                .andReturn().getResponse().getContentAsString();
+        JsonNode json = objectMapper.readTree(body);
+        return json.get("accessToken").asText();
+    }
+
+    @Test
+    void testTokenAuthenticatesWrites() throws Exception {
+        String token = obtainToken();
+
+        mockMvc.perform(post("/api/v1/products")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(newProductJson()))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    void testTamperedTokenIsRejected() throws Exception {
+        String token = obtainToken();
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        mockMvc.perform(post("/api/v1/products")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + tampered)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(newProductJson()))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void testTokenEndpointRequiresValidCredentials() throws Exception {
+        mockMvc.perform(post("/api/v1/auth/token").with(httpBasic("admin", "wrong")))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void testTokenCannotRenewItself() throws Exception {
+        String token = obtainToken();
+
+        mockMvc.perform(post("/api/v1/auth/token").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+    }
+}
@@ -0,0 +1,218 @@
+package com.ecommerce.catalog.controller;
+
+import com.ecommerce.catalog.category.CategoryTreeCache;
+import com.ecommerce.catalog.dto.CategoryRequestDTO;
+import com.ecommerce.catalog.dto.ProductRequestDTO;
+import com.ecommerce.catalog.entity.Product;
+import com.ecommerce.catalog.repository.CategoryClosureRepository;
+import com.ecommerce.catalog.repository.CategoryRepository;
+import com.ecommerce.catalog.repository.OutboxEventRepository;
+import com.ecommerce.catalog.repository.ProductRepository;
+import com.ecommerce.catalog.support.SqlStatementCounter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Pruebas de integración de la jerarquía de categorías: tabla de cierre,
+ * consultas por subárbol y contadores por nodo.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CategoryControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private CategoryClosureRepository closureRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private CategoryTreeCache treeCache;
+
+    private long electronica;
+    private long moviles;
+    private long smartphones;
+    private long hogar;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        electronica = createCategory("Electrónica", null);
+        moviles = createCategory("Móviles", electronica);
+        smartphones = createCategory("Smartphones", moviles);
+        hogar = createCategory("Hogar", null);
+
+        productRepository.saveAll(List.of(
+                product("Laptop", electronica, "LAP-001", true),
+                product("Teléfono fijo", moviles, "TEL-001", true),
+                product("iPhone", smartphones, "PHN-001", true),
+                product("Galaxy retirado", smartphones, "PHN-002", false),
+                product("Sartén", hogar, "SAR-001", true)));
+        treeCache.recount();
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+        outboxEventRepository.deleteAll();
+        closureRepository.deleteAll();
+        categoryRepository.deleteAll();
+        treeCache.reloadTree();
+        treeCache.recount();
+    }
+
+    private long createCategory(String name, Long parentId) throws Exception {
+        CategoryRequestDTO request = new CategoryRequestDTO();
+        request.setName(name);
+        request.setParentId(parentId);
+        String body = mockMvc.perform(post("/api/v1/categories")
+                        .with(user("admin").password("pass").roles("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asLong();
+    }
+
+    private static Product product(String name, Long categoryId, String sku, boolean active) {
+        Product product = new Product();
+        product.setName(name);
+        product.setDescription(name + " descripción");
+        product.setPrice(BigDecimal.TEN);
+        product.setStock(5);
+        product.setCategoryId(categoryId);
+        product.setSku(sku);
+        product.setActive(active);
+        return product;
+    }
+
+    @Test
+    void testClosureTableHoldsEveryAncestorPair() {
+        // 4 filas propias + Móviles bajo Electrónica + Smartphones bajo Móviles y Electrónica
+        assertEquals(7, closureRepository.count());
+    }
+
+    @Test
+    void testTreeWithCounts() throws Exception {
+        mockMvc.perform(get("/api/v1/categories"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].name", is("Electrónica")))
+                .andExpect(jsonPath("$[0].productCount", is(1)))
+                .andExpect(jsonPath("$[0].subtreeProductCount", is(3)))
+                .andExpect(jsonPath("$[0].children[0].name", is("Móviles")))
+                .andExpect(jsonPath("$[0].children[0].children[0].depth", is(2)))
+                .andExpect(jsonPath("$[0].children[0].children[0].productCount", is(1)));
+    }
+
+    @Test
+    void testSubtreeProductsUseASingleInQuery() throws Exception {
+        SqlStatementCounter.reset();
+
+        mockMvc.perform(get("/api/v1/categories/" + electronica + "/products").param("sort", "name"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements", is(3)))
+                .andExpect(jsonPath("$.content[*].name", containsInAnyOrder("iPhone", "Laptop", "Teléfono fijo")));
+
+        // Una sola consulta (la página no se llena, así que no hay count); el
+        // subárbol sale del árbol en memoria, sin leer categorias ni la tabla de cierre
+        List<String> statements = SqlStatementCounter.statements();
+        assertEquals(1, statements.size(), "Sentencias: " + statements);
+        assertTrue(statements.get(0).contains("category_id in (?,?,?)"), statements.get(0));
+
+        mockMvc.perform(get("/api/v1/categories/" + moviles + "/products").param("fields", "name"))
+                .andExpect(jsonPath("$.totalElements", is(2)))
+                .andExpect(jsonPath("$.content[0].sku").doesNotExist());
+    }
+
+    @Test
+    void testCountsFollowProductWrites() throws Exception {
+        ProductRequestDTO request = new ProductRequestDTO();
+        request.setName("Auriculares");
+        request.setDescription("Auriculares inalámbricos");
+        request.setPrice(BigDecimal.valueOf(99));
+        request.setStock(3);
+        request.setCategoryId(smartphones);
+        request.setSku("AUR-001");
+        request.setActive(true);
+        String created = mockMvc.perform(post("/api/v1/products")
+                        .with(user("admin").password("pass").roles("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long productId = objectMapper.readTree(created).get("id").asLong();
+        assertEquals(2, treeCache.productCount(smartphones));
+        assertEquals(4, treeCache.subtreeProductCount(electronica));
+
+        // Mover el producto a Hogar
+        request.setCategoryId(hogar);
+        mockMvc.perform(put("/api/v1/products/" + productId)
+                        .with(user("admin").password("pass").roles("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+        assertEquals(1, treeCache.productCount(smartphones));
+        assertEquals(2, treeCache.productCount(hogar));
+
+        // Desactivarlo deja de contarlo
+        request.setActive(false);
+        mockMvc.perform(put("/api/v1/products/" + productId)
+                        .with(user("admin").password("pass").roles("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+        assertEquals(1, treeCache.productCount(hogar));
+
+        mockMvc.perform(delete("/api/v1/products/" + productId)
+                        .with(user("admin").password("pass").roles("ADMIN")))
+                .andExpect(status().isNoContent());
+        assertEquals(1, treeCache.productCount(hogar));
+        assertEquals(3, treeCache.subtreeProductCount(electronica));
+    }
+
+    @Test
+    void testUnknownCategoryAndParent() throws Exception {
+        mockMvc.perform(get("/api/v1/categories/999999/products"))
+                .andExpect(status().isNotFound());
+
+        CategoryRequestDTO orphan = new CategoryRequestDTO();
+        orphan.setName("Huérfana");
+        orphan.setParentId(999999L);
+        mockMvc.perform(post("/api/v1/categories")
+                        .with(user("admin").password("pass").roles("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(orphan)))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -3,7 +3,12 @@ package com.ecommerce.catalog.controller;
 import com.ecommerce.catalog.dto.ProductRequestDTO;
 import com.ecommerce.catalog.entity.Product;
 import com.ecommerce.catalog.repository.ProductRepository;
+import com.ecommerce.catalog.support.SqlStatementCounter;
+import com.ecommerce.catalog.dto.ProductResponseDTO;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -17,8 +22,12 @@ import org.springframework.test.web.servlet.MockMvc;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 
 import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.hamcrest.Matchers.*;
@@ -103,6 +112,48 @@ class ProductControllerIntegrationTest {
                 .andExpect(jsonPath("$.content[0].name", is("Mouse Gaming")));
     }
 
+    @Test
+    void testBinaryContentNegotiation() throws Exception {
+        ObjectMapper cbor = new ObjectMapper(new CBORFactory()).findAndRegisterModules();
+        ObjectMapper smile = new ObjectMapper(new SmileFactory()).findAndRegisterModules();
+        MediaType applicationCbor = MediaType.parseMediaType("application/cbor");
+        MediaType applicationSmile = MediaType.parseMediaType("application/x-jackson-smile");
+
+        ProductRequestDTO newProduct = new ProductRequestDTO();
+        newProduct.setName("Teclado");
+        newProduct.setDescription("Teclado mecánico");
+        newProduct.setPrice(new BigDecimal("79.99"));
+        newProduct.setStock(5);
+        newProduct.setSku("TEC-001");
+        newProduct.setActive(true);
+
+        // POST con cuerpo y respuesta en CBOR
+        byte[] created = mockMvc.perform(post("/api/v1/products")
+                        .with(user("admin").password("pass").roles("ADMIN"))
+                        .contentType(applicationCbor)
+                        .accept(applicationCbor)
+                        .content(cbor.writeValueAsBytes(newProduct)))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(applicationCbor))
+                .andReturn().getResponse().getContentAsByteArray();
+        ProductResponseDTO decoded = cbor.readValue(created, ProductResponseDTO.class);
+        assertEquals(new BigDecimal("79.99"), decoded.getPrice());
+        assertNotNull(decoded.getCreatedAt());
+
+        // Página en Smile
+        byte[] page = mockMvc.perform(get("/api/v1/products").accept(applicationSmile))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(applicationSmile))
+                .andReturn().getResponse().getContentAsByteArray();
+        JsonNode pageNode = smile.readTree(page);
+        assertEquals("Teclado", pageNode.at("/content/0/name").asText());
+        assertEquals(1, pageNode.get("totalElements").asInt());
+
+        // Sin Accept explícito se sigue respondiendo JSON
+        mockMvc.perform(get("/api/v1/products"))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
     @Test
     void testCreateProductValidationFails() throws Exception {
         // Objeto INVÁLIDO (Precio negativo)
@@ -193,6 +244,91 @@ class ProductControllerIntegrationTest {
                 .andExpect(jsonPath("$.content[1].name", is("Beta")));
     }
 
+    @Test
+    void testSparseFieldsProjectOnlyRequestedColumns() throws Exception {
+        productRepository.save(createTestProduct("Laptop", "Laptop Core i7", BigDecimal.valueOf(1200.0), "LAP-001"));
+        SqlStatementCounter.reset();
+
+        mockMvc.perform(get("/api/v1/products?fields=id,name,price,stock"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name", is("Laptop")))
+                .andExpect(jsonPath("$.content[0].stock", is(10)))
+                .andExpect(jsonPath("$.content[0].description").doesNotExist())
+                .andExpect(jsonPath("$.content[0].createdAt").doesNotExist());
+
+        // Ni la consulta de la página ni el count leen description
+        assertFalse(SqlStatementCounter.statementsOn("productos").isEmpty());
+        SqlStatementCounter.statementsOn("productos")
+                .forEach(sql -> assertFalse(sql.contains("description"), sql));
+    }
+
+    @Test
+    void testSparseFieldsOnSearchAndGetById() throws Exception {
+        Product saved = productRepository
+                .save(createTestProduct("Laptop", "Laptop Core i7", BigDecimal.valueOf(1200.0), "LAP-001"));
+        productRepository.save(createTestProduct("Mouse", "Mouse inalámbrico", BigDecimal.valueOf(20.0), "MOU-001"));
+
+        mockMvc.perform(get("/api/v1/products?keyword=core_i7&fields=sku"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements", is(0)));
+
+        mockMvc.perform(get("/api/v1/products?keyword=core&fields=sku"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements", is(1)))
+                .andExpect(jsonPath("$.content[0].sku", is("LAP-001")))
+                .andExpect(jsonPath("$.content[0].name").doesNotExist());
+
+        mockMvc.perform(get("/api/v1/products/" + saved.getId() + "?fields=name,price"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is("Laptop")))
+                .andExpect(jsonPath("$.price", is(1200.0)))
+                .andExpect(jsonPath("$.id").doesNotExist());
+
+        mockMvc.perform(get("/api/v1/products/999999?fields=name"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testUnknownFieldIsRejected() throws Exception {
+        mockMvc.perform(get("/api/v1/products?fields=id,imageUrl"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Campos no válidos")));
+    }
+
+    @Test
+    void testUnindexedSortIsRejected() throws Exception {
+        mockMvc.perform(get("/api/v1/products?sort=description,desc"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Ordenación no válida")));
+    }
+
+    @Test
+    void testFilterByCategoriesAndStock() throws Exception {
+        Product laptop = createTestProduct("Laptop", "Laptop Core i7", BigDecimal.valueOf(1200.0), "LAP-001");
+        laptop.setCategoryId(1L);
+        Product agotado = createTestProduct("Mouse", "Mouse agotado", BigDecimal.valueOf(20.0), "MOU-001");
+        agotado.setCategoryId(1L);
+        agotado.setStock(0);
+        Product camiseta = createTestProduct("Camiseta", "Camiseta algodón", BigDecimal.valueOf(15.0), "CAM-001");
+        camiseta.setCategoryId(2L);
+        Product inactivo = createTestProduct("Teclado", "Teclado retirado", BigDecimal.valueOf(50.0), "TEC-001");
+        inactivo.setCategoryId(2L);
+        inactivo.setActive(false);
+        productRepository.saveAll(List.of(laptop, agotado, camiseta, inactivo));
+
+        mockMvc.perform(get("/api/v1/products")
+                .param("categoryIds", "1", "2")
+                .param("inStock", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements", is(2)))
+                .andExpect(jsonPath("$.content[0].name", is("Camiseta")))
+                .andExpect(jsonPath("$.content[1].name", is("Laptop")));
+
+        mockMvc.perform(get("/api/v1/products").param("inStock", "false"))
+                .andExpect(jsonPath("$.totalElements", is(1)))
+                .andExpect(jsonPath("$.content[0].name", is("Mouse")));
+    }
+
     @Test
     void testGetAllProductsEmpty() throws Exception {
         // No crear productos
@@ -263,6 +399,72 @@ class ProductControllerIntegrationTest {
                 .andExpect(status().isNotFound());
     }
 
+    // ========================================
+    // Tests para GET /api/v1/products/sku (Públicos)
+    // ========================================
+
+    @Test
+    void testGetProductBySku() throws Exception {
+        productRepository.save(createTestProduct("Laptop", "Laptop Core i7", BigDecimal.valueOf(1200.0), "LAP-001"));
+
+        mockMvc.perform(get("/api/v1/products/sku/LAP-001"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is("Laptop")));
+        SqlStatementCounter.reset();
+
+        // Ya en el índice: lectura por id, sin buscar por SKU
+        mockMvc.perform(get("/api/v1/products/sku/LAP-001"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sku", is("LAP-001")));
+        assertFalse(SqlStatementCounter.statementsOn("productos").stream().anyMatch(sql -> sql.contains("sku=?")));
+
+        mockMvc.perform(get("/api/v1/products/sku/NO-EXISTE"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testResolveSkusInBatch() throws Exception {
+        productRepository.save(createTestProduct("Laptop", "Laptop Core i7", BigDecimal.valueOf(1200.0), "LAP-001"));
+        productRepository.save(createTestProduct("Mouse", "Mouse óptico", BigDecimal.valueOf(25.0), "MOU-001"));
+
+        mockMvc.perform(get("/api/v1/products/sku").param("skus", "MOU-001,NO-EXISTE,LAP-001"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(2)))
+                .andExpect(jsonPath("$.MOU-001.name", is("Mouse")))
+                .andExpect(jsonPath("$.LAP-001.name", is("Laptop")))
+                .andExpect(jsonPath("$.NO-EXISTE").doesNotExist());
+
+        String tooMany = String.join(",", Collections.nCopies(101, "LAP-001"));
+        mockMvc.perform(get("/api/v1/products/sku").param("skus", tooMany))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Lote de SKU no válido")));
+    }
+
+    @Test
+    void testKnownDuplicateSkuIsRejectedBeforeInsert() throws Exception {
+        ProductRequestDTO request = new ProductRequestDTO();
+        request.setName("Teclado");
+        request.setDescription("Teclado mecánico");
+        request.setPrice(BigDecimal.valueOf(80.0));
+        request.setSku("TEC-001");
+        mockMvc.perform(post("/api/v1/products")
+                        .with(user("admin").password("pass").roles("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+        SqlStatementCounter.reset();
+
+        mockMvc.perform(post("/api/v1/products")
+                        .with(user("admin").password("pass").roles("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message", containsString("SKU")));
+
+        assertFalse(SqlStatementCounter.statementsOn("productos").stream().anyMatch(sql -> sql.startsWith("insert")));
+        assertEquals(1, productRepository.count());
+    }
+
     // ========================================
     // Tests para PUT /api/v1/products/{id} (Ahora REQUIERE AUTENTICACIÓN)
     // ========================================
@@ -389,6 +591,15 @@ class ProductControllerIntegrationTest {
                 .andExpect(jsonPath("$.content", hasSize(0)));
     }
 
+    // Tests de Seguridad: la cadena ligera de lecturas mantiene CORS
+    @Test
+    void testPublicReadKeepsCorsHeaders() throws Exception {
+        mockMvc.perform(get("/api/v1/products").header("Origin", "http://tienda.example.com"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Access-Control-Allow-Origin", "*"))
+                .andExpect(header().exists("X-Content-Type-Options"));
+    }
+
     // Tests de Seguridad: Acceso Denegado (401)
     @Test
     void testCreateProductWithoutAuthenticationFailsWith401()throws Exception{
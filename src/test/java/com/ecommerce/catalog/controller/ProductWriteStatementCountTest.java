@@ -0,0 +1,177 @@
+package com.ecommerce.catalog.controller;
+
+import com.ecommerce.catalog.dto.ProductRequestDTO;
+import com.ecommerce.catalog.entity.Product;
+import com.ecommerce.catalog.event.ProductChangedEvent;
+import com.ecommerce.catalog.repository.OutboxEventRepository;
+import com.ecommerce.catalog.repository.ProductRepository;
+import com.ecommerce.catalog.support.SqlStatementCounter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Fija el número de sentencias SQL de cada endpoint de escritura.
+ * Cada escritura debe ser un único viaje sobre la tabla productos; la única
+ * sentencia adicional permitida es el INSERT del outbox en la misma transacción.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@RecordApplicationEvents
+class ProductWriteStatementCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationEvents applicationEvents;
+
+    private Product existing;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+        Product product = new Product();
+        product.setName("Laptop");
+        product.setDescription("Laptop Core i7");
+        product.setPrice(BigDecimal.valueOf(1200.0));
+        product.setStock(10);
+        product.setCategoryId(1L);
+        product.setSku("LAP-001");
+        product.setActive(true);
+        existing = productRepository.save(product);
+        SqlStatementCounter.reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+        outboxEventRepository.deleteAll();
+    }
+
+    private ProductRequestDTO request(String sku) {
+        ProductRequestDTO dto = new ProductRequestDTO();
+        dto.setName("Laptop Actualizada");
+        dto.setDescription("Laptop Core i9");
+        dto.setPrice(BigDecimal.valueOf(1500.0));
+        dto.setSku(sku);
+        return dto;
+    }
+
+    private void assertSingleRoundTrip() {
+        List<String> productStatements = SqlStatementCounter.statementsOn("productos");
+        assertEquals(1, productStatements.size(), "Sentencias sobre productos: " + productStatements);
+        assertEquals(1, SqlStatementCounter.statementsOn("outbox_events").size());
+        assertEquals(2, SqlStatementCounter.statements().size(), "Sentencias: " + SqlStatementCounter.statements());
+    }
+
+    @Test
+    void testCreateIsSingleStatement() throws Exception {
+        mockMvc.perform(post("/api/v1/products")
+                        .with(user("admin").password("pass").roles("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request("NEW-001"))))
+                .andExpect(status().isCreated());
+
+        assertSingleRoundTrip();
+    }
+
+    @Test
+    void testUpdateIsSingleStatementAndKeepsOmittedFields() throws Exception {
+        mockMvc.perform(put("/api/v1/products/" + existing.getId())
+                        .with(user("admin").password("pass").roles("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request("LAP-001"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is("Laptop Actualizada")))
+                // stock, categoryId y active no venían en la petición: se conservan
+                .andExpect(jsonPath("$.stock", is(10)))
+                .andExpect(jsonPath("$.categoryId", is(1)))
+                .andExpect(jsonPath("$.active", is(true)))
+                .andExpect(jsonPath("$.createdAt").exists());
+
+        assertSingleRoundTrip();
+    }
+
+    @Test
+    void testCategoryAndActiveChangeIsSingleStatement() throws Exception {
+        ProductRequestDTO dto = request("LAP-001");
+        dto.setCategoryId(2L);
+        dto.setActive(false);
+
+        mockMvc.perform(put("/api/v1/products/" + existing.getId())
+                        .with(user("admin").password("pass").roles("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.categoryId", is(2)))
+                .andExpect(jsonPath("$.active", is(false)))
+                .andExpect(jsonPath("$.price", is(1500.0)));
+
+        // La categoría y el estado anteriores salen del mismo UPDATE, sin SELECT previo
+        assertSingleRoundTrip();
+        ProductChangedEvent event = applicationEvents.stream(ProductChangedEvent.class).findFirst().orElseThrow();
+        assertEquals(1L, event.getPreviousCategoryId());
+        assertEquals(true, event.getPreviousActive());
+        assertEquals(existing.getVersion() + 1, event.getVersion());
+        assertEquals(existing.getVersion() + 1, productRepository.findById(existing.getId()).orElseThrow().getVersion());
+    }
+
+    @Test
+    void testUpdateMissingIsSingleStatement() throws Exception {
+        mockMvc.perform(put("/api/v1/products/999999")
+                        .with(user("admin").password("pass").roles("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request("PRO-001"))))
+                .andExpect(status().isNotFound());
+
+        assertEquals(1, SqlStatementCounter.statements().size());
+    }
+
+    @Test
+    void testDeleteIsSingleStatement() throws Exception {
+        mockMvc.perform(delete("/api/v1/products/" + existing.getId())
+                        .with(user("admin").password("pass").roles("ADMIN")))
+                .andExpect(status().isNoContent());
+
+        assertSingleRoundTrip();
+        assertEquals(0, productRepository.count());
+    }
+
+    @Test
+    void testDeleteMissingIsSingleStatement() throws Exception {
+        mockMvc.perform(delete("/api/v1/products/999999")
+                        .with(user("admin").password("pass").roles("ADMIN")))
+                .andExpect(status().isNotFound());
+
+        assertEquals(1, SqlStatementCounter.statements().size());
+    }
+}
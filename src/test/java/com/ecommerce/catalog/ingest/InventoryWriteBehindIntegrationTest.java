@@ -0,0 +1,157 @@
+package com.ecommerce.catalog.ingest;
+
+import com.ecommerce.catalog.entity.Product;
+import com.ecommerce.catalog.repository.OutboxEventRepository;
+import com.ecommerce.catalog.repository.ProductRepository;
+import com.ecommerce.catalog.support.SqlStatementCounter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Pruebas de integración de la escritura diferida de inventario. La ventana
+ * programada es de una hora, así que cada prueba llama a flush() cuando toca.
+ */
+@SpringBootTest(properties = {
+        "catalog.write-behind.enabled=true",
+        "catalog.write-behind.flush-interval-ms=3600000",
+        "catalog.write-behind.capacity=2",
+        "catalog.write-behind.offer-timeout-ms=10"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class InventoryWriteBehindIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private InventoryWriteBehind writeBehind;
+
+    private Long laptopId;
+
+    @BeforeEach
+    void setUp() {
+        laptopId = productRepository.save(product("Laptop Pro", "LAP-001")).getId();
+        productRepository.save(product("Camiseta", "CAM-001"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        writeBehind.flush();
+        productRepository.deleteAll();
+        outboxEventRepository.deleteAll();
+    }
+
+    @Test
+    void testUpdatesToSameSkuAreCoalescedIntoOneBatch() throws Exception {
+        // Precarga la caché: la escritura diferida tiene que invalidarla
+        mockMvc.perform(get("/api/v1/products/" + laptopId)).andExpect(jsonPath("$.stock", is(10)));
+        long version = productRepository.findById(laptopId).orElseThrow().getVersion();
+
+        mockMvc.perform(inventory("""
+                [{"sku": "LAP-001", "stock": 5},
+                 {"sku": "LAP-001", "price": 899.99},
+                 {"sku": "LAP-001", "stock": 7},
+                 {"sku": "CAM-001", "stock": 0}]"""))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.accepted", is(4)))
+                .andExpect(jsonPath("$.pending", is(2)));
+        assertEquals(10, productRepository.findById(laptopId).orElseThrow().getStock());
+
+        SqlStatementCounter.reset();
+        assertEquals(2, writeBehind.flush());
+
+        // Los UPDATE van en un lote JDBC; por Hibernate solo pasa la lectura del estado final
+        List<String> statements = SqlStatementCounter.statementsOn("productos");
+        assertEquals(1, statements.size());
+        assertTrue(statements.get(0).contains(" in ("));
+        Product laptop = productRepository.findById(laptopId).orElseThrow();
+        assertEquals(7, laptop.getStock());
+        assertEquals(0, new BigDecimal("899.99").compareTo(laptop.getPrice()));
+        assertEquals(version + 1, laptop.getVersion());
+        mockMvc.perform(get("/api/v1/products/" + laptopId))
+                .andExpect(jsonPath("$.stock", is(7)))
+                .andExpect(jsonPath("$.price", is(899.99)));
+        mockMvc.perform(get("/api/v1/products/sku/CAM-001")).andExpect(jsonPath("$.stock", is(0)));
+    }
+
+    @Test
+    void testFullQueueRejectsNewSkusButStillMerges() throws Exception {
+        mockMvc.perform(inventory("[{\"sku\": \"LAP-001\", \"stock\": 1}, {\"sku\": \"CAM-001\", \"stock\": 2}]"))
+                .andExpect(status().isAccepted());
+
+        mockMvc.perform(inventory("[{\"sku\": \"NEW-001\", \"stock\": 3}]"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+        mockMvc.perform(inventory("[{\"sku\": \"LAP-001\", \"stock\": 4}]"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.pending", is(2)));
+
+        assertEquals(2, writeBehind.flush());
+        assertEquals(4, productRepository.findById(laptopId).orElseThrow().getStock());
+
+        // Tras escribir hay sitio otra vez; el SKU inexistente se descarta al escribir
+        mockMvc.perform(inventory("[{\"sku\": \"NEW-001\", \"stock\": 3}]"))
+                .andExpect(status().isAccepted());
+        assertEquals(1, writeBehind.flush());
+        assertEquals(0, writeBehind.pendingCount());
+    }
+
+    @Test
+    void testInvalidOrUnauthenticatedUpdatesAreRejected() throws Exception {
+        mockMvc.perform(inventory("[{\"sku\": \"LAP-001\"}]"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(inventory("[{\"sku\": \"LAP-001\", \"price\": 123456789.00}]"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(put("/api/v1/products/inventory")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"updates\": [{\"sku\": \"LAP-001\", \"stock\": 1}]}"))
+                .andExpect(status().isUnauthorized());
+
+        assertEquals(0, writeBehind.pendingCount());
+    }
+
+    private static MockHttpServletRequestBuilder inventory(String updates) {
+        return put("/api/v1/products/inventory")
+                .with(user("admin").password("pass").roles("ADMIN"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"updates\": " + updates + "}");
+    }
+
+    private static Product product(String name, String sku) {
+        Product product = new Product();
+        product.setName(name);
+        product.setDescription(name + " descripción");
+        product.setPrice(new BigDecimal("100.00"));
+        product.setStock(10);
+        product.setCategoryId(1L);
+        product.setSku(sku);
+        product.setActive(true);
+        return product;
+    }
+}
@@ -0,0 +1,87 @@
+package com.ecommerce.catalog.ingest;
+
+import com.ecommerce.catalog.dto.InventoryUpdate;
+import com.ecommerce.catalog.mapper.ProductMapper;
+import com.ecommerce.catalog.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias de la fusión y el reintento de InventoryWriteBehind.
+ */
+class InventoryWriteBehindTest {
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final InventoryWriteBehind writeBehind = new InventoryWriteBehind(productRepository,
+            mock(ProductMapper.class), mock(ApplicationEventPublisher.class), inlineTransactions(), meterRegistry,
+            true, 10, 500, 0);
+
+    @Test
+    void testFieldsMergeLastWriterWins() {
+        writeBehind.offer(new InventoryUpdate("SKU-1", 5, null));
+        writeBehind.offer(new InventoryUpdate("SKU-1", null, new BigDecimal("9.99")));
+        writeBehind.offer(new InventoryUpdate("SKU-1", 3, null));
+        writeBehind.offer(new InventoryUpdate("SKU-2", 1, null));
+
+        assertEquals(2, writeBehind.flush());
+
+        assertEquals(List.of(new InventoryUpdate("SKU-1", 3, new BigDecimal("9.99"))),
+                written().stream().filter(u -> u.sku().equals("SKU-1")).toList());
+        assertEquals(2.0, meterRegistry.get("catalog.write-behind.coalescing.ratio").gauge().value());
+    }
+
+    @Test
+    void testFailedBatchIsRequeuedUnderNewerUpdates() {
+        when(productRepository.updateInventory(anyList()))
+                .thenThrow(new QueryTimeoutException("timeout"))
+                .thenReturn(new int[] { 1 });
+        writeBehind.offer(new InventoryUpdate("SKU-1", 5, new BigDecimal("9.99")));
+
+        assertEquals(0, writeBehind.flush());
+        assertEquals(1, writeBehind.pendingCount());
+
+        // Llega una corrección más nueva del stock antes del reintento
+        writeBehind.offer(new InventoryUpdate("SKU-1", 8, null));
+        assertEquals(1, writeBehind.flush());
+
+        List<List<InventoryUpdate>> batches = batches();
+        assertEquals(List.of(new InventoryUpdate("SKU-1", 8, new BigDecimal("9.99"))), batches.get(1));
+        assertEquals(1.0, meterRegistry.get("catalog.write-behind.failed.batches").counter().count());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<InventoryUpdate>> batches() {
+        ArgumentCaptor<List<InventoryUpdate>> captor = ArgumentCaptor.forClass(List.class);
+        verify(productRepository, atLeastOnce()).updateInventory(captor.capture());
+        return captor.getAllValues();
+    }
+
+    private List<InventoryUpdate> written() {
+        return batches().get(0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static TransactionTemplate inlineTransactions() {
+        TransactionTemplate template = mock(TransactionTemplate.class);
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(template).executeWithoutResult(any());
+        return template;
+    }
+}
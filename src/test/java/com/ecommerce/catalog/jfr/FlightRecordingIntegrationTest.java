@@ -0,0 +1,106 @@
+package com.ecommerce.catalog.jfr;
+
+import com.ecommerce.catalog.entity.Product;
+import com.ecommerce.catalog.repository.ProductRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pruebas de integración de la grabación JFR continua: eventos del catálogo y
+ * volcado bajo demanda desde el endpoint de administración.
+ */
+@SpringBootTest(properties = {
+        "catalog.jfr.enabled=true",
+        "catalog.jfr.dump-dir=target/jfr-test"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class FlightRecordingIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 3; i++) {
+            Product product = new Product();
+            product.setName("Producto " + i);
+            product.setDescription("Descripción " + i);
+            product.setPrice(new BigDecimal("10.00"));
+            product.setStock(5);
+            product.setSku("JFR-00" + i);
+            product.setActive(true);
+            productRepository.save(product);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void testDumpContainsServiceAndSqlEvents() throws Exception {
+        mockMvc.perform(get("/api/v1/products").param("size", "2").param("keyword", "Producto"))
+                .andExpect(status().isOk());
+
+        String body = mockMvc.perform(post("/api/v1/admin/flight-recordings").param("minutes", "1")
+                        .with(user("admin").password("pass").roles("ADMIN")))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+
+        JsonNode dump = objectMapper.readTree(body);
+        Path file = Path.of(dump.get("file").asText());
+        assertTrue(Files.exists(file));
+        assertEquals(Files.size(file), dump.get("sizeBytes").asLong());
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        assertTrue(events.stream().anyMatch(e -> e.getEventType().getName().equals(ProductServiceEvent.NAME)
+                && "searchProducts".equals(e.getString("operation"))
+                && "search".equals(e.getString("mode"))
+                && e.getInt("pageSize") == 2
+                && e.getInt("rows") == 2
+                && e.getLong("totalRows") == 3));
+        assertTrue(events.stream().anyMatch(e -> e.getEventType().getName().equals(SqlStatementEvent.NAME)
+                && e.getString("sql") != null
+                && e.getString("sql").toLowerCase().contains("from productos")));
+    }
+
+    @Test
+    void testDumpRequiresAdmin() throws Exception {
+        mockMvc.perform(post("/api/v1/admin/flight-recordings"))
+                .andExpect(status().isUnauthorized());
+
+        mockMvc.perform(post("/api/v1/admin/flight-recordings")
+                        .with(user("viewer").password("pass").roles("USER")))
+                .andExpect(status().isForbidden());
+    }
+}
@@ -0,0 +1,93 @@
+package com.ecommerce.catalog.outbox;
+
+import com.ecommerce.catalog.dto.ProductRequestDTO;
+import com.ecommerce.catalog.entity.OutboxEvent;
+import com.ecommerce.catalog.repository.OutboxEventRepository;
+import com.ecommerce.catalog.repository.ProductRepository;
+import com.ecommerce.catalog.service.ProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de integración del outbox transaccional.
+ * El relay automático está desactivado en el perfil test; se invoca a mano.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class OutboxRelayIntegrationTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private InMemoryOutboxPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+        outboxEventRepository.deleteAll();
+        publisher.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+        outboxEventRepository.deleteAll();
+    }
+
+    private ProductRequestDTO request(String sku) {
+        ProductRequestDTO dto = new ProductRequestDTO();
+        dto.setName("Producto " + sku);
+        dto.setDescription("Descripción");
+        dto.setPrice(BigDecimal.valueOf(10.0));
+        dto.setStock(5);
+        dto.setSku(sku);
+        return dto;
+    }
+
+    @Test
+    void testWritesAreRecordedInOutboxAndRelayed() {
+        Long id = productService.createProduct(request("OUT-001")).getId();
+        productService.updateProduct(id, request("OUT-001"));
+        productService.deleteProduct(id);
+
+        assertEquals(3, outboxEventRepository.count());
+
+        int relayed = outboxRelay.relayPending();
+
+        assertEquals(3, relayed);
+        assertEquals(0, outboxEventRepository.count());
+        assertEquals(0, outboxRelay.getPendingEvents());
+        List<String> types = publisher.getPublished().stream().map(OutboxEvent::getEventType).toList();
+        assertEquals(List.of("CREATED", "UPDATED", "DELETED"), types);
+    }
+
+    @Test
+    void testFailedWriteLeavesNoOutboxEvent() {
+        productService.createProduct(request("OUT-DUP"));
+
+        assertThrows(DataIntegrityViolationException.class, () -> productService.createProduct(request("OUT-DUP")));
+
+        // Solo el primer alta llegó al outbox: el evento del alta fallida se revirtió con ella
+        assertEquals(1, outboxEventRepository.count());
+    }
+}
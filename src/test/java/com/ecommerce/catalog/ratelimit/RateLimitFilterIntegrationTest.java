@@ -0,0 +1,42 @@
+package com.ecommerce.catalog.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Pruebas de integración del rate limiting con límites pequeños.
+ */
+@SpringBootTest(properties = {
+        "catalog.ratelimit.enabled=true",
+        "catalog.ratelimit.search.capacity=2",
+        "catalog.ratelimit.search.refill-per-second=0.1"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class RateLimitFilterIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void testSearchOverLimitReturns429WithRetryAfter() throws Exception {
+        mockMvc.perform(get("/api/v1/products?keyword=laptop")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/products?keyword=laptop")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/products?keyword=laptop"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "10"))
+                .andExpect(jsonPath("$.error", is("Demasiadas peticiones")));
+
+        // Las lecturas por id tienen su propio bucket
+        mockMvc.perform(get("/api/v1/products/999")).andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,74 @@
+package com.ecommerce.catalog.ratelimit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para RateLimiter con un reloj controlado.
+ */
+class RateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private RateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        rateLimiter = new RateLimiter(Map.of(
+                RouteClass.SEARCH, new RateLimiter.Limit(3, 1.0),
+                RouteClass.LIST, new RateLimiter.Limit(10, 10.0),
+                RouteClass.BY_ID, new RateLimiter.Limit(10, 10.0),
+                RouteClass.WRITE, new RateLimiter.Limit(2, 1.0)), 2, clock::get);
+    }
+
+    @Test
+    void testBurstUpToCapacityThenRejects() {
+        assertEquals(0, rateLimiter.tryAcquire("ip:1", RouteClass.SEARCH));
+        assertEquals(0, rateLimiter.tryAcquire("ip:1", RouteClass.SEARCH));
+        assertEquals(0, rateLimiter.tryAcquire("ip:1", RouteClass.SEARCH));
+
+        long wait = rateLimiter.tryAcquire("ip:1", RouteClass.SEARCH);
+        assertTrue(wait > 0);
+        assertTrue(wait <= TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Test
+    void testTokensRefillOverTime() {
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.tryAcquire("ip:1", RouteClass.SEARCH);
+        }
+        assertTrue(rateLimiter.tryAcquire("ip:1", RouteClass.SEARCH) > 0);
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        assertEquals(0, rateLimiter.tryAcquire("ip:1", RouteClass.SEARCH));
+    }
+
+    @Test
+    void testRouteClassesAndClientsHaveSeparateBuckets() {
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.tryAcquire("ip:1", RouteClass.SEARCH);
+        }
+        assertTrue(rateLimiter.tryAcquire("ip:1", RouteClass.SEARCH) > 0);
+
+        assertEquals(0, rateLimiter.tryAcquire("ip:1", RouteClass.WRITE));
+        assertEquals(0, rateLimiter.tryAcquire("ip:2", RouteClass.SEARCH));
+    }
+
+    @Test
+    void testIdleBucketsAreEvictedToBoundMemory() {
+        rateLimiter.tryAcquire("ip:1", RouteClass.SEARCH);
+        rateLimiter.tryAcquire("ip:2", RouteClass.SEARCH);
+        assertEquals(2, rateLimiter.size());
+
+        // Tras recargarse del todo, un nuevo cliente desplaza a los inactivos
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        assertEquals(0, rateLimiter.tryAcquire("ip:3", RouteClass.SEARCH));
+        assertEquals(1, rateLimiter.size());
+    }
+}
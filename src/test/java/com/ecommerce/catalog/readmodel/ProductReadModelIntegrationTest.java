@@ -0,0 +1,228 @@
+package com.ecommerce.catalog.readmodel;
+
+import com.ecommerce.catalog.dto.ProductRequestDTO;
+import com.ecommerce.catalog.entity.Product;
+import com.ecommerce.catalog.entity.ProductListing;
+import com.ecommerce.catalog.repository.OutboxEventRepository;
+import com.ecommerce.catalog.repository.ProductListingRepository;
+import com.ecommerce.catalog.repository.ProductRepository;
+import com.ecommerce.catalog.support.SqlStatementCounter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Pruebas de integración del modelo de lectura: los listados salen de
+ * productos_listado y cada escritura del servicio lo mantiene al día.
+ */
+@SpringBootTest(properties = "catalog.read-model.enabled=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ProductReadModelIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductListingRepository listingRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ProductReadModel readModel;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Long laptopId;
+
+    @BeforeEach
+    void setUp() {
+        // Guardados sin pasar por el servicio: hace falta reconstruir
+        laptopId = productRepository.save(product("Laptop Pro", 1L, "LAP-001", true)).getId();
+        productRepository.save(product("Café de Colombia", 2L, "CAF-001", true));
+        productRepository.save(product("Laptop Antigua", 1L, "LAP-000", false));
+        readModel.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+        listingRepository.deleteAllInBatch();
+        outboxEventRepository.deleteAll();
+    }
+
+    @Test
+    void testListingsReadFromReadModelWithActiveProductsOnly() throws Exception {
+        SqlStatementCounter.reset();
+
+        mockMvc.perform(get("/api/v1/products"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements", is(2)));
+        mockMvc.perform(get("/api/v1/products/category/1"))
+                .andExpect(jsonPath("$.totalElements", is(1)))
+                .andExpect(jsonPath("$.content[0].name", is("Laptop Pro")))
+                .andExpect(jsonPath("$.content[0].active", is(true)));
+
+        assertTrue(SqlStatementCounter.statementsOn("productos ").isEmpty());
+        assertFalse(SqlStatementCounter.statementsOn("productos_listado").isEmpty());
+    }
+
+    @Test
+    void testSparseFieldsListingReadsFromReadModel() throws Exception {
+        SqlStatementCounter.reset();
+
+        mockMvc.perform(get("/api/v1/products").param("fields", "name,price").param("sort", "name"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements", is(2)))
+                .andExpect(jsonPath("$.content[0].name", is("Café de Colombia")))
+                .andExpect(jsonPath("$.content[0].price", is(100.0)))
+                .andExpect(jsonPath("$.content[0].description").doesNotExist());
+        mockMvc.perform(get("/api/v1/products").param("keyword", " cafe ").param("fields", "id,sku"))
+                .andExpect(jsonPath("$.totalElements", is(1)))
+                .andExpect(jsonPath("$.content[0].sku", is("CAF-001")));
+
+        assertTrue(SqlStatementCounter.statementsOn("productos ").isEmpty());
+        assertFalse(SqlStatementCounter.statementsOn("productos_listado").isEmpty());
+    }
+
+    @Test
+    void testFieldsAndSortsNotInListingReadFromProducts() throws Exception {
+        SqlStatementCounter.reset();
+
+        // La fila del listado no guarda descripción ni fechas
+        mockMvc.perform(get("/api/v1/products").param("fields", "name,description"))
+                .andExpect(jsonPath("$.totalElements", is(3)))
+                .andExpect(jsonPath("$.content[0].description").exists());
+        mockMvc.perform(get("/api/v1/products").param("sort", "createdAt,desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements", is(3)))
+                .andExpect(jsonPath("$.content[0].createdAt").exists());
+
+        assertTrue(SqlStatementCounter.statementsOn("productos_listado").isEmpty());
+    }
+
+    @Test
+    void testSearchIgnoresAccents() throws Exception {
+        mockMvc.perform(get("/api/v1/products").param("keyword", "cafe"))
+                .andExpect(jsonPath("$.totalElements", is(1)))
+                .andExpect(jsonPath("$.content[0].name", is("Café de Colombia")));
+        mockMvc.perform(get("/api/v1/products").param("keyword", "COLOMBIA"))
+                .andExpect(jsonPath("$.totalElements", is(1)));
+        // Los comodines de LIKE se buscan literalmente
+        mockMvc.perform(get("/api/v1/products").param("keyword", "%"))
+                .andExpect(jsonPath("$.totalElements", is(0)));
+    }
+
+    @Test
+    void testWritesKeepReadModelInSync() throws Exception {
+        ProductRequestDTO request = request("Laptop Gamer", 1L, "LAP-002");
+        mockMvc.perform(post("/api/v1/products")
+                .with(user("admin").password("pass").roles("ADMIN"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+        mockMvc.perform(get("/api/v1/products/category/1"))
+                .andExpect(jsonPath("$.totalElements", is(2)));
+
+        // Cambio de categoría: la fila se actualiza en su sitio
+        mockMvc.perform(put("/api/v1/products/" + laptopId)
+                .with(user("admin").password("pass").roles("ADMIN"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request("Laptop Pro", 3L, "LAP-001"))))
+                .andExpect(status().isOk());
+        assertEquals(3L, listingRepository.findById(laptopId).orElseThrow().getCategoryId());
+
+        mockMvc.perform(delete("/api/v1/products/" + laptopId)
+                .with(user("admin").password("pass").roles("ADMIN")))
+                .andExpect(status().isNoContent());
+        assertFalse(listingRepository.existsById(laptopId));
+        mockMvc.perform(get("/api/v1/products"))
+                .andExpect(jsonPath("$.totalElements", is(2)));
+    }
+
+    @Test
+    void testOlderVersionDoesNotOverwriteListing() {
+        ProductListing current = listingRepository.findById(laptopId).orElseThrow();
+        ProductListing newer = copy(current, "Laptop Pro 2", current.getVersion() + 1);
+        ProductListing older = copy(current, "Laptop Vieja", current.getVersion());
+
+        transactionTemplate.executeWithoutResult(status -> listingRepository.upsert(List.of(newer)));
+        transactionTemplate.executeWithoutResult(status -> listingRepository.upsert(List.of(older)));
+
+        ProductListing stored = listingRepository.findById(laptopId).orElseThrow();
+        assertEquals("Laptop Pro 2", stored.getName());
+        assertEquals(newer.getVersion(), stored.getVersion());
+    }
+
+    @Test
+    void testRebuildEndpointRequiresAdmin() throws Exception {
+        // Fila de un producto que ya no existe: la reconstrucción la quita
+        productRepository.deleteById(laptopId);
+
+        mockMvc.perform(post("/api/v1/admin/read-model/rebuild"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/api/v1/admin/read-model/rebuild")
+                .with(user("user").password("pass").roles("USER")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/v1/admin/read-model/rebuild")
+                .with(user("admin").password("pass").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rows", is(1)));
+
+        assertEquals(1, listingRepository.count());
+    }
+
+    private static ProductRequestDTO request(String name, Long categoryId, String sku) {
+        ProductRequestDTO request = new ProductRequestDTO();
+        request.setName(name);
+        request.setDescription(name + " descripción");
+        request.setPrice(BigDecimal.valueOf(1500));
+        request.setCategoryId(categoryId);
+        request.setSku(sku);
+        return request;
+    }
+
+    private static Product product(String name, Long categoryId, String sku, boolean active) {
+        Product product = new Product();
+        product.setName(name);
+        product.setDescription(name + " descripción");
+        product.setPrice(new BigDecimal("100.00"));
+        product.setStock(10);
+        product.setCategoryId(categoryId);
+        product.setSku(sku);
+        product.setActive(active);
+        return product;
+    }
+
+    private static ProductListing copy(ProductListing source, String name, long version) {
+        return new ProductListing(source.getId(), name, source.getPrice(), source.getStock(),
+                source.getCategoryId(), source.getSku(), source.getSearchText(), version);
+    }
+}
@@ -0,0 +1,164 @@
+package com.ecommerce.catalog.repository;
+
+import com.ecommerce.catalog.dto.ProductFields;
+import com.ecommerce.catalog.dto.ProductFilter;
+import com.ecommerce.catalog.dto.ProductQuery;
+import com.ecommerce.catalog.service.SortPolicy;
+import com.ecommerce.catalog.support.SqlStatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Comprueba contra un Postgres real que cada ordenación permitida por
+ * SortPolicy se resuelve con un Index Scan (sin nodo Sort) en las consultas
+ * que llegan de verdad a la base de datos: se ejecuta el método del
+ * repositorio, se toma el SQL que genera Hibernate (SqlStatementCounter) y
+ * se hace EXPLAIN con los parámetros sustituidos por literales. El esquema
+ * lo genera Hibernate a partir de la entidad, así que también verifica que
+ * los índices declarados en Product existen.
+ *
+ * Fuera quedan la búsqueda por texto y los filtros con varias categorías:
+ * ningún índice da ese orden y el plan depende de cuántas filas coincidan
+ * (ver SortPolicy).
+ *
+ * Necesita Docker; sin él la clase se omite.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class SortIndexPlanTest {
+
+    private static final int ROWS = 50_000;
+    private static final int PAGE_SIZE = 20;
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.datasource.driverClassName", POSTGRES::getDriverClassName);
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("""
+                INSERT INTO productos (name, description, price, stock, category_id, sku, active, created_at, updated_at)
+                SELECT 'Producto ' || g, repeat('descripción ', 50), (g % 5000) + 0.99, g % 100, g % 20,
+                       'SKU-' || g, g % 10 <> 0,
+                       now() - make_interval(secs => g), now() - make_interval(secs => g / 2)
+                FROM generate_series(1, ?) AS g
+                """, ROWS);
+        jdbcTemplate.execute("ANALYZE productos");
+    }
+
+    @Test
+    void testUnfilteredListingUsesAnIndexScan() {
+        assertEveryAllowedSortUsesAnIndex("findAll", pageable -> productRepository.findAll(pageable));
+    }
+
+    @Test
+    void testCategoryListingUsesCompositeIndex() {
+        assertEveryAllowedSortUsesAnIndex("findByCategoryId",
+                pageable -> productRepository.findByCategoryId(3L, pageable), "3");
+    }
+
+    @Test
+    void testProjectedCategoryListingUsesCompositeIndex() {
+        assertEveryAllowedSortUsesAnIndex("findProjected", pageable -> productRepository.findProjected(
+                new ProductQuery.ByCategory(3L), ProductFields.parse("id,name,price"), pageable), "3");
+    }
+
+    @Test
+    void testSingleCategoryFilterUsesCompositeIndex() {
+        // Parámetros: inStock (tres veces), anyCategory, categoryIds
+        assertEveryAllowedSortUsesAnIndex("findActiveFiltered single category",
+                pageable -> productRepository.findActiveFiltered(null, false, List.of(3L), pageable),
+                "cast(null as boolean)", "cast(null as boolean)", "cast(null as boolean)", "false", "3");
+    }
+
+    @Test
+    void testInStockFilterUsesAnIndexScan() {
+        assertEveryAllowedSortUsesAnIndex("findActiveFiltered inStock",
+                pageable -> productRepository.findActiveFiltered(true, true, List.of(-1L), pageable),
+                "true", "true", "true", "true", "-1");
+    }
+
+    @Test
+    void testUnindexedSortNeedsAFullSort() {
+        // Control: sin índice, Postgres recorre la tabla y ordena
+        String plan = explain(sqlOf(pageable -> productRepository.findAll(pageable),
+                PageRequest.of(1, PAGE_SIZE, Sort.by("description").descending())));
+        assertTrue(plan.contains("Sort Key"), plan);
+    }
+
+    private void assertEveryAllowedSortUsesAnIndex(String query, Consumer<Pageable> execute,
+            String... parameters) {
+        for (String property : SortPolicy.indexedColumns().keySet()) {
+            for (Sort.Direction direction : Sort.Direction.values()) {
+                // Página 1 de 20: OFFSET y LIMIT valen lo mismo, da igual en qué orden los pinte el dialecto
+                Pageable pageable = PageRequest.of(1, PAGE_SIZE, Sort.by(direction, property));
+                String plan = explain(sqlOf(execute, pageable), parameters);
+                String context = query + " sort=" + property + "," + direction;
+                assertTrue(plan.contains("Index Scan") || plan.contains("Index Only Scan"),
+                        context + " no usa un índice:\n" + plan);
+                assertFalse(plan.contains("Sort Key"), context + " ordena en memoria:\n" + plan);
+            }
+        }
+    }
+
+    // SQL de la consulta paginada (la del count no lleva ORDER BY)
+    private static String sqlOf(Consumer<Pageable> execute, Pageable pageable) {
+        SqlStatementCounter.reset();
+        execute.accept(pageable);
+        return SqlStatementCounter.statementsOn("productos").stream()
+                .filter(sql -> sql.toLowerCase(Locale.ROOT).contains("order by"))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("Sin consulta con ORDER BY: "
+                        + SqlStatementCounter.statements()));
+    }
+
+    // Sustituye los ? en orden por los literales de la consulta y después OFFSET y LIMIT
+    private String explain(String sql, String... parameters) {
+        String[] parts = sql.split("\\?", -1);
+        assertEquals(parameters.length + 3, parts.length, "Parámetros inesperados en:\n" + sql);
+        StringBuilder inlined = new StringBuilder(parts[0]);
+        for (int i = 1; i < parts.length; i++) {
+            inlined.append(i <= parameters.length ? parameters[i - 1] : String.valueOf(PAGE_SIZE)).append(parts[i]);
+        }
+        List<String> lines = jdbcTemplate.queryForList("EXPLAIN " + inlined, String.class);
+        return String.join("\n", lines);
+    }
+}
@@ -0,0 +1,128 @@
+package com.ecommerce.catalog.resilience;
+
+import com.ecommerce.catalog.dto.ProductQuery;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias de la clave de CoalescingAspect: las búsquedas que dan el
+ * mismo resultado comparten ejecución aunque el texto difiera en mayúsculas
+ * o espacios; los SKU no se normalizan.
+ */
+class CoalescingAspectTest {
+
+    /**
+     * Servicio de prueba: cada llamada espera a release, así las concurrentes
+     * coinciden en vuelo.
+     */
+    static class SlowCatalog {
+        final AtomicInteger executions = new AtomicInteger();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @Coalesced(searchKeyword = true)
+        public String search(String keyword) {
+            return run(keyword);
+        }
+
+        @Coalesced
+        public String query(ProductQuery query) {
+            return run(query.toString());
+        }
+
+        @Coalesced
+        public String bySku(String sku) {
+            return run(sku);
+        }
+
+        private String run(String value) {
+            executions.incrementAndGet();
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return value;
+        }
+    }
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SlowCatalog target = new SlowCatalog();
+    private final SlowCatalog catalog = proxy(target);
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testSearchKeywordsDifferingInCaseAndSpacesShareOneExecution() throws Exception {
+        List<Future<String>> calls = concurrently(() -> catalog.search("Laptop"),
+                () -> catalog.search("laptop "), () -> catalog.search("  LAPTOP"));
+
+        for (Future<String> call : calls) {
+            assertEquals("Laptop", call.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, target.executions.get());
+        assertEquals(2.0, meterRegistry.get("catalog.coalescing.requests")
+                .tags("operation", "search", "result", "coalesced").counter().count());
+    }
+
+    @Test
+    void testProductQuerySearchIsNormalized() throws Exception {
+        List<Future<String>> calls = concurrently(() -> catalog.query(new ProductQuery.Search("Cámara")),
+                () -> catalog.query(new ProductQuery.Search("cámara ")));
+
+        for (Future<String> call : calls) {
+            call.get(5, TimeUnit.SECONDS);
+        }
+        assertEquals(1, target.executions.get());
+    }
+
+    @Test
+    void testOtherStringArgumentsAreNotNormalized() throws Exception {
+        List<Future<String>> calls = concurrently(() -> catalog.bySku("abc-1"), () -> catalog.bySku("ABC-1"));
+
+        assertEquals("abc-1", calls.get(0).get(5, TimeUnit.SECONDS));
+        assertEquals("ABC-1", calls.get(1).get(5, TimeUnit.SECONDS));
+        assertEquals(2, target.executions.get());
+    }
+
+    // La primera llamada queda en vuelo antes de lanzar el resto
+    @SafeVarargs
+    private List<Future<String>> concurrently(Callable<String>... callables)
+            throws Exception {
+        List<Future<String>> calls = new ArrayList<>();
+        calls.add(executor.submit(callables[0]));
+        assertTrue(target.started.await(5, TimeUnit.SECONDS));
+        for (int i = 1; i < callables.length; i++) {
+            calls.add(executor.submit(callables[i]));
+        }
+        Thread.sleep(100);
+        target.release.countDown();
+        return calls;
+    }
+
+    private SlowCatalog proxy(SlowCatalog target) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new CoalescingAspect(meterRegistry, true, 5000));
+        return factory.getProxy();
+    }
+}
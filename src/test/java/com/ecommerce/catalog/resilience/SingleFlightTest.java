@@ -0,0 +1,124 @@
+package com.ecommerce.catalog.resilience;
+
+import com.ecommerce.catalog.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para SingleFlight.
+ */
+class SingleFlightTest {
+
+    private static final long TIMEOUT = TimeUnit.SECONDS.toNanos(5);
+
+    private final SingleFlight<String> singleFlight = new SingleFlight<>();
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testConcurrentCallsShareOneExecution() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<SingleFlight.Result<String>> leader = executor.submit(() -> singleFlight.execute("id:1", TIMEOUT,
+                () -> {
+                    executions.incrementAndGet();
+                    await(release);
+                    return "producto";
+                }));
+        waitUntilInFlight();
+
+        List<Future<SingleFlight.Result<String>>> followers = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            followers.add(executor.submit(() -> singleFlight.<String>execute("id:1", TIMEOUT, () -> {
+                executions.incrementAndGet();
+                return "otro";
+            })));
+        }
+        Thread.sleep(50);
+        release.countDown();
+
+        assertFalse(leader.get(5, TimeUnit.SECONDS).coalesced());
+        for (Future<SingleFlight.Result<String>> follower : followers) {
+            SingleFlight.Result<String> result = follower.get(5, TimeUnit.SECONDS);
+            assertEquals("producto", result.value());
+            assertTrue(result.coalesced());
+        }
+        assertEquals(1, executions.get());
+        assertEquals(0, singleFlight.inFlightCount());
+    }
+
+    @Test
+    void testFailureIsPropagatedToFollowers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> leader = executor.submit(() -> singleFlight.execute("id:9", TIMEOUT, () -> {
+            await(release);
+            throw new ResourceNotFoundException("Producto no encontrado con id: 9");
+        }));
+        waitUntilInFlight();
+
+        Future<?> follower = executor.submit(() -> singleFlight.execute("id:9", TIMEOUT, () -> "no debería ejecutarse"));
+        Thread.sleep(50);
+        release.countDown();
+
+        Exception leaderError = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+        Exception followerError = assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(ResourceNotFoundException.class, leaderError.getCause());
+        assertInstanceOf(ResourceNotFoundException.class, followerError.getCause());
+
+        // Tras el fallo la clave queda libre y la siguiente llamada vuelve a ejecutar
+        assertEquals("ok", singleFlight.execute("id:9", TIMEOUT, () -> "ok").value());
+    }
+
+    @Test
+    void testFollowerTimesOut() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        executor.submit(() -> singleFlight.execute("slow", TIMEOUT, () -> {
+            await(release);
+            return "tarde";
+        }));
+        waitUntilInFlight();
+
+        assertThrows(TimeoutException.class,
+                () -> singleFlight.execute("slow", TimeUnit.MILLISECONDS.toNanos(20), () -> "x"));
+        release.countDown();
+    }
+
+    @Test
+    void testDifferentKeysRunIndependently() throws Exception {
+        assertEquals("a", singleFlight.execute("a", TIMEOUT, () -> "a").value());
+        assertEquals("b", singleFlight.execute("b", TIMEOUT, () -> "b").value());
+        assertEquals(0, singleFlight.inFlightCount());
+    }
+
+    private void waitUntilInFlight() throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT;
+        while (singleFlight.inFlightCount() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,28 +1,46 @@
 package com.ecommerce.catalog.service;
 
+import com.ecommerce.catalog.cache.NoOpProductCache;
+import com.ecommerce.catalog.cache.ProductCache;
+import com.ecommerce.catalog.cache.ProductExistenceIndex;
+import com.ecommerce.catalog.cache.SearchResultCache;
+import com.ecommerce.catalog.cache.SkuIndex;
+import com.ecommerce.catalog.dto.CategoryMembership;
+import com.ecommerce.catalog.dto.ProductFilter;
 import com.ecommerce.catalog.dto.ProductRequestDTO;
 import com.ecommerce.catalog.dto.ProductResponseDTO;
 import com.ecommerce.catalog.entity.Product;
+import com.ecommerce.catalog.event.ProductChangedEvent;
+import com.ecommerce.catalog.exception.InvalidSortException;
 import com.ecommerce.catalog.exception.ResourceNotFoundException;
 import com.ecommerce.catalog.mapper.ProductMapper;
+import com.ecommerce.catalog.readmodel.ProductReadModel;
 import com.ecommerce.catalog.repository.ProductRepository;
+import com.ecommerce.catalog.repository.ProductRepositoryCustom.UpdatedProduct;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -38,6 +56,30 @@ class ProductServiceImplTest {
     @Mock
     private ProductMapper productMapper;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private SortPolicy sortPolicy = new SortPolicy();
+
+    @Spy
+    private ProductCache productCache = new NoOpProductCache();
+
+    @Spy
+    private SearchResultCache searchResultCache = new SearchResultCache(null, null, new SimpleMeterRegistry(),
+            false, 1, 1);
+
+    @Spy
+    private ProductExistenceIndex existenceIndex = new ProductExistenceIndex(null, new SimpleMeterRegistry(),
+            false, 1);
+
+    @Spy
+    private SkuIndex skuIndex = new SkuIndex(null, 1);
+
+    @Spy
+    private ProductReadModel readModel = new ProductReadModel(null, null, null, null, new SimpleMeterRegistry(),
+            false, 1);
+
     @InjectMocks
     private ProductServiceImpl productService;
 
@@ -123,6 +165,18 @@ class ProductServiceImplTest {
         verify(productMapper, never()).toResponseDTO(any());
     }
 
+    @Test
+    void testGetProductByIdRejectedByExistenceIndex() {
+        doReturn(false).when(existenceIndex).mightExist(999L);
+
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> {
+            productService.getProductById(999L);
+        });
+
+        assertEquals(0, exception.getStackTrace().length);
+        verifyNoInteractions(productRepository);
+    }
+
     // ========================================
     // Tests para getAllProducts
     // ========================================
@@ -155,6 +209,22 @@ class ProductServiceImplTest {
         verify(productMapper, never()).toResponseDTO(any());
     }
 
+    @Test
+    void testGetAllProductsRejectsUnindexedSort() {
+        PageRequest byDescription = PageRequest.of(0, 10, Sort.by("description"));
+
+        assertThrows(InvalidSortException.class, () -> productService.getAllProducts(byDescription));
+        verify(productRepository, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    void testGetAllProductsRejectsMultiPropertySort() {
+        PageRequest twoKeys = PageRequest.of(0, 10, Sort.by("price", "name"));
+
+        assertThrows(InvalidSortException.class, () -> productService.getAllProducts(twoKeys));
+        verify(productRepository, never()).findAll(any(Pageable.class));
+    }
+
     // ========================================
     // Tests para searchProducts
     // ========================================
@@ -211,6 +281,34 @@ class ProductServiceImplTest {
                 .findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCase("NoExiste", "NoExiste", pageable);
     }
 
+    // ========================================
+    // Tests para filterProducts
+    // ========================================
+
+    @Test
+    void testFilterProductsByCategoriesAndStock() {
+        ProductFilter filter = new ProductFilter(Set.of(1L, 2L), true);
+        when(productRepository.findActiveFiltered(true, false, Set.of(1L, 2L), pageable))
+                .thenReturn(new PageImpl<>(Arrays.asList(product1)));
+        when(productMapper.toResponseDTO(product1)).thenReturn(productResponseDTO);
+
+        Page<ProductResponseDTO> result = productService.filterProducts(filter, pageable);
+
+        assertEquals(1, result.getTotalElements());
+        verify(productRepository, times(1)).findActiveFiltered(true, false, Set.of(1L, 2L), pageable);
+    }
+
+    @Test
+    void testFilterProductsWithoutCategoriesSkipsInList() {
+        when(productRepository.findActiveFiltered(eq(false), eq(true), any(), eq(pageable)))
+                .thenReturn(new PageImpl<>(Collections.emptyList()));
+
+        Page<ProductResponseDTO> result = productService.filterProducts(new ProductFilter(null, false), pageable);
+
+        assertTrue(result.isEmpty());
+        verify(productRepository, times(1)).findActiveFiltered(eq(false), eq(true), any(), eq(pageable));
+    }
+
     // ========================================
     // Tests para createProduct
     // ========================================
@@ -229,6 +327,7 @@ class ProductServiceImplTest {
         verify(productMapper, times(1)).toEntity(productRequestDTO);
         verify(productRepository, times(1)).save(product1);
         verify(productMapper, times(1)).toResponseDTO(product1);
+        verify(eventPublisher, times(1)).publishEvent(any(ProductChangedEvent.class));
     }
 
     // ========================================
@@ -262,9 +361,9 @@ class ProductServiceImplTest {
         updatedResponseDTO.setSku("LAP-001");
         updatedResponseDTO.setActive(true);
 
-        when(productRepository.findById(1L)).thenReturn(Optional.of(product1));
-        doNothing().when(productMapper).updateEntityFromDTO(updateDTO, product1);
-        when(productRepository.save(product1)).thenReturn(updatedProduct);
+        when(productRepository.updateReturning(1L, "Laptop Actualizada", "Laptop Core i9",
+                BigDecimal.valueOf(1500.0), 15, null, "LAP-001", null))
+                .thenReturn(Optional.of(new UpdatedProduct(updatedProduct, new CategoryMembership(null, true))));
         when(productMapper.toResponseDTO(updatedProduct)).thenReturn(updatedResponseDTO);
 
         ProductResponseDTO result = productService.updateProduct(1L, updateDTO);
@@ -272,9 +371,10 @@ class ProductServiceImplTest {
         assertNotNull(result);
         assertEquals("Laptop Actualizada", result.getName());
         assertEquals(BigDecimal.valueOf(1500.0), result.getPrice());
-        verify(productRepository, times(1)).findById(1L);
-        verify(productMapper, times(1)).updateEntityFromDTO(updateDTO, product1);
-        verify(productRepository, times(1)).save(product1);
+        // Un solo UPDATE: ni lectura previa ni save()
+        verify(productRepository, never()).findById(any());
+        verify(productRepository, never()).save(any());
+        verify(eventPublisher, times(1)).publishEvent(any(ProductChangedEvent.class));
     }
 
     @Test
@@ -284,16 +384,16 @@ class ProductServiceImplTest {
         updateDTO.setDescription("Descripción");
         updateDTO.setPrice(BigDecimal.valueOf(100.0));
 
-        when(productRepository.findById(999L)).thenReturn(Optional.empty());
+        when(productRepository.updateReturning(eq(999L), any(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(Optional.empty());
 
         ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> {
             productService.updateProduct(999L, updateDTO);
         });
 
         assertTrue(exception.getMessage().contains("999"));
-        verify(productRepository, times(1)).findById(999L);
-        verify(productMapper, never()).updateEntityFromDTO(any(), any());
-        verify(productRepository, never()).save(any());
+        verify(productMapper, never()).toResponseDTO(any());
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     // ========================================
@@ -302,25 +402,26 @@ class ProductServiceImplTest {
 
     @Test
     void testDeleteProductSuccess() {
-        when(productRepository.existsById(1L)).thenReturn(true);
-        doNothing().when(productRepository).deleteById(1L);
+        when(productRepository.deleteReturning(1L)).thenReturn(Optional.of(product1));
 
         assertDoesNotThrow(() -> productService.deleteProduct(1L));
 
-        verify(productRepository, times(1)).existsById(1L);
-        verify(productRepository, times(1)).deleteById(1L);
+        // Un solo DELETE: sin existsById previo
+        verify(productRepository, times(1)).deleteReturning(1L);
+        verify(productRepository, never()).existsById(any());
+        verify(eventPublisher, times(1)).publishEvent(any(ProductChangedEvent.class));
     }
 
     @Test
     void testDeleteProductNotFound() {
-        when(productRepository.existsById(999L)).thenReturn(false);
+        when(productRepository.deleteReturning(999L)).thenReturn(Optional.empty());
 
         ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> {
             productService.deleteProduct(999L);
         });
 
         assertTrue(exception.getMessage().contains("999"));
-        verify(productRepository, times(1)).existsById(999L);
-        verify(productRepository, never()).deleteById(any());
+        verify(productRepository, times(1)).deleteReturning(999L);
+        verify(eventPublisher, never()).publishEvent(any());
     }
 }
\ No newline at end of file
@@ -0,0 +1,116 @@
+package com.ecommerce.catalog.snapshot;
+
+import com.ecommerce.catalog.dto.ProductResponseDTO;
+import com.ecommerce.catalog.entity.Product;
+import com.ecommerce.catalog.event.ProductChangedEvent;
+import com.ecommerce.catalog.event.ProductChangedEvent.ChangeType;
+import com.ecommerce.catalog.mapper.ProductMapper;
+import com.ecommerce.catalog.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pruebas unitarias de CatalogSnapshotHolder: orden de los cambios por versión
+ * de fila y aplicación en el hilo de fondo.
+ */
+class CatalogSnapshotHolderTest {
+
+    private static final LocalDateTime SAME_MILLISECOND = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final ProductMapper productMapper = new ProductMapper();
+    private final CatalogSnapshotHolder holder = new CatalogSnapshotHolder(productRepository, productMapper,
+            new SimpleMeterRegistry(), false, 100, 5_000);
+
+    @BeforeEach
+    void setUp() {
+        Product product = new Product();
+        product.setId(1L);
+        product.setName("Laptop");
+        product.setPrice(new BigDecimal("1000.00"));
+        product.setStock(5);
+        product.setCategoryId(1L);
+        product.setSku("LAP-001");
+        product.setActive(true);
+        product.setUpdatedAt(SAME_MILLISECOND);
+        product.setVersion(5L);
+        when(productRepository.count()).thenReturn(1L);
+        when(productRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(product));
+        holder.reload();
+    }
+
+    @AfterEach
+    void tearDown() {
+        holder.shutdown();
+    }
+
+    @Test
+    void testOlderVersionInSameMillisecondDoesNotOverwrite() {
+        // Dos commits en el mismo milisegundo notificados en orden inverso
+        holder.onProductChanged(updated(1L, "30.00", 7L));
+        holder.onProductChanged(updated(1L, "20.00", 6L));
+
+        assertEquals(new BigDecimal("30.00"), holder.current().get(1L).getPrice());
+        assertEquals(7L, holder.current().rowVersion(1L));
+    }
+
+    @Test
+    void testOlderUpdateDoesNotResurrectDeletedProduct() {
+        holder.onProductChanged(new ProductChangedEvent(ChangeType.DELETED, 1L, product(1L, "1000.00"), 8L));
+        holder.onProductChanged(updated(1L, "20.00", 7L));
+
+        assertNull(holder.current().get(1L));
+    }
+
+    @Test
+    void testChangesAreAppliedOnBackgroundThreadAndVisibleOnReturn() {
+        AtomicReference<String> applyingThread = new AtomicReference<>();
+        ProductChangedEvent event = spy(updated(1L, "30.00", 6L));
+        doAnswer(invocation -> {
+            applyingThread.set(Thread.currentThread().getName());
+            return invocation.callRealMethod();
+        }).when(event).getProduct();
+
+        holder.onProductChanged(event);
+
+        // Quien escribe lee su propio cambio al volver, aunque lo aplicó otro hilo
+        assertEquals(new BigDecimal("30.00"), holder.current().get(1L).getPrice());
+        assertTrue(applyingThread.get().startsWith("snapshot-applier-"));
+    }
+
+    private static ProductChangedEvent updated(long id, String price, long version) {
+        return new ProductChangedEvent(ChangeType.UPDATED, id, product(id, price), version, 1L, true);
+    }
+
+    private static ProductResponseDTO product(long id, String price) {
+        ProductResponseDTO product = new ProductResponseDTO();
+        product.setId(id);
+        product.setName("Laptop");
+        product.setPrice(new BigDecimal(price));
+        product.setStock(5);
+        product.setCategoryId(1L);
+        product.setSku("LAP-001");
+        product.setActive(true);
+        product.setUpdatedAt(SAME_MILLISECOND);
+        return product;
+    }
+}
@@ -0,0 +1,249 @@
+package com.ecommerce.catalog.snapshot;
+
+import com.ecommerce.catalog.dto.ProductFilter;
+import com.ecommerce.catalog.dto.ProductResponseDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para CatalogSnapshot.
+ */
+class CatalogSnapshotTest {
+
+    private CatalogSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        snapshot = CatalogSnapshot.build(1, new StringDictionary(false), List.of(
+                product(1L, "Laptop", "1200.00", 1L, true),
+                product(2L, "Mouse", "25.50", 1L, true),
+                product(3L, "Camiseta", "15.00", 2L, true),
+                product(4L, "Teclado", "80.00", 1L, false),
+                product(5L, "Auriculares", "99.99", 1L, true)));
+    }
+
+    @Test
+    void testOnlyActiveProductsAreListed() {
+        assertEquals(5, snapshot.size());
+        assertEquals(4, snapshot.activeCount());
+        assertFalse(snapshot.get(4L).getActive());
+        assertNull(snapshot.get(99L));
+        assertFalse(ids(snapshot.page(ProductFilter.activeOnly(), SortKey.ID, false, 0, 10)).contains(4L));
+    }
+
+    @Test
+    void testColumnsRoundTripThroughMaterialize() {
+        ProductResponseDTO laptop = snapshot.get(1L);
+
+        assertEquals("Laptop", laptop.getName());
+        assertEquals("Laptop descripción", laptop.getDescription());
+        assertEquals(new BigDecimal("1200.00"), laptop.getPrice());
+        assertEquals(10, laptop.getStock());
+        assertEquals(1L, laptop.getCategoryId());
+        assertEquals("SKU-1", laptop.getSku());
+        assertTrue(laptop.getActive());
+        assertEquals(LocalDateTime.of(2024, 1, 2, 0, 0), laptop.getCreatedAt());
+    }
+
+    @Test
+    void testOffHeapDictionaryDeduplicatesTexts() {
+        StringDictionary dictionary = new StringDictionary(true);
+
+        int first = dictionary.intern("Camiseta algodón");
+        int second = dictionary.intern("Zapatillas");
+
+        assertEquals(first, dictionary.intern("Camiseta algodón"));
+        assertEquals(2, dictionary.size());
+        assertEquals("Camiseta algodón", dictionary.get(first));
+        assertTrue(dictionary.compare(first, second) < 0);
+        assertEquals(-1, dictionary.intern(null));
+        assertNull(dictionary.get(-1));
+    }
+
+    @Test
+    void testPageSortedByNameAndPrice() {
+        CatalogSnapshot.Slice byName = snapshot.page(ProductFilter.activeOnly(), SortKey.NAME, false, 0, 10);
+        assertEquals(List.of(5L, 3L, 1L, 2L), ids(byName));
+        assertEquals(4, byName.total());
+
+        CatalogSnapshot.Slice byPriceDesc = snapshot.page(ProductFilter.activeOnly(), SortKey.PRICE, true, 0, 2);
+        assertEquals(List.of(1L, 5L), ids(byPriceDesc));
+        assertEquals(4, byPriceDesc.total());
+    }
+
+    @Test
+    void testNameSortIgnoresCaseAndAccentsBeforeTieBreaking() {
+        CatalogSnapshot mixed = CatalogSnapshot.build(1, new StringDictionary(false), List.of(
+                product(1L, "zapato", "10.00", 1L, true),
+                product(2L, "Éxito", "10.00", 1L, true),
+                product(3L, "bolso", "10.00", 1L, true),
+                product(4L, "Árbol", "10.00", 1L, true),
+                product(5L, "Balón", "10.00", 1L, true),
+                product(6L, "ábaco", "10.00", 1L, true)));
+
+        // En orden de bytes UTF-8 serían Balón, Árbol, Éxito, bolso, zapato, ábaco
+        CatalogSnapshot.Slice byName = mixed.page(ProductFilter.activeOnly(), SortKey.NAME, false, 0, 10);
+        assertEquals(List.of(6L, 4L, 5L, 3L, 2L, 1L), ids(byName));
+    }
+
+    @Test
+    void testBuilderGrowsFromCapacityOne() {
+        ColumnarProducts.Builder builder = ColumnarProducts.builder(new StringDictionary(false), 1);
+        for (long id = 1; id <= 5; id++) {
+            builder.add(product(id, "Producto " + id, "10.00", 1L, true));
+        }
+
+        ColumnarProducts products = builder.build();
+        assertEquals(5, products.size());
+        assertEquals(5L, products.id(4));
+        assertEquals("Producto 3", products.materialize(2).getName());
+    }
+
+    @Test
+    void testCategoryFilterWithOffset() {
+        CatalogSnapshot.Slice page = snapshot.page(ProductFilter.category(1L), SortKey.PRICE, false, 1, 10);
+
+        assertEquals(List.of(5L, 1L), ids(page));
+        assertEquals(3, page.total());
+        assertEquals(0, snapshot.page(ProductFilter.category(99L), SortKey.ID, false, 0, 10).total());
+        assertTrue(snapshot.page(ProductFilter.category(1L), SortKey.ID, false, 3, 10).content().isEmpty());
+    }
+
+    @Test
+    void testApplyProducesNewVersionAndKeepsOldOneIntact() {
+        Map<Long, ProductResponseDTO> changes = new HashMap<>();
+        changes.put(2L, null);                                        // eliminado
+        changes.put(1L, product(1L, "Laptop", "10.00", 1L, true));    // más barato
+        changes.put(3L, product(3L, "Camiseta", "15.00", 2L, false)); // desactivado
+        changes.put(6L, product(6L, "Bicicleta", "300.00", 3L, true)); // nuevo
+
+        CatalogSnapshot next = snapshot.apply(2, changes);
+
+        assertEquals(2, next.version());
+        assertEquals(List.of(1L, 5L, 6L), ids(next.page(ProductFilter.activeOnly(), SortKey.PRICE, false, 0, 10)));
+        assertEquals(List.of(5L, 6L, 1L), ids(next.page(ProductFilter.activeOnly(), SortKey.NAME, false, 0, 10)));
+        assertEquals(1, next.page(ProductFilter.category(3L), SortKey.ID, false, 0, 10).total());
+        assertEquals(0, next.page(ProductFilter.category(2L), SortKey.ID, false, 0, 10).total());
+        assertNull(next.get(2L));
+        assertFalse(next.get(3L).getActive());
+        assertEquals(new BigDecimal("10.00"), next.get(1L).getPrice());
+
+        // La versión anterior no cambia
+        assertEquals(List.of(5L, 3L, 1L, 2L), ids(snapshot.page(ProductFilter.activeOnly(), SortKey.NAME, false, 0, 10)));
+    }
+
+    @Test
+    void testBitmapFilterCombinations() {
+        Map<Long, ProductResponseDTO> changes = new HashMap<>();
+        ProductResponseDTO agotado = product(2L, "Mouse", "25.50", 1L, true);
+        agotado.setStock(0);
+        changes.put(2L, agotado);
+        CatalogSnapshot next = snapshot.apply(2, changes);
+
+        ProductFilter inStockCategories = new ProductFilter(Set.of(1L, 2L), true);
+        assertEquals(3, next.count(inStockCategories));
+        assertEquals(List.of(3L, 5L, 1L), ids(next.page(inStockCategories, SortKey.PRICE, false, 0, 10)));
+
+        ProductFilter outOfStock = new ProductFilter(Set.of(), false);
+        assertEquals(List.of(2L), ids(next.page(outOfStock, SortKey.ID, false, 0, 10)));
+        assertEquals(0, next.count(new ProductFilter(Set.of(99L), null)));
+    }
+
+    @Test
+    void testAppliedBitmapsMatchFullRebuild() {
+        Random random = new Random(42);
+        List<ProductResponseDTO> many = new ArrayList<>();
+        for (long id = 1; id <= 3000; id++) {
+            many.add(randomProduct(random, id));
+        }
+        CatalogSnapshot current = CatalogSnapshot.build(1, new StringDictionary(false), many);
+        long nextId = 3001;
+
+        // Lotes pequeños (bitmaps desplazados por tramos) y uno grande (recorrido de columnas)
+        for (int changesPerBatch : new int[] { 1, 15, 40, 400 }) {
+            Map<Long, ProductResponseDTO> changes = new HashMap<>();
+            while (changes.size() < changesPerBatch) {
+                // Un tercio de altas; del resto, un tercio de bajas y el resto actualizaciones
+                long id = random.nextInt(3) == 0 ? nextId++ : 1 + random.nextInt((int) nextId - 1);
+                changes.put(id, random.nextInt(3) == 0 ? null : randomProduct(random, id));
+            }
+            current = current.apply(current.version() + 1, changes);
+            CatalogSnapshot rebuilt = CatalogSnapshot.build(current.version(), current.products());
+
+            List<ProductFilter> filters = new ArrayList<>(List.of(ProductFilter.activeOnly(),
+                    new ProductFilter(Set.of(), true), new ProductFilter(Set.of(), false)));
+            for (long categoryId = 1; categoryId <= 20; categoryId++) {
+                filters.add(ProductFilter.category(categoryId));
+            }
+            for (ProductFilter filter : filters) {
+                assertEquals(rebuilt.matching(filter), current.matching(filter), "filtro " + filter);
+            }
+        }
+    }
+
+    private static ProductResponseDTO randomProduct(Random random, long id) {
+        ProductResponseDTO dto = product(id, "Producto " + id, "10.00", 1L + random.nextInt(20), random.nextInt(4) > 0);
+        dto.setStock(random.nextBoolean() ? 0 : 10);
+        return dto;
+    }
+
+    @Test
+    void testSelectiveFilterUsesTopKWithSameResultAsScan() {
+        List<ProductResponseDTO> many = new ArrayList<>();
+        for (long id = 1; id <= 1000; id++) {
+            many.add(product(id, "Producto " + id, String.valueOf(1000 - id % 97), id % 100 == 0 ? 7L : 1L, true));
+        }
+        CatalogSnapshot large = CatalogSnapshot.build(1, new StringDictionary(false), many);
+
+        // 10 coincidencias de 1000: camino top-K; comparamos con ordenar a mano
+        CatalogSnapshot.Slice slice = large.page(ProductFilter.category(7L), SortKey.PRICE, true, 2, 3);
+        List<Long> expected = many.stream()
+                .filter(p -> p.getCategoryId() == 7L)
+                .sorted((a, b) -> {
+                    int cmp = b.getPrice().compareTo(a.getPrice());
+                    return cmp != 0 ? cmp : Long.compare(b.getId(), a.getId());
+                })
+                .map(ProductResponseDTO::getId)
+                .skip(2).limit(3)
+                .toList();
+
+        assertEquals(10, slice.total());
+        assertEquals(expected, ids(slice));
+    }
+
+    @Test
+    void testSortKeyWhitelist() {
+        assertEquals(SortKey.CREATED_AT, SortKey.of("createdAt").orElseThrow());
+        assertTrue(SortKey.of("description").isEmpty());
+    }
+
+    private static List<Long> ids(CatalogSnapshot.Slice slice) {
+        return slice.content().stream().map(ProductResponseDTO::getId).toList();
+    }
+
+    private static ProductResponseDTO product(Long id, String name, String price, Long categoryId, boolean active) {
+        ProductResponseDTO dto = new ProductResponseDTO();
+        dto.setId(id);
+        dto.setName(name);
+        dto.setDescription(name + " descripción");
+        dto.setPrice(new BigDecimal(price));
+        dto.setStock(10);
+        dto.setCategoryId(categoryId);
+        dto.setSku("SKU-" + id);
+        dto.setActive(active);
+        dto.setCreatedAt(LocalDateTime.of(2024, 1, 1, 0, 0).plusDays(id));
+        dto.setUpdatedAt(dto.getCreatedAt());
+        return dto;
+    }
+}
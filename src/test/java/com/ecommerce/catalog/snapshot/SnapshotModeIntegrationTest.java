@@ -0,0 +1,167 @@
+package com.ecommerce.catalog.snapshot;
+
+import com.ecommerce.catalog.dto.ProductRequestDTO;
+import com.ecommerce.catalog.entity.Product;
+import com.ecommerce.catalog.repository.OutboxEventRepository;
+import com.ecommerce.catalog.repository.ProductRepository;
+import com.ecommerce.catalog.support.SqlStatementCounter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Pruebas de integración del modo snapshot: los listados no ejecutan SQL y
+ * reflejan las escrituras en cuanto se confirman.
+ */
+@SpringBootTest(properties = "catalog.snapshot.enabled=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SnapshotModeIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private CatalogSnapshotHolder snapshotHolder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+        productRepository.save(product("Laptop", "1200.00", 1L, "LAP-001", true));
+        productRepository.save(product("Mouse", "25.00", 1L, "MOU-001", true));
+        productRepository.save(product("Camiseta", "15.00", 2L, "CAM-001", true));
+        productRepository.save(product("Descatalogado", "5.00", 1L, "OLD-001", false));
+        snapshotHolder.reload();
+        SqlStatementCounter.reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+        outboxEventRepository.deleteAll();
+    }
+
+    @Test
+    void testListingAndCategoryAreServedWithoutSql() throws Exception {
+        mockMvc.perform(get("/api/v1/products").param("sort", "price,desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements", is(3)))
+                .andExpect(jsonPath("$.content[0].name", is("Laptop")));
+
+        mockMvc.perform(get("/api/v1/products/category/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements", is(2)))
+                .andExpect(jsonPath("$.content[0].name", is("Laptop")))
+                .andExpect(jsonPath("$.content[1].name", is("Mouse")));
+
+        assertTrue(SqlStatementCounter.statementsOn("productos").isEmpty());
+    }
+
+    @Test
+    void testCombinedFiltersAreServedFromBitmaps() throws Exception {
+        mockMvc.perform(get("/api/v1/products")
+                .param("categoryIds", "1", "2")
+                .param("inStock", "true")
+                .param("sort", "price"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements", is(3)))
+                .andExpect(jsonPath("$.content[0].name", is("Camiseta")));
+
+        assertTrue(SqlStatementCounter.statementsOn("productos").isEmpty());
+    }
+
+    @Test
+    void testSparseFieldsAreProjectedFromSnapshot() throws Exception {
+        mockMvc.perform(get("/api/v1/products").param("fields", "name,price").param("sort", "price,desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements", is(3)))
+                .andExpect(jsonPath("$.content[0].name", is("Laptop")))
+                .andExpect(jsonPath("$.content[0].description").doesNotExist());
+
+        assertTrue(SqlStatementCounter.statementsOn("productos").isEmpty());
+    }
+
+    @Test
+    void testWritesAreVisibleImmediately() throws Exception {
+        ProductRequestDTO request = new ProductRequestDTO();
+        request.setName("Monitor");
+        request.setDescription("Monitor 27 pulgadas");
+        request.setPrice(BigDecimal.valueOf(300));
+        request.setStock(5);
+        request.setCategoryId(1L);
+        request.setSku("MON-001");
+
+        mockMvc.perform(post("/api/v1/products")
+                .with(user("admin").password("pass").roles("ADMIN"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/v1/products/category/1").param("sort", "price,desc"))
+                .andExpect(jsonPath("$.totalElements", is(3)))
+                .andExpect(jsonPath("$.content[1].name", is("Monitor")));
+
+        Long laptopId = productRepository.findAll().stream()
+                .filter(p -> p.getSku().equals("LAP-001")).findFirst().orElseThrow().getId();
+        mockMvc.perform(delete("/api/v1/products/" + laptopId)
+                .with(user("admin").password("pass").roles("ADMIN")))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/v1/products/category/1"))
+                .andExpect(jsonPath("$.content", hasSize(2)));
+    }
+
+    @Test
+    void testUnlistedSortIsRejectedWithoutQuerying() throws Exception {
+        mockMvc.perform(get("/api/v1/products").param("sort", "description"))
+                .andExpect(status().isBadRequest());
+
+        assertTrue(SqlStatementCounter.statementsOn("productos").isEmpty());
+    }
+
+    @Test
+    void testStockSortIsServedInMemory() throws Exception {
+        mockMvc.perform(get("/api/v1/products").param("sort", "stock,desc"))
+                .andExpect(status().isOk());
+
+        assertTrue(SqlStatementCounter.statementsOn("productos").isEmpty());
+    }
+
+    private static Product product(String name, String price, Long categoryId, String sku, boolean active) {
+        Product product = new Product();
+        product.setName(name);
+        product.setDescription(name + " descripción");
+        product.setPrice(new BigDecimal(price));
+        product.setStock(10);
+        product.setCategoryId(categoryId);
+        product.setSku(sku);
+        product.setActive(active);
+        return product;
+    }
+}
@@ -0,0 +1,221 @@
+package com.ecommerce.catalog.stream;
+
+import com.ecommerce.catalog.dto.ProductChangeDTO;
+import com.ecommerce.catalog.dto.ProductResponseDTO;
+import com.ecommerce.catalog.event.ProductChangedEvent;
+import com.ecommerce.catalog.event.ProductChangedEvent.ChangeType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para el buffer de ProductStreamSubscriber (agrupación por
+ * producto y resync al desbordar) y para el reparto de ProductChangeBroadcaster
+ * según los filtros de cada suscriptor.
+ */
+class ProductChangeBroadcasterTest {
+
+    private final ProductChangeBroadcaster broadcaster = new ProductChangeBroadcaster(10, 60_000, 1, 3600, 5_000);
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.shutdown();
+    }
+
+    /**
+     * Emitter que guarda los eventos en memoria en lugar de escribir en la respuesta.
+     */
+    private static class RecordingEmitter extends SseEmitter {
+        private final List<String> sent = new ArrayList<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            StringBuilder text = new StringBuilder();
+            builder.build().forEach(part -> text.append(part.getData()));
+            sent.add(text.toString());
+        }
+    }
+
+    private ProductChangeDTO change(long productId, String price) {
+        ProductChangeDTO change = new ProductChangeDTO();
+        change.setType("UPDATED");
+        change.setProductId(productId);
+        change.setPrice(new BigDecimal(price));
+        return change;
+    }
+
+    @Test
+    void testRapidChangesToSameProductAreCoalesced() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        ProductStreamSubscriber subscriber = new ProductStreamSubscriber(emitter, Set.of(), null, 10);
+
+        assertTrue(subscriber.offer(change(1L, "10.00")));
+        // Ya hay un drenado pendiente: los siguientes no piden otro
+        assertFalse(subscriber.offer(change(1L, "11.00")));
+        assertFalse(subscriber.offer(change(1L, "12.00")));
+        assertFalse(subscriber.offer(change(2L, "5.00")));
+
+        assertTrue(subscriber.drain());
+
+        // Un evento por producto; el de producto 1 lleva el último precio
+        assertEquals(2, emitter.sent.stream().filter(s -> s.contains("product-change")).count());
+        assertTrue(emitter.sent.get(0).contains("12.00"));
+        assertFalse(emitter.sent.get(0).contains("10.00"));
+    }
+
+    @Test
+    void testBufferOverflowSendsSingleResync() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        ProductStreamSubscriber subscriber = new ProductStreamSubscriber(emitter, Set.of(), null, 2);
+
+        subscriber.offer(change(1L, "1.00"));
+        subscriber.offer(change(2L, "2.00"));
+        subscriber.offer(change(3L, "3.00")); // desborda
+        subscriber.offer(change(4L, "4.00")); // ignorado hasta el resync
+
+        assertTrue(subscriber.drain());
+
+        assertEquals(1, emitter.sent.size());
+        assertTrue(emitter.sent.get(0).contains("resync"));
+    }
+
+    @Test
+    void testDrainReschedulesAfterEmptyBuffer() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        ProductStreamSubscriber subscriber = new ProductStreamSubscriber(emitter, Set.of(1L), null, 10);
+
+        assertTrue(subscriber.offer(change(1L, "1.00")));
+        subscriber.drain();
+
+        // Tras vaciar el buffer, el siguiente cambio vuelve a programar un envío
+        assertTrue(subscriber.offer(change(1L, "2.00")));
+    }
+
+    @Test
+    void testIdsOnlySubscriberReceivesOnlyThoseProducts() {
+        ProductStreamSubscriber subscriber = register(Set.of(1L, 2L), null);
+
+        broadcaster.onProductChanged(updated(1L, 10L, 10L));
+        broadcaster.onProductChanged(updated(3L, 10L, 10L));
+
+        verify(subscriber, times(1)).offer(any());
+        verify(subscriber).offer(argThat(change -> change.getProductId() == 1L));
+    }
+
+    @Test
+    void testCategoryOnlySubscriberReceivesOnlyThatCategory() {
+        ProductStreamSubscriber subscriber = register(Set.of(), 10L);
+
+        broadcaster.onProductChanged(updated(1L, 10L, 10L));
+        broadcaster.onProductChanged(updated(2L, 20L, 20L));
+
+        verify(subscriber, times(1)).offer(any());
+        verify(subscriber).offer(argThat(change -> change.getProductId() == 1L));
+    }
+
+    @Test
+    void testCombinedFiltersMatchEitherIdOrCategory() {
+        ProductStreamSubscriber combined = register(Set.of(5L), 10L);
+        ProductStreamSubscriber unfiltered = register(Set.of(), null);
+
+        broadcaster.onProductChanged(updated(5L, 20L, 20L));  // por id
+        broadcaster.onProductChanged(updated(6L, 10L, 10L));  // por categoría
+        broadcaster.onProductChanged(updated(7L, 20L, 20L));  // ninguno
+
+        verify(combined, times(2)).offer(any());
+        verify(combined, never()).offer(argThat(change -> change.getProductId() == 7L));
+        verify(unfiltered, times(3)).offer(any());
+    }
+
+    @Test
+    void testCategoryMoveNotifiesPreviousAndNewCategory() {
+        ProductStreamSubscriber previous = register(Set.of(), 10L);
+        ProductStreamSubscriber current = register(Set.of(), 20L);
+        ProductStreamSubscriber other = register(Set.of(), 30L);
+
+        broadcaster.onProductChanged(updated(1L, 20L, 10L));
+
+        // Los de la categoría anterior reciben el cambio con la nueva: el producto salió
+        verify(previous).offer(argThat(change -> change.getCategoryId() == 20L));
+        verify(current).offer(any());
+        verify(other, never()).offer(any());
+    }
+
+    /**
+     * Emitter de un cliente que no lee: cada envío se queda bloqueado.
+     */
+    private static class StalledEmitter extends SseEmitter {
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static class CountingEmitter extends SseEmitter {
+        private final CountDownLatch received = new CountDownLatch(2);
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            received.countDown();
+        }
+    }
+
+    @Test
+    void testStalledClientDoesNotBlockOthersAndIsEvicted() throws Exception {
+        // Un solo hilo de envío: sin reemplazo, el cliente parado lo acapararía
+        ProductChangeBroadcaster slowAware = new ProductChangeBroadcaster(10, 60_000, 1, 3600, 100);
+        StalledEmitter stalledEmitter = new StalledEmitter();
+        CountingEmitter healthyEmitter = new CountingEmitter();
+        try {
+            slowAware.register(new ProductStreamSubscriber(stalledEmitter, Set.of(), null, 10));
+            slowAware.register(new ProductStreamSubscriber(healthyEmitter, Set.of(), null, 10));
+
+            slowAware.onProductChanged(updated(1L, 10L, 10L));
+            slowAware.onProductChanged(updated(2L, 10L, 10L));
+
+            assertTrue(healthyEmitter.received.await(5, TimeUnit.SECONDS),
+                    "el cliente sano debe recibir aunque otro tenga la escritura bloqueada");
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (slowAware.getSubscriberCount() > 1 && System.nanoTime() < deadline) {
+                Thread.sleep(20);
+            }
+            assertEquals(1, slowAware.getSubscriberCount(), "el cliente parado debe ser expulsado");
+        } finally {
+            stalledEmitter.release.countDown();
+            slowAware.shutdown();
+        }
+    }
+
+    private ProductStreamSubscriber register(Set<Long> productIds, Long categoryId) {
+        ProductStreamSubscriber subscriber = spy(new ProductStreamSubscriber(new RecordingEmitter(), productIds,
+                categoryId, 10));
+        broadcaster.register(subscriber);
+        return subscriber;
+    }
+
+    private static ProductChangedEvent updated(long productId, long categoryId, long previousCategoryId) {
+        ProductResponseDTO product = new ProductResponseDTO();
+        product.setId(productId);
+        product.setCategoryId(categoryId);
+        product.setPrice(new BigDecimal("1.00"));
+        product.setActive(true);
+        return new ProductChangedEvent(ChangeType.UPDATED, productId, product, 1L, previousCategoryId, true);
+    }
+}
@@ -0,0 +1,272 @@
+package com.ecommerce.catalog.support;
+
+import com.ecommerce.catalog.entity.Product;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import org.postgresql.copy.CopyManager;
+import org.postgresql.core.BaseConnection;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Carga un SyntheticCatalog en H2 o PostgreSQL por JDBC, sin pasar por JPA:
+ * en PostgreSQL con COPY ... FROM STDIN y en el resto con INSERT por lotes.
+ * Hace commit cada CHUNK filas para no mantener abierta una transacción de
+ * millones de filas.
+ *
+ * Si la carga al menos duplica la tabla, los índices secundarios de
+ * productos (los de @Table en Product) se borran antes y se recrean al
+ * final: construir cada índice una vez sobre todas las filas es mucho más
+ * rápido que mantenerlo fila a fila. La restricción única del SKU se queda.
+ *
+ * Los ids se asignan a continuación del máximo que ya hubiera en cada tabla
+ * (el catálogo de data.sql se conserva) y al terminar se ajustan las
+ * secuencias de identidad para que los INSERT de la aplicación sigan
+ * después. El esquema tiene que existir (lo crea Hibernate).
+ */
+public class CatalogBulkLoader {
+
+    /**
+     * Resultado de una carga: ids asignados y tiempo total.
+     */
+    public record LoadResult(long firstCategoryId, int categories, long firstProductId, long products,
+            Duration elapsed) {
+
+        public double productsPerSecond() {
+            return products / Math.max(elapsed.toNanos() / 1e9, 1e-9);
+        }
+    }
+
+    private static final int CHUNK = 50_000;
+    private static final int BATCH = 1_000;
+
+    private static final String PRODUCT_COLUMNS =
+            "id, name, description, price, stock, category_id, sku, active, created_at, updated_at, version";
+
+    private static final Index[] PRODUCT_INDEXES = Product.class.getAnnotation(Table.class).indexes();
+
+    private final DataSource dataSource;
+
+    public CatalogBulkLoader(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public LoadResult load(SyntheticCatalog catalog) throws SQLException {
+        long start = System.nanoTime();
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                boolean postgres = connection.getMetaData().getDatabaseProductName().equalsIgnoreCase("PostgreSQL");
+                long firstCategoryId = maxId(connection, "categorias") + 1;
+                long firstProductId = maxId(connection, "productos") + 1;
+
+                boolean rebuildIndexes = catalog.productCount() >= countProducts(connection);
+
+                insertCategories(connection, catalog.categories(), firstCategoryId);
+                connection.commit();
+                if (rebuildIndexes) {
+                    dropProductIndexes(connection);
+                }
+                if (postgres) {
+                    copyProducts(connection, catalog, firstCategoryId, firstProductId);
+                } else {
+                    insertProducts(connection, catalog, firstCategoryId, firstProductId);
+                }
+                if (rebuildIndexes) {
+                    createProductIndexes(connection);
+                }
+                resetIdentities(connection, postgres);
+                connection.commit();
+
+                return new LoadResult(firstCategoryId, catalog.categories().size(), firstProductId,
+                        catalog.productCount(), Duration.ofNanos(System.nanoTime() - start));
+            } catch (SQLException | RuntimeException ex) {
+                connection.rollback();
+                throw ex;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    private static long maxId(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static long countProducts(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM productos")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static void dropProductIndexes(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (Index index : PRODUCT_INDEXES) {
+                statement.execute("DROP INDEX IF EXISTS " + index.name());
+            }
+        }
+        connection.commit();
+    }
+
+    private static void createProductIndexes(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (Index index : PRODUCT_INDEXES) {
+                statement.execute("CREATE INDEX " + index.name() + " ON productos (" + index.columnList() + ")");
+            }
+        }
+        connection.commit();
+    }
+
+    private static void insertCategories(Connection connection, List<SyntheticCatalog.GeneratedCategory> categories,
+            long firstId) throws SQLException {
+        try (PreparedStatement category = connection.prepareStatement(
+                "INSERT INTO categorias (id, name, parent_id) VALUES (?, ?, ?)");
+             PreparedStatement closure = connection.prepareStatement(
+                     "INSERT INTO categorias_cierre (ancestor_id, descendant_id, depth) VALUES (?, ?, ?)")) {
+            for (SyntheticCatalog.GeneratedCategory generated : categories) {
+                long id = firstId + generated.index();
+                category.setLong(1, id);
+                category.setString(2, generated.name());
+                if (generated.parent() < 0) {
+                    category.setNull(3, Types.BIGINT);
+                } else {
+                    category.setLong(3, firstId + generated.parent());
+                }
+                category.addBatch();
+
+                // Jerarquía de dos niveles: la fila propia y, en las subcategorías, la de su raíz
+                addClosure(closure, id, id, 0);
+                if (generated.parent() >= 0) {
+                    addClosure(closure, firstId + generated.parent(), id, 1);
+                }
+            }
+            category.executeBatch();
+            closure.executeBatch();
+        }
+    }
+
+    private static void addClosure(PreparedStatement closure, long ancestor, long descendant, int depth)
+            throws SQLException {
+        closure.setLong(1, ancestor);
+        closure.setLong(2, descendant);
+        closure.setInt(3, depth);
+        closure.addBatch();
+    }
+
+    private static void insertProducts(Connection connection, SyntheticCatalog catalog, long firstCategoryId,
+            long firstProductId) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO productos (" + PRODUCT_COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (long i = 0; i < catalog.productCount(); i++) {
+                Product product = catalog.product(i);
+                insert.setLong(1, firstProductId + i);
+                insert.setString(2, product.getName());
+                insert.setString(3, product.getDescription());
+                insert.setBigDecimal(4, product.getPrice());
+                insert.setInt(5, product.getStock());
+                if (product.getCategoryId() == null) {
+                    insert.setNull(6, Types.BIGINT);
+                } else {
+                    insert.setLong(6, firstCategoryId + product.getCategoryId());
+                }
+                insert.setString(7, product.getSku());
+                insert.setBoolean(8, product.getActive());
+                insert.setTimestamp(9, Timestamp.valueOf(product.getCreatedAt()));
+                insert.setTimestamp(10, Timestamp.valueOf(product.getUpdatedAt()));
+                insert.setLong(11, product.getVersion());
+                insert.addBatch();
+
+                if ((i + 1) % BATCH == 0) {
+                    insert.executeBatch();
+                }
+                if ((i + 1) % CHUNK == 0) {
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private static void copyProducts(Connection connection, SyntheticCatalog catalog, long firstCategoryId,
+            long firstProductId) throws SQLException {
+        CopyManager copy = new CopyManager(connection.unwrap(BaseConnection.class));
+        String sql = "COPY productos (" + PRODUCT_COLUMNS + ") FROM STDIN WITH (FORMAT csv)";
+        StringBuilder rows = new StringBuilder(CHUNK * 320);
+        for (long i = 0; i < catalog.productCount(); i++) {
+            Product product = catalog.product(i);
+            rows.append(firstProductId + i).append(',');
+            csv(rows, product.getName()).append(',');
+            csv(rows, product.getDescription()).append(',');
+            rows.append(product.getPrice().toPlainString()).append(',')
+                    .append(product.getStock()).append(',');
+            if (product.getCategoryId() != null) {
+                rows.append(firstCategoryId + product.getCategoryId());
+            }
+            rows.append(',');
+            csv(rows, product.getSku()).append(',')
+                    .append(product.getActive()).append(',')
+                    .append(product.getCreatedAt()).append(',')
+                    .append(product.getUpdatedAt()).append(',')
+                    .append(product.getVersion()).append('\n');
+
+            if ((i + 1) % CHUNK == 0 || i + 1 == catalog.productCount()) {
+                try {
+                    copy.copyIn(sql, new StringReader(rows.toString()));
+                } catch (IOException ex) {
+                    throw new SQLException("COPY into productos failed", ex);
+                }
+                connection.commit();
+                rows.setLength(0);
+            }
+        }
+    }
+
+    private static StringBuilder csv(StringBuilder out, String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.append('"');
+            }
+            out.append(c);
+        }
+        return out.append('"');
+    }
+
+    private static void resetIdentities(Connection connection, boolean postgres) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String table : List.of("categorias", "productos")) {
+                long next = maxId(connection, table) + 1;
+                if (postgres) {
+                    statement.execute("SELECT setval(pg_get_serial_sequence('" + table + "', 'id'), " + (next - 1) + ")");
+                } else {
+                    statement.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + next);
+                }
+            }
+            if (postgres) {
+                // Estadísticas al día para que el planificador no trate la tabla como vacía
+                statement.execute("ANALYZE categorias");
+                statement.execute("ANALYZE categorias_cierre");
+                statement.execute("ANALYZE productos");
+            }
+        }
+    }
+}
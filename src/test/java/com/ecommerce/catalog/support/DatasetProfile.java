@@ -0,0 +1,47 @@
+package com.ecommerce.catalog.support;
+
+/**
+ * Tamaños de catálogo sintético para benchmarks y pruebas de escala.
+ * Las subcategorías crecen con el catálogo para que el reparto por categoría
+ * siga pareciéndose al real (pocas categorías enormes y una cola larga).
+ */
+public enum DatasetProfile {
+
+    SMALL("10k", 10_000, 6),
+    MEDIUM("1m", 1_000_000, 25),
+    LARGE("10m", 10_000_000, 60);
+
+    private final String label;
+    private final long products;
+    private final int subcategoriesPerRoot;
+
+    DatasetProfile(String label, long products, int subcategoriesPerRoot) {
+        this.label = label;
+        this.products = products;
+        this.subcategoriesPerRoot = subcategoriesPerRoot;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    public long products() {
+        return products;
+    }
+
+    public int subcategoriesPerRoot() {
+        return subcategoriesPerRoot;
+    }
+
+    /**
+     * Acepta la etiqueta (10k, 1m, 10m) o el nombre del enum.
+     */
+    public static DatasetProfile of(String name) {
+        for (DatasetProfile profile : values()) {
+            if (profile.label.equalsIgnoreCase(name) || profile.name().equalsIgnoreCase(name)) {
+                return profile;
+            }
+        }
+        throw new IllegalArgumentException("Unknown dataset profile '" + name + "' (expected 10k, 1m or 10m)");
+    }
+}
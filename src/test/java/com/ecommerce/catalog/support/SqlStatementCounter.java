@@ -0,0 +1,47 @@
+package com.ecommerce.catalog.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * StatementInspector de Hibernate que registra cada SQL ejecutado.
+ * Se activa en application-test.properties para fijar cuántas sentencias
+ * lanza cada endpoint.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final List<String> STATEMENTS = new ArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        synchronized (STATEMENTS) {
+            STATEMENTS.add(sql);
+        }
+        return sql;
+    }
+
+    public static void reset() {
+        synchronized (STATEMENTS) {
+            STATEMENTS.clear();
+        }
+    }
+
+    public static List<String> statements() {
+        synchronized (STATEMENTS) {
+            return new ArrayList<>(STATEMENTS);
+        }
+    }
+
+    /**
+     * Sentencias que mencionan la tabla indicada.
+     */
+    public static List<String> statementsOn(String table) {
+        String needle = table.toLowerCase(Locale.ROOT);
+        return statements().stream()
+                .filter(sql -> sql.toLowerCase(Locale.ROOT).contains(needle))
+                .toList();
+    }
+}
@@ -0,0 +1,316 @@
+package com.ecommerce.catalog.support;
+
+import com.ecommerce.catalog.entity.Product;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/**
+ * Catálogo sintético determinista: con la misma semilla y el mismo perfil
+ * genera siempre las mismas categorías y los mismos productos.
+ *
+ * Cada producto depende solo de (semilla, índice), así que se puede pedir el
+ * producto i sin generar los anteriores y el catálogo entero nunca está en
+ * memoria. Para que se parezca al de producción:
+ * - las categorías siguen una Zipf (unas pocas subcategorías concentran
+ *   buena parte de los productos y el resto forman una cola larga);
+ * - los nombres combinan tokens en castellano (con tildes y eñes) elegidos
+ *   también con una Zipf, así que los términos de búsqueda más comunes se
+ *   repiten mucho y los raros casi nada;
+ * - los precios son log-normales con una mediana distinta por categoría raíz
+ *   y terminados en ,99 a partir de 10 €;
+ * - hay productos agotados, inactivos y sin categoría en proporciones fijas.
+ *
+ * Los ids de categoría son posiciones (0..n-1); CatalogBulkLoader los
+ * desplaza al cargarlos en la base de datos.
+ */
+public final class SyntheticCatalog {
+
+    public static final long DEFAULT_SEED = 20_240_101L;
+
+    private static final double CATEGORY_SKEW = 1.1;
+    private static final double TOKEN_SKEW = 1.0;
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2023, 1, 1, 0, 0);
+    private static final long HISTORY_MINUTES = 3L * 365 * 24 * 60;
+    private static final BigDecimal MAX_PRICE = new BigDecimal("99999999.99");
+
+    /**
+     * Categoría generada. parent es la posición del padre (-1 en las raíces)
+     * y root la de su categoría raíz.
+     */
+    public record GeneratedCategory(int index, String name, int parent, int root) {
+    }
+
+    private record RootCategory(String name, String skuPrefix, double medianPrice, double priceSigma,
+            String[] subcategories, String[] nouns, String[] brands) {
+    }
+
+    private static final RootCategory[] ROOTS = {
+            new RootCategory("Electrónica", "ELE", 180, 1.1,
+                    new String[]{"Portátiles", "Móviles", "Audio", "Televisores", "Fotografía", "Accesorios",
+                            "Consolas", "Domótica"},
+                    new String[]{"Auriculares", "Cargador", "Portátil", "Smartphone", "Altavoz", "Cámara",
+                            "Televisor", "Ratón", "Teclado", "Monitor", "Tableta", "Cable USB-C", "Batería externa",
+                            "Reloj inteligente", "Router", "Micrófono", "Proyector", "Disco SSD"},
+                    new String[]{"Sonora", "Voltia", "Núcleo", "Pixelar", "Andén", "Técnica Ibérica", "Kóndor",
+                            "Relámpago"}),
+            new RootCategory("Ropa y Moda", "ROP", 30, 0.7,
+                    new String[]{"Camisetas", "Pantalones", "Calzado", "Abrigos", "Accesorios de moda",
+                            "Ropa interior", "Trajes"},
+                    new String[]{"Camiseta", "Pantalón vaquero", "Sudadera", "Chaqueta", "Zapatillas", "Vestido",
+                            "Bufanda", "Camisa", "Abrigo", "Calcetines", "Gorra", "Cinturón", "Jersey", "Falda"},
+                    new String[]{"Alameda", "Costura Norte", "Piñón", "Lúa", "Tejidos Ébano", "Marea"}),
+            new RootCategory("Hogar y Cocina", "HOG", 45, 0.9,
+                    new String[]{"Menaje", "Pequeño electrodoméstico", "Textil hogar", "Decoración", "Iluminación",
+                            "Limpieza", "Almacenaje"},
+                    new String[]{"Sartén", "Cafetera", "Juego de sábanas", "Lámpara", "Olla a presión",
+                            "Cuchillo de chef", "Tostadora", "Cojín", "Batidora", "Toalla", "Fregona", "Tetera",
+                            "Freidora de aire", "Vajilla"},
+                    new String[]{"Hogareña", "Cocinova", "Almendro", "Cerámica Triana", "Menaje Ñandú", "Lumbre"}),
+            new RootCategory("Deportes y Aire Libre", "DEP", 40, 1.0,
+                    new String[]{"Ciclismo", "Running", "Montaña", "Fitness", "Natación", "Deportes de equipo",
+                            "Camping"},
+                    new String[]{"Bicicleta", "Esterilla de yoga", "Mochila", "Tienda de campaña", "Balón",
+                            "Mancuernas", "Casco", "Gafas de natación", "Saco de dormir", "Raqueta", "Botas de montaña",
+                            "Cantimplora"},
+                    new String[]{"Cumbre", "Atlántida", "Pedalea", "Sierra Nevada", "Ímpetu", "Brújula"}),
+            new RootCategory("Libros y Multimedia", "LIB", 15, 0.5,
+                    new String[]{"Novela", "Ensayo", "Infantil", "Cómics", "Música", "Cine", "Idiomas"},
+                    new String[]{"Novela", "Cómic", "Guía práctica", "Diccionario", "Libro de cocina", "Álbum",
+                            "Antología de poesía", "Manual", "Atlas", "Biografía", "Cuaderno de ejercicios"},
+                    new String[]{"Ediciones Quijote", "Pluma", "Sílaba", "Papel y Tinta", "Océano Azul"}),
+            new RootCategory("Juguetes y Bebés", "JUG", 25, 0.8,
+                    new String[]{"Juegos de mesa", "Construcción", "Muñecas", "Bebé", "Puzles", "Juguetes educativos"},
+                    new String[]{"Puzle", "Muñeca", "Juego de mesa", "Peluche", "Bloques de construcción",
+                            "Cochecito", "Sonajero", "Patinete", "Pelota", "Tren de madera", "Cuna de viaje"},
+                    new String[]{"Pequeñín", "Ludo", "Jugarín", "Osito Pardo", "Cigüeña"}),
+            new RootCategory("Belleza y Cuidado Personal", "BEL", 18, 0.7,
+                    new String[]{"Cuidado facial", "Cabello", "Perfumes", "Maquillaje", "Afeitado", "Higiene"},
+                    new String[]{"Crema hidratante", "Champú", "Perfume", "Sérum", "Pintalabios", "Maquinilla",
+                            "Desodorante", "Mascarilla", "Protector solar", "Secador", "Cepillo"},
+                    new String[]{"Aloé", "Rocío", "Pétalo", "Brisa Marina", "Jazmín"}),
+            new RootCategory("Alimentos y Bebidas", "ALI", 8, 0.6,
+                    new String[]{"Despensa", "Bebidas", "Dulces", "Gourmet", "Ecológicos", "Café e infusiones"},
+                    new String[]{"Aceite de oliva", "Café molido", "Turrón", "Jamón ibérico", "Miel", "Chocolate",
+                            "Té verde", "Vino tinto", "Queso manchego", "Azafrán", "Galletas", "Mermelada"},
+                    new String[]{"Olivar del Sur", "La Dehesa", "Granja Peñalara", "Sabor Añejo", "Huerta Viva"})
+    };
+
+    private static final String[] COMPLEMENTS = {
+            "Clásico", "Edición Limitada", "de Acero Inoxidable", "Ecológico", "Compacto", "de Algodón Orgánico",
+            "Profesional", "Premium", "con Diseño Ergonómico", "Térmico", "de Bambú", "Básico", "de Cerámica",
+            "Ultraligero", "para Niños", "de Larga Duración", "Recargable", "Plegable", "Impermeable",
+            "Edición Aniversario", "Artesanal", "de Colección", "Híbrido", "Inalámbrico"
+    };
+
+    private static final String[] USES = {
+            "el día a día", "uso profesional", "viajes y excursiones", "regalar en Navidad", "toda la familia",
+            "espacios pequeños", "principiantes y expertos", "el verano", "disfrutar en casa", "el gimnasio",
+            "la oficina", "niños y niñas a partir de 3 años"
+    };
+
+    private static final String[] CLAIMS = {
+            "Fabricado con materiales de primera calidad.", "Envío gratuito en pedidos superiores a 50 €.",
+            "Diseño pensado para durar años.", "Fácil de limpiar y de guardar.",
+            "Incluye instrucciones en español.", "Producto sostenible con embalaje reciclado.",
+            "Valoración media de 4,5 estrellas.", "Compatible con la mayoría de accesorios del mercado.",
+            "Acabado a mano por artesanos locales.", "Disponible en varios colores y tallas."
+    };
+
+    private final long seed;
+    private final long productCount;
+    private final List<GeneratedCategory> categories;
+    // Subcategorías en orden aleatorio (fijo por semilla): la posición k es la k-ésima más grande
+    private final int[] leavesBySize;
+    private final ZipfSampler categorySampler;
+    private final ZipfSampler complementSampler = new ZipfSampler(COMPLEMENTS.length, TOKEN_SKEW);
+    private final ZipfSampler useSampler = new ZipfSampler(USES.length, TOKEN_SKEW);
+    private final ZipfSampler claimSampler = new ZipfSampler(CLAIMS.length, TOKEN_SKEW);
+    private final ZipfSampler[] nounSamplers = new ZipfSampler[ROOTS.length];
+    private final ZipfSampler[] brandSamplers = new ZipfSampler[ROOTS.length];
+
+    public SyntheticCatalog(DatasetProfile profile) {
+        this(profile, DEFAULT_SEED);
+    }
+
+    public SyntheticCatalog(DatasetProfile profile, long seed) {
+        this(profile.products(), profile.subcategoriesPerRoot(), seed);
+    }
+
+    public SyntheticCatalog(long productCount, int subcategoriesPerRoot, long seed) {
+        if (productCount < 0 || subcategoriesPerRoot < 1) {
+            throw new IllegalArgumentException("productCount must be >= 0 and subcategoriesPerRoot >= 1");
+        }
+        this.seed = seed;
+        this.productCount = productCount;
+
+        List<GeneratedCategory> all = new ArrayList<>();
+        List<Integer> leaves = new ArrayList<>();
+        for (int r = 0; r < ROOTS.length; r++) {
+            all.add(new GeneratedCategory(r, ROOTS[r].name(), -1, r));
+        }
+        for (int r = 0; r < ROOTS.length; r++) {
+            String[] names = ROOTS[r].subcategories();
+            for (int s = 0; s < subcategoriesPerRoot; s++) {
+                // Si hay más subcategorías que nombres se numeran: "Audio", ..., "Audio II"
+                String name = names[s % names.length] + (s < names.length ? "" : " " + roman(s / names.length + 1));
+                int index = all.size();
+                all.add(new GeneratedCategory(index, name, r, r));
+                leaves.add(index);
+            }
+        }
+        Collections.shuffle(leaves, new Random(seed));
+        this.categories = List.copyOf(all);
+        this.leavesBySize = leaves.stream().mapToInt(Integer::intValue).toArray();
+        this.categorySampler = new ZipfSampler(leavesBySize.length, CATEGORY_SKEW);
+        for (int r = 0; r < ROOTS.length; r++) {
+            nounSamplers[r] = new ZipfSampler(ROOTS[r].nouns().length, TOKEN_SKEW);
+            brandSamplers[r] = new ZipfSampler(ROOTS[r].brands().length, TOKEN_SKEW);
+        }
+    }
+
+    public long productCount() {
+        return productCount;
+    }
+
+    public List<GeneratedCategory> categories() {
+        return categories;
+    }
+
+    /**
+     * Producto número index (0..productCount-1), sin id. categoryId es la
+     * posición de su categoría en categories() o null si no tiene.
+     */
+    public Product product(long index) {
+        SplittableRandom random = new SplittableRandom(seed * 0x9E3779B97F4A7C15L + index);
+
+        // 1 % sin categoría, 3 % directamente en la raíz, el resto en una subcategoría (Zipf)
+        double placement = random.nextDouble();
+        Integer category;
+        int root;
+        if (placement < 0.01) {
+            category = null;
+            root = random.nextInt(ROOTS.length);
+        } else if (placement < 0.04) {
+            category = random.nextInt(ROOTS.length);
+            root = category;
+        } else {
+            category = leavesBySize[categorySampler.sample(random)];
+            root = categories.get(category).root();
+        }
+        RootCategory rootCategory = ROOTS[root];
+
+        String noun = rootCategory.nouns()[nounSamplers[root].sample(random)];
+        String brand = rootCategory.brands()[brandSamplers[root].sample(random)];
+        String complement = COMPLEMENTS[complementSampler.sample(random)];
+        int model = 100 + random.nextInt(900);
+
+        Product product = new Product();
+        product.setName(noun + " " + brand + " " + complement + " " + model);
+        product.setDescription(description(random, noun, brand, complement));
+        product.setPrice(price(random, rootCategory));
+        product.setStock(stock(random));
+        product.setCategoryId(category == null ? null : category.longValue());
+        product.setSku(sku(rootCategory.skuPrefix(), index));
+        product.setActive(random.nextDouble() >= 0.04);
+        // Más altas recientes que antiguas: la raíz cuadrada concentra las fechas al final
+        LocalDateTime createdAt = EPOCH.plusMinutes((long) (Math.sqrt(random.nextDouble()) * HISTORY_MINUTES));
+        product.setCreatedAt(createdAt);
+        product.setUpdatedAt(random.nextDouble() < 0.3
+                ? createdAt.plusMinutes(random.nextLong(60L * 24 * 90))
+                : createdAt);
+        product.setVersion(0L);
+        return product;
+    }
+
+    private String description(SplittableRandom random, String noun, String brand, String complement) {
+        StringBuilder description = new StringBuilder(256)
+                .append(noun).append(' ').append(complement.toLowerCase())
+                .append(" de ").append(brand)
+                .append(". Ideal para ").append(USES[useSampler.sample(random)]).append('.');
+        int claims = random.nextInt(4);
+        for (int i = 0; i < claims; i++) {
+            description.append(' ').append(CLAIMS[claimSampler.sample(random)]);
+        }
+        int years = 1 + random.nextInt(3);
+        description.append(" Garantía de ").append(years).append(years == 1 ? " año" : " años")
+                .append(random.nextBoolean() ? "." : " con devolución gratuita.");
+        return description.toString();
+    }
+
+    private static BigDecimal price(SplittableRandom random, RootCategory root) {
+        double value = root.medianPrice() * Math.exp(root.priceSigma() * random.nextGaussian());
+        BigDecimal price;
+        if (value >= 10) {
+            // Precio psicológico: 24,99 y no 25,00
+            price = BigDecimal.valueOf((long) Math.ceil(value)).subtract(new BigDecimal("0.01"));
+        } else {
+            price = BigDecimal.valueOf(Math.max(value, 0.5)).setScale(2, RoundingMode.HALF_UP);
+        }
+        return price.min(MAX_PRICE);
+    }
+
+    private static int stock(SplittableRandom random) {
+        if (random.nextDouble() < 0.08) {
+            return 0;
+        }
+        // Exponencial: la mayoría con pocas unidades, algunos con cientos
+        return 1 + (int) (-Math.log(1 - random.nextDouble()) * 40);
+    }
+
+    private static String sku(String prefix, long index) {
+        String number = Long.toString(index);
+        StringBuilder sku = new StringBuilder(prefix.length() + 10).append(prefix).append('-');
+        for (int i = number.length(); i < 8; i++) {
+            sku.append('0');
+        }
+        return sku.append(number).toString();
+    }
+
+    private static String roman(int number) {
+        String[] numerals = {"", "I", "II", "III", "IV", "V", "VI", "VII", "VIII", "IX", "X"};
+        return number < numerals.length ? numerals[number] : Integer.toString(number);
+    }
+
+    /**
+     * Muestreo Zipf sobre 0..n-1 (P(k) proporcional a 1 / (k+1)^s) por
+     * búsqueda binaria en la distribución acumulada.
+     */
+    static final class ZipfSampler {
+
+        private final double[] cumulative;
+
+        ZipfSampler(int n, double skew) {
+            cumulative = new double[n];
+            double sum = 0;
+            for (int k = 0; k < n; k++) {
+                sum += 1 / Math.pow(k + 1, skew);
+                cumulative[k] = sum;
+            }
+            for (int k = 0; k < n; k++) {
+                cumulative[k] /= sum;
+            }
+        }
+
+        int sample(SplittableRandom random) {
+            double u = random.nextDouble();
+            int low = 0;
+            int high = cumulative.length - 1;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (cumulative[mid] < u) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
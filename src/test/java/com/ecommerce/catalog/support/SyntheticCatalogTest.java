@@ -0,0 +1,145 @@
+package com.ecommerce.catalog.support;
+
+import com.ecommerce.catalog.entity.Product;
+import com.ecommerce.catalog.repository.CategoryClosureRepository;
+import com.ecommerce.catalog.repository.CategoryRepository;
+import com.ecommerce.catalog.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del generador de catálogo sintético y de su carga por JDBC en H2.
+ * La carga hace sus propios commits, así que la prueba va sin la transacción
+ * de @DataJpaTest y limpia las tablas al terminar.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SyntheticCatalogTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private CategoryClosureRepository categoryClosureRepository;
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAllInBatch();
+        categoryClosureRepository.deleteAllInBatch();
+        categoryRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testSameSeedGeneratesSameCatalog() {
+        SyntheticCatalog first = new SyntheticCatalog(DatasetProfile.SMALL, 42);
+        SyntheticCatalog second = new SyntheticCatalog(DatasetProfile.SMALL, 42);
+        SyntheticCatalog other = new SyntheticCatalog(DatasetProfile.SMALL, 43);
+
+        assertEquals(first.categories(), second.categories());
+        for (long i = 0; i < 1_000; i++) {
+            assertEquals(first.product(i), second.product(i));
+        }
+        // El producto i no depende de haber generado los anteriores
+        assertEquals(first.product(9_999), new SyntheticCatalog(DatasetProfile.SMALL, 42).product(9_999));
+        assertNotEquals(first.product(0).getName() + first.product(1).getName(),
+                other.product(0).getName() + other.product(1).getName());
+    }
+
+    @Test
+    void testProductsLookLikeTheRealCatalog() {
+        SyntheticCatalog catalog = new SyntheticCatalog(DatasetProfile.SMALL);
+        Set<String> skus = new HashSet<>();
+        Map<Long, Integer> perCategory = new HashMap<>();
+        int accented = 0;
+        int outOfStock = 0;
+        for (long i = 0; i < catalog.productCount(); i++) {
+            Product product = catalog.product(i);
+            assertTrue(skus.add(product.getSku()), "SKU repetido: " + product.getSku());
+            assertTrue(product.getSku().length() <= 50);
+            assertTrue(product.getDescription().length() <= 1000);
+            assertEquals(2, product.getPrice().scale());
+            assertTrue(product.getPrice().compareTo(BigDecimal.ZERO) > 0);
+            assertFalse(product.getUpdatedAt().isBefore(product.getCreatedAt()));
+            if (product.getCategoryId() != null) {
+                perCategory.merge(product.getCategoryId(), 1, Integer::sum);
+            }
+            if ((product.getName() + product.getDescription()).matches(".*[áéíóúñÁÉÍÓÚÑü].*")) {
+                accented++;
+            }
+            if (product.getStock() == 0) {
+                outOfStock++;
+            }
+        }
+
+        // Reparto sesgado: la categoría más grande tiene muchas veces más productos que la mediana
+        int[] sizes = perCategory.values().stream().mapToInt(Integer::intValue).sorted().toArray();
+        assertTrue(sizes[sizes.length - 1] > 10 * sizes[sizes.length / 2]);
+        assertTrue(accented > catalog.productCount() / 2);
+        assertTrue(outOfStock > 0 && outOfStock < catalog.productCount() / 5);
+    }
+
+    @Test
+    void testLoadsIntoDatabase() throws Exception {
+        SyntheticCatalog catalog = new SyntheticCatalog(DatasetProfile.SMALL);
+
+        CatalogBulkLoader.LoadResult result = new CatalogBulkLoader(dataSource).load(catalog);
+
+        assertEquals(10_000, productRepository.count());
+        assertEquals(catalog.categories().size(), categoryRepository.count());
+        // Fila propia de cada categoría + una por subcategoría hacia su raíz
+        long subcategories = catalog.categories().stream().filter(c -> c.parent() >= 0).count();
+        assertEquals(catalog.categories().size() + subcategories, categoryClosureRepository.count());
+
+        Product loaded = productRepository.findBySku(catalog.product(123).getSku()).orElseThrow();
+        assertEquals(result.firstProductId() + 123, loaded.getId());
+        assertEquals(catalog.product(123).getName(), loaded.getName());
+
+        // La identidad sigue después de lo cargado: la aplicación puede seguir insertando
+        Product created = new Product();
+        created.setName("Producto nuevo");
+        created.setDescription("Después de la carga");
+        created.setPrice(new BigDecimal("9.99"));
+        created.setStock(1);
+        created.setSku("NEW-001");
+        created.setActive(true);
+        assertTrue(productRepository.save(created).getId() > result.firstProductId() + 9_999);
+
+        assertFalse(productRepository.findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCase(
+                "auriculares", "auriculares", PageRequest.of(0, 5)).isEmpty());
+
+        // Carga sobre una tabla vacía: los índices secundarios se han recreado
+        try (Connection connection = dataSource.getConnection();
+             ResultSet indexes = connection.getMetaData().getIndexInfo(null, null, "PRODUCTOS", false, false)) {
+            Set<String> names = new HashSet<>();
+            while (indexes.next()) {
+                names.add(indexes.getString("INDEX_NAME").toLowerCase());
+            }
+            assertTrue(names.containsAll(Set.of("idx_product_name", "idx_product_active_category",
+                    "idx_product_created_at")));
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.ecommerce.catalog.timing;
+
+import com.ecommerce.catalog.entity.Product;
+import com.ecommerce.catalog.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Pruebas de integración de la cabecera Server-Timing y sus métricas.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ServerTimingIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 3; i++) {
+            Product product = new Product();
+            product.setName("Producto " + i);
+            product.setDescription("Descripción " + i);
+            product.setPrice(new BigDecimal("10.00"));
+            product.setStock(5);
+            product.setSku("TIM-00" + i);
+            product.setActive(true);
+            productRepository.save(product);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void testListingReportsEveryPhase() throws Exception {
+        // Página completa: consulta de la página + COUNT
+        mockMvc.perform(get("/api/v1/products").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(header().string(ServerTimingFilter.HEADER, matchesPattern(
+                        "filters;dur=\\d+\\.\\d{3}, db;dur=\\d+\\.\\d{3};desc=\"calls=1 statements=2\", "
+                                + "map;dur=\\d+\\.\\d{3}, app;dur=\\d+\\.\\d{3}")));
+
+        Timer db = meterRegistry.find("catalog.request.phase")
+                .tags("phase", "db", "method", "GET", "uri", "/api/v1/products")
+                .timer();
+        assertNotNull(db);
+        assertTrue(db.count() >= 1);
+        // La serialización se mide mientras se escribe el cuerpo: solo va al histograma
+        Timer serialization = meterRegistry.find("catalog.request.phase")
+                .tags("phase", "ser", "method", "GET", "uri", "/api/v1/products")
+                .timer();
+        assertNotNull(serialization);
+        assertTrue(serialization.count() >= 1);
+    }
+
+    @Test
+    void testNotFoundIsTimedToo() throws Exception {
+        mockMvc.perform(get("/api/v1/products/sku/NO-EXISTE"))
+                .andExpect(status().isNotFound())
+                .andExpect(header().string(ServerTimingFilter.HEADER, containsString("app;dur=")));
+    }
+
+    @Test
+    void testResponseWithoutBodyGetsHeaderFromFilter() throws Exception {
+        Long id = productRepository.findAll().get(0).getId();
+
+        mockMvc.perform(delete("/api/v1/products/" + id)
+                        .with(user("admin").password("pass").roles("ADMIN")))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string(ServerTimingFilter.HEADER, containsString("app;dur=")));
+    }
+}